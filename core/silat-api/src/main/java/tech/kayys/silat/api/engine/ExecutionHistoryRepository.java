@@ -16,4 +16,9 @@ public interface ExecutionHistoryRepository {
     Uni<ExecutionHistory> load(WorkflowRunId runId);
 
     Uni<Boolean> isNodeResultProcessed(WorkflowRunId runId, NodeId nodeId, int attempt);
+
+    /**
+     * Drop what is held for a run that was moved to the archive
+     */
+    Uni<Void> evict(WorkflowRunId runId);
 }
\ No newline at end of file
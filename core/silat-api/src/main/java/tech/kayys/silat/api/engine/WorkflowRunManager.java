@@ -24,6 +24,15 @@ public interface WorkflowRunManager {
 
         Uni<WorkflowRun> createRun(CreateRunRequest request, TenantId tenantId);
 
+        /**
+         * Create (and auto-start) many runs in one pass: definitions are
+         * looked up once per batch, runs are inserted together and started
+         * without a per-run locked transaction. Returns one result per
+         * request, in request order; invalid requests are rejected
+         * individually without failing the batch.
+         */
+        Uni<List<CreateRunResult>> createRuns(List<CreateRunRequest> requests, TenantId tenantId);
+
         Uni<WorkflowRun> startRun(WorkflowRunId runId, TenantId tenantId);
 
         Uni<WorkflowRun> suspendRun(
@@ -52,6 +61,15 @@ public interface WorkflowRunManager {
                         TenantId tenantId,
                         ErrorInfo error);
 
+        /**
+         * Fail the run if it is still suspended on the node whose wait has
+         * expired; a run that moved on in the meantime is left alone
+         */
+        Uni<Void> expireWait(
+                        WorkflowRunId runId,
+                        TenantId tenantId,
+                        NodeId nodeId);
+
         // ==================== NODE EXECUTION FEEDBACK ====================
 
         /**
@@ -61,6 +79,14 @@ public interface WorkflowRunManager {
                         WorkflowRunId runId,
                         NodeExecutionResult result);
 
+        /**
+         * Start the child runs of a SUB_WORKFLOW node that is ready to run;
+         * the node completes with their outputs once they have all completed
+         */
+        Uni<Void> startSubWorkflow(
+                        WorkflowRunId runId,
+                        NodeId nodeId);
+
         /**
          * Runtime signal (pause, resume, retry, custom)
          */
@@ -68,12 +94,30 @@ public interface WorkflowRunManager {
                         WorkflowRunId runId,
                         Signal signal);
 
+        /**
+         * Deliver the signal to every run of the tenant waiting on its name
+         * and return how many runs received it
+         */
+        Uni<Integer> broadcastSignal(
+                        TenantId tenantId,
+                        Signal signal);
+
         // ==================== QUERY OPERATIONS ====================
 
         Uni<WorkflowRun> getRun(
                         WorkflowRunId runId,
                         TenantId tenantId);
 
+        /**
+         * Wait until the run reaches a terminal status or the timeout
+         * elapses, whichever comes first, and return it in its latest
+         * state. Waiting holds neither a thread nor a database connection.
+         */
+        Uni<WorkflowRun> awaitCompletion(
+                        WorkflowRunId runId,
+                        TenantId tenantId,
+                        java.time.Duration timeout);
+
         Uni<WorkflowRunSnapshot> getSnapshot(
                         WorkflowRunId runId,
                         TenantId tenantId);
@@ -1,7 +1,9 @@
 package tech.kayys.silat.api.repository;
 
+import java.time.Instant;
 import java.util.List;
 
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 
 import tech.kayys.silat.model.CallbackRegistration;
@@ -35,6 +37,17 @@ public interface WorkflowRunRepository {
 
     Uni<WorkflowRun> persist(WorkflowRun run);
 
+    /**
+     * Insert new runs together. Repositories that can't batch insert them
+     * one by one.
+     */
+    default Uni<List<WorkflowRun>> persistAll(List<WorkflowRun> runs) {
+        return Multi.createFrom().iterable(runs)
+                .onItem().transformToUniAndConcatenate(this::persist)
+                .collect().asList()
+                .replaceWith(runs);
+    }
+
     Uni<WorkflowRun> update(WorkflowRun run);
 
     Uni<WorkflowRun> findById(WorkflowRunId id);
@@ -54,6 +67,12 @@ public interface WorkflowRunRepository {
 
     Uni<Long> countActiveRuns(TenantId tenantId);
 
+    /**
+     * Ids of runs in the given status not updated since {@code updatedBefore},
+     * oldest first
+     */
+    Uni<List<WorkflowRunId>> findStalled(RunStatus status, Instant updatedBefore, int limit);
+
     Uni<Void> storeToken(ExecutionToken token);
 
     Uni<Boolean> validateToken(ExecutionToken token);
@@ -9,10 +9,12 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * 🔒 Execution context with strong typing.
@@ -36,6 +38,10 @@ public class ExecutionContext {
     private Instant startedAt;
     private Instant completedAt;
 
+    // Variables set or removed since the last clearChanges, for delta writes
+    private final Set<String> changedVariables = new HashSet<>();
+    private boolean variablesReplaced;
+
     public ExecutionContext(WorkflowRunId runId, TenantId tenantId, Map<String, Object> initialVariables) {
         this.runId = Objects.requireNonNull(runId);
         this.tenantId = Objects.requireNonNull(tenantId);
@@ -90,6 +96,7 @@ public class ExecutionContext {
 
     public void setVariable(String key, Object value) {
         variables.put(key, value);
+        changedVariables.add(key);
     }
 
     public Object getVariable(String key) {
@@ -102,6 +109,28 @@ public class ExecutionContext {
 
     public void setVariables(Map<String, Object> variables) {
         this.variables = variables != null ? new HashMap<>(variables) : new HashMap<>();
+        this.variablesReplaced = true;
+    }
+
+    /**
+     * Names of the variables set or removed since the last
+     * {@link #clearChanges()}
+     */
+    public Set<String> changedVariables() {
+        return Collections.unmodifiableSet(changedVariables);
+    }
+
+    /**
+     * Whether the variables were replaced wholesale since the last
+     * {@link #clearChanges()}, so only a full write captures them
+     */
+    public boolean variablesReplaced() {
+        return variablesReplaced;
+    }
+
+    public void clearChanges() {
+        changedVariables.clear();
+        variablesReplaced = false;
     }
 
     public Map<String, Object> getMetadata() { return metadata; }
@@ -176,12 +205,14 @@ public class ExecutionContext {
         if (variables == null)
             variables = new HashMap<>();
         variables.put(name, value);
+        changedVariables.add(name);
         return this;
     }
 
     public ExecutionContext withoutVariable(String name) {
         if (variables != null) {
             variables.remove(name);
+            changedVariables.add(name);
         }
         return this;
     }
@@ -38,12 +38,19 @@ public class NodeExecutionSnapshot {
         this.error = error;
     }
 
+    @JsonProperty("nodeId")
     public String nodeId() { return nodeId; }
+    @JsonProperty("status")
     public String status() { return status; }
+    @JsonProperty("attempt")
     public int attempt() { return attempt; }
+    @JsonProperty("startedAt")
     public Instant startedAt() { return startedAt; }
+    @JsonProperty("completedAt")
     public Instant completedAt() { return completedAt; }
+    @JsonProperty("output")
     public Map<String, Object> output() { return output; }
+    @JsonProperty("error")
     public ErrorSnapshot error() { return error; }
 
     @Override
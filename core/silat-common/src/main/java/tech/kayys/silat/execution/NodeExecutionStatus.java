@@ -12,10 +12,12 @@ public enum NodeExecutionStatus {
     CANCELLED, // Execution cancelled
     SKIPPED, // Skipped due to conditions
     RETRYING, // Currently retrying
+    COMPENSATED, // Completed, then rolled back by saga compensation
     SUCCESS,
     RUNNING; // Currently executing
 
     public boolean isTerminal() {
-        return this == COMPLETED || this == FAILED || this == SKIPPED || this == CANCELLED;
+        return this == COMPLETED || this == FAILED || this == SKIPPED || this == CANCELLED
+                || this == COMPENSATED;
     }
 }
@@ -0,0 +1,41 @@
+package tech.kayys.silat.model;
+
+import java.util.Map;
+
+/**
+ * Outcome of a child run, reported back to its parent
+ *
+ * @param parent  where the child was spawned from
+ * @param runId   the child run, null if it could not be created
+ * @param status  status the child ended in
+ * @param outputs outputs of a completed child
+ * @param error   why the child did not complete, null on success
+ */
+public record ChildRunResult(
+        ParentRunRef parent,
+        WorkflowRunId runId,
+        RunStatus status,
+        Map<String, Object> outputs,
+        ErrorInfo error) {
+
+    public static ChildRunResult of(WorkflowRun child) {
+        ErrorInfo error = null;
+        if (child.getStatus() != RunStatus.COMPLETED) {
+            error = new ErrorInfo(
+                    "CHILD_RUN_" + child.getStatus().name(),
+                    "Child run " + child.getId().value() + " did not complete: " + child.getStatus().name(),
+                    null,
+                    Map.of("childRunId", child.getId().value()));
+        }
+        return new ChildRunResult(child.getParent(), child.getId(), child.getStatus(), child.getOutputs(), error);
+    }
+
+    public static ChildRunResult rejected(ParentRunRef parent, String reason) {
+        return new ChildRunResult(parent, null, RunStatus.FAILED, Map.of(),
+                new ErrorInfo("CHILD_RUN_REJECTED", reason, null, Map.of("index", parent.index())));
+    }
+
+    public boolean isSuccess() {
+        return status == RunStatus.COMPLETED;
+    }
+}
@@ -1,6 +1,9 @@
 package tech.kayys.silat.model;
 
 import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.validation.constraints.NotNull;
 
 public class CreateRunRequest {
@@ -14,6 +17,10 @@ public class CreateRunRequest {
     private String correlationId;
     private boolean autoStart = true;
 
+    // Set by the engine for runs spawned by a SUB_WORKFLOW node, never by clients
+    @JsonIgnore
+    private ParentRunRef parent;
+
     public CreateRunRequest() {
     }
 
@@ -66,6 +73,16 @@ public class CreateRunRequest {
         this.autoStart = autoStart;
     }
 
+    @JsonIgnore
+    public ParentRunRef getParent() {
+        return parent;
+    }
+
+    @JsonIgnore
+    public void setParent(ParentRunRef parent) {
+        this.parent = parent;
+    }
+
     public static Builder builder() {
         return new Builder();
     }
@@ -76,6 +93,7 @@ public class CreateRunRequest {
         private Map<String, Object> inputs;
         private String correlationId;
         private boolean autoStart = true;
+        private ParentRunRef parent;
 
         public Builder workflowId(String workflowId) {
             this.workflowId = workflowId;
@@ -102,8 +120,16 @@ public class CreateRunRequest {
             return this;
         }
 
+        public Builder parent(ParentRunRef parent) {
+            this.parent = parent;
+            return this;
+        }
+
         public CreateRunRequest build() {
-            return new CreateRunRequest(workflowId, workflowVersion, inputs, correlationId, autoStart);
+            CreateRunRequest request = new CreateRunRequest(workflowId, workflowVersion, inputs, correlationId,
+                    autoStart);
+            request.setParent(parent);
+            return request;
         }
     }
 
@@ -0,0 +1,24 @@
+package tech.kayys.silat.model;
+
+/**
+ * Outcome of one request in a bulk run creation
+ *
+ * @param index  position of the request in the submitted batch
+ * @param runId  id of the created run, null when rejected
+ * @param status status the run was created in, null when rejected
+ * @param error  why the request was rejected, null on success
+ */
+public record CreateRunResult(int index, String runId, RunStatus status, String error) {
+
+    public static CreateRunResult created(int index, WorkflowRun run) {
+        return new CreateRunResult(index, run.getId().value(), run.getStatus(), null);
+    }
+
+    public static CreateRunResult rejected(int index, String error) {
+        return new CreateRunResult(index, null, null, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
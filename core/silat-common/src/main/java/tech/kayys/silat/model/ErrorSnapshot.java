@@ -19,8 +19,11 @@ public class ErrorSnapshot {
         this.stackTrace = stackTrace;
     }
 
+    @JsonProperty("code")
     public String code() { return code; }
+    @JsonProperty("message")
     public String message() { return message; }
+    @JsonProperty("stackTrace")
     public String stackTrace() { return stackTrace; }
 
     @Override
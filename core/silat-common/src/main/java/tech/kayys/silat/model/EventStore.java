@@ -1,5 +1,6 @@
 package tech.kayys.silat.model;
 
+import java.time.Instant;
 import java.util.List;
 
 import io.smallrye.mutiny.Uni;
@@ -25,6 +26,15 @@ public interface EventStore {
      */
     Uni<List<ExecutionEvent>> getEvents(WorkflowRunId runId);
 
+    /**
+     * Get all events for a workflow run, with a time hint: no event of the run
+     * occurred before {@code occurredSince} (typically the run's creation
+     * time). Time-partitioned stores use it to skip older partitions.
+     */
+    default Uni<List<ExecutionEvent>> getEvents(WorkflowRunId runId, Instant occurredSince) {
+        return getEvents(runId);
+    }
+
     /**
      * Get events after a specific version
      */
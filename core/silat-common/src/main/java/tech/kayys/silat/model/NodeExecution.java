@@ -112,6 +112,13 @@ public class NodeExecution {
         this.attempt++;
     }
 
+    /**
+     * Record that the node's completed work was rolled back
+     */
+    public void markCompensated() {
+        this.status = NodeExecutionStatus.COMPENSATED;
+    }
+
     public boolean canRetry() {
         return status == NodeExecutionStatus.RETRYING;
     }
@@ -120,6 +127,10 @@ public class NodeExecution {
         return status == NodeExecutionStatus.COMPLETED;
     }
 
+    public boolean isCompensated() {
+        return status == NodeExecutionStatus.COMPENSATED;
+    }
+
     public boolean isFailed() {
         return status == NodeExecutionStatus.FAILED;
     }
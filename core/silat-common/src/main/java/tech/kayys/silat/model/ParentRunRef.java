@@ -0,0 +1,13 @@
+package tech.kayys.silat.model;
+
+/**
+ * Link from a child run to the SUB_WORKFLOW node that spawned it
+ *
+ * @param runId   parent run
+ * @param nodeId  SUB_WORKFLOW node of the parent
+ * @param attempt attempt of the node the child belongs to
+ * @param index   position of the child's item when the node fans out over
+ *                a list, 0 otherwise
+ */
+public record ParentRunRef(WorkflowRunId runId, NodeId nodeId, int attempt, int index) {
+}
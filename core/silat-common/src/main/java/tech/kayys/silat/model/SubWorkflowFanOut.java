@@ -0,0 +1,103 @@
+package tech.kayys.silat.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Progress of one attempt of a SUB_WORKFLOW node over its child runs
+ *
+ * Children are handed out by index, never more than the concurrency cap
+ * at a time. Once a child fails no further ones are started; the node ends
+ * when the children already running have reported back.
+ */
+public final class SubWorkflowFanOut {
+
+    private final int attempt;
+    private final int total;
+    private final int maxConcurrency;
+    private final Object[] results;
+    private final BitSet reported;
+    private final List<ErrorInfo> failures = new ArrayList<>();
+    private int nextIndex;
+    private int running;
+
+    public SubWorkflowFanOut(int attempt, int total, int maxConcurrency) {
+        if (total < 0 || maxConcurrency < 1) {
+            throw new IllegalArgumentException("total must be >= 0 and maxConcurrency >= 1");
+        }
+        this.attempt = attempt;
+        this.total = total;
+        this.maxConcurrency = maxConcurrency;
+        this.results = new Object[total];
+        this.reported = new BitSet(total);
+    }
+
+    /**
+     * Reserve the next children to start, up to the concurrency cap
+     */
+    List<Integer> reserve() {
+        if (!failures.isEmpty()) {
+            return List.of();
+        }
+        List<Integer> indexes = new ArrayList<>();
+        while (running < maxConcurrency && nextIndex < total) {
+            indexes.add(nextIndex++);
+            running++;
+        }
+        return indexes;
+    }
+
+    /**
+     * @return false if the child was unknown or had already reported
+     */
+    boolean record(ChildRunResult result) {
+        int index = result.parent().index();
+        if (index < 0 || index >= nextIndex || reported.get(index)) {
+            return false;
+        }
+        reported.set(index);
+        running--;
+        if (result.isSuccess()) {
+            results[index] = result.outputs() != null ? result.outputs() : Map.of();
+        } else {
+            failures.add(result.error());
+        }
+        return true;
+    }
+
+    public boolean isFinished() {
+        return running == 0 && (nextIndex == total || !failures.isEmpty());
+    }
+
+    public int attempt() {
+        return attempt;
+    }
+
+    public int total() {
+        return total;
+    }
+
+    public int running() {
+        return running;
+    }
+
+    public int reportedCount() {
+        return reported.cardinality();
+    }
+
+    /**
+     * Outputs of the children, by index; null for a child that did not
+     * complete
+     */
+    public List<Object> results() {
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    public List<ErrorInfo> failures() {
+        return Collections.unmodifiableList(failures);
+    }
+}
@@ -4,14 +4,19 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Queue;
+import java.util.Set;
 import java.util.UUID;
 
 import tech.kayys.silat.execution.ExecutionContext;
+import tech.kayys.silat.execution.NodeExecutionStatus;
 import tech.kayys.silat.model.event.ExecutionEvent;
 import tech.kayys.silat.model.event.NodeCompletedEvent;
 import tech.kayys.silat.model.event.NodeFailedEvent;
@@ -64,6 +69,7 @@ public class WorkflowRun {
     private final Map<NodeId, NodeExecution> nodeExecutions;
     private final List<String> executionPath; // Ordered list of executed nodes
     private final Queue<NodeId> pendingNodes; // Nodes ready to execute
+    private final Set<NodeId> changedNodes; // Since last persisted, for delta writes
 
     // ==================== TEMPORAL TRACKING ====================
     private final Instant createdAt;
@@ -73,7 +79,12 @@ public class WorkflowRun {
 
     // ==================== SUSPENSION & SIGNALS ====================
     private SuspensionInfo suspensionInfo;
-    private final Map<String, Signal> pendingSignals;
+    private final Map<String, Map<NodeId, Signal>> pendingSignals; // By name, then target node
+
+    // Sub-workflows
+    private ParentRunRef parent; // Set on child runs only
+    private final Map<NodeId, SubWorkflowFanOut> fanOuts;
+    private Map<String, Object> outputs;
 
     // ==================== COMPENSATION ====================
     private CompensationState compensationState;
@@ -90,6 +101,19 @@ public class WorkflowRun {
             WorkflowDefinition definition,
             Map<String, Object> inputs) {
 
+        this(id, tenantId, definition, inputs, Instant.now());
+
+        // Validate inputs against definition
+        validateInputs(inputs);
+    }
+
+    private WorkflowRun(
+            WorkflowRunId id,
+            TenantId tenantId,
+            WorkflowDefinition definition,
+            Map<String, Object> inputs,
+            Instant createdAt) {
+
         this.id = Objects.requireNonNull(id, "WorkflowRunId cannot be null");
         this.tenantId = Objects.requireNonNull(tenantId, "TenantId cannot be null");
         this.definitionId = definition.id();
@@ -101,16 +125,16 @@ public class WorkflowRun {
         this.nodeExecutions = new HashMap<>();
         this.executionPath = new ArrayList<>();
         this.pendingNodes = new LinkedList<>();
+        this.changedNodes = new HashSet<>();
 
-        this.createdAt = Instant.now();
+        this.createdAt = createdAt;
         this.lastUpdatedAt = this.createdAt;
 
-        this.pendingSignals = new HashMap<>();
+        this.pendingSignals = new LinkedHashMap<>();
+        this.fanOuts = new HashMap<>();
+        this.outputs = Map.of();
         this.uncommittedEvents = new ArrayList<>();
         this.version = 0;
-
-        // Validate inputs against definition
-        validateInputs(inputs);
     }
 
     // ==================== FACTORY METHODS ====================
@@ -122,9 +146,21 @@ public class WorkflowRun {
             TenantId tenantId,
             WorkflowDefinition definition,
             Map<String, Object> inputs) {
+        return create(tenantId, definition, inputs, null);
+    }
+
+    /**
+     * Create a run, as the child of a SUB_WORKFLOW node if a parent is given
+     */
+    public static WorkflowRun create(
+            TenantId tenantId,
+            WorkflowDefinition definition,
+            Map<String, Object> inputs,
+            ParentRunRef parent) {
 
         WorkflowRunId runId = WorkflowRunId.generate();
         WorkflowRun run = new WorkflowRun(runId, tenantId, definition, inputs);
+        run.parent = parent;
 
         // Raise domain event
         run.raiseEvent(new WorkflowStartedEvent(
@@ -162,6 +198,47 @@ public class WorkflowRun {
         return run;
     }
 
+    /**
+     * Reconstitute from persisted state, as written to a workflow_runs row;
+     * raises no events and starts with nothing changed
+     */
+    public static WorkflowRun restore(
+            WorkflowRunId id,
+            TenantId tenantId,
+            WorkflowDefinition definition,
+            RunStatus status,
+            Map<String, Object> variables,
+            Map<NodeId, NodeExecution> nodeExecutions,
+            Instant createdAt,
+            Instant startedAt,
+            Instant completedAt,
+            Instant lastUpdatedAt,
+            long version,
+            ParentRunRef parent) {
+
+        WorkflowRun run = new WorkflowRun(id, tenantId, definition, variables,
+                createdAt != null ? createdAt : Instant.now());
+        run.status = Objects.requireNonNull(status, "RunStatus cannot be null");
+        run.startedAt = startedAt;
+        run.completedAt = completedAt;
+        run.lastUpdatedAt = lastUpdatedAt != null ? lastUpdatedAt : run.createdAt;
+        run.version = version;
+        run.parent = parent;
+        nodeExecutions.forEach((nodeId, execution) -> {
+            run.nodeExecutions.put(nodeId, execution);
+            if (execution.getStatus() == NodeExecutionStatus.PENDING) {
+                run.pendingNodes.offer(nodeId);
+            } else if (execution.isCompleted()) {
+                run.executionPath.add(nodeId.value());
+            }
+        });
+        if (status == RunStatus.COMPLETED) {
+            run.outputs = Map.copyOf(run.collectOutputs());
+        }
+        run.context.clearChanges();
+        return run;
+    }
+
     // ==================== COMMAND HANDLERS ====================
 
     /**
@@ -207,6 +284,7 @@ public class WorkflowRun {
         // Create node execution
         NodeExecution execution = NodeExecution.create(nodeId, nodeDef);
         nodeExecutions.put(nodeId, execution);
+        changedNodes.add(nodeId);
         pendingNodes.offer(nodeId);
 
         updateTimestamp();
@@ -227,6 +305,7 @@ public class WorkflowRun {
     public void startNode(NodeId nodeId, int attempt) {
         NodeExecution execution = getNodeExecution(nodeId);
         execution.start(attempt);
+        changedNodes.add(nodeId);
 
         pendingNodes.remove(nodeId);
         updateTimestamp();
@@ -252,6 +331,7 @@ public class WorkflowRun {
         }
 
         execution.complete(output);
+        changedNodes.add(nodeId);
         executionPath.add(nodeId.value());
 
         // Store output in context
@@ -292,6 +372,7 @@ public class WorkflowRun {
             execution.fail(error);
             executionPath.add(nodeId.value() + ":FAILED");
         }
+        changedNodes.add(nodeId);
 
         updateTimestamp();
 
@@ -362,18 +443,45 @@ public class WorkflowRun {
      * Receive external signal
      */
     public void signal(Signal signal) {
-        if (status != RunStatus.SUSPENDED) {
-            // Buffer signal for later processing
-            pendingSignals.put(signal.name(), signal);
-            return;
+        signalAll(List.of(signal));
+    }
+
+    /**
+     * Receive a batch of external signals as one state transition: the
+     * first signal the suspended run is waiting on resumes it, the rest are
+     * buffered by name and target node
+     *
+     * @return true if the batch resumed the run
+     */
+    public boolean signalAll(List<Signal> signals) {
+        Signal resumeWith = null;
+        for (Signal signal : signals) {
+            if (resumeWith == null && isAwaiting(signal)) {
+                resumeWith = signal;
+            } else {
+                pendingSignals.computeIfAbsent(signal.name(), name -> new LinkedHashMap<>())
+                        .put(signal.targetNodeId(), signal);
+            }
         }
+        if (resumeWith == null) {
+            return false;
+        }
+        resume(resumeWith.payload() != null ? resumeWith.payload() : Map.of());
+        return true;
+    }
 
-        if (suspensionInfo != null &&
-                signal.targetNodeId().equals(suspensionInfo.waitingOnNodeId())) {
-            resume(signal.payload());
-        } else {
-            pendingSignals.put(signal.name(), signal);
+    /**
+     * Whether the signal resumes the suspended run: it either targets the
+     * waiting node, or is untargeted and carries the awaited signal name
+     */
+    public boolean isAwaiting(Signal signal) {
+        if (status != RunStatus.SUSPENDED || suspensionInfo == null) {
+            return false;
         }
+        if (signal.targetNodeId() != null) {
+            return signal.targetNodeId().equals(suspensionInfo.waitingOnNodeId());
+        }
+        return signal.name() != null && signal.name().equals(getAwaitedSignal());
     }
 
     /**
@@ -384,6 +492,7 @@ public class WorkflowRun {
 
         this.status = RunStatus.COMPLETED;
         this.completedAt = Instant.now();
+        this.outputs = outputs != null ? Map.copyOf(outputs) : Map.of();
         updateTimestamp();
 
         raiseEvent(new WorkflowCompletedEvent(
@@ -410,7 +519,7 @@ public class WorkflowRun {
                 Instant.now()));
 
         // Check if compensation is needed
-        if (definition.compensationPolicy() != null) {
+        if (needsCompensation()) {
             initiateCompensation();
         }
     }
@@ -434,11 +543,90 @@ public class WorkflowRun {
                 Instant.now()));
 
         // Initiate compensation for already executed nodes
-        if (definition.compensationPolicy() != null) {
+        if (needsCompensation()) {
             initiateCompensation();
         }
     }
 
+    // ==================== SUB-WORKFLOWS ====================
+
+    /**
+     * Start the SUB_WORKFLOW node over {@code total} child runs, at most
+     * {@code maxConcurrency} of them at a time; a node without children
+     * completes at once
+     *
+     * @return indexes of the children to create now, empty if the node's
+     *         current attempt has already started
+     */
+    public List<Integer> beginFanOut(NodeId nodeId, int total, int maxConcurrency) {
+        NodeExecution execution = nodeExecutions.get(nodeId);
+        if (execution == null) {
+            execution = scheduleNode(nodeId);
+        }
+        if (execution.getStatus() != NodeExecutionStatus.PENDING
+                && execution.getStatus() != NodeExecutionStatus.RETRYING) {
+            return List.of();
+        }
+        int attempt = execution.getAttempt();
+        SubWorkflowFanOut fanOut = new SubWorkflowFanOut(attempt, total, maxConcurrency);
+        fanOuts.put(nodeId, fanOut);
+        startNode(nodeId, attempt);
+
+        List<Integer> indexes = fanOut.reserve();
+        if (fanOut.isFinished()) {
+            finishFanOut(nodeId, fanOut);
+        }
+        return indexes;
+    }
+
+    /**
+     * Apply a batch of child outcomes to the node: it completes with the
+     * children's outputs once all of them completed, and fails once a
+     * failed child leaves none running. Stale and repeated outcomes are
+     * ignored.
+     *
+     * @return indexes of further children to create, within the cap
+     */
+    public List<Integer> recordChildResults(NodeId nodeId, List<ChildRunResult> results) {
+        SubWorkflowFanOut fanOut = fanOuts.get(nodeId);
+        NodeExecution execution = nodeExecutions.get(nodeId);
+        if (fanOut == null || execution == null || status.isTerminal()
+                || execution.getStatus() != NodeExecutionStatus.RUNNING) {
+            return List.of();
+        }
+        boolean changed = false;
+        for (ChildRunResult result : results) {
+            if (result.parent().attempt() == fanOut.attempt()) {
+                changed |= fanOut.record(result);
+            }
+        }
+        if (!changed) {
+            return List.of();
+        }
+        if (fanOut.isFinished()) {
+            finishFanOut(nodeId, fanOut);
+            return List.of();
+        }
+        updateTimestamp();
+        return fanOut.reserve();
+    }
+
+    private void finishFanOut(NodeId nodeId, SubWorkflowFanOut fanOut) {
+        if (fanOut.failures().isEmpty()) {
+            completeNode(nodeId, fanOut.attempt(), Map.of(
+                    "results", fanOut.results(),
+                    "count", fanOut.total()));
+            return;
+        }
+        ErrorInfo first = fanOut.failures().get(0);
+        failNode(nodeId, fanOut.attempt(), new ErrorInfo(
+                "SUB_WORKFLOW_FAILED",
+                fanOut.failures().size() + " of " + fanOut.total() + " child runs failed: " + first.message(),
+                first.stackTrace(),
+                Map.of("nodeId", nodeId.value(), "failed", fanOut.failures().size(),
+                        "completed", fanOut.reportedCount() - fanOut.failures().size())));
+    }
+
     // ==================== BUSINESS LOGIC ====================
 
     /**
@@ -522,6 +710,14 @@ public class WorkflowRun {
         return outputs;
     }
 
+    /**
+     * Whether the definition asks for compensation and there is completed
+     * work to undo
+     */
+    private boolean needsCompensation() {
+        return definition.isCompensationEnabled() && !getCompletedNodes().isEmpty();
+    }
+
     /**
      * Initiate compensation for executed nodes
      */
@@ -531,23 +727,95 @@ public class WorkflowRun {
                     "Compensation can only be initiated from FAILED or CANCELLED state, current status: " + status);
         }
 
+        List<NodeId> completedNodes = getCompletedNodes();
         this.status = RunStatus.COMPENSATING;
-        this.compensationState = CompensationState.create(
-                getCompletedNodes());
+        this.compensationState = CompensationState.create(completedNodes);
 
         // Raise compensation started event
         raiseEvent(new CompensationStartedEvent(
                 UUID.randomUUID().toString(),
                 id,
                 tenantId,
-                getCompletedNodes(),
+                completedNodes,
                 Instant.now()));
     }
 
     /**
-     * Mark a node as compensated during the compensation process
+     * Nodes whose compensation can be dispatched now, at most as many as
+     * keep {@code maxInFlight} compensations running: a node waits until
+     * every node that depended on it has been compensated, so independent
+     * branches roll back side by side
      */
-    public void compensateNode(NodeId nodeId) {
+    public List<NodeId> nextCompensations(int maxInFlight) {
+        if (status != RunStatus.COMPENSATING || compensationState == null) {
+            return List.of();
+        }
+        int free = maxInFlight - compensationState.inFlight().size();
+        List<NodeId> ready = new ArrayList<>();
+        for (NodeId nodeId : compensationState.nodesToCompensate()) {
+            if (ready.size() >= free) {
+                break;
+            }
+            if (!compensationState.isInFlight(nodeId) && !hasDependentToCompensate(nodeId)) {
+                ready.add(nodeId);
+            }
+        }
+        return ready;
+    }
+
+    private boolean hasDependentToCompensate(NodeId nodeId) {
+        return definition.nodes().stream()
+                .anyMatch(node -> node.dependsOn().contains(nodeId)
+                        && compensationState.nodesToCompensate().contains(node.id()));
+    }
+
+    /**
+     * Record that a compensation task for the node was dispatched
+     */
+    public void markCompensationDispatched(NodeId nodeId, int attempt) {
+        requireCompensating();
+        this.compensationState = compensationState.markDispatched(nodeId, attempt);
+        updateTimestamp();
+    }
+
+    /**
+     * Return a node whose compensation attempt failed to the nodes awaiting
+     * dispatch
+     */
+    public void retryCompensation(NodeId nodeId) {
+        requireCompensating();
+        this.compensationState = compensationState.release(nodeId);
+        updateTimestamp();
+    }
+
+    /**
+     * Pick up an interrupted compensation: tasks still in flight are given
+     * up on and dispatched again, and a run loaded without compensation
+     * state rebuilds it from its node executions
+     */
+    public void resumeCompensation() {
+        if (status != RunStatus.COMPENSATING) {
+            throw new IllegalStateException(
+                    "Cannot resume compensation when workflow is not compensating. Current status: " + status);
+        }
+
+        if (compensationState == null) {
+            List<NodeId> compensated = nodeExecutions.entrySet().stream()
+                    .filter(e -> e.getValue().isCompensated())
+                    .map(Map.Entry::getKey)
+                    .toList();
+            this.compensationState = CompensationState.resume(getCompletedNodes(), compensated);
+        } else {
+            this.compensationState = compensationState.releaseAll();
+        }
+        updateTimestamp();
+
+        if (compensationState.isComplete()) {
+            completeCompensation();
+        }
+    }
+
+    private void requireCompensating() {
         if (status != RunStatus.COMPENSATING) {
             throw new IllegalStateException(
                     "Cannot compensate node when workflow is not compensating. Current status: " + status);
@@ -556,9 +824,22 @@ public class WorkflowRun {
         if (compensationState == null) {
             throw new IllegalStateException("Compensation state is not initialized");
         }
+    }
+
+    /**
+     * Mark a node as compensated during the compensation process
+     */
+    public void compensateNode(NodeId nodeId) {
+        requireCompensating();
 
         // Update compensation state
         this.compensationState = compensationState.markNodeCompensated(nodeId);
+        NodeExecution execution = nodeExecutions.get(nodeId);
+        if (execution != null) {
+            // Persisted with the node, so a resumed compensation skips it
+            execution.markCompensated();
+            changedNodes.add(nodeId);
+        }
         updateTimestamp();
 
         // Check if compensation is complete
@@ -642,13 +923,45 @@ public class WorkflowRun {
     }
 
     /**
-     * Get list of successfully completed nodes
+     * Get list of successfully completed nodes, dependents before the nodes
+     * they depend on
      */
     private List<NodeId> getCompletedNodes() {
-        return nodeExecutions.entrySet().stream()
-                .filter(e -> e.getValue().isCompleted())
-                .map(Map.Entry::getKey)
-                .toList();
+        List<NodeId> completed = new ArrayList<>();
+        for (NodeId nodeId : topologicalOrder()) {
+            NodeExecution execution = nodeExecutions.get(nodeId);
+            if (execution != null && execution.isCompleted()) {
+                completed.add(nodeId);
+            }
+        }
+        Collections.reverse(completed);
+        return completed;
+    }
+
+    /**
+     * Definition nodes with every node after the ones it depends on,
+     * otherwise in definition order
+     */
+    private List<NodeId> topologicalOrder() {
+        List<NodeId> order = new ArrayList<>();
+        Set<NodeId> placed = new HashSet<>();
+        List<NodeDefinition> remaining = new ArrayList<>(definition.nodes());
+        boolean progressed = true;
+        while (!remaining.isEmpty() && progressed) {
+            progressed = false;
+            for (Iterator<NodeDefinition> it = remaining.iterator(); it.hasNext();) {
+                NodeDefinition node = it.next();
+                if (placed.containsAll(node.dependsOn())) {
+                    order.add(node.id());
+                    placed.add(node.id());
+                    it.remove();
+                    progressed = true;
+                }
+            }
+        }
+        // Cycles or unknown dependencies: keep definition order for the rest
+        remaining.forEach(node -> order.add(node.id()));
+        return order;
     }
 
     // ==================== VALIDATION ====================
@@ -658,6 +971,8 @@ public class WorkflowRun {
             if (inputDef.required() && !inputs.containsKey(name)) {
                 if (inputDef.defaultValue() != null) {
                     inputs.put(name, inputDef.defaultValue());
+                    // The context copied the inputs before their defaults were filled in
+                    context.setVariable(name, inputDef.defaultValue());
                 } else {
                     throw new IllegalArgumentException(
                             "Required input missing: " + name);
@@ -695,6 +1010,16 @@ public class WorkflowRun {
         version++;
     }
 
+    /**
+     * Record that the run's state was written at the given version, so the
+     * next write carries only what changes from here on
+     */
+    public void markPersisted(long persistedVersion) {
+        changedNodes.clear();
+        context.clearChanges();
+        this.version = persistedVersion;
+    }
+
     // ==================== GETTERS ====================
 
     public WorkflowRunId getId() {
@@ -709,6 +1034,10 @@ public class WorkflowRun {
         return definitionId;
     }
 
+    public WorkflowDefinition getDefinition() {
+        return definition;
+    }
+
     public RunStatus getStatus() {
         return status;
     }
@@ -753,6 +1082,57 @@ public class WorkflowRun {
         return Collections.unmodifiableMap(nodeExecutions);
     }
 
+    /**
+     * Nodes whose execution changed since the run was last persisted
+     */
+    public Set<NodeId> getChangedNodes() {
+        return Collections.unmodifiableSet(changedNodes);
+    }
+
+    /**
+     * The SUB_WORKFLOW node this run is a child of, null for a top-level run
+     */
+    public ParentRunRef getParent() {
+        return parent;
+    }
+
+    public SubWorkflowFanOut getFanOut(NodeId nodeId) {
+        return fanOuts.get(nodeId);
+    }
+
+    /**
+     * Outputs the run completed with
+     */
+    public Map<String, Object> getOutputs() {
+        return outputs;
+    }
+
+    public SuspensionInfo getSuspensionInfo() {
+        return suspensionInfo;
+    }
+
+    /**
+     * Name of the signal the suspended run waits for, from the waiting
+     * node's {@code signal} configuration; null if it waits on none
+     */
+    public String getAwaitedSignal() {
+        if (status != RunStatus.SUSPENDED || suspensionInfo == null || suspensionInfo.waitingOnNodeId() == null) {
+            return null;
+        }
+        return definition.findNode(suspensionInfo.waitingOnNodeId())
+                .map(node -> node.configuration().get("signal"))
+                .map(Object::toString)
+                .orElse(null);
+    }
+
+    /**
+     * Signals received but not yet consumed, by target node
+     */
+    public Map<NodeId, Signal> getPendingSignals(String signalName) {
+        Map<NodeId, Signal> signals = pendingSignals.get(signalName);
+        return signals != null ? Collections.unmodifiableMap(signals) : Map.of();
+    }
+
     private void updateTimestamp() {
         this.lastUpdatedAt = Instant.now();
     }
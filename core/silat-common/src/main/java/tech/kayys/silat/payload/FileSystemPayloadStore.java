@@ -0,0 +1,108 @@
+package tech.kayys.silat.payload;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.NoSuchElementException;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+
+/**
+ * Payload store on a file system: each value is one file under
+ * {@code <root>/sha256/<aa>/<bb>/<hex>}
+ *
+ * The root is a directory or any URI with an installed NIO file system
+ * provider. Engine and executors that share it (a network mount, or an
+ * object storage bucket through its NIO provider) exchange large values
+ * without copying them through each other. File I/O runs on the worker
+ * pool.
+ */
+public class FileSystemPayloadStore implements PayloadStore {
+
+    private final Path root;
+
+    public FileSystemPayloadStore(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Store rooted at a directory path or file system URI
+     */
+    public static FileSystemPayloadStore at(String location) {
+        return new FileSystemPayloadStore(
+                location.contains("://") ? Path.of(URI.create(location)) : Path.of(location));
+    }
+
+    @Override
+    public Uni<PayloadRef> put(byte[] content) {
+        return Uni.createFrom().item(() -> write(content))
+                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+    }
+
+    @Override
+    public Uni<byte[]> get(PayloadRef ref) {
+        return Uni.createFrom().item(() -> read(ref))
+                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+    }
+
+    PayloadRef write(byte[] content) {
+        PayloadRef ref = new PayloadRef(PayloadRef.SHA_256 + sha256(content), content.length);
+        Path target = path(ref);
+        if (Files.exists(target)) {
+            return ref;
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            // A private temp file per writer, so concurrent stores of the same bytes do not collide
+            Path temp = Files.createTempFile(target.getParent(), ref.hex(), ".part");
+            try {
+                Files.write(temp, content);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Same digest, same bytes
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store payload " + ref.digest(), e);
+        }
+        return ref;
+    }
+
+    byte[] read(PayloadRef ref) {
+        try {
+            byte[] content = Files.readAllBytes(path(ref));
+            if (content.length != ref.size()) {
+                throw new IllegalStateException("Payload " + ref.digest() + " has " + content.length
+                        + " bytes, expected " + ref.size());
+            }
+            return content;
+        } catch (NoSuchFileException e) {
+            throw new NoSuchElementException("Payload not found: " + ref.digest());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read payload " + ref.digest(), e);
+        }
+    }
+
+    Path path(PayloadRef ref) {
+        String hex = ref.hex();
+        return root.resolve("sha256").resolve(hex.substring(0, 2)).resolve(hex.substring(2, 4)).resolve(hex);
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
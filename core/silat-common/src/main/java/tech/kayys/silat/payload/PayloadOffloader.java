@@ -0,0 +1,145 @@
+package tech.kayys.silat.payload;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Swaps large values for {@link PayloadRef}s on the way in, and references
+ * back for their values on demand
+ *
+ * A value is offloaded when its JSON encoding reaches the threshold; the
+ * encoding is only computed for values a cheap size estimate flags as
+ * large. Offloading works on the top-level entries of a variable map, so
+ * small values next to a large one stay inline.
+ */
+public class PayloadOffloader {
+
+    private final PayloadStore store;
+    private final ObjectMapper objectMapper;
+    private final int threshold;
+
+    /**
+     * @param threshold size in bytes from which values are offloaded
+     */
+    public PayloadOffloader(PayloadStore store, ObjectMapper objectMapper, int threshold) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.threshold = threshold;
+    }
+
+    /**
+     * The values with every large one replaced by a reference; the same map
+     * if none is large
+     */
+    public Uni<Map<String, Object>> offload(Map<String, Object> values) {
+        if (values == null || values.isEmpty()) {
+            return Uni.createFrom().item(values);
+        }
+        List<String> names = new ArrayList<>();
+        List<Uni<PayloadRef>> stored = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            if (PayloadRef.from(entry.getValue()).isPresent() || !exceeds(entry.getValue(), threshold)) {
+                continue;
+            }
+            byte[] content;
+            try {
+                content = objectMapper.writeValueAsBytes(entry.getValue());
+            } catch (JsonProcessingException e) {
+                return Uni.createFrom().failure(e);
+            }
+            if (content.length >= threshold) {
+                names.add(entry.getKey());
+                stored.add(store.put(content));
+            }
+        }
+        if (stored.isEmpty()) {
+            return Uni.createFrom().item(values);
+        }
+        return Uni.join().all(stored).andFailFast()
+                .map(refs -> {
+                    Map<String, Object> offloaded = new LinkedHashMap<>(values);
+                    for (int i = 0; i < refs.size(); i++) {
+                        offloaded.put(names.get(i), refs.get(i).toValue());
+                    }
+                    return offloaded;
+                });
+    }
+
+    /**
+     * The value a variable stands for: fetched from the store if it holds a
+     * reference, the variable itself otherwise
+     */
+    public Uni<Object> resolve(Object value) {
+        return resolve(value, Object.class);
+    }
+
+    public <T> Uni<T> resolve(Object value, Class<T> type) {
+        return PayloadRef.from(value)
+                .map(ref -> store.get(ref).map(content -> read(content, type)))
+                .orElseGet(() -> Uni.createFrom().item(() -> value == null || type.isInstance(value)
+                        ? type.cast(value)
+                        : objectMapper.convertValue(value, type)));
+    }
+
+    private <T> T read(byte[] content, Class<T> type) {
+        try {
+            return objectMapper.readValue(content, type);
+        } catch (IOException e) {
+            throw new IllegalStateException("Stored payload is not valid JSON", e);
+        }
+    }
+
+    // ==================== SIZING ====================
+
+    /**
+     * Whether the value's JSON encoding may reach the limit; walks the value
+     * only until it does, counting strings by their length
+     */
+    static boolean exceeds(Object value, long limit) {
+        return estimate(value, limit) >= limit;
+    }
+
+    private static long estimate(Object value, long remaining) {
+        if (value == null) {
+            return 4;
+        }
+        if (value instanceof CharSequence string) {
+            return 2 + string.length();
+        }
+        if (value instanceof byte[] bytes) {
+            // Base64
+            return 2 + (bytes.length + 2) / 3 * 4L;
+        }
+        if (value instanceof Map<?, ?> map) {
+            long size = 2;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                size += 4 + String.valueOf(entry.getKey()).length() + estimate(entry.getValue(), remaining - size);
+                if (size >= remaining) {
+                    return size;
+                }
+            }
+            return size;
+        }
+        if (value instanceof Collection<?> collection) {
+            long size = 2;
+            for (Object element : collection) {
+                size += 1 + estimate(element, remaining - size);
+                if (size >= remaining) {
+                    return size;
+                }
+            }
+            return size;
+        }
+        // Any other object is encoded to find out
+        return value instanceof Number || value instanceof Boolean ? 24 : remaining;
+    }
+}
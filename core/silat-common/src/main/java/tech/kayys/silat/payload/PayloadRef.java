@@ -0,0 +1,59 @@
+package tech.kayys.silat.payload;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reference to a value held in a {@link PayloadStore}, carried in its place
+ * through run variables, dispatch payloads and the database
+ *
+ * In a variable map it appears as
+ * {@code {"$payloadRef": "sha256:<hex>", "size": <bytes>}}.
+ *
+ * @param digest content address, {@code sha256:} followed by the lowercase
+ *               hex digest of the stored bytes
+ * @param size   size of the stored bytes
+ */
+public record PayloadRef(String digest, long size) {
+
+    public static final String REF_KEY = "$payloadRef";
+    public static final String SIZE_KEY = "size";
+
+    static final String SHA_256 = "sha256:";
+
+    public PayloadRef {
+        if (digest == null || !digest.startsWith(SHA_256) || digest.length() != SHA_256.length() + 64
+                || !digest.substring(SHA_256.length()).chars().allMatch(c -> Character.digit(c, 16) >= 0)) {
+            throw new IllegalArgumentException("Invalid payload digest: " + digest);
+        }
+    }
+
+    /**
+     * The reference as it is stored in place of the value
+     */
+    public Map<String, Object> toValue() {
+        Map<String, Object> value = new LinkedHashMap<>(4);
+        value.put(REF_KEY, digest);
+        value.put(SIZE_KEY, size);
+        return value;
+    }
+
+    /**
+     * The reference a variable holds, empty if it holds a plain value
+     */
+    public static Optional<PayloadRef> from(Object value) {
+        if (!(value instanceof Map<?, ?> map) || map.size() != 2 || !(map.get(REF_KEY) instanceof String digest)
+                || !(map.get(SIZE_KEY) instanceof Number size)) {
+            return Optional.empty();
+        }
+        return Optional.of(new PayloadRef(digest, size.longValue()));
+    }
+
+    /**
+     * Hex digest without the algorithm prefix
+     */
+    public String hex() {
+        return digest.substring(SHA_256.length());
+    }
+}
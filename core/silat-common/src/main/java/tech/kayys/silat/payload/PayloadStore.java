@@ -0,0 +1,30 @@
+package tech.kayys.silat.payload;
+
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Content-addressed storage for large run values (claim check)
+ *
+ * Values above the offload threshold are stored once under the digest of
+ * their bytes and travel as a {@link PayloadRef}; whoever needs the value
+ * fetches it from the store. Storing the same bytes twice is a no-op.
+ *
+ * {@link FileSystemPayloadStore} covers local disks, shared mounts and
+ * any NIO file system provider; an object storage adapter implements this
+ * interface and is picked up in its place.
+ */
+public interface PayloadStore {
+
+    /**
+     * Store the bytes, unless already stored
+     */
+    Uni<PayloadRef> put(byte[] content);
+
+    /**
+     * Bytes the reference points to
+     *
+     * @throws java.util.NoSuchElementException (as failure) if the store does
+     *                                          not hold them
+     */
+    Uni<byte[]> get(PayloadRef ref);
+}
@@ -2,16 +2,26 @@ package tech.kayys.silat.saga;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import tech.kayys.silat.model.NodeId;
 
 /**
  * Compensation State - Tracks compensation progress
+ *
+ * Nodes to compensate are kept in reverse dependency order. A node is in
+ * flight while a compensation task for it is dispatched and unanswered;
+ * {@code attempts} holds the attempt number of its latest task.
  */
 public record CompensationState(
         List<NodeId> nodesToCompensate,
         List<NodeId> compensatedNodes,
+        Set<NodeId> inFlight,
+        Map<NodeId, Integer> attempts,
         Instant startedAt,
         Instant completedAt,
         CompensationStatus status) {
@@ -20,11 +30,28 @@ public record CompensationState(
         return new CompensationState(
                 new ArrayList<>(nodes),
                 new ArrayList<>(),
+                new HashSet<>(),
+                new HashMap<>(),
                 Instant.now(),
                 null,
                 CompensationStatus.PENDING);
     }
 
+    /**
+     * State rebuilt from the nodes still to compensate and those already
+     * compensated, with nothing in flight
+     */
+    public static CompensationState resume(List<NodeId> nodes, List<NodeId> compensated) {
+        return new CompensationState(
+                new ArrayList<>(nodes),
+                new ArrayList<>(compensated),
+                new HashSet<>(),
+                new HashMap<>(),
+                Instant.now(),
+                null,
+                nodes.isEmpty() ? CompensationStatus.COMPLETED : CompensationStatus.IN_PROGRESS);
+    }
+
     /**
      * Mark a node as compensated
      */
@@ -39,6 +66,9 @@ public record CompensationState(
         List<NodeId> newNodesToCompensate = new ArrayList<>(nodesToCompensate);
         newNodesToCompensate.remove(nodeId);
 
+        Set<NodeId> newInFlight = new HashSet<>(inFlight);
+        newInFlight.remove(nodeId);
+
         CompensationStatus newStatus = newNodesToCompensate.isEmpty()
             ? CompensationStatus.COMPLETED
             : status;
@@ -48,11 +78,68 @@ public record CompensationState(
         return new CompensationState(
                 newNodesToCompensate,
                 newCompensatedNodes,
+                newInFlight,
+                attempts,
                 startedAt,
                 newCompletedAt,
                 newStatus);
     }
 
+    /**
+     * Mark a compensation task for a node as dispatched
+     */
+    public CompensationState markDispatched(NodeId nodeId, int attempt) {
+        if (!nodesToCompensate.contains(nodeId)) {
+            throw new IllegalArgumentException("Node " + nodeId.value() + " is not in the compensation list");
+        }
+
+        Set<NodeId> newInFlight = new HashSet<>(inFlight);
+        newInFlight.add(nodeId);
+
+        Map<NodeId, Integer> newAttempts = new HashMap<>(attempts);
+        newAttempts.put(nodeId, attempt);
+
+        return new CompensationState(
+                nodesToCompensate,
+                compensatedNodes,
+                newInFlight,
+                newAttempts,
+                startedAt,
+                completedAt,
+                CompensationStatus.IN_PROGRESS);
+    }
+
+    /**
+     * Return a node to the ones awaiting dispatch, keeping its attempt count
+     */
+    public CompensationState release(NodeId nodeId) {
+        Set<NodeId> newInFlight = new HashSet<>(inFlight);
+        newInFlight.remove(nodeId);
+
+        return new CompensationState(
+                nodesToCompensate,
+                compensatedNodes,
+                newInFlight,
+                attempts,
+                startedAt,
+                completedAt,
+                status);
+    }
+
+    /**
+     * Return every in-flight node to the ones awaiting dispatch
+     */
+    public CompensationState releaseAll() {
+        return new CompensationState(
+                nodesToCompensate,
+                compensatedNodes,
+                new HashSet<>(),
+                attempts,
+                startedAt,
+                completedAt,
+                status);
+    }
+
     /**
      * Mark compensation as failed
      */
@@ -60,6 +147,8 @@ public record CompensationState(
         return new CompensationState(
                 nodesToCompensate,
                 compensatedNodes,
+                inFlight,
+                attempts,
                 startedAt,
                 Instant.now(),
                 CompensationStatus.FAILED);
@@ -79,6 +168,21 @@ public record CompensationState(
         return status == CompensationStatus.FAILED;
     }
 
+    /**
+     * Check if a compensation task for the node is dispatched and unanswered
+     */
+    public boolean isInFlight(NodeId nodeId) {
+        return inFlight.contains(nodeId);
+    }
+
+    /**
+     * Attempt number of the node's latest compensation task, 0 if none was
+     * dispatched
+     */
+    public int attemptOf(NodeId nodeId) {
+        return attempts.getOrDefault(nodeId, 0);
+    }
+
     /**
      * Get the next node to compensate
      */
@@ -0,0 +1,135 @@
+package tech.kayys.silat.engine.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.eventbus.EventBus;
+import tech.kayys.silat.api.repository.WorkflowRunRepository;
+import tech.kayys.silat.cluster.RunOwnership;
+import tech.kayys.silat.model.NodeDefinition;
+import tech.kayys.silat.model.NodeId;
+import tech.kayys.silat.model.NodeType;
+import tech.kayys.silat.model.Signal;
+import tech.kayys.silat.model.TenantId;
+import tech.kayys.silat.model.WorkflowDefinition;
+import tech.kayys.silat.model.WorkflowDefinitionId;
+import tech.kayys.silat.model.WorkflowRun;
+import tech.kayys.silat.model.WorkflowRunId;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 100k signals spread over a few suspended runs, delivered through
+ * {@link SignalRouter}'s per-run batches
+ *
+ * The run lock stands in for the database: {@code lockLatencyMillis} is
+ * how long each locked transition takes to complete. Run with
+ * {@code mvn -Pjmh -pl core/silat-engine verify}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SignalRoutingBenchmark {
+
+    private static final int SIGNALS = 100_000;
+
+    @Param({ "10", "1000" })
+    int targets;
+
+    @Param({ "0", "1" })
+    int lockLatencyMillis;
+
+    private final TenantId tenantId = TenantId.of("tenant-a");
+    private final Map<WorkflowRunId, WorkflowRun> runs = new ConcurrentHashMap<>();
+    private final List<WorkflowRunId> runIds = new ArrayList<>();
+    private final List<Signal> signals = new ArrayList<>();
+    private DefaultWorkflowRunManager runManager;
+
+    @Setup
+    public void setUp() {
+        SignalRouter router = new SignalRouter();
+        router.maxBatch = 500;
+        router.broadcastConcurrency = 32;
+
+        Duration lockLatency = Duration.ofMillis(lockLatencyMillis);
+        WorkflowRunRepository runRepository = mock(WorkflowRunRepository.class, withSettings().stubOnly());
+        when(runRepository.withLock(any(), any())).thenAnswer(invocation -> {
+            WorkflowRun run = runs.get(invocation.<WorkflowRunId>getArgument(0));
+            Uni<?> applied = invocation.<Function<WorkflowRun, Uni<?>>>getArgument(1).apply(run);
+            return lockLatency.isZero() ? applied : applied.onItem().delayIt().by(lockLatency);
+        });
+        when(runRepository.update(any()))
+                .thenAnswer(invocation -> Uni.createFrom().item(invocation.<WorkflowRun>getArgument(0)));
+
+        InMemoryExecutionHistoryRepository historyRepository = mock(InMemoryExecutionHistoryRepository.class,
+                withSettings().stubOnly());
+        when(historyRepository.append(any(), anyString(), anyString(), anyMap()))
+                .thenReturn(Uni.createFrom().voidItem());
+
+        runManager = new DefaultWorkflowRunManager();
+        runManager.runRepository = runRepository;
+        runManager.historyRepository = historyRepository;
+        runManager.eventBus = mock(EventBus.class, withSettings().stubOnly());
+        runManager.signalRouter = router;
+        runManager.ownership = new RunOwnership();
+
+        NodeId waitNode = NodeId.of("wait");
+        WorkflowDefinition definition = WorkflowDefinition.builder()
+                .id(WorkflowDefinitionId.of("approval"))
+                .tenantId(tenantId)
+                .name("approval")
+                .version("1.0.0")
+                .addNode(new NodeDefinition(waitNode, "wait", NodeType.EVENT_WAIT, "event",
+                        Map.of("signal", "approved"), List.of(), List.of(), null, null, false))
+                .build();
+        for (int i = 0; i < targets; i++) {
+            WorkflowRun run = WorkflowRun.create(tenantId, definition, new HashMap<>());
+            run.start();
+            run.suspend("Waiting for approval", waitNode);
+            runs.put(run.getId(), run);
+            runIds.add(run.getId());
+            router.track(run);
+        }
+        // Never the awaited name: runs stay suspended and buffer the latest of each
+        for (int i = 0; i < 10; i++) {
+            signals.add(new Signal("progress-" + i, null, Map.of(), Instant.now()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIGNALS)
+    public void signal() throws Exception {
+        CompletableFuture<?>[] deliveries = new CompletableFuture<?>[SIGNALS];
+        for (int i = 0; i < SIGNALS; i++) {
+            deliveries[i] = runManager.signal(runIds.get(i % targets), signals.get(i % signals.size()))
+                    .subscribeAsCompletionStage();
+        }
+        CompletableFuture.allOf(deliveries).get(60, TimeUnit.SECONDS);
+    }
+}
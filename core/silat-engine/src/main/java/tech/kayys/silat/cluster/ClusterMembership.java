@@ -0,0 +1,159 @@
+package tech.kayys.silat.cluster;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Live engine instances and the ring that maps runs to them
+ *
+ * Each instance keeps a row in {@code workflow_engine_members} alive by
+ * heartbeat, as the timer shard leases do, so no coordinator beyond the
+ * database is needed. Rows whose lease ran out are dead members. Whenever
+ * the live set changes, a new {@link ConsistentHashRing} is built and the
+ * listeners are told, which is where ownership is handed off. Until the
+ * first heartbeat succeeds, or when clustering is disabled, the ring holds
+ * this instance alone and every run is local.
+ */
+@ApplicationScoped
+public class ClusterMembership {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClusterMembership.class);
+
+    @ConfigProperty(name = "silat.cluster.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "silat.cluster.instance-id")
+    Optional<String> configuredInstanceId;
+
+    @ConfigProperty(name = "silat.cluster.member-ttl", defaultValue = "PT15S")
+    Duration memberTtl;
+
+    @ConfigProperty(name = "silat.cluster.virtual-nodes", defaultValue = "128")
+    int virtualNodes;
+
+    @Inject
+    Pool pgPool;
+
+    private final List<Consumer<ConsistentHashRing>> listeners = new CopyOnWriteArrayList<>();
+    private String instanceId;
+    private volatile ConsistentHashRing ring;
+
+    @PostConstruct
+    void init() {
+        instanceId = configuredInstanceId.filter(id -> !id.isBlank()).orElseGet(() -> UUID.randomUUID().toString());
+        ring = new ConsistentHashRing(Set.of(instanceId), virtualNodes);
+    }
+
+    @PreDestroy
+    void leave() {
+        if (!enabled || ring.members().size() < 2) {
+            return;
+        }
+        // The others hand our runs over on their next heartbeat instead of after the TTL
+        try {
+            pgPool.preparedQuery("DELETE FROM workflow_engine_members WHERE instance_id = $1")
+                    .execute(Tuple.of(instanceId))
+                    .await().atMost(Duration.ofSeconds(5));
+        } catch (RuntimeException e) {
+            LOG.debug("Could not leave the cluster", e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String instanceId() {
+        return instanceId;
+    }
+
+    public ConsistentHashRing ring() {
+        return ring;
+    }
+
+    /**
+     * The instance owning the run, this one while membership is unknown
+     */
+    public String ownerOf(String runId) {
+        String owner = ring.ownerOf(runId);
+        return owner != null ? owner : instanceId;
+    }
+
+    public boolean isLocal(String runId) {
+        return instanceId.equals(ownerOf(runId));
+    }
+
+    /**
+     * Be told of every new ring, on the heartbeat thread
+     */
+    public void onChange(Consumer<ConsistentHashRing> listener) {
+        listeners.add(listener);
+    }
+
+    @Scheduled(every = "${silat.cluster.heartbeat-interval:5s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    Uni<Void> heartbeat() {
+        if (!enabled) {
+            return Uni.createFrom().voidItem();
+        }
+        double ttlSeconds = memberTtl.toMillis() / 1000.0;
+        return pgPool.preparedQuery("INSERT INTO workflow_engine_members (instance_id, started_at, expires_at)"
+                + " VALUES ($1, now(), now() + make_interval(secs => $2))"
+                + " ON CONFLICT (instance_id) DO UPDATE SET expires_at = EXCLUDED.expires_at")
+                .execute(Tuple.of(instanceId, ttlSeconds))
+                .chain(() -> pgPool.preparedQuery(
+                        "SELECT instance_id FROM workflow_engine_members WHERE expires_at > now()")
+                        .execute())
+                .invoke(rows -> {
+                    Set<String> live = new HashSet<>();
+                    for (Row row : rows) {
+                        live.add(row.getString("instance_id"));
+                    }
+                    update(live);
+                })
+                .replaceWithVoid()
+                .onFailure().invoke(error -> LOG.warn("Cluster heartbeat failed", error))
+                .onFailure().recoverWithNull();
+    }
+
+    /**
+     * Take the live members; a changed set replaces the ring
+     */
+    void update(Set<String> live) {
+        Set<String> members = new HashSet<>(live);
+        members.add(instanceId);
+        ConsistentHashRing current = ring;
+        if (current.members().equals(members)) {
+            return;
+        }
+        ConsistentHashRing next = new ConsistentHashRing(members, virtualNodes);
+        ring = next;
+        LOG.info("Cluster membership changed: {} -> {} instances", current.members().size(), members.size());
+        for (Consumer<ConsistentHashRing> listener : listeners) {
+            try {
+                listener.accept(next);
+            } catch (RuntimeException e) {
+                LOG.warn("Cluster membership listener failed", e);
+            }
+        }
+    }
+}
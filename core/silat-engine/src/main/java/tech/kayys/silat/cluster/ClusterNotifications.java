@@ -0,0 +1,290 @@
+package tech.kayys.silat.cluster;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.eventbus.DeliveryContext;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.json.JsonObject;
+import io.vertx.mutiny.core.eventbus.EventBus;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+/**
+ * Bridges run notifications on the local event bus across engine instances
+ *
+ * With a {@link ClusterTransport} selected by
+ * {@code silat.cluster.notifications.transport} ({@code postgres} or
+ * {@code redis}; {@code local}, the default, bridges nothing), messages
+ * published on {@link #ADDRESSES} do not stay on the publishing instance.
+ * They are coalesced, so a run updated several times within
+ * {@code silat.cluster.notifications.linger} is announced once, and sent
+ * in batches of up to {@code silat.cluster.notifications.batch-size}. The
+ * instance a batch is delivered to publishes each notification on its own
+ * event bus, marked so it is not bridged again, and acknowledges the batch
+ * once the local consumers have answered. Consumers that failed still
+ * count as delivered; only a batch that was not handed over in time is
+ * delivered again. Any instance can thus drive any run, and a result
+ * reported to one instance survives that instance going down.
+ *
+ * Messages published on {@link #BROADCAST_ADDRESSES} concern whoever is
+ * waiting on any instance, so they go to every instance instead: they are
+ * handed to the local consumers right away and sent to the others with a
+ * Postgres {@code NOTIFY}. A broadcast missed while an instance's
+ * {@code LISTEN} connection is down is lost; its waiters run into their
+ * timeout.
+ */
+@ApplicationScoped
+public class ClusterNotifications {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClusterNotifications.class);
+
+    public static final Set<String> ADDRESSES = Set.of("silat.runs.v1.updated", "silat.results");
+
+    /** Addresses whose notifications reach every instance rather than one */
+    public static final Set<String> BROADCAST_ADDRESSES = Set.of("silat.runs.v1.completed");
+
+    static final String BROADCAST_CHANNEL = "silat_cluster_broadcast";
+
+    /** Header of notifications that came in over the transport */
+    public static final String BRIDGED = "silat-bridged";
+
+    @ConfigProperty(name = "silat.cluster.notifications.transport", defaultValue = "local")
+    String transportName;
+
+    @ConfigProperty(name = "silat.cluster.notifications.batch-size", defaultValue = "500")
+    int batchSize;
+
+    @ConfigProperty(name = "silat.cluster.notifications.linger", defaultValue = "PT0.005S")
+    Duration linger;
+
+    @ConfigProperty(name = "silat.cluster.notifications.delivery-timeout", defaultValue = "PT30S")
+    Duration deliveryTimeout;
+
+    @Inject
+    Instance<ClusterTransport> transports;
+
+    @Inject
+    ClusterMembership membership;
+
+    @Inject
+    EventBus eventBus;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    Pool pgPool;
+
+    @Inject
+    PgChannels channels;
+
+    private final Object lock = new Object();
+    private Map<String, String> pending = new LinkedHashMap<>();
+    private boolean flushScheduled;
+    private volatile ClusterTransport transport;
+    private volatile boolean broadcasting;
+
+    void onStart(@Observes StartupEvent event) {
+        if ("local".equals(transportName)) {
+            return;
+        }
+        ClusterTransport selected = transports.stream()
+                .filter(candidate -> candidate.name().equals(transportName))
+                .findFirst()
+                .orElse(null);
+        if (selected == null) {
+            LOG.warn("Unknown cluster notification transport '{}', notifications stay local", transportName);
+            return;
+        }
+        start(selected);
+    }
+
+    void start(ClusterTransport selected) {
+        transport = selected;
+        eventBus.getDelegate().addOutboundInterceptor(this::intercept);
+        selected.start(membership.instanceId(), this::deliver);
+        LOG.info("Bridging {} across instances over {}", ADDRESSES, selected.name());
+        broadcasting = channels.listen(BROADCAST_CHANNEL, this::onBroadcast);
+        if (!broadcasting) {
+            LOG.warn("Cannot LISTEN for broadcasts, {} stay on the publishing instance", BROADCAST_ADDRESSES);
+        }
+    }
+
+    /**
+     * True while {@link #BROADCAST_ADDRESSES} reach every instance; with
+     * the local transport they stay on the publishing one
+     */
+    public boolean broadcasting() {
+        return broadcasting;
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        ClusterTransport current = transport;
+        if (current != null) {
+            current.stop();
+            flush();
+        }
+    }
+
+    // Published notifications leave through the transport instead of the local consumers
+    void intercept(DeliveryContext<Object> context) {
+        String address = context.message().address();
+        if (broadcasting && !context.send() && BROADCAST_ADDRESSES.contains(address)
+                && !context.message().headers().contains(BRIDGED)) {
+            context.next();
+            broadcast(address, context.body());
+            return;
+        }
+        if (context.send() || !ADDRESSES.contains(address) || context.message().headers().contains(BRIDGED)) {
+            context.next();
+            return;
+        }
+        Object body = context.body();
+        String key = address + "|" + (body instanceof JsonObject json ? json.encode() : String.valueOf(body));
+        String notification = new JsonObject()
+                .put("address", address)
+                .put("body", body)
+                .put("publishedAt", System.currentTimeMillis())
+                .encode();
+        boolean flushNow = false;
+        boolean scheduleFlush = false;
+        synchronized (lock) {
+            if (pending.putIfAbsent(key, notification) != null) {
+                counter("coalesced").increment();
+                return;
+            }
+            if (pending.size() >= batchSize) {
+                flushNow = true;
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                scheduleFlush = true;
+            }
+        }
+        if (flushNow) {
+            flush();
+        } else if (scheduleFlush) {
+            Uni.createFrom().voidItem()
+                    .onItem().delayIt().by(linger)
+                    .subscribe().with(ignored -> flush());
+        }
+    }
+
+    void flush() {
+        List<String> batch;
+        synchronized (lock) {
+            flushScheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pending.values());
+            pending = new LinkedHashMap<>();
+        }
+        transport.send(batch).subscribe().with(
+                ignored -> counter("sent").increment(batch.size()),
+                failure -> {
+                    // Better handled here alone than lost
+                    LOG.warn("Could not send {} cluster notifications, handling them locally", batch.size(), failure);
+                    deliver(batch).subscribe().with(
+                            ignored -> {
+                            },
+                            error -> LOG.warn("Failed to handle cluster notifications locally", error));
+                });
+    }
+
+    private void broadcast(String address, Object body) {
+        String payload = new JsonObject()
+                .put("origin", membership.instanceId())
+                .put("address", address)
+                .put("body", body)
+                .encode();
+        pgPool.preparedQuery("SELECT pg_notify($1, $2)")
+                .execute(Tuple.of(BROADCAST_CHANNEL, payload))
+                .subscribe().with(
+                        ignored -> counter("broadcast").increment(),
+                        failure -> LOG.warn("Could not broadcast a notification on {}", address, failure));
+    }
+
+    // Broadcasts of other instances go to the local consumers; a null payload only means (re)subscribed
+    void onBroadcast(String payload) {
+        if (payload == null) {
+            return;
+        }
+        JsonObject notification = new JsonObject(payload);
+        if (membership.instanceId().equals(notification.getString("origin"))) {
+            return;
+        }
+        eventBus.publish(notification.getString("address"), notification.getValue("body"),
+                new DeliveryOptions().addHeader(BRIDGED, "true"));
+    }
+
+    /**
+     * Hand a delivered batch to the local consumers; completes, and so
+     * acknowledges the batch, once every notification was taken
+     */
+    Uni<Void> deliver(List<String> batch) {
+        Map<String, JsonObject> distinct = new LinkedHashMap<>();
+        for (String raw : batch) {
+            JsonObject notification = new JsonObject(raw);
+            Object body = notification.getValue("body");
+            String key = notification.getString("address") + "|"
+                    + (body instanceof JsonObject json ? json.encode() : String.valueOf(body));
+            if (distinct.putIfAbsent(key, notification) != null) {
+                counter("coalesced").increment();
+            }
+        }
+        long now = System.currentTimeMillis();
+        DeliveryOptions options = new DeliveryOptions()
+                .addHeader(BRIDGED, "true")
+                .setSendTimeout(deliveryTimeout.toMillis());
+        return Multi.createFrom().iterable(distinct.values())
+                .onItem().transformToUniAndMerge(notification -> {
+                    lag().record(Duration.ofMillis(Math.max(0, now - notification.getLong("publishedAt", now))));
+                    return eventBus.request(notification.getString("address"), notification.getValue("body"), options)
+                            .replaceWithVoid()
+                            .onFailure(ClusterNotifications::taken).recoverWithNull();
+                })
+                .collect().last()
+                .invoke(() -> counter("delivered").increment(distinct.size()))
+                .replaceWithVoid();
+    }
+
+    // The consumer had it, even if it failed with it; only a timeout means it was not taken
+    private static boolean taken(Throwable failure) {
+        return failure instanceof ReplyException reply && reply.failureType() != ReplyFailure.TIMEOUT;
+    }
+
+    private Counter counter(String outcome) {
+        return Counter.builder("silat.cluster.notifications")
+                .description("Run notifications bridged across instances, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Timer lag() {
+        return Timer.builder("silat.cluster.notifications.lag")
+                .description("Time from publishing a notification to its delivery on some instance")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,36 @@
+package tech.kayys.silat.cluster;
+
+import java.util.List;
+import java.util.function.Function;
+
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Carries batches of notifications between engine instances
+ *
+ * Every batch sent is delivered to one instance, whichever is free to take
+ * it, so any instance can pick up work published on another. Delivery is
+ * at least once: a batch is acknowledged when the handler's {@link Uni}
+ * completes, and one whose handler failed, or whose instance died before
+ * finishing it, is delivered again, possibly to another instance.
+ * Selected by {@code silat.cluster.notifications.transport}.
+ */
+public interface ClusterTransport {
+
+    /**
+     * Value of {@code silat.cluster.notifications.transport} selecting this transport
+     */
+    String name();
+
+    /**
+     * Make the batch durable; it is not lost once the returned Uni completes
+     */
+    Uni<Void> send(List<String> batch);
+
+    /**
+     * Start delivering batches to the handler as the given consumer
+     */
+    void start(String consumer, Function<List<String>, Uni<Void>> handler);
+
+    void stop();
+}
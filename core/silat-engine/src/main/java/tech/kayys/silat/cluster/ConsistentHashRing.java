@@ -0,0 +1,80 @@
+package tech.kayys.silat.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Consistent-hash ring of engine instances
+ *
+ * Every member is placed on the ring at {@code virtualNodes} points, and a
+ * key belongs to the first member point at or after the key's hash. When a
+ * member joins or leaves, only the keys between its points and their
+ * neighbours change owner. The ring is immutable; membership changes build
+ * a new one.
+ */
+public final class ConsistentHashRing {
+
+    private final Set<String> members;
+    private final long[] points;
+    private final String[] owners;
+
+    public ConsistentHashRing(Collection<String> members, int virtualNodes) {
+        this.members = Set.copyOf(new TreeSet<>(members));
+        int perMember = Math.max(1, virtualNodes);
+        long[][] placed = new long[this.members.size() * perMember][];
+        String[] sortedMembers = new TreeSet<>(members).toArray(String[]::new);
+        int next = 0;
+        for (int m = 0; m < sortedMembers.length; m++) {
+            for (int v = 0; v < perMember; v++) {
+                placed[next++] = new long[] { hash(sortedMembers[m] + "#" + v), m };
+            }
+        }
+        Arrays.sort(placed, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        this.points = new long[placed.length];
+        this.owners = new String[placed.length];
+        for (int i = 0; i < placed.length; i++) {
+            points[i] = placed[i][0];
+            owners[i] = sortedMembers[(int) placed[i][1]];
+        }
+    }
+
+    public Set<String> members() {
+        return members;
+    }
+
+    public boolean isEmpty() {
+        return points.length == 0;
+    }
+
+    /**
+     * The member owning the key, null on an empty ring
+     */
+    public String ownerOf(String key) {
+        if (points.length == 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    // FNV-1a over the UTF-8 bytes, finished with the murmur3 64-bit mix
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
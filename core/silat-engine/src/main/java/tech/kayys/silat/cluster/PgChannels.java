@@ -0,0 +1,129 @@
+package tech.kayys.silat.cluster;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.pgclient.pubsub.PgSubscriber;
+import io.vertx.pgclient.PgConnectOptions;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Postgres {@code LISTEN} on one dedicated connection
+ *
+ * Notifications only wake their listeners; whatever they announce is read
+ * from its table, so a notification missed while the connection was down
+ * costs nothing but latency. Listeners are also woken each time the
+ * connection (re)subscribes, to catch up on what was missed.
+ */
+@ApplicationScoped
+public class PgChannels {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PgChannels.class);
+
+    @ConfigProperty(name = "quarkus.datasource.reactive.url")
+    Optional<String> url;
+
+    @ConfigProperty(name = "quarkus.datasource.username")
+    Optional<String> username;
+
+    @ConfigProperty(name = "quarkus.datasource.password")
+    Optional<String> password;
+
+    @ConfigProperty(name = "silat.postgres.listen.reconnect-delay", defaultValue = "PT1S")
+    Duration reconnectDelay;
+
+    @Inject
+    Vertx vertx;
+
+    private final Map<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+    private PgSubscriber subscriber;
+    private boolean unavailable;
+    private volatile boolean stopped;
+
+    /**
+     * Call the listener on every notification of the channel; returns
+     * false when there is no connection to listen on and callers must rely
+     * on polling alone
+     */
+    public boolean listen(String channel, Runnable listener) {
+        return listen(channel, payload -> listener.run());
+    }
+
+    /**
+     * Like {@link #listen(String, Runnable)}, handing the listener each
+     * notification's payload, or null when the connection (re)subscribed
+     */
+    public synchronized boolean listen(String channel, Consumer<String> listener) {
+        PgSubscriber pg = subscriber();
+        if (pg == null) {
+            return false;
+        }
+        List<Consumer<String>> channelListeners = listeners.get(channel);
+        if (channelListeners == null) {
+            channelListeners = new CopyOnWriteArrayList<>();
+            listeners.put(channel, channelListeners);
+            List<Consumer<String>> wake = channelListeners;
+            pg.channel(channel)
+                    .subscribeHandler(() -> wake.forEach(each -> each.accept(null)))
+                    .handler(payload -> wake.forEach(each -> each.accept(payload)));
+        }
+        channelListeners.add(listener);
+        return true;
+    }
+
+    private PgSubscriber subscriber() {
+        if (subscriber != null || unavailable) {
+            return subscriber;
+        }
+        if (url.isEmpty()) {
+            unavailable = true;
+            LOG.warn("No reactive datasource URL to LISTEN on; notifications fall back to polling");
+            return null;
+        }
+        PgConnectOptions options = PgConnectOptions.fromUri(url.get());
+        username.ifPresent(options::setUser);
+        password.ifPresent(options::setPassword);
+        subscriber = PgSubscriber.subscriber(vertx, options)
+                .reconnectPolicy(retries -> reconnectDelay.toMillis());
+        connect(subscriber);
+        return subscriber;
+    }
+
+    // The reconnect policy only covers a connection that was up, so the first one is retried here
+    private void connect(PgSubscriber pg) {
+        pg.connect().subscribe().with(
+                ignored -> LOG.info("Listening for Postgres notifications"),
+                failure -> {
+                    LOG.warn("Could not connect to LISTEN for Postgres notifications, retrying: {}",
+                            failure.getMessage());
+                    vertx.setTimer(reconnectDelay.toMillis(), id -> {
+                        if (!stopped) {
+                            connect(pg);
+                        }
+                    });
+                });
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        stopped = true;
+        if (subscriber != null) {
+            subscriber.close().subscribe().with(
+                    ignored -> {
+                    },
+                    failure -> LOG.debug("Failed to close the LISTEN connection", failure));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package tech.kayys.silat.cluster;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.Cancellable;
+import io.vertx.core.json.JsonArray;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Notifications through a Postgres table, woken by {@code LISTEN/NOTIFY}
+ *
+ * Each batch is one row of {@code workflow_cluster_notifications}, inserted
+ * together with a {@code NOTIFY} that wakes the listening instances; the
+ * notification itself carries nothing, so its 8000-byte payload limit and
+ * its loss while a listener is disconnected do not matter. A woken instance
+ * claims a page of rows with {@code FOR UPDATE SKIP LOCKED}, so each row
+ * goes to one instance, and deletes them once handled. A claim that was
+ * not deleted, because the handler failed or its instance died, runs out
+ * after {@code silat.cluster.notifications.postgres.claim-ttl} and the rows
+ * are claimed again. Instances also poll every
+ * {@code silat.cluster.notifications.postgres.poll-interval} in case a
+ * wake-up was lost.
+ */
+@ApplicationScoped
+public class PostgresNotificationTransport implements ClusterTransport {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PostgresNotificationTransport.class);
+
+    static final String CHANNEL = "silat_cluster_notifications";
+
+    @ConfigProperty(name = "silat.cluster.notifications.postgres.claim-size", defaultValue = "50")
+    int claimSize;
+
+    @ConfigProperty(name = "silat.cluster.notifications.postgres.claim-ttl", defaultValue = "PT30S")
+    Duration claimTtl;
+
+    @ConfigProperty(name = "silat.cluster.notifications.postgres.poll-interval", defaultValue = "PT1S")
+    Duration pollInterval;
+
+    @Inject
+    Pool pgPool;
+
+    @Inject
+    PgChannels channels;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean woken = new AtomicBoolean();
+    private volatile String consumer;
+    private volatile Function<List<String>, Uni<Void>> handler;
+    private Cancellable poller;
+
+    @Override
+    public String name() {
+        return "postgres";
+    }
+
+    @Override
+    public Uni<Void> send(List<String> batch) {
+        return pgPool.preparedQuery("WITH added AS (INSERT INTO workflow_cluster_notifications (batch)"
+                + " VALUES ($1) RETURNING id) SELECT pg_notify($2, '') FROM added")
+                .execute(Tuple.of(new JsonArray(batch).encode(), CHANNEL))
+                .replaceWithVoid();
+    }
+
+    @Override
+    public void start(String consumer, Function<List<String>, Uni<Void>> handler) {
+        this.consumer = consumer;
+        this.handler = handler;
+        channels.listen(CHANNEL, this::wake);
+        poller = Multi.createFrom().ticks().every(pollInterval)
+                .subscribe().with(tick -> wake());
+    }
+
+    @Override
+    public void stop() {
+        handler = null;
+        if (poller != null) {
+            poller.cancel();
+        }
+    }
+
+    // Drain on one pipeline at a time; a wake-up during a drain makes it go round again
+    void wake() {
+        woken.set(true);
+        if (handler == null || !draining.compareAndSet(false, true)) {
+            return;
+        }
+        woken.set(false);
+        drain().subscribe().with(
+                more -> finishDrain(more),
+                failure -> {
+                    LOG.warn("Failed to drain cluster notifications", failure);
+                    finishDrain(false);
+                });
+    }
+
+    private void finishDrain(boolean more) {
+        draining.set(false);
+        if (more || woken.get()) {
+            wake();
+        }
+    }
+
+    // Claim, handle and delete one page; true when the page was full
+    private Uni<Boolean> drain() {
+        double ttlSeconds = claimTtl.toMillis() / 1000.0;
+        return pgPool.preparedQuery("UPDATE workflow_cluster_notifications"
+                + " SET claimed_by = $1, claimed_until = now() + make_interval(secs => $2)"
+                + " WHERE id IN (SELECT id FROM workflow_cluster_notifications"
+                + " WHERE claimed_until IS NULL OR claimed_until < now()"
+                + " ORDER BY id LIMIT $3 FOR UPDATE SKIP LOCKED)"
+                + " RETURNING id, batch")
+                .execute(Tuple.of(consumer, ttlSeconds, claimSize))
+                .chain(rows -> {
+                    List<Row> claimed = new ArrayList<>();
+                    rows.forEach(claimed::add);
+                    if (claimed.isEmpty()) {
+                        return Uni.createFrom().item(false);
+                    }
+                    claimed.sort(Comparator.comparingLong(row -> row.getLong("id")));
+                    List<String> notifications = new ArrayList<>();
+                    for (Row row : claimed) {
+                        new JsonArray(row.getString("batch")).forEach(entry -> notifications.add((String) entry));
+                    }
+                    Long[] ids = claimed.stream().map(row -> row.getLong("id")).toArray(Long[]::new);
+                    Function<List<String>, Uni<Void>> current = handler;
+                    if (current == null) {
+                        return Uni.createFrom().item(false);
+                    }
+                    return current.apply(notifications)
+                            .chain(() -> pgPool.preparedQuery(
+                                    "DELETE FROM workflow_cluster_notifications WHERE id = ANY($1)")
+                                    .execute(Tuple.of(ids)))
+                            .map(ignored -> claimed.size() == claimSize);
+                });
+    }
+}
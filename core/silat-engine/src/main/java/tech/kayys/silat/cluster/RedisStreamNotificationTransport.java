@@ -0,0 +1,149 @@
+package tech.kayys.silat.cluster;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.redis.datasource.stream.ReactiveStreamCommands;
+import io.quarkus.redis.datasource.stream.StreamMessage;
+import io.quarkus.redis.datasource.stream.XAddArgs;
+import io.quarkus.redis.datasource.stream.XGroupCreateArgs;
+import io.quarkus.redis.datasource.stream.XReadGroupArgs;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.json.JsonArray;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Notifications through a Redis stream read by a consumer group
+ *
+ * Each batch is one entry of the {@code silat:cluster:notifications}
+ * stream, capped at about {@code silat.cluster.notifications.redis.max-length}
+ * entries. All engine instances read it in the {@code silat-engine} group,
+ * so each entry goes to one of them, and acknowledge it once handled. An
+ * entry left pending for {@code silat.cluster.notifications.redis.claim-idle},
+ * because its handler failed or its instance died, is claimed by the next
+ * instance to look and delivered again.
+ */
+@ApplicationScoped
+public class RedisStreamNotificationTransport implements ClusterTransport {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RedisStreamNotificationTransport.class);
+
+    static final String STREAM = "silat:cluster:notifications";
+    static final String GROUP = "silat-engine";
+    private static final String FIELD = "batch";
+
+    @ConfigProperty(name = "silat.cluster.notifications.redis.max-length", defaultValue = "100000")
+    long maxLength;
+
+    @ConfigProperty(name = "silat.cluster.notifications.redis.read-count", defaultValue = "50")
+    int readCount;
+
+    @ConfigProperty(name = "silat.cluster.notifications.redis.block", defaultValue = "PT2S")
+    Duration block;
+
+    @ConfigProperty(name = "silat.cluster.notifications.redis.claim-idle", defaultValue = "PT30S")
+    Duration claimIdle;
+
+    @ConfigProperty(name = "silat.cluster.notifications.redis.retry-delay", defaultValue = "PT1S")
+    Duration retryDelay;
+
+    @Inject
+    ReactiveRedisDataSource redis;
+
+    private volatile String consumer;
+    private volatile Function<List<String>, Uni<Void>> handler;
+    private volatile long lastClaim;
+
+    @Override
+    public String name() {
+        return "redis";
+    }
+
+    @Override
+    public Uni<Void> send(List<String> batch) {
+        return stream().xadd(STREAM, new XAddArgs().maxlen(maxLength).nearlyExactTrimming(),
+                Map.of(FIELD, new JsonArray(batch).encode()))
+                .replaceWithVoid();
+    }
+
+    @Override
+    public void start(String consumer, Function<List<String>, Uni<Void>> handler) {
+        this.consumer = consumer;
+        this.handler = handler;
+        lastClaim = System.nanoTime();
+        stream().xgroupCreate(STREAM, GROUP, "$", new XGroupCreateArgs().mkstream())
+                .onFailure(failure -> String.valueOf(failure.getMessage()).contains("BUSYGROUP"))
+                .recoverWithNull()
+                .subscribe().with(
+                        ignored -> read(),
+                        failure -> {
+                            LOG.warn("Could not join the {} consumer group, retrying", GROUP, failure);
+                            retry(() -> start(consumer, handler));
+                        });
+    }
+
+    @Override
+    public void stop() {
+        handler = null;
+    }
+
+    // One read at a time: the next is issued when this one has been handled
+    private void read() {
+        if (handler == null) {
+            return;
+        }
+        Uni<List<StreamMessage<String, String, String>>> next;
+        if (System.nanoTime() - lastClaim > claimIdle.toNanos()) {
+            lastClaim = System.nanoTime();
+            next = stream().xautoclaim(STREAM, GROUP, consumer, claimIdle, "0-0", readCount)
+                    .map(claimed -> claimed.getMessages());
+        } else {
+            next = stream().xreadgroup(GROUP, consumer, STREAM, ">",
+                    new XReadGroupArgs().count(readCount).block(block));
+        }
+        next.chain(this::handle).subscribe().with(
+                ignored -> read(),
+                failure -> {
+                    LOG.warn("Failed to read cluster notifications", failure);
+                    retry(this::read);
+                });
+    }
+
+    private Uni<Void> handle(List<StreamMessage<String, String, String>> messages) {
+        Function<List<String>, Uni<Void>> current = handler;
+        if (messages == null || messages.isEmpty() || current == null) {
+            return Uni.createFrom().voidItem();
+        }
+        List<String> notifications = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        for (StreamMessage<String, String, String> message : messages) {
+            ids.add(message.id());
+            String batch = message.payload() != null ? message.payload().get(FIELD) : null;
+            if (batch != null) {
+                new JsonArray(batch).forEach(entry -> notifications.add((String) entry));
+            }
+        }
+        return current.apply(notifications)
+                .chain(() -> stream().xack(STREAM, GROUP, ids.toArray(String[]::new)))
+                .replaceWithVoid();
+    }
+
+    private void retry(Runnable action) {
+        Uni.createFrom().voidItem()
+                .onItem().delayIt().by(retryDelay)
+                .subscribe().with(ignored -> action.run());
+    }
+
+    private ReactiveStreamCommands<String, String, String> stream() {
+        return redis.stream(String.class);
+    }
+}
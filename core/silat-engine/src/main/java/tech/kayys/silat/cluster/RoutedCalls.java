@@ -0,0 +1,97 @@
+package tech.kayys.silat.cluster;
+
+import java.time.Instant;
+import java.util.Map;
+
+import io.vertx.core.json.JsonObject;
+import tech.kayys.silat.execution.DefaultNodeExecutionResult;
+import tech.kayys.silat.execution.NodeExecutionResult;
+import tech.kayys.silat.execution.NodeExecutionStatus;
+import tech.kayys.silat.model.ErrorInfo;
+import tech.kayys.silat.model.ExecutionToken;
+import tech.kayys.silat.model.NodeId;
+import tech.kayys.silat.model.Signal;
+import tech.kayys.silat.model.WorkflowRunId;
+
+/**
+ * Wire form of the run calls {@link RunOwnership} routes to a run's owner
+ */
+public final class RoutedCalls {
+
+    /** A node result for {@code handleNodeResult} */
+    public static final String RESULT = "result";
+
+    /** A signal for {@code signal} */
+    public static final String SIGNAL = "signal";
+
+    /** A drive cycle of the orchestrator, which plans and dispatches the run's ready nodes */
+    public static final String DRIVE = "drive";
+
+    private RoutedCalls() {
+    }
+
+    public static JsonObject toJson(NodeExecutionResult result) {
+        JsonObject json = new JsonObject()
+                .put("runId", result.runId() != null ? result.runId().value() : null)
+                .put("nodeId", result.nodeId().value())
+                .put("attempt", result.attempt())
+                .put("status", result.status().name())
+                .put("output", result.output() != null ? new JsonObject(result.output()) : null);
+        if (result.error() != null) {
+            json.put("error", new JsonObject()
+                    .put("code", result.error().code())
+                    .put("message", result.error().message())
+                    .put("stackTrace", result.error().stackTrace())
+                    .put("context", new JsonObject(result.error().context())));
+        }
+        ExecutionToken token = result.executionToken();
+        if (token != null) {
+            json.put("token", new JsonObject()
+                    .put("token", token.token())
+                    .put("expiresAt", token.expiresAt().toString()));
+        }
+        return json;
+    }
+
+    public static NodeExecutionResult resultFrom(JsonObject json) {
+        WorkflowRunId runId = json.getString("runId") != null ? WorkflowRunId.of(json.getString("runId")) : null;
+        NodeId nodeId = NodeId.of(json.getString("nodeId"));
+        int attempt = json.getInteger("attempt", 0);
+        JsonObject error = json.getJsonObject("error");
+        JsonObject token = json.getJsonObject("token");
+        return new DefaultNodeExecutionResult(
+                runId,
+                nodeId,
+                attempt,
+                NodeExecutionStatus.valueOf(json.getString("status")),
+                json.getJsonObject("output") != null ? json.getJsonObject("output").getMap() : null,
+                error != null
+                        ? new ErrorInfo(error.getString("code"), error.getString("message"),
+                                error.getString("stackTrace"), mapOf(error.getJsonObject("context")))
+                        : null,
+                token != null && runId != null
+                        ? new ExecutionToken(token.getString("token"), runId, nodeId, attempt,
+                                Instant.parse(token.getString("expiresAt")))
+                        : null);
+    }
+
+    public static JsonObject toJson(Signal signal) {
+        return new JsonObject()
+                .put("name", signal.name())
+                .put("targetNodeId", signal.targetNodeId() != null ? signal.targetNodeId().value() : null)
+                .put("payload", signal.payload() != null ? new JsonObject(signal.payload()) : null)
+                .put("timestamp", signal.timestamp() != null ? signal.timestamp().toString() : null);
+    }
+
+    public static Signal signalFrom(JsonObject json) {
+        return new Signal(
+                json.getString("name"),
+                json.getString("targetNodeId") != null ? NodeId.of(json.getString("targetNodeId")) : null,
+                json.getJsonObject("payload") != null ? json.getJsonObject("payload").getMap() : null,
+                json.getString("timestamp") != null ? Instant.parse(json.getString("timestamp")) : null);
+    }
+
+    private static Map<String, Object> mapOf(JsonObject json) {
+        return json != null ? json.getMap() : Map.of();
+    }
+}
@@ -0,0 +1,316 @@
+package tech.kayys.silat.cluster;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.json.JsonObject;
+import io.vertx.mutiny.core.eventbus.EventBus;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import tech.kayys.silat.model.TenantId;
+import tech.kayys.silat.model.WorkflowRun;
+import tech.kayys.silat.model.WorkflowRunId;
+import tech.kayys.silat.model.WorkflowRunSnapshot;
+
+/**
+ * Routes run calls to the instance owning the run
+ *
+ * {@link ClusterMembership} maps every run to one live instance. Calls
+ * that change a run, such as node results and signals, are sent to that
+ * owner over its Redis channel ({@code silat:cluster:<instanceId>}) and
+ * applied there, so the run's lock stays on one instance and the owner
+ * keeps the run's latest snapshot in memory for reads. The owner hands
+ * the call to the local event bus at {@link #address(String)}, where the
+ * run manager applies it, and replies once it is applied.
+ *
+ * Ownership is an optimisation, not a guarantee: the database row lock
+ * still serialises every change. A call is applied locally only when the
+ * owner cannot have applied it: nobody was listening on its channel, the
+ * publish failed, or the owner had no handler for it. A call the owner
+ * received but did not confirm within {@code silat.cluster.routing.timeout}
+ * fails with {@link RoutingTimeoutException} instead, since the owner may
+ * still apply it; the caller retries it like any other failed call.
+ *
+ * When the ring changes, snapshots of runs this instance no longer owns
+ * are dropped, and calls still waiting on an owner that left the ring fail
+ * at once with {@link RoutingTimeoutException} rather than at the timeout.
+ * Signals and child results already queued in the run manager's inboxes
+ * stay where they are: they are applied here under the row lock like any
+ * local call, and their callers are answered as usual.
+ */
+@ApplicationScoped
+public class RunOwnership {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RunOwnership.class);
+
+    private static final String CHANNEL_PREFIX = "silat:cluster:";
+    private static final String ADDRESS_PREFIX = "silat.cluster.routed.";
+
+    @ConfigProperty(name = "silat.cluster.routing.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "silat.cluster.routing.timeout", defaultValue = "PT5S")
+    Duration timeout;
+
+    @ConfigProperty(name = "silat.cluster.snapshot-ttl", defaultValue = "PT2S")
+    Duration snapshotTtl;
+
+    @ConfigProperty(name = "silat.cluster.snapshot-cache-size", defaultValue = "10000")
+    int snapshotCacheSize;
+
+    @Inject
+    ClusterMembership membership;
+
+    @Inject
+    ReactiveRedisDataSource redis;
+
+    @Inject
+    EventBus eventBus;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    private final Map<String, PendingCall> pending = new ConcurrentHashMap<>();
+    private final Map<String, CachedSnapshot> snapshots = new ConcurrentHashMap<>();
+    private volatile boolean listening;
+
+    /**
+     * Local event-bus address the owner applies routed calls of a kind at;
+     * the message body is the call with the run id under {@code runId}
+     */
+    public static String address(String kind) {
+        return ADDRESS_PREFIX + kind;
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled || !membership.isEnabled()) {
+            return;
+        }
+        membership.onChange(this::handOff);
+        redis.pubsub(String.class)
+                .subscribe(CHANNEL_PREFIX + membership.instanceId(), this::onMessage)
+                .subscribe().with(
+                        subscriber -> {
+                            listening = true;
+                            LOG.info("Routing run calls to their owners as instance {}", membership.instanceId());
+                        },
+                        failure -> LOG.warn("Run call routing unavailable, every run is handled locally",
+                                failure));
+    }
+
+    /**
+     * Apply the call on the run's owner, or locally when that is this
+     * instance or the call never reached the owner
+     */
+    public Uni<Void> route(WorkflowRunId runId, String kind, Supplier<JsonObject> call, Supplier<Uni<Void>> local) {
+        if (!listening) {
+            return local.get();
+        }
+        String owner = membership.ownerOf(runId.value());
+        if (owner.equals(membership.instanceId())) {
+            return local.get();
+        }
+        Context context = Vertx.currentContext();
+        return forward(owner, kind, runId, call.get())
+                .invoke(() -> routed(kind, "forwarded").increment())
+                .onFailure(Unroutable.class).recoverWithUni(failure -> {
+                    LOG.debug("Applying {} of run {} locally: {}", kind, runId.value(), failure.getMessage());
+                    routed(kind, "local").increment();
+                    return local.get();
+                })
+                .emitOn(context != null ? command -> context.runOnContext(ignored -> command.run()) : Runnable::run);
+    }
+
+    private Uni<Void> forward(String owner, String kind, WorkflowRunId runId, JsonObject call) {
+        String id = UUID.randomUUID().toString();
+        CompletableFuture<JsonObject> reply = new CompletableFuture<>();
+        pending.put(id, new PendingCall(owner, reply));
+        JsonObject message = new JsonObject()
+                .put("id", id)
+                .put("from", membership.instanceId())
+                .put("kind", kind)
+                .put("runId", runId.value())
+                .put("call", call);
+        // PUBLISH answers with the number of subscribers that received the message
+        return redis.execute("PUBLISH", CHANNEL_PREFIX + owner, message.encode())
+                .onFailure().transform(failure -> new Unroutable("owner " + owner + " unreachable: " + failure))
+                .chain(receivers -> receivers == null || receivers.toLong() == 0
+                        ? Uni.createFrom().failure(new Unroutable("owner " + owner + " is not listening"))
+                        : Uni.createFrom().completionStage(reply)
+                                .ifNoItem().after(timeout).failWith(() -> timedOut(owner, kind, runId)))
+                .eventually(() -> pending.remove(id))
+                .flatMap(response -> switch (response.getString("status")) {
+                    case "applied" -> Uni.createFrom().voidItem();
+                    case "failed" -> Uni.createFrom().failure(new IllegalStateException(
+                            response.getString("error")));
+                    case "unhandled" -> Uni.createFrom().failure(
+                            new Unroutable("owner " + owner + " has no handler for it"));
+                    case "owner-left" -> Uni.createFrom().failure(new RoutingTimeoutException("Instance " + owner
+                            + " left before confirming " + kind + " of run " + runId.value() + "; it may have applied it"));
+                    default -> Uni.createFrom().failure(timedOut(owner, kind, runId));
+                });
+    }
+
+    private RoutingTimeoutException timedOut(String owner, String kind, WorkflowRunId runId) {
+        routed(kind, "timeout").increment();
+        return new RoutingTimeoutException("Instance " + owner + " did not confirm " + kind + " of run "
+                + runId.value() + " within " + timeout + "; it may still apply it");
+    }
+
+    void onMessage(String raw) {
+        JsonObject message;
+        try {
+            message = new JsonObject(raw);
+        } catch (RuntimeException e) {
+            LOG.warn("Dropping malformed cluster message", e);
+            return;
+        }
+        String replyTo = message.getString("reply");
+        if (replyTo != null) {
+            PendingCall call = pending.get(replyTo);
+            if (call != null) {
+                call.reply().complete(message);
+            }
+            return;
+        }
+        JsonObject call = message.getJsonObject("call", new JsonObject()).copy()
+                .put("runId", message.getString("runId"));
+        DeliveryOptions options = new DeliveryOptions().setSendTimeout(timeout.toMillis());
+        eventBus.request(address(message.getString("kind")), call, options).subscribe().with(
+                ignored -> reply(message, "applied", null),
+                failure -> {
+                    ReplyFailure type = failure instanceof ReplyException replyFailure
+                            ? replyFailure.failureType()
+                            : null;
+                    if (type == ReplyFailure.RECIPIENT_FAILURE) {
+                        reply(message, "failed", failure.getMessage());
+                    } else if (type == ReplyFailure.NO_HANDLERS) {
+                        reply(message, "unhandled", failure.getMessage());
+                    } else {
+                        // The handler may still be applying it
+                        reply(message, "timeout", failure.getMessage());
+                    }
+                });
+    }
+
+    private void reply(JsonObject message, String status, String error) {
+        JsonObject reply = new JsonObject()
+                .put("reply", message.getString("id"))
+                .put("status", status)
+                .put("error", error);
+        redis.pubsub(String.class).publish(CHANNEL_PREFIX + message.getString("from"), reply.encode())
+                .subscribe().with(
+                        ignored -> {
+                        },
+                        failure -> LOG.debug("Could not answer instance {}", message.getString("from"), failure));
+    }
+
+    // ==================== OWNER STATE ====================
+
+    /**
+     * Keep the state a run was just committed with, when this instance owns it
+     */
+    public void remember(WorkflowRun run) {
+        if (!listening || !membership.isLocal(run.getId().value())) {
+            return;
+        }
+        if (snapshots.size() >= snapshotCacheSize && !snapshots.containsKey(run.getId().value())) {
+            return;
+        }
+        snapshots.put(run.getId().value(), new CachedSnapshot(run.createSnapshot(), System.nanoTime()));
+    }
+
+    /**
+     * The run's snapshot as this owner last committed it, while recent
+     * enough that a change applied elsewhere is unlikely to be missed
+     */
+    public Optional<WorkflowRunSnapshot> snapshot(WorkflowRunId runId, TenantId tenantId) {
+        CachedSnapshot cached = snapshots.get(runId.value());
+        if (cached == null || System.nanoTime() - cached.storedAt() > snapshotTtl.toNanos()
+                || !cached.snapshot().tenantId().equals(tenantId)) {
+            return Optional.empty();
+        }
+        return Optional.of(cached.snapshot());
+    }
+
+    // Runs that moved to another instance are served from there
+    void handOff(ConsistentHashRing ring) {
+        int dropped = 0;
+        for (Iterator<String> it = snapshots.keySet().iterator(); it.hasNext();) {
+            if (!membership.instanceId().equals(ring.ownerOf(it.next()))) {
+                it.remove();
+                dropped++;
+            }
+        }
+        // An owner that left will not answer; its callers retry now rather than at the timeout
+        int abandoned = 0;
+        for (PendingCall call : pending.values()) {
+            if (!ring.members().contains(call.owner())
+                    && call.reply().complete(new JsonObject().put("status", "owner-left"))) {
+                abandoned++;
+            }
+        }
+        LOG.info("Ring now has {} instances; handed off {} cached runs, failed {} calls to departed owners",
+                ring.members().size(), dropped, abandoned);
+    }
+
+    @Scheduled(every = "${silat.cluster.snapshot-sweep-interval:30s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void expireSnapshots() {
+        long cutoff = System.nanoTime() - snapshotTtl.toNanos();
+        snapshots.values().removeIf(cached -> cached.storedAt() - cutoff < 0);
+    }
+
+    private Counter routed(String kind, String outcome) {
+        return Counter.builder("silat.cluster.routed")
+                .description("Run calls whose owner was another instance, by where they were applied")
+                .tag("kind", kind)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record CachedSnapshot(WorkflowRunSnapshot snapshot, long storedAt) {
+    }
+
+    private record PendingCall(String owner, CompletableFuture<JsonObject> reply) {
+    }
+
+    /**
+     * The owner received a call but did not confirm it in time; it may
+     * still apply it, so the call is neither applied locally nor known to
+     * have failed
+     */
+    public static final class RoutingTimeoutException extends RuntimeException {
+        RoutingTimeoutException(String message) {
+            super(message);
+        }
+    }
+
+    // The call cannot have been applied by the owner
+    private static final class Unroutable extends RuntimeException {
+        Unroutable(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
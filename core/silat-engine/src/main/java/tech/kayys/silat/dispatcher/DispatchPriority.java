@@ -0,0 +1,32 @@
+package tech.kayys.silat.dispatcher;
+
+import java.util.Locale;
+
+import tech.kayys.silat.model.WorkflowDefinition;
+
+/**
+ * Priority class of a run's tasks in the dispatch queue, from the
+ * definition's {@code priority} label (high, normal or low)
+ */
+public enum DispatchPriority {
+    HIGH,
+    NORMAL,
+    LOW;
+
+    public static final String LABEL = "priority";
+
+    public static DispatchPriority of(WorkflowDefinition definition) {
+        if (definition == null || definition.metadata() == null) {
+            return NORMAL;
+        }
+        String label = definition.metadata().labels().get(LABEL);
+        if (label == null) {
+            return NORMAL;
+        }
+        try {
+            return valueOf(label.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return NORMAL;
+        }
+    }
+}
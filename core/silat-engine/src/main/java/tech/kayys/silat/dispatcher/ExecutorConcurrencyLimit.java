@@ -0,0 +1,234 @@
+package tech.kayys.silat.dispatcher;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Adaptive concurrency limit and circuit breaker of one executor
+ *
+ * The limit follows the executor's latency, Vegas style: a task whose
+ * result comes back within {@code latencyTolerance} times the lowest
+ * latency seen raises the limit by one per limit's worth of tasks; a
+ * slower one, a failed dispatch or a lost result multiplies it by
+ * {@code backoff}. The lowest latency drifts up slowly, so an executor
+ * that becomes lastingly slower gets a new baseline instead of being
+ * throttled to the minimum.
+ *
+ * The breaker opens when at least {@code requestVolume} of the last
+ * {@code window} dispatches were made and {@code failureRatio} of them
+ * failed. After {@code openDelay} a single trial dispatch is let through;
+ * it closes the breaker again or reopens it.
+ *
+ * Methods that free a slot return the waiter it was handed to, if any,
+ * for the caller to complete outside the lock.
+ */
+final class ExecutorConcurrencyLimit {
+
+    enum CircuitState {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    record Settings(
+            int initialLimit,
+            int minLimit,
+            int maxLimit,
+            double latencyTolerance,
+            double backoff,
+            int window,
+            int requestVolume,
+            double failureRatio,
+            Duration openDelay) {
+    }
+
+    private final Settings settings;
+
+    private double limit;
+    private int inFlight;
+    private long minLatency = Long.MAX_VALUE;
+
+    private final boolean[] outcomes;
+    private int outcomeCount;
+    private int nextOutcome;
+    private int failures;
+
+    private CircuitState state = CircuitState.CLOSED;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    private final ArrayDeque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+
+    ExecutorConcurrencyLimit(Settings settings) {
+        this.settings = settings;
+        this.limit = Math.max(settings.minLimit(), Math.min(settings.maxLimit(), settings.initialLimit()));
+        this.outcomes = new boolean[Math.max(1, settings.window())];
+    }
+
+    /**
+     * Take a slot if the breaker lets the task through and the limit has room
+     */
+    synchronized boolean tryAcquire(long now) {
+        if (state == CircuitState.OPEN) {
+            if (now - openedAt < settings.openDelay().toNanos()) {
+                return false;
+            }
+            state = CircuitState.HALF_OPEN;
+        }
+        if (state == CircuitState.HALF_OPEN) {
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+            inFlight++;
+            return true;
+        }
+        if (inFlight >= limit()) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Whether the breaker would let a task through, full or not
+     */
+    synchronized boolean accepting(long now) {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> now - openedAt >= settings.openDelay().toNanos();
+            case HALF_OPEN -> !trialInFlight;
+        };
+    }
+
+    /**
+     * Wait for a slot; the returned future completes once one is handed over
+     */
+    synchronized CompletableFuture<Void> await() {
+        CompletableFuture<Void> waiter = new CompletableFuture<>();
+        waiters.addLast(waiter);
+        return waiter;
+    }
+
+    /**
+     * The executor accepted the task
+     */
+    synchronized void onDispatched(long now) {
+        record(true, now);
+    }
+
+    /**
+     * The executor could not be reached or rejected the task
+     */
+    synchronized CompletableFuture<Void> onDispatchFailed(long now) {
+        inFlight--;
+        decrease();
+        record(false, now);
+        return handOff();
+    }
+
+    /**
+     * The task's result came back after {@code latencyNanos}
+     */
+    synchronized CompletableFuture<Void> onResult(long latencyNanos) {
+        inFlight--;
+        // Drift up by 1/64 per sample so the baseline follows lasting changes
+        minLatency = Math.min(latencyNanos,
+                minLatency == Long.MAX_VALUE ? Long.MAX_VALUE : minLatency + (minLatency >> 6));
+        if (latencyNanos <= minLatency * settings.latencyTolerance()) {
+            limit = Math.min(settings.maxLimit(), limit + 1.0 / limit);
+        } else {
+            decrease();
+        }
+        return handOff();
+    }
+
+    /**
+     * The task's result never came back
+     */
+    synchronized CompletableFuture<Void> onLost(long now) {
+        inFlight--;
+        decrease();
+        record(false, now);
+        return handOff();
+    }
+
+    /**
+     * Give a slot back without judging the executor
+     */
+    synchronized CompletableFuture<Void> release() {
+        inFlight--;
+        return handOff();
+    }
+
+    synchronized int limit() {
+        return Math.max(settings.minLimit(), (int) limit);
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    synchronized int headroom() {
+        return state == CircuitState.CLOSED ? limit() - inFlight : 0;
+    }
+
+    synchronized CircuitState state() {
+        return state;
+    }
+
+    private void decrease() {
+        limit = Math.max(settings.minLimit(), limit * settings.backoff());
+    }
+
+    private void record(boolean succeeded, long now) {
+        if (state == CircuitState.HALF_OPEN && trialInFlight) {
+            trialInFlight = false;
+            if (succeeded) {
+                state = CircuitState.CLOSED;
+                outcomeCount = 0;
+                nextOutcome = 0;
+                failures = 0;
+            } else {
+                open(now);
+            }
+            return;
+        }
+        if (outcomeCount == outcomes.length) {
+            if (!outcomes[nextOutcome]) {
+                failures--;
+            }
+        } else {
+            outcomeCount++;
+        }
+        outcomes[nextOutcome] = succeeded;
+        nextOutcome = (nextOutcome + 1) % outcomes.length;
+        if (!succeeded) {
+            failures++;
+        }
+        if (state == CircuitState.CLOSED && outcomeCount >= settings.requestVolume()
+                && failures >= settings.failureRatio() * outcomeCount) {
+            open(now);
+        }
+    }
+
+    private void open(long now) {
+        state = CircuitState.OPEN;
+        openedAt = now;
+    }
+
+    private CompletableFuture<Void> handOff() {
+        if (state != CircuitState.CLOSED || inFlight >= limit()) {
+            return null;
+        }
+        CompletableFuture<Void> waiter;
+        while ((waiter = waiters.pollFirst()) != null) {
+            if (!waiter.isDone()) {
+                inFlight++;
+                return waiter;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,72 @@
+package tech.kayys.silat.dispatcher;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Recent result latencies per executor type
+ *
+ * Keeps the last {@code silat.dispatch.latency-window} dispatch-to-result
+ * latencies of each executor type, from which {@link TaskHedging} learns
+ * how long a task of that type normally takes.
+ */
+@ApplicationScoped
+public class ExecutorLatencyHistory {
+
+    @ConfigProperty(name = "silat.dispatch.latency-window", defaultValue = "256")
+    int window;
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    public void record(String executorType, Duration latency) {
+        if (executorType == null) {
+            return;
+        }
+        samples.computeIfAbsent(executorType, type -> new Samples(Math.max(1, window))).add(latency.toNanos());
+    }
+
+    /**
+     * The latency below which the given fraction of the type's recent
+     * tasks finished, once at least {@code minSamples} were seen
+     */
+    public Optional<Duration> percentile(String executorType, double quantile, int minSamples) {
+        Samples recent = executorType != null ? samples.get(executorType) : null;
+        if (recent == null) {
+            return Optional.empty();
+        }
+        long[] sorted = recent.snapshot();
+        if (sorted.length == 0 || sorted.length < minSamples) {
+            return Optional.empty();
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(Math.min(1.0, Math.max(0.0, quantile)) * sorted.length) - 1;
+        return Optional.of(Duration.ofNanos(sorted[Math.max(0, index)]));
+    }
+
+    private static final class Samples {
+        private final long[] values;
+        private int count;
+        private int next;
+
+        Samples(int size) {
+            this.values = new long[size];
+        }
+
+        synchronized void add(long value) {
+            values[next] = value;
+            next = (next + 1) % values.length;
+            count = Math.min(count + 1, values.length);
+        }
+
+        synchronized long[] snapshot() {
+            return Arrays.copyOf(values, count);
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package tech.kayys.silat.dispatcher;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import tech.kayys.silat.execution.NodeExecutionTask;
+import tech.kayys.silat.model.ExecutorInfo;
+import tech.kayys.silat.model.NodeId;
+import tech.kayys.silat.model.TenantId;
+import tech.kayys.silat.model.WorkflowDefinition;
+import tech.kayys.silat.model.WorkflowRunId;
+
+/**
+ * Tenant-fair admission of tasks to the executors
+ *
+ * Tasks queue per tenant, or per tenant and definition with
+ * {@code silat.dispatch.fair.per-definition}, and are handed to the
+ * {@link TaskDispatcherAggregator} by deficit round robin: every backlogged
+ * queue gets its tenant's weight in tasks per round, so a tenant with a
+ * hundred thousand queued runs gets its share of executor capacity and no
+ * more. A dispatched task holds one of {@code silat.dispatch.fair.max-in-flight}
+ * slots until its result comes back ({@link #release}) or its lease times
+ * out, and a tenant holds at most its quota of them. Within a queue, tasks
+ * of higher {@link DispatchPriority} go first; priority does not let a
+ * tenant take more than its share.
+ *
+ * Weights and quotas are {@code tenant=value} lists in
+ * {@code silat.dispatch.fair.weights} and {@code silat.dispatch.fair.quotas}.
+ * Queue wait is recorded per tenant as {@code silat.dispatch.queue.wait}.
+ * Fairness is kept per engine instance. Runs are driven and their results
+ * applied on the instance owning the run (see {@code RunOwnership}), so a
+ * slot is released where it was taken.
+ */
+@ApplicationScoped
+public class FairDispatchQueue {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FairDispatchQueue.class);
+    private static final String ALL_DEFINITIONS = "*";
+
+    @ConfigProperty(name = "silat.dispatch.fair.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "silat.dispatch.fair.max-in-flight", defaultValue = "1024")
+    int maxInFlight;
+
+    @ConfigProperty(name = "silat.dispatch.fair.per-definition", defaultValue = "false")
+    boolean perDefinition;
+
+    @ConfigProperty(name = "silat.dispatch.fair.default-weight", defaultValue = "1")
+    int defaultWeight;
+
+    /**
+     * Slots a tenant may hold at once, 0 for no limit below the total
+     */
+    @ConfigProperty(name = "silat.dispatch.fair.default-quota", defaultValue = "0")
+    int defaultQuota;
+
+    @ConfigProperty(name = "silat.dispatch.fair.weights")
+    Optional<List<String>> weights;
+
+    @ConfigProperty(name = "silat.dispatch.fair.quotas")
+    Optional<List<String>> quotas;
+
+    @ConfigProperty(name = "silat.dispatch.fair.lease-timeout", defaultValue = "PT5M")
+    Duration leaseTimeout;
+
+    @Inject
+    TaskDispatcherAggregator taskDispatcher;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    // All guarded by this
+    private final Map<String, Flow> flows = new HashMap<>();
+    private final ArrayDeque<Flow> backlogged = new ArrayDeque<>();
+    private final Map<String, Integer> tenantInFlight = new HashMap<>();
+    private final Map<String, Lease> leases = new HashMap<>();
+    private int inFlight;
+
+    private final Map<String, Timer> waitTimers = new ConcurrentHashMap<>();
+    private Map<String, Integer> tenantWeights = Map.of();
+    private Map<String, Integer> tenantQuotas = Map.of();
+
+    @PostConstruct
+    void init() {
+        tenantWeights = parse(weights, "silat.dispatch.fair.weights");
+        tenantQuotas = parse(quotas, "silat.dispatch.fair.quotas");
+        Gauge.builder("silat.dispatch.in-flight", this, FairDispatchQueue::inFlight)
+                .description("Tasks dispatched and awaiting their result")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue a run's task for dispatch; completes once the task has been
+     * handed to its executor
+     */
+    public Uni<Void> submit(TenantId tenantId, WorkflowDefinition definition, NodeExecutionTask task,
+            ExecutorInfo executor) {
+        if (!enabled) {
+            return taskDispatcher.dispatch(task, executor);
+        }
+        return Uni.createFrom().deferred(() -> {
+            String definitionId = perDefinition && definition != null ? definition.id().value() : ALL_DEFINITIONS;
+            Pending pending = new Pending(tenantId.value(), DispatchPriority.of(definition), task, executor,
+                    System.nanoTime(), new CompletableFuture<>());
+            synchronized (this) {
+                Flow flow = flows.computeIfAbsent(tenantId.value() + "/" + definitionId,
+                        key -> newFlow(tenantId.value(), definitionId));
+                flow.offer(pending);
+                if (!flow.backlogged) {
+                    flow.backlogged = true;
+                    backlogged.addLast(flow);
+                }
+            }
+            drain();
+            return Uni.createFrom().completionStage(pending.dispatched());
+        });
+    }
+
+    /**
+     * Free the slot of a task whose result came back, here and on its
+     * executor
+     */
+    public void release(WorkflowRunId runId, NodeId nodeId, int attempt) {
+        taskDispatcher.completed(runId, nodeId, attempt);
+        if (!enabled) {
+            return;
+        }
+        boolean freed;
+        synchronized (this) {
+            freed = free(leaseKey(runId, nodeId, attempt));
+        }
+        if (freed) {
+            drain();
+        }
+    }
+
+    // Dispatch whatever the free slots admit, outside the lock
+    private void drain() {
+        admit().forEach(this::dispatch);
+    }
+
+    synchronized List<Pending> admit() {
+        List<Pending> admitted = new ArrayList<>();
+        int blocked = 0;
+        while (inFlight < maxInFlight && !backlogged.isEmpty() && blocked < backlogged.size()) {
+            Flow flow = backlogged.peekFirst();
+            int quota = tenantQuotas.getOrDefault(flow.tenant, defaultQuota);
+            if (quota > 0 && tenantInFlight.getOrDefault(flow.tenant, 0) >= quota) {
+                // Over quota: its turn passes without credit
+                backlogged.addLast(backlogged.pollFirst());
+                blocked++;
+                continue;
+            }
+            blocked = 0;
+            if (flow.deficit <= 0) {
+                flow.deficit += flow.weight;
+            }
+            Pending pending = flow.poll();
+            flow.deficit--;
+            take(pending);
+            admitted.add(pending);
+
+            if (flow.queued == 0) {
+                backlogged.pollFirst();
+                flow.backlogged = false;
+                flow.deficit = 0;
+            } else if (flow.deficit <= 0) {
+                backlogged.addLast(backlogged.pollFirst());
+            }
+        }
+        return admitted;
+    }
+
+    private void take(Pending pending) {
+        NodeExecutionTask task = pending.task();
+        String key = leaseKey(task.runId(), task.nodeId(), task.attempt());
+        // The same attempt dispatched again replaces its earlier slot
+        free(key);
+        leases.put(key, new Lease(pending.tenant(), System.nanoTime()));
+        tenantInFlight.merge(pending.tenant(), 1, Integer::sum);
+        inFlight++;
+    }
+
+    private boolean free(String key) {
+        Lease lease = leases.remove(key);
+        if (lease == null) {
+            return false;
+        }
+        tenantInFlight.computeIfPresent(lease.tenant(), (tenant, count) -> count > 1 ? count - 1 : null);
+        inFlight--;
+        return true;
+    }
+
+    private void dispatch(Pending pending) {
+        waitTimer(pending.tenant(), pending.priority())
+                .record(System.nanoTime() - pending.enqueuedAt(), TimeUnit.NANOSECONDS);
+        NodeExecutionTask task = pending.task();
+        taskDispatcher.dispatch(task, pending.executor())
+                .subscribe().with(
+                        ignored -> pending.dispatched().complete(null),
+                        failure -> {
+                            // Nothing reached an executor, so nothing holds the slot
+                            release(task.runId(), task.nodeId(), task.attempt());
+                            pending.dispatched().completeExceptionally(failure);
+                        });
+    }
+
+    /**
+     * Free the slots of tasks whose result never came back
+     */
+    @Scheduled(every = "${silat.dispatch.fair.lease-check-interval:30s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void expireLeases() {
+        int expired = 0;
+        long cutoff = System.nanoTime() - leaseTimeout.toNanos();
+        synchronized (this) {
+            for (Iterator<Map.Entry<String, Lease>> it = leases.entrySet().iterator(); it.hasNext();) {
+                Map.Entry<String, Lease> entry = it.next();
+                if (entry.getValue().startedAt() - cutoff < 0) {
+                    it.remove();
+                    tenantInFlight.computeIfPresent(entry.getValue().tenant(),
+                            (tenant, count) -> count > 1 ? count - 1 : null);
+                    inFlight--;
+                    expired++;
+                }
+            }
+        }
+        if (expired > 0) {
+            LOG.warn("Freed {} dispatch slots whose results did not come back within {}", expired, leaseTimeout);
+            drain();
+        }
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    private Flow newFlow(String tenant, String definitionId) {
+        Flow flow = new Flow(tenant, Math.max(1, tenantWeights.getOrDefault(tenant, defaultWeight)));
+        Gauge.builder("silat.dispatch.queue.depth", flow, f -> f.queued)
+                .description("Tasks waiting for a dispatch slot")
+                .tag("tenant", tenant)
+                .tag("definition", definitionId)
+                .register(meterRegistry);
+        return flow;
+    }
+
+    private Timer waitTimer(String tenant, DispatchPriority priority) {
+        return waitTimers.computeIfAbsent(tenant + "/" + priority, key -> Timer.builder("silat.dispatch.queue.wait")
+                .description("Time tasks waited for a dispatch slot")
+                .tag("tenant", tenant)
+                .tag("priority", priority.name().toLowerCase())
+                .register(meterRegistry));
+    }
+
+    private static String leaseKey(WorkflowRunId runId, NodeId nodeId, int attempt) {
+        return runId.value() + ":" + nodeId.value() + ":" + attempt;
+    }
+
+    private static Map<String, Integer> parse(Optional<List<String>> entries, String property) {
+        Map<String, Integer> values = new HashMap<>();
+        entries.orElse(List.of()).forEach(entry -> {
+            int separator = entry.lastIndexOf('=');
+            try {
+                values.put(entry.substring(0, separator).trim(),
+                        Integer.parseInt(entry.substring(separator + 1).trim()));
+            } catch (RuntimeException e) {
+                LOG.warn("Ignoring {} entry '{}', expected tenant=number", property, entry);
+            }
+        });
+        return values;
+    }
+
+    // A tenant's (or tenant and definition's) queue, one deque per priority class
+    private static final class Flow {
+        final String tenant;
+        final int weight;
+        final Map<DispatchPriority, ArrayDeque<Pending>> queues = new EnumMap<>(DispatchPriority.class);
+        volatile int queued;
+        int deficit;
+        boolean backlogged;
+
+        Flow(String tenant, int weight) {
+            this.tenant = tenant;
+            this.weight = weight;
+            for (DispatchPriority priority : DispatchPriority.values()) {
+                queues.put(priority, new ArrayDeque<>());
+            }
+        }
+
+        void offer(Pending pending) {
+            queues.get(pending.priority()).addLast(pending);
+            queued++;
+        }
+
+        Pending poll() {
+            for (ArrayDeque<Pending> queue : queues.values()) {
+                if (!queue.isEmpty()) {
+                    queued--;
+                    return queue.pollFirst();
+                }
+            }
+            return null;
+        }
+    }
+
+    record Pending(String tenant, DispatchPriority priority, NodeExecutionTask task, ExecutorInfo executor,
+            long enqueuedAt, CompletableFuture<Void> dispatched) {
+    }
+
+    private record Lease(String tenant, long startedAt) {
+    }
+}
@@ -10,6 +10,9 @@ import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import io.grpc.stub.StreamObserver;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -18,6 +21,7 @@ import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import tech.kayys.silat.execution.NodeExecutionTask;
+import tech.kayys.silat.grpc.GrpcMapper;
 import tech.kayys.silat.model.CommunicationType;
 import tech.kayys.silat.model.ExecutorInfo;
 
@@ -34,6 +38,12 @@ public class GrpcTaskDispatcher implements TaskDispatcher {
     @Inject
     MeterRegistry meterRegistry;
 
+    @Inject
+    GrpcMapper mapper;
+
+    @Inject
+    ObjectMapper objectMapper;
+
     private Counter successCounter;
     private Counter failureCounter;
     private Timer dispatchTimer;
@@ -120,24 +130,41 @@ public class GrpcTaskDispatcher implements TaskDispatcher {
 
     private ExecutionRequest buildRequest(NodeExecutionTask task, ExecutorInfo executor) {
 
-        return ExecutionRequest.newBuilder()
+        ExecutionRequest.Builder builder = ExecutionRequest.newBuilder()
                 .setRunId(task.runId().value())
                 .setNodeId(task.nodeId().value())
                 .setAttempt(task.attempt())
                 .setToken(task.token().token())
-                .putAllVariables(convertVariables(task.context()))
                 .setIdempotencyKey(idempotencyKey(task))
-                .setSignature(sign(task, executor))
-                .build();
+                .setSignature(sign(task, executor));
+
+        // Large contexts go only in the typed binary field
+        if (mapper.isLargePayload(task.context())) {
+            builder.setVariablesBin(mapper.toPayload(task.context()));
+        } else {
+            builder.putAllVariables(convertVariables(task.context()));
+        }
+        return builder.build();
     }
 
+    // Strings as they are, anything else as JSON so structured values survive
     private Map<String, String> convertVariables(Map<String, Object> vars) {
         if (vars == null || vars.isEmpty()) {
             return Map.of();
         }
 
-        Map<String, String> result = new HashMap<>();
-        vars.forEach((k, v) -> result.put(k, String.valueOf(v)));
+        Map<String, String> result = new HashMap<>(vars.size() * 4 / 3 + 1);
+        vars.forEach((k, v) -> {
+            if (v instanceof String string) {
+                result.put(k, string);
+            } else {
+                try {
+                    result.put(k, objectMapper.writeValueAsString(v));
+                } catch (JsonProcessingException e) {
+                    result.put(k, String.valueOf(v));
+                }
+            }
+        });
         return result;
     }
 
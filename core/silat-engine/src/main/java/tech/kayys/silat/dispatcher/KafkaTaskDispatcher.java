@@ -20,6 +20,7 @@ import tech.kayys.silat.model.ExecutorInfo;
 import tech.kayys.silat.scheduler.TaskMessage;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -174,12 +175,16 @@ public class KafkaTaskDispatcher implements TaskDispatcher {
                         .<Void>flatMap(validExecutor -> {
                             // Serialize task to Kafka message
                             TaskMessage message = new TaskMessage(
+                                    validTask.runId().value() + ":" + validTask.nodeId().value() + ":"
+                                            + validTask.attempt(),
                                     validTask.runId().value(),
                                     validTask.nodeId().value(),
                                     validTask.attempt(),
                                     validTask.token().value(),
+                                    validTask.token().expiresAt(),
                                     validTask.context(),
-                                    validExecutor.executorId());
+                                    validExecutor.executorId(),
+                                    Instant.now());
 
                             // Convert to JSON string
                             String messageJson = sanitizeJsonString(JsonObject.mapFrom(message).encode());
@@ -195,9 +200,9 @@ public class KafkaTaskDispatcher implements TaskDispatcher {
                                         .<Void>failure(new IllegalArgumentException("Message too large"));
                             }
 
-                            // Create Kafka record
+                            // Key by run so tasks of a run stay on one partition and in order
                             KafkaProducerRecord<String, String> record = KafkaProducerRecord.create(taskTopic,
-                                    messageJson);
+                                    validTask.runId().value(), messageJson);
 
                             // Send to Kafka with retry mechanism provided by Mutiny
                             return kafkaProducer.send(record)
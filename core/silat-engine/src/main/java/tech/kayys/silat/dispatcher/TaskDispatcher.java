@@ -47,6 +47,18 @@ public interface TaskDispatcher {
         return Uni.createFrom().voidItem(); // Default no-op implementation
     }
 
+    /**
+     * Cancel a task previously dispatched to the given executor, for tasks
+     * sent to more than one
+     *
+     * @param task the task to cancel
+     * @param executor the executor it was sent to
+     * @return Uni that completes when cancellation is processed
+     */
+    default Uni<Void> cancel(NodeExecutionTask task, ExecutorInfo executor) {
+        return cancel(task);
+    }
+
     /**
      * Get the priority of this dispatcher
      * Higher priority dispatchers are preferred when multiple dispatchers
@@ -1,48 +1,304 @@
 package tech.kayys.silat.dispatcher;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.scheduler.Scheduled;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import tech.kayys.silat.execution.NodeExecutionTask;
 import tech.kayys.silat.model.ExecutorInfo;
+import tech.kayys.silat.model.NodeId;
+import tech.kayys.silat.model.WorkflowRunId;
+import tech.kayys.silat.registry.ExecutorRegistry;
 
+/**
+ * Sends tasks to executors through the dispatcher for their communication type
+ *
+ * Each executor gets an adaptive concurrency limit and a circuit breaker
+ * ({@link ExecutorConcurrencyLimit}). A task holds a slot of its executor
+ * from dispatch until its result comes back ({@link #completed}), so the
+ * limit tunes itself to the result latency the executor sustains. When the
+ * executor is full or its breaker is open, the task fails over to the
+ * healthy executor of the same type with the most room; when every one is
+ * full it waits up to {@code silat.dispatch.adaptive.acquire-timeout} for a
+ * slot, and when every breaker is open it fails at once.
+ */
 @ApplicationScoped
 public class TaskDispatcherAggregator {
 
     private static final Logger LOG = LoggerFactory.getLogger(TaskDispatcherAggregator.class);
+    private static final String HEDGE = "#hedge";
 
     @Inject
     @jakarta.enterprise.inject.Any
     jakarta.enterprise.inject.Instance<TaskDispatcher> availableDispatchers;
 
+    @Inject
+    tech.kayys.silat.plugin.ExecutionPluginPipeline executionPlugins;
+
+    @Inject
+    ExecutorRegistry executorRegistry;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    ExecutorLatencyHistory latencyHistory;
+
+    @ConfigProperty(name = "silat.dispatch.adaptive.enabled", defaultValue = "true")
+    boolean adaptive;
+
+    @ConfigProperty(name = "silat.dispatch.adaptive.initial-limit", defaultValue = "16")
+    int initialLimit;
+
+    @ConfigProperty(name = "silat.dispatch.adaptive.min-limit", defaultValue = "1")
+    int minLimit;
+
+    @ConfigProperty(name = "silat.dispatch.adaptive.max-limit", defaultValue = "512")
+    int maxLimit;
+
+    @ConfigProperty(name = "silat.dispatch.adaptive.latency-tolerance", defaultValue = "2.0")
+    double latencyTolerance;
+
+    @ConfigProperty(name = "silat.dispatch.adaptive.backoff", defaultValue = "0.9")
+    double backoff;
+
+    @ConfigProperty(name = "silat.dispatch.adaptive.acquire-timeout", defaultValue = "PT30S")
+    Duration acquireTimeout;
+
+    @ConfigProperty(name = "silat.dispatch.adaptive.result-timeout", defaultValue = "PT5M")
+    Duration resultTimeout;
+
+    @ConfigProperty(name = "silat.dispatch.circuit.window", defaultValue = "20")
+    int circuitWindow;
+
+    @ConfigProperty(name = "silat.dispatch.circuit.request-volume", defaultValue = "5")
+    int requestVolume;
+
+    @ConfigProperty(name = "silat.dispatch.circuit.failure-ratio", defaultValue = "0.5")
+    double failureRatio;
+
+    @ConfigProperty(name = "silat.dispatch.circuit.delay", defaultValue = "PT30S")
+    Duration circuitDelay;
+
     // List of all available dispatchers for dynamic resolution
     private volatile List<TaskDispatcher> allDispatchers;
 
-    // private CustomCircuitBreaker<Void> circuitBreaker;
+    private final Map<String, ExecutorConcurrencyLimit> limits = new ConcurrentHashMap<>();
+    private final Map<String, Outstanding> outstanding = new ConcurrentHashMap<>();
 
-    @jakarta.annotation.PostConstruct
-    void initCircuitBreaker() {
-        /*
-         * CircuitBreakerConfig config = CircuitBreakerConfig.builder()
-         * .requestVolumeThreshold(5) // Minimum number of requests before circuit can
-         * be opened
-         * .failureRatio(0.5) // Failure ratio threshold
-         * .delay(30000) // Delay in milliseconds before trying again
-         * .build();
-         * 
-         * this.circuitBreaker = CustomCircuitBreaker.create(config);
-         */
+    public Uni<Void> dispatch(NodeExecutionTask task, ExecutorInfo executor) {
+        if (!adaptive) {
+            return send(task, executor);
+        }
+        return acquire(executor).flatMap(target -> sendHolding(task, target,
+                key(task.runId(), task.nodeId(), task.attempt())));
     }
 
-    public Uni<Void> dispatch(NodeExecutionTask task, ExecutorInfo executor) {
+    /**
+     * Send a duplicate of an outstanding task to the given executor, only if
+     * it has a free slot right now; hedges never queue
+     *
+     * @return whether the duplicate was sent
+     */
+    public Uni<Boolean> hedge(NodeExecutionTask task, ExecutorInfo executor) {
+        if (!adaptive) {
+            return send(task, executor).replaceWith(true);
+        }
+        if (!limitOf(executor).tryAcquire(System.nanoTime())) {
+            return Uni.createFrom().item(false);
+        }
+        return sendHolding(task, executor, key(task.runId(), task.nodeId(), task.attempt()) + HEDGE)
+                .replaceWith(true);
+    }
+
+    /**
+     * The executor holding an outstanding task, which may differ from the
+     * one it was submitted for after a failover
+     */
+    public Optional<String> dispatchedTo(WorkflowRunId runId, NodeId nodeId, int attempt) {
+        Outstanding task = outstanding.get(key(runId, nodeId, attempt));
+        return task != null ? Optional.of(task.executorId()) : Optional.empty();
+    }
+
+    /**
+     * Ask the executor to drop a task it was sent
+     */
+    public Uni<Void> cancel(NodeExecutionTask task, ExecutorInfo executor) {
+        TaskDispatcher dispatcher = selectDispatcher(executor);
+        return dispatcher != null ? dispatcher.cancel(task, executor) : Uni.createFrom().voidItem();
+    }
+
+    // Send while holding a slot of the target, tracked under the key until the result comes back
+    private Uni<Void> sendHolding(NodeExecutionTask task, ExecutorInfo target, String key) {
+        ExecutorConcurrencyLimit limit = limitOf(target);
+        Outstanding previous = outstanding.put(key,
+                new Outstanding(target.executorId(), target.executorType(), System.nanoTime()));
+        if (previous != null) {
+            // The same attempt dispatched again gives back its earlier slot
+            wake(limitOf(previous.executorId()), limitOf(previous.executorId()).release());
+        }
+        return send(task, target)
+                .invoke(() -> limit.onDispatched(System.nanoTime()))
+                .onFailure().invoke(failure -> {
+                    outstanding.remove(key);
+                    boolean wasOpen = limit.state() == ExecutorConcurrencyLimit.CircuitState.OPEN;
+                    wake(limit, limit.onDispatchFailed(System.nanoTime()));
+                    if (!wasOpen && limit.state() == ExecutorConcurrencyLimit.CircuitState.OPEN) {
+                        LOG.warn("Circuit open for executor {} after dispatch failures", target.executorId());
+                    }
+                });
+    }
+
+    /**
+     * A task's result came back: free its executor slot and feed the
+     * latency to the executor's limit and its type's history. A hedged
+     * task gives back both slots without a sample, as which copy answered
+     * is not known.
+     */
+    public void completed(WorkflowRunId runId, NodeId nodeId, int attempt) {
+        String key = key(runId, nodeId, attempt);
+        Outstanding task = outstanding.remove(key);
+        Outstanding hedge = outstanding.remove(key + HEDGE);
+        if (hedge != null) {
+            for (Outstanding copy : task != null ? List.of(task, hedge) : List.of(hedge)) {
+                ExecutorConcurrencyLimit limit = limitOf(copy.executorId());
+                wake(limit, limit.release());
+            }
+        } else if (task != null) {
+            long latency = System.nanoTime() - task.dispatchedAt();
+            ExecutorConcurrencyLimit limit = limitOf(task.executorId());
+            wake(limit, limit.onResult(latency));
+            latencyHistory.record(task.executorType(), Duration.ofNanos(latency));
+        }
+    }
+
+    /**
+     * Free the slots of tasks whose result never came back; they count
+     * against their executor
+     */
+    @Scheduled(every = "${silat.dispatch.adaptive.check-interval:30s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void expireOutstanding() {
+        long now = System.nanoTime();
+        long cutoff = now - resultTimeout.toNanos();
+        for (Iterator<Map.Entry<String, Outstanding>> it = outstanding.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<String, Outstanding> entry = it.next();
+            if (entry.getValue().dispatchedAt() - cutoff < 0 && outstanding.remove(entry.getKey(), entry.getValue())) {
+                ExecutorConcurrencyLimit limit = limitOf(entry.getValue().executorId());
+                LOG.warn("No result from executor {} for {} within {}", entry.getValue().executorId(),
+                        entry.getKey(), resultTimeout);
+                wake(limit, limit.onLost(now));
+            }
+        }
+    }
+
+    // A slot on the executor, or on another healthy one of its type
+    private Uni<ExecutorInfo> acquire(ExecutorInfo executor) {
+        ExecutorConcurrencyLimit preferred = limitOf(executor.executorId());
+        if (preferred.tryAcquire(System.nanoTime())) {
+            return Uni.createFrom().item(executor);
+        }
+        return alternativesTo(executor).flatMap(candidates -> {
+            long now = System.nanoTime();
+            for (ExecutorInfo candidate : candidates) {
+                if (limitOf(candidate).tryAcquire(now)) {
+                    LOG.debug("Executor {} unavailable, failing over to {}", executor.executorId(),
+                            candidate.executorId());
+                    return Uni.createFrom().item(candidate);
+                }
+            }
+
+            ExecutorInfo target = preferred.accepting(now) ? executor
+                    : candidates.stream().filter(candidate -> limitOf(candidate).accepting(now)).findFirst()
+                            .orElse(null);
+            if (target == null) {
+                return Uni.createFrom().failure(new TaskDispatchException(
+                        "Circuit open for executor " + executor.executorId()
+                                + " and no other executor of type " + executor.executorType() + " is available",
+                        null));
+            }
+
+            // Everyone is full: wait for the next free slot
+            ExecutorConcurrencyLimit limit = limitOf(target);
+            CompletableFuture<Void> waiter = limit.await();
+            return Uni.createFrom().completionStage(waiter)
+                    .ifNoItem().after(acquireTimeout).failWith(() -> {
+                        if (!waiter.cancel(false)) {
+                            // Handed a slot just as the wait ran out
+                            wake(limit, limit.release());
+                        }
+                        return new TaskDispatchException("No free slot on executor " + target.executorId()
+                                + " within " + acquireTimeout, null);
+                    })
+                    .replaceWith(target);
+        });
+    }
+
+    private Uni<List<ExecutorInfo>> alternativesTo(ExecutorInfo executor) {
+        return executorRegistry.getHealthyExecutors()
+                .map(executors -> executors.stream()
+                        .filter(candidate -> !candidate.executorId().equals(executor.executorId())
+                                && candidate.executorType().equals(executor.executorType()))
+                        .sorted(Comparator.comparingInt((ExecutorInfo candidate) -> limitOf(candidate).headroom())
+                                .reversed())
+                        .toList())
+                .onFailure().recoverWithItem(List.of());
+    }
+
+    // Complete the waiter a freed slot went to; a waiter that gave up passes it on
+    private void wake(ExecutorConcurrencyLimit limit, CompletableFuture<Void> waiter) {
+        while (waiter != null && !waiter.complete(null)) {
+            waiter = limit.release();
+        }
+    }
+
+    private ExecutorConcurrencyLimit limitOf(ExecutorInfo executor) {
+        return limitOf(executor.executorId());
+    }
+
+    private ExecutorConcurrencyLimit limitOf(String executorId) {
+        return limits.computeIfAbsent(executorId, id -> {
+            ExecutorConcurrencyLimit limit = new ExecutorConcurrencyLimit(new ExecutorConcurrencyLimit.Settings(
+                    initialLimit, minLimit, maxLimit, latencyTolerance, backoff,
+                    circuitWindow, requestVolume, failureRatio, circuitDelay));
+            Gauge.builder("silat.dispatch.executor.limit", limit, ExecutorConcurrencyLimit::limit)
+                    .description("Adaptive concurrency limit of the executor")
+                    .tag("executor", id)
+                    .register(meterRegistry);
+            Gauge.builder("silat.dispatch.executor.in-flight", limit, ExecutorConcurrencyLimit::inFlight)
+                    .description("Tasks dispatched to the executor and awaiting their result")
+                    .tag("executor", id)
+                    .register(meterRegistry);
+            Gauge.builder("silat.dispatch.executor.circuit.open", limit,
+                    l -> l.state() == ExecutorConcurrencyLimit.CircuitState.CLOSED ? 0 : 1)
+                    .description("Whether the executor's circuit breaker is open")
+                    .tag("executor", id)
+                    .register(meterRegistry);
+            return limit;
+        });
+    }
+
+    private static String key(WorkflowRunId runId, NodeId nodeId, int attempt) {
+        return runId.value() + ":" + nodeId.value() + ":" + attempt;
+    }
+
+    private Uni<Void> send(NodeExecutionTask task, ExecutorInfo executor) {
         LOG.debug("Dispatching task run={}, node={} via {}",
                 task.runId().value(),
                 task.nodeId().value(),
@@ -63,8 +319,9 @@ public class TaskDispatcherAggregator {
                 task.runId().value(),
                 task.nodeId().value());
 
-        // Apply circuit breaker to the dispatch operation
-        return selectedDispatcher.dispatch(task, executor);
+        // Interceptors and transformers are keyed by the executor type the node targets
+        return executionPlugins.dispatch(task, executor.executorType(),
+                transformed -> selectedDispatcher.dispatch(transformed, executor));
     }
 
     private TaskDispatcher selectDispatcher(ExecutorInfo executor) {
@@ -103,4 +360,7 @@ public class TaskDispatcherAggregator {
         }
         return null;
     }
+
+    private record Outstanding(String executorId, String executorType, long dispatchedAt) {
+    }
 }
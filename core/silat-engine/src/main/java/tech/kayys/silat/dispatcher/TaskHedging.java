@@ -0,0 +1,242 @@
+package tech.kayys.silat.dispatcher;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.Cancellable;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import tech.kayys.silat.api.repository.WorkflowRunRepository;
+import tech.kayys.silat.execution.NodeExecutionTask;
+import tech.kayys.silat.model.ExecutorInfo;
+import tech.kayys.silat.model.NodeDefinition;
+import tech.kayys.silat.model.NodeExecution;
+import tech.kayys.silat.model.NodeId;
+import tech.kayys.silat.model.RunStatus;
+import tech.kayys.silat.model.WorkflowRun;
+import tech.kayys.silat.model.WorkflowRunId;
+import tech.kayys.silat.registry.ExecutorRegistry;
+
+/**
+ * Hedged re-dispatch of straggling tasks
+ *
+ * A node opts in with {@code hedge: true} in its configuration, which
+ * declares its executor idempotent under the task's idempotency key. When
+ * no result has come back after the {@code silat.hedging.percentile}
+ * latency of the executor type (see {@link ExecutorLatencyHistory}), the
+ * same task, with the same attempt and token, is sent once more to another
+ * healthy executor of that type that has a free slot. The first result is
+ * kept and the duplicate is dropped by the run manager's per-attempt
+ * dedupe; both copies are then cancelled, which the finished one ignores.
+ * Nothing is hedged until the type has {@code silat.hedging.min-samples}
+ * latencies on record. Watches live on the run's owner, which dispatches
+ * its tasks and applies their results.
+ */
+@ApplicationScoped
+public class TaskHedging {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TaskHedging.class);
+
+    public static final String HEDGE = "hedge";
+
+    @ConfigProperty(name = "silat.hedging.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "silat.hedging.percentile", defaultValue = "0.95")
+    double percentile;
+
+    @ConfigProperty(name = "silat.hedging.min-samples", defaultValue = "20")
+    int minSamples;
+
+    @ConfigProperty(name = "silat.hedging.min-delay", defaultValue = "PT1S")
+    Duration minDelay;
+
+    @ConfigProperty(name = "silat.hedging.max-age", defaultValue = "PT30M")
+    Duration maxAge;
+
+    @Inject
+    TaskDispatcherAggregator taskDispatcher;
+
+    @Inject
+    ExecutorRegistry executorRegistry;
+
+    @Inject
+    ExecutorLatencyHistory latencyHistory;
+
+    @Inject
+    WorkflowRunRepository runRepository;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    private final Map<String, Watch> watches = new ConcurrentHashMap<>();
+
+    public static boolean isHedged(NodeDefinition node) {
+        Object hedge = node.configuration() != null ? node.configuration().get(HEDGE) : null;
+        return hedge != null && Boolean.parseBoolean(hedge.toString());
+    }
+
+    /**
+     * Start the hedge timer of a task just dispatched to the executor
+     */
+    public void watch(NodeExecutionTask task, ExecutorInfo executor) {
+        if (!enabled) {
+            return;
+        }
+        var threshold = latencyHistory.percentile(executor.executorType(), percentile, minSamples);
+        if (threshold.isEmpty()) {
+            LOG.debug("Not enough latency history for executor type {} to hedge node {}",
+                    executor.executorType(), task.nodeId().value());
+            return;
+        }
+        Duration delay = threshold.get().compareTo(minDelay) < 0 ? minDelay : threshold.get();
+        String key = key(task.runId(), task.nodeId(), task.attempt());
+        Watch watch = new Watch(task, executor, System.nanoTime());
+        watch.timer = Uni.createFrom().voidItem()
+                .onItem().delayIt().by(delay)
+                .onItem().transformToUni(ignored -> fire(key, watch, delay))
+                .subscribe().with(
+                        ignored -> {
+                        },
+                        failure -> LOG.warn("Failed to hedge node {} of run {}", task.nodeId().value(),
+                                task.runId().value(), failure));
+        Watch previous = watches.put(key, watch);
+        if (previous != null) {
+            previous.timer.cancel();
+        }
+    }
+
+    /**
+     * The task's result came back: stop its timer and cancel the copies
+     * of a hedged task
+     */
+    public void completed(WorkflowRunId runId, NodeId nodeId, int attempt) {
+        Watch watch = watches.remove(key(runId, nodeId, attempt));
+        if (watch == null) {
+            return;
+        }
+        watch.timer.cancel();
+        ExecutorInfo hedgedTo = watch.hedgedTo;
+        if (hedgedTo != null) {
+            cancel(watch.task, watch.executor);
+            cancel(watch.task, hedgedTo);
+        }
+    }
+
+    private Uni<Void> fire(String key, Watch watch, Duration delay) {
+        if (watches.get(key) != watch) {
+            return Uni.createFrom().voidItem();
+        }
+        NodeExecutionTask task = watch.task;
+        return runRepository.findById(task.runId())
+                .flatMap(run -> {
+                    if (!awaitingResult(run, task)) {
+                        watches.remove(key, watch);
+                        return Uni.createFrom().voidItem();
+                    }
+                    // The executor may have failed over from the one the task was submitted for
+                    String primary = taskDispatcher.dispatchedTo(task.runId(), task.nodeId(), task.attempt())
+                            .orElse(watch.executor.executorId());
+                    return executorRegistry.getHealthyExecutors()
+                            .flatMap(executors -> {
+                                executors.stream()
+                                        .filter(candidate -> candidate.executorId().equals(primary))
+                                        .findFirst()
+                                        .ifPresent(holder -> watch.executor = holder);
+                                ExecutorInfo other = executors.stream()
+                                        .filter(candidate -> candidate.executorType()
+                                                .equals(watch.executor.executorType())
+                                                && !candidate.executorId().equals(primary))
+                                        .findFirst()
+                                        .orElse(null);
+                                if (other == null) {
+                                    LOG.debug("No other executor of type {} to hedge node {} of run {}",
+                                            watch.executor.executorType(), task.nodeId().value(),
+                                            task.runId().value());
+                                    watches.remove(key, watch);
+                                    return Uni.createFrom().voidItem();
+                                }
+                                return taskDispatcher.hedge(task, other)
+                                        .invoke(sent -> {
+                                            if (sent) {
+                                                watch.hedgedTo = other;
+                                                hedged(other.executorType()).increment();
+                                                LOG.info("No result for node {} of run {} from executor {} after {}, "
+                                                        + "hedged to {}", task.nodeId().value(), task.runId().value(),
+                                                        watch.executor.executorId(), delay, other.executorId());
+                                            } else {
+                                                watches.remove(key, watch);
+                                            }
+                                        })
+                                        .replaceWithVoid();
+                            });
+                });
+    }
+
+    // Still running the attempt the task was sent for
+    private static boolean awaitingResult(WorkflowRun run, NodeExecutionTask task) {
+        if (run == null || run.getStatus() != RunStatus.RUNNING) {
+            return false;
+        }
+        NodeExecution execution = run.getAllNodeExecutions().get(task.nodeId());
+        return execution != null && execution.getAttempt() == task.attempt() && !execution.getStatus().isTerminal();
+    }
+
+    private void cancel(NodeExecutionTask task, ExecutorInfo executor) {
+        taskDispatcher.cancel(task, executor).subscribe().with(
+                ignored -> {
+                },
+                failure -> LOG.debug("Failed to cancel node {} of run {} on executor {}", task.nodeId().value(),
+                        task.runId().value(), executor.executorId(), failure));
+    }
+
+    /**
+     * Forget tasks whose result never came back
+     */
+    @Scheduled(every = "${silat.hedging.sweep-interval:5m}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void expireWatches() {
+        long cutoff = System.nanoTime() - maxAge.toNanos();
+        for (Iterator<Watch> it = watches.values().iterator(); it.hasNext();) {
+            Watch watch = it.next();
+            if (watch.startedAt - cutoff < 0) {
+                watch.timer.cancel();
+                it.remove();
+            }
+        }
+    }
+
+    private Counter hedged(String executorType) {
+        return Counter.builder("silat.dispatch.hedged")
+                .description("Tasks sent to a second executor after no result came back in time")
+                .tag("executorType", executorType)
+                .register(meterRegistry);
+    }
+
+    private static String key(WorkflowRunId runId, NodeId nodeId, int attempt) {
+        return runId.value() + ":" + nodeId.value() + ":" + attempt;
+    }
+
+    private static final class Watch {
+        final NodeExecutionTask task;
+        final long startedAt;
+        volatile ExecutorInfo executor;
+        Cancellable timer;
+        volatile ExecutorInfo hedgedTo;
+
+        Watch(NodeExecutionTask task, ExecutorInfo executor, long startedAt) {
+            this.task = task;
+            this.executor = executor;
+            this.startedAt = startedAt;
+        }
+    }
+}
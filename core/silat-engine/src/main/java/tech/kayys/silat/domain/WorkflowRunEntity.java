@@ -26,7 +26,8 @@ import tech.kayys.silat.model.RunStatus;
 @Table(name = "workflow_runs", indexes = {
         @Index(name = "idx_tenant_status", columnList = "tenant_id, status"),
         @Index(name = "idx_definition_id", columnList = "definition_id"),
-        @Index(name = "idx_created_at", columnList = "created_at")
+        @Index(name = "idx_created_at", columnList = "created_at"),
+        @Index(name = "idx_workflow_run_parent", columnList = "parent_run_id")
 })
 public class WorkflowRunEntity {
 
@@ -79,6 +80,9 @@ public class WorkflowRunEntity {
     @Column(name = "metadata", columnDefinition = "jsonb")
     private Map<String, String> metadata;
 
+    @Column(name = "parent_run_id", length = 64)
+    private String parentRunId;
+
     // Getters and setters
     public String getRunId() {
         return runId;
@@ -176,6 +180,14 @@ public class WorkflowRunEntity {
         this.metadata = metadata;
     }
 
+    public String getParentRunId() {
+        return parentRunId;
+    }
+
+    public void setParentRunId(String parentRunId) {
+        this.parentRunId = parentRunId;
+    }
+
     public Instant getStartedAt() {
         return startedAt;
     }
@@ -0,0 +1,158 @@
+package tech.kayys.silat.engine.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import tech.kayys.silat.model.ChildRunResult;
+import tech.kayys.silat.model.CreateRunRequest;
+import tech.kayys.silat.model.NodeDefinition;
+import tech.kayys.silat.model.ParentRunRef;
+import tech.kayys.silat.model.WorkflowRun;
+import tech.kayys.silat.model.WorkflowRunId;
+
+/**
+ * Spawns the child runs of SUB_WORKFLOW nodes and reports them back
+ *
+ * A node runs the workflow named by its {@code workflowId} configuration,
+ * once with its static {@code inputs}, or once per element of the list in
+ * the context variable named by {@code forEach}, the element passed as the
+ * input named by {@code as} (default {@code item}). At most
+ * {@code maxConcurrency} children of a node run at a time.
+ *
+ * Child outcomes queue per parent run and are applied in batches, so a node
+ * fanned out over thousands of children costs one locked update of the
+ * parent per batch rather than one per child.
+ */
+@ApplicationScoped
+public class ChildRunTracker {
+
+    @ConfigProperty(name = "silat.subworkflows.max-batch", defaultValue = "500")
+    int maxBatch;
+
+    @ConfigProperty(name = "silat.subworkflows.max-concurrency", defaultValue = "100")
+    int defaultConcurrency;
+
+    private final RunInbox<ChildRunResult> inbox = new RunInbox<>(() -> maxBatch);
+
+    // ==================== SPAWNING ====================
+
+    /**
+     * Number of children the node runs
+     *
+     * @throws IllegalArgumentException if the node is misconfigured
+     */
+    public int childCount(WorkflowRun run, NodeDefinition node) {
+        childWorkflowId(node);
+        List<?> items = items(run, node);
+        return items != null ? items.size() : 1;
+    }
+
+    /**
+     * Most children of the node running at a time
+     */
+    public int maxConcurrency(NodeDefinition node) {
+        Object configured = node.configuration().get("maxConcurrency");
+        if (configured instanceof Number number) {
+            return Math.max(1, number.intValue());
+        }
+        if (configured != null) {
+            return Math.max(1, Integer.parseInt(configured.toString()));
+        }
+        return defaultConcurrency;
+    }
+
+    /**
+     * Creation requests for the given children of the node's current attempt
+     */
+    public List<CreateRunRequest> requests(WorkflowRun run, NodeDefinition node, List<Integer> indexes) {
+        if (indexes.isEmpty()) {
+            return List.of();
+        }
+        String workflowId = childWorkflowId(node);
+        List<?> items = items(run, node);
+        Object staticInputs = node.configuration().get("inputs");
+        String as = String.valueOf(node.configuration().getOrDefault("as", "item"));
+        int attempt = run.getNodeExecution(node.id()).getAttempt();
+
+        List<CreateRunRequest> requests = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            Map<String, Object> inputs = new HashMap<>();
+            if (staticInputs instanceof Map<?, ?> map) {
+                map.forEach((key, value) -> inputs.put(String.valueOf(key), value));
+            }
+            if (items != null) {
+                inputs.put(as, items.get(index));
+            }
+            requests.add(CreateRunRequest.builder()
+                    .workflowId(workflowId)
+                    .inputs(inputs)
+                    .autoStart(true)
+                    .parent(new ParentRunRef(run.getId(), node.id(), attempt, index))
+                    .build());
+        }
+        return requests;
+    }
+
+    private static String childWorkflowId(NodeDefinition node) {
+        Object workflowId = node.configuration().get("workflowId");
+        if (workflowId == null) {
+            throw new IllegalArgumentException(
+                    "SUB_WORKFLOW node " + node.id().value() + " has no workflowId configured");
+        }
+        return workflowId.toString();
+    }
+
+    // Null when the node does not fan out
+    private static List<?> items(WorkflowRun run, NodeDefinition node) {
+        Object forEach = node.configuration().get("forEach");
+        if (forEach == null) {
+            return null;
+        }
+        Object value = run.getContext().getVariable(forEach.toString());
+        if (value instanceof List<?> list) {
+            return list;
+        }
+        if (value instanceof Collection<?> collection) {
+            return List.copyOf(collection);
+        }
+        throw new IllegalArgumentException("forEach variable " + forEach + " of SUB_WORKFLOW node "
+                + node.id().value() + " is not a list");
+    }
+
+    // ==================== REPORTING ====================
+
+    /**
+     * Queue a child's outcome for its parent
+     *
+     * @return true if the caller must start draining the parent's queue
+     */
+    public boolean offer(ChildRunResult result) {
+        return inbox.offer(result.parent().runId(), result);
+    }
+
+    /**
+     * Next batch of the parent's queued child outcomes
+     */
+    public List<ChildRunResult> take(WorkflowRunId parentRunId) {
+        return inbox.take(parentRunId);
+    }
+
+    /**
+     * Mark a batch as applied
+     *
+     * @return true if more outcomes arrived and the caller must keep draining
+     */
+    public boolean drained(WorkflowRunId parentRunId) {
+        return inbox.drained(parentRunId);
+    }
+
+    int queued() {
+        return inbox.queued();
+    }
+}
@@ -1,28 +1,54 @@
 package tech.kayys.silat.engine.impl;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import io.smallrye.mutiny.Multi;
+import io.quarkus.runtime.StartupEvent;
 import io.smallrye.mutiny.Uni;
+import io.vertx.core.json.JsonObject;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
+import tech.kayys.silat.cluster.RoutedCalls;
+import tech.kayys.silat.cluster.RunOwnership;
 import tech.kayys.silat.engine.ExecutionEventTypes;
 import tech.kayys.silat.execution.ExecutionHistory;
 import tech.kayys.silat.execution.ExternalSignal;
 import tech.kayys.silat.execution.NodeExecutionResult;
+import tech.kayys.silat.execution.NodeExecutionStatus;
 import tech.kayys.silat.model.CallbackConfig;
 import tech.kayys.silat.model.CallbackRegistration;
+import tech.kayys.silat.model.ChildRunResult;
 import tech.kayys.silat.model.CreateRunRequest;
+import tech.kayys.silat.model.CreateRunResult;
 import tech.kayys.silat.model.ErrorInfo;
 import tech.kayys.silat.model.ExecutionToken;
+import tech.kayys.silat.model.NodeDefinition;
+import tech.kayys.silat.model.NodeExecution;
 import tech.kayys.silat.model.NodeId;
 import tech.kayys.silat.model.RunStatus;
 import tech.kayys.silat.model.Signal;
 import tech.kayys.silat.model.TenantId;
 import tech.kayys.silat.model.ValidationResult;
+import tech.kayys.silat.model.WorkflowDefinition;
 import tech.kayys.silat.model.WorkflowDefinitionId;
 import tech.kayys.silat.model.WorkflowRun;
 import tech.kayys.silat.model.WorkflowRunId;
 import tech.kayys.silat.model.WorkflowRunSnapshot;
+import tech.kayys.silat.model.event.ExecutionEvent;
 
 /**
  * DefaultWorkflowRunManager
@@ -56,17 +82,61 @@ public class DefaultWorkflowRunManager implements tech.kayys.silat.api.engine.Wo
     tech.kayys.silat.engine.SystemClock clock;
     @Inject
     tech.kayys.silat.workflow.WorkflowDefinitionRegistry definitionRegistry;
+    @Inject
+    tech.kayys.silat.repository.RunArchive runArchive;
+    @Inject
+    tech.kayys.silat.repository.PostgresEventStore eventStore;
+    @Inject
+    tech.kayys.silat.plugin.ExecutionPluginPipeline executionPlugins;
+    @Inject
+    RunCompletionWaiters completionWaiters;
+    @Inject
+    SignalRouter signalRouter;
+    @Inject
+    tech.kayys.silat.scheduler.TimerService timerService;
+    @Inject
+    ChildRunTracker childRuns;
+    @Inject
+    RunPayloads payloads;
+    @Inject
+    tech.kayys.silat.dispatcher.FairDispatchQueue dispatchQueue;
+    @Inject
+    tech.kayys.silat.dispatcher.TaskHedging hedging;
+    @Inject
+    RunOwnership ownership;
+
+    /**
+     * Apply the results and signals other instances route to this one as
+     * the owner of their runs
+     */
+    void onStart(@Observes StartupEvent event) {
+        eventBus.<JsonObject>consumer(RunOwnership.address(RoutedCalls.RESULT))
+                .handler(message -> applyNodeResult(WorkflowRunId.of(message.body().getString("runId")),
+                        RoutedCalls.resultFrom(message.body()))
+                        .subscribe().with(
+                                ignored -> message.reply(null),
+                                failure -> message.fail(500, String.valueOf(failure.getMessage()))));
+        eventBus.<JsonObject>consumer(RunOwnership.address(RoutedCalls.SIGNAL))
+                .handler(message -> applySignal(WorkflowRunId.of(message.body().getString("runId")),
+                        RoutedCalls.signalFrom(message.body()))
+                        .subscribe().with(
+                                ignored -> message.reply(null),
+                                failure -> message.fail(500, String.valueOf(failure.getMessage()))));
+    }
 
     // ==================== LIFECYCLE ====================
 
     @Override
     public Uni<WorkflowRun> createRun(CreateRunRequest request, TenantId tenantId) {
         return definitionRegistry.getDefinition(new WorkflowDefinitionId(request.getWorkflowId()), tenantId)
-                .flatMap(definition -> {
-                    WorkflowRun run = WorkflowRun.create(tenantId, definition, request.getInputs());
+                .flatMap(definition -> payloads.offload(request.getInputs()).flatMap(inputs -> {
+                    // Copied: the run fills in defaults, and the request's inputs may be immutable
+                    WorkflowRun run = WorkflowRun.create(tenantId, definition, new HashMap<>(inputs),
+                            request.getParent());
+                    // Taken before the write, which moves them to the outbox
+                    List<ExecutionEvent> created = List.copyOf(run.getUncommittedEvents());
                     return runRepository.persist(run)
-                            .flatMap(persistedRun -> historyRepository.appendEvents(persistedRun.getId(),
-                                    persistedRun.getUncommittedEvents())
+                            .flatMap(persistedRun -> historyRepository.appendEvents(persistedRun.getId(), created)
                                     .replaceWith(persistedRun))
                             .flatMap(persistedRun -> {
                                 if (request.isAutoStart()) {
@@ -77,12 +147,119 @@ public class DefaultWorkflowRunManager implements tech.kayys.silat.api.engine.Wo
                                     return Uni.createFrom().item(persistedRun);
                                 }
                             });
-                });
+                }));
+    }
+
+    @Override
+    public Uni<List<CreateRunResult>> createRuns(List<CreateRunRequest> requests, TenantId tenantId) {
+        if (requests.isEmpty()) {
+            return Uni.createFrom().item(List.of());
+        }
+        Set<String> definitionIds = new LinkedHashSet<>();
+        for (CreateRunRequest request : requests) {
+            if (request != null && request.getWorkflowId() != null) {
+                definitionIds.add(request.getWorkflowId());
+            }
+        }
+
+        // One lookup per distinct definition; unknown ones reject their requests only
+        return Multi.createFrom().iterable(definitionIds)
+                .onItem().transformToUniAndConcatenate(definitionId -> definitionRegistry
+                        .getDefinition(new WorkflowDefinitionId(definitionId), tenantId)
+                        .map(Optional::of)
+                        .onFailure(NoSuchElementException.class).recoverWithItem(Optional.empty())
+                        .map(definition -> Map.entry(definitionId, definition)))
+                .collect().asMap(Map.Entry::getKey, Map.Entry::getValue)
+                .flatMap(definitions -> offloadInputs(requests, definitions).flatMap(inputs -> {
+                    CreateRunResult[] results = new CreateRunResult[requests.size()];
+                    List<WorkflowRun> runs = new ArrayList<>();
+                    List<Integer> runIndexes = new ArrayList<>();
+                    for (int i = 0; i < requests.size(); i++) {
+                        CreateRunRequest request = requests.get(i);
+                        if (request == null || request.getWorkflowId() == null) {
+                            results[i] = CreateRunResult.rejected(i, "workflowId is required");
+                            continue;
+                        }
+                        Optional<WorkflowDefinition> definition = definitions.get(request.getWorkflowId());
+                        if (definition.isEmpty()) {
+                            results[i] = CreateRunResult.rejected(i,
+                                    "Workflow definition not found: " + request.getWorkflowId());
+                            continue;
+                        }
+                        WorkflowRun run;
+                        try {
+                            // Validates the inputs against the definition
+                            run = WorkflowRun.create(tenantId, definition.get(), new HashMap<>(inputs.get(i)),
+                                    request.getParent());
+                            if (request.isAutoStart()) {
+                                // Started before the insert, so there is no second locked transaction per run
+                                run.start();
+                            }
+                        } catch (IllegalArgumentException | IllegalStateException e) {
+                            results[i] = CreateRunResult.rejected(i, e.getMessage());
+                            continue;
+                        }
+                        runs.add(run);
+                        runIndexes.add(i);
+                    }
+                    if (runs.isEmpty()) {
+                        return Uni.createFrom().item(List.of(results));
+                    }
+
+                    List<List<ExecutionEvent>> created = runs.stream()
+                            .map(run -> List.copyOf(run.getUncommittedEvents()))
+                            .toList();
+                    return runRepository.persistAll(runs)
+                            .call(() -> Multi.createFrom().range(0, runs.size())
+                                    .onItem().transformToUniAndConcatenate(
+                                            r -> recordCreated(runs.get(r), created.get(r)))
+                                    .collect().asList())
+                            .map(persisted -> {
+                                for (int r = 0; r < runs.size(); r++) {
+                                    int index = runIndexes.get(r);
+                                    results[index] = CreateRunResult.created(index, runs.get(r));
+                                }
+                                LOG.info("Created {} of {} runs in bulk for tenant {}",
+                                        runs.size(), requests.size(), tenantId.value());
+                                return List.of(results);
+                            });
+                }));
+    }
+
+    // Each creatable request's inputs with the large values offloaded, as createRun does
+    private Uni<List<Map<String, Object>>> offloadInputs(List<CreateRunRequest> requests,
+            Map<String, Optional<WorkflowDefinition>> definitions) {
+        return Multi.createFrom().range(0, requests.size())
+                .onItem().transformToUniAndConcatenate(i -> {
+                    CreateRunRequest request = requests.get(i);
+                    boolean creatable = request != null && request.getWorkflowId() != null
+                            && definitions.get(request.getWorkflowId()).isPresent();
+                    return creatable && request.getInputs() != null
+                            ? payloads.offload(request.getInputs())
+                            : Uni.createFrom().item(Map.<String, Object>of());
+                })
+                .collect().asList();
+    }
+
+    // History and notifications for a run inserted by createRuns
+    private Uni<Void> recordCreated(WorkflowRun run, List<ExecutionEvent> events) {
+        Uni<Void> history = historyRepository.appendEvents(run.getId(), events);
+        if (run.getStatus() == RunStatus.CREATED) {
+            return history.invoke(() -> eventBus.publish("silat.workflow.run.created",
+                    io.vertx.core.json.JsonObject.mapFrom(run.createSnapshot())));
+        }
+        return history
+                .call(() -> historyRepository.append(
+                        run.getId(),
+                        ExecutionEventTypes.STATUS_CHANGED,
+                        run.getStatus().name(),
+                        Map.of()))
+                .invoke(() -> eventBus.publish("silat.runs.v1.updated", run.getId().value()));
     }
 
     @Override
     public Uni<WorkflowRun> startRun(WorkflowRunId runId, TenantId tenantId) {
-        return runRepository.withLock(runId, run -> {
+        return withRunLock(runId, run -> {
             run.start();
             return runRepository.update(run)
                     .call(() -> historyRepository.append(
@@ -105,7 +282,7 @@ public class DefaultWorkflowRunManager implements tech.kayys.silat.api.engine.Wo
             TenantId tenantId,
             String reason,
             NodeId waitingOnNodeId) {
-        return runRepository.withLock(runId, run -> {
+        return withRunLock(runId, run -> {
             run.suspend(reason, waitingOnNodeId);
             return runRepository.update(run)
                     .call(() -> historyRepository.append(
@@ -113,7 +290,24 @@ public class DefaultWorkflowRunManager implements tech.kayys.silat.api.engine.Wo
                             ExecutionEventTypes.STATUS_CHANGED,
                             RunStatus.SUSPENDED.name(),
                             Map.of("reason", reason, "waitingOnNode", waitingOnNodeId.value())));
-        });
+        }).call(run -> scheduleWaitExpiry(run, waitingOnNodeId));
+    }
+
+    // A wait on a node with a timeout expires after it
+    private Uni<Void> scheduleWaitExpiry(WorkflowRun run, NodeId waitingOnNodeId) {
+        if (waitingOnNodeId == null || run.getDefinition() == null) {
+            return Uni.createFrom().voidItem();
+        }
+        return run.getDefinition().findNode(waitingOnNodeId)
+                .map(tech.kayys.silat.model.NodeDefinition::timeout)
+                .map(timeout -> timerService.schedule(tech.kayys.silat.scheduler.DurableTimer.of(
+                        tech.kayys.silat.scheduler.DurableTimer.Kind.WAIT_EXPIRY,
+                        run.getTenantId(),
+                        run.getId(),
+                        waitingOnNodeId,
+                        1,
+                        clock.now().plus(timeout))))
+                .orElse(Uni.createFrom().voidItem());
     }
 
     @Override
@@ -121,7 +315,7 @@ public class DefaultWorkflowRunManager implements tech.kayys.silat.api.engine.Wo
             WorkflowRunId runId,
             TenantId tenantId,
             Map<String, Object> resumeData) {
-        return runRepository.withLock(runId, run -> {
+        return withRunLock(runId, run -> {
             run.resume(resumeData);
             return runRepository.update(run)
                     .call(() -> historyRepository.append(
@@ -137,9 +331,12 @@ public class DefaultWorkflowRunManager implements tech.kayys.silat.api.engine.Wo
             WorkflowRunId runId,
             TenantId tenantId,
             String reason) {
-        return runRepository.withLock(runId, run -> {
+        return withRunLock(runId, run -> {
             run.cancel(reason);
-            return runRepository.update(run)
+            return (run.isCompensating()
+                    ? compensationCoordinator.compensate(run).replaceWithVoid()
+                    : Uni.createFrom().voidItem())
+                    .chain(() -> runRepository.update(run))
                     .call(() -> historyRepository.append(
                             runId,
                             ExecutionEventTypes.STATUS_CHANGED,
@@ -153,7 +350,7 @@ public class DefaultWorkflowRunManager implements tech.kayys.silat.api.engine.Wo
             WorkflowRunId runId,
             TenantId tenantId,
             Map<String, Object> outputs) {
-        return runRepository.withLock(runId, run -> {
+        return withRunLock(runId, run -> {
             run.complete(outputs);
             return runRepository.update(run)
                     .call(() -> historyRepository.append(
@@ -169,25 +366,62 @@ public class DefaultWorkflowRunManager implements tech.kayys.silat.api.engine.Wo
             WorkflowRunId runId,
             TenantId tenantId,
             ErrorInfo error) {
-        return runRepository.withLock(runId, run -> {
+        return withRunLock(runId, run -> fail(run, error));
+    }
 
-            ValidationResult vr = transitionValidator.validate(run.getStatus(), RunStatus.FAILED);
-            if (!vr.isValid()) {
-                return Uni.createFrom().failure(new IllegalStateException(vr.message()));
+    @Override
+    public Uni<Void> expireWait(
+            WorkflowRunId runId,
+            TenantId tenantId,
+            NodeId nodeId) {
+        return withRunLock(runId, run -> {
+            if (run.getStatus() != RunStatus.SUSPENDED || run.getSuspensionInfo() == null
+                    || !nodeId.equals(run.getSuspensionInfo().waitingOnNodeId())) {
+                return Uni.createFrom().item(run);
             }
+            LOG.info("Wait of run {} on node {} expired", runId.value(), nodeId.value());
+            return fail(run, new ErrorInfo(
+                    "WAIT_TIMEOUT",
+                    "Wait on node " + nodeId.value() + " expired",
+                    null,
+                    Map.of("nodeId", nodeId.value())));
+        }).replaceWithVoid();
+    }
 
-            run.fail(error);
-
-            return historyRepository.append(
-                    runId,
-                    ExecutionEventTypes.RUN_FAILED,
-                    error.message(),
-                    Map.of("errorCode", error.code()))
-                    .chain(() -> compensationCoordinator
-                            .compensate(run)
-                            .replaceWith(run)
-                            .flatMap(r -> runRepository.update(r)));
-        });
+    // Fails the locked run, compensating what it already did
+    private Uni<WorkflowRun> fail(WorkflowRun run, ErrorInfo error) {
+        WorkflowRunId runId = run.getId();
+        ValidationResult vr = transitionValidator.validate(run.getStatus(), RunStatus.FAILED);
+        if (!vr.isValid()) {
+            return Uni.createFrom().failure(new IllegalStateException(vr.message()));
+        }
+
+        run.fail(error);
+
+        return historyRepository.append(
+                runId,
+                ExecutionEventTypes.RUN_FAILED,
+                error.message(),
+                Map.of("errorCode", error.code()))
+                .chain(() -> compensationCoordinator
+                        .compensate(run)
+                        .replaceWith(run)
+                        .flatMap(r -> runRepository.update(r)));
+    }
+
+    /**
+     * Dispatch again the compensation of a run that has made no progress,
+     * such as after an executor or engine instance was lost mid-compensation
+     */
+    public Uni<Void> resumeCompensation(WorkflowRunId runId) {
+        return withRunLock(runId, run -> {
+            if (!run.isCompensating()) {
+                return Uni.createFrom().voidItem();
+            }
+            return compensationCoordinator.resume(run)
+                    .chain(() -> runRepository.update(run))
+                    .replaceWithVoid();
+        }).replaceWithVoid();
     }
 
     // ==================== NODE FEEDBACK ====================
@@ -196,7 +430,24 @@ public class DefaultWorkflowRunManager implements tech.kayys.silat.api.engine.Wo
     public Uni<Void> handleNodeResult(
             WorkflowRunId runId,
             NodeExecutionResult result) {
-        return runRepository.withLock(runId, run -> {
+        return ownership.route(runId, RoutedCalls.RESULT, () -> RoutedCalls.toJson(result),
+                () -> applyNodeResult(runId, result));
+    }
+
+    private Uni<Void> applyNodeResult(WorkflowRunId runId, NodeExecutionResult result) {
+        // The run's owner dispatched the task, so its slot and hedge timer are here. The
+        // executor is done with the task, whatever the run makes of its result
+        dispatchQueue.release(runId, result.nodeId(), result.attempt());
+        hedging.completed(runId, result.nodeId(), result.attempt());
+        return withRunLock(runId, run -> {
+
+            if (run.isCompensating()) {
+                // Results of compensation tasks; the run's forward work is over
+                return compensationCoordinator.onResult(run, result)
+                        .flatMap(applied -> applied
+                                ? runRepository.update(run).replaceWithVoid()
+                                : Uni.createFrom().voidItem());
+            }
 
             // Check if result already processed (idempotency)
             return historyRepository.isNodeResultProcessed(runId, result.nodeId(), result.attempt())
@@ -205,7 +456,11 @@ public class DefaultWorkflowRunManager implements tech.kayys.silat.api.engine.Wo
                             return Uni.createFrom().voidItem();
                         }
 
-                        return historyRepository.append(
+                        var pluginContext = executionPlugins.resultContext(result, () -> nodeExecutorType(run, result));
+                        return executionPlugins.transformOutput(pluginContext,
+                                result.output() != null ? result.output() : Map.of())
+                                .flatMap(payloads::offload)
+                                .flatMap(output -> historyRepository.append(
                                 runId,
                                 ExecutionEventTypes.NODE_COMPLETED,
                                 "Node completed",
@@ -217,52 +472,325 @@ public class DefaultWorkflowRunManager implements tech.kayys.silat.api.engine.Wo
                                 .chain(() -> {
                                     // Apply result
                                     if (result.status() == tech.kayys.silat.execution.NodeExecutionStatus.COMPLETED) {
-                                        run.completeNode(result.nodeId(), result.attempt(),
-                                                result.output() != null ? result.output() : Map.of());
+                                        run.completeNode(result.nodeId(), result.attempt(), output);
                                         return runRepository.update(run)
                                                 .invoke(() -> eventBus.publish("silat.runs.v1.updated", runId.value()))
                                                 .replaceWithVoid();
                                     } else {
                                         run.failNode(result.nodeId(), result.attempt(), result.error());
-                                        return runRepository.update(run)
+                                        // A critical failure fails the run and starts its compensation
+                                        return (run.isCompensating()
+                                                ? compensationCoordinator.compensate(run).replaceWithVoid()
+                                                : Uni.createFrom().voidItem())
+                                                .chain(() -> runRepository.update(run))
                                                 .invoke(() -> eventBus.publish("silat.runs.v1.updated", runId.value()))
                                                 .replaceWithVoid();
                                     }
-                                });
+                                })
+                                .call(() -> executionPlugins.afterResult(pluginContext, result, output)));
                     });
-        });
+        }).call(() -> timerService
+                .cancel(runId, result.nodeId(), tech.kayys.silat.scheduler.DurableTimer.Kind.NODE_TIMEOUT,
+                        result.attempt())
+                .onFailure().invoke(e -> LOG.warn("Failed to cancel timeout of node {} in run {}",
+                        result.nodeId().value(), runId.value(), e))
+                .onFailure().recoverWithNull());
+    }
+
+    private static String nodeExecutorType(WorkflowRun run, NodeExecutionResult result) {
+        if (run.getDefinition() == null) {
+            return null;
+        }
+        return run.getDefinition().findNode(result.nodeId())
+                .map(tech.kayys.silat.model.NodeDefinition::executorType)
+                .orElse(null);
     }
 
+    // ==================== SUB-WORKFLOWS ====================
+
+    @Override
+    public Uni<Void> startSubWorkflow(WorkflowRunId runId, NodeId nodeId) {
+        List<CreateRunRequest> spawn = new ArrayList<>();
+        AtomicReference<TenantId> tenant = new AtomicReference<>();
+        return withRunLock(runId, run -> {
+            NodeExecution execution = run.getAllNodeExecutions().get(nodeId);
+            if (run.getStatus() != RunStatus.RUNNING || execution != null
+                    && execution.getStatus() != NodeExecutionStatus.PENDING
+                    && execution.getStatus() != NodeExecutionStatus.RETRYING) {
+                // Started by an earlier drive of the run
+                return Uni.createFrom().voidItem();
+            }
+            NodeDefinition node = run.getDefinition().findNode(nodeId)
+                    .orElseThrow(() -> new NoSuchElementException("Node not found: " + nodeId.value()));
+            tenant.set(run.getTenantId());
+            try {
+                List<Integer> indexes = run.beginFanOut(nodeId, childRuns.childCount(run, node),
+                        childRuns.maxConcurrency(node));
+                spawn.addAll(childRuns.requests(run, node, indexes));
+            } catch (IllegalArgumentException e) {
+                run.failNode(nodeId, run.getNodeExecution(nodeId).getAttempt(), new ErrorInfo(
+                        "INVALID_SUB_WORKFLOW", e.getMessage(), null, Map.of("nodeId", nodeId.value())));
+            }
+            // A node without children ends at once
+            boolean ended = run.getNodeExecution(nodeId).getStatus() != NodeExecutionStatus.RUNNING;
+            return runRepository.update(run)
+                    .invoke(() -> {
+                        if (ended) {
+                            eventBus.publish("silat.runs.v1.updated", runId.value());
+                        }
+                    })
+                    .replaceWithVoid();
+        }).call(() -> createChildren(tenant.get(), spawn));
+    }
+
+    // Children are inserted in bulk and driven by whichever instance picks up their update
+    private Uni<Void> createChildren(TenantId tenantId, List<CreateRunRequest> requests) {
+        if (requests.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        return createRuns(requests, tenantId)
+                .invoke(results -> results.stream()
+                        .filter(result -> !result.isSuccess())
+                        .forEach(result -> reportToParent(ChildRunResult.rejected(
+                                requests.get(result.index()).getParent(), result.error()))))
+                .onFailure().invoke(e -> {
+                    LOG.error("Failed to create {} child runs", requests.size(), e);
+                    requests.forEach(request -> reportToParent(
+                            ChildRunResult.rejected(request.getParent(), String.valueOf(e.getMessage()))));
+                })
+                .onFailure().recoverWithNull()
+                .replaceWithVoid();
+    }
+
+    // Queue a child's outcome for its parent and drain if no one else is
+    private void reportToParent(ChildRunResult result) {
+        if (childRuns.offer(result)) {
+            drainChildResults(result.parent().runId());
+        }
+    }
+
+    private void drainChildResults(WorkflowRunId parentRunId) {
+        List<ChildRunResult> batch = childRuns.take(parentRunId);
+        applyChildResults(parentRunId, batch)
+                .subscribe().with(
+                        ignored -> {
+                            if (childRuns.drained(parentRunId)) {
+                                drainChildResults(parentRunId);
+                            }
+                        },
+                        failure -> {
+                            LOG.error("Failed to apply {} child run results to run {}",
+                                    batch.size(), parentRunId.value(), failure);
+                            if (childRuns.drained(parentRunId)) {
+                                drainChildResults(parentRunId);
+                            }
+                        });
+    }
+
+    private Uni<Void> applyChildResults(WorkflowRunId parentRunId, List<ChildRunResult> batch) {
+        if (batch.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        Map<NodeId, List<ChildRunResult>> byNode = new LinkedHashMap<>();
+        batch.forEach(result -> byNode.computeIfAbsent(result.parent().nodeId(), id -> new ArrayList<>()).add(result));
+
+        List<CreateRunRequest> spawn = new ArrayList<>();
+        AtomicReference<TenantId> tenant = new AtomicReference<>();
+        return withRunLock(parentRunId, run -> {
+            if (run.getStatus().isTerminal()) {
+                return Uni.createFrom().voidItem();
+            }
+            tenant.set(run.getTenantId());
+            List<NodeExecution> ended = new ArrayList<>();
+            byNode.forEach((nodeId, results) -> {
+                NodeExecution execution = run.getAllNodeExecutions().get(nodeId);
+                boolean wasRunning = execution != null && execution.getStatus() == NodeExecutionStatus.RUNNING;
+                List<Integer> next = run.recordChildResults(nodeId, results);
+                if (wasRunning && execution.getStatus() != NodeExecutionStatus.RUNNING) {
+                    ended.add(execution);
+                }
+                run.getDefinition().findNode(nodeId)
+                        .ifPresent(node -> spawn.addAll(childRuns.requests(run, node, next)));
+            });
+
+            // One update of the parent for the whole batch
+            return runRepository.update(run)
+                    .call(() -> Multi.createFrom().iterable(ended)
+                            .onItem().transformToUniAndConcatenate(execution -> historyRepository.append(
+                                    parentRunId,
+                                    ExecutionEventTypes.NODE_COMPLETED,
+                                    "Node completed",
+                                    Map.of(
+                                            "nodeId", execution.getNodeId().value(),
+                                            "attempt", execution.getAttempt(),
+                                            "success", execution.isCompleted())))
+                            .collect().last())
+                    .invoke(() -> {
+                        if (!ended.isEmpty()) {
+                            eventBus.publish("silat.runs.v1.updated", parentRunId.value());
+                        }
+                    })
+                    .replaceWithVoid();
+        }).call(() -> createChildren(tenant.get(), spawn));
+    }
+
+    // ==================== SIGNALS ====================
+
+    /**
+     * Signals queue in the inbox of the run on its owning instance; the
+     * caller completes once the batch carrying its signal has been applied
+     */
     @Override
     public Uni<Void> signal(
             WorkflowRunId runId,
             Signal signal) {
-        return historyRepository.append(
-                runId,
-                ExecutionEventTypes.SIGNAL_RECEIVED,
-                signal.name(),
-                signal.payload());
+        return ownership.route(runId, RoutedCalls.SIGNAL, () -> RoutedCalls.toJson(signal),
+                () -> applySignal(runId, signal));
+    }
+
+    private Uni<Void> applySignal(WorkflowRunId runId, Signal signal) {
+        return Uni.createFrom().deferred(() -> {
+            CompletableFuture<Void> delivered = new CompletableFuture<>();
+            if (signalRouter.offer(runId, new SignalRouter.Delivery(signal, delivered))) {
+                drainSignals(runId);
+            }
+            return Uni.createFrom().completionStage(delivered);
+        });
+    }
+
+    @Override
+    public Uni<Integer> broadcastSignal(TenantId tenantId, Signal signal) {
+        List<WorkflowRunId> runIds = signalRouter.waitingFor(tenantId, signal.name());
+        if (runIds.isEmpty()) {
+            return Uni.createFrom().item(0);
+        }
+        LOG.debug("Broadcasting signal {} to {} waiting runs of tenant {}",
+                signal.name(), runIds.size(), tenantId.value());
+        return Multi.createFrom().iterable(runIds)
+                .onItem().transformToUni(runId -> signal(runId, signal)
+                        .replaceWith(1)
+                        .onFailure().invoke(e -> LOG.warn("Signal {} not delivered to run {}: {}",
+                                signal.name(), runId.value(), e.getMessage()))
+                        .onFailure().recoverWithItem(0))
+                .merge(signalRouter.broadcastConcurrency())
+                .collect().with(java.util.stream.Collectors.summingInt(Integer::intValue));
+    }
+
+    // Apply the run's queued signals batch by batch until its inbox is empty
+    private void drainSignals(WorkflowRunId runId) {
+        List<SignalRouter.Delivery> batch = signalRouter.take(runId);
+        deliverSignals(runId, batch.stream().map(SignalRouter.Delivery::signal).toList())
+                .subscribe().with(
+                        ignored -> {
+                            batch.forEach(delivery -> delivery.delivered().complete(null));
+                            if (signalRouter.drained(runId)) {
+                                drainSignals(runId);
+                            }
+                        },
+                        failure -> {
+                            batch.forEach(delivery -> delivery.delivered().completeExceptionally(failure));
+                            if (signalRouter.drained(runId)) {
+                                drainSignals(runId);
+                            }
+                        });
+    }
+
+    private Uni<Void> deliverSignals(WorkflowRunId runId, List<Signal> signals) {
+        if (signals.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        return Multi.createFrom().iterable(signals)
+                .onItem().transformToUniAndConcatenate(signal -> historyRepository.append(
+                        runId,
+                        ExecutionEventTypes.SIGNAL_RECEIVED,
+                        signal.name(),
+                        signal.payload() != null ? signal.payload() : Map.of()))
+                .collect().last()
+                .chain(() -> withRunLock(runId, run -> {
+                    // One transition for the whole batch; unmatched signals stay buffered on the run
+                    if (!run.signalAll(signals)) {
+                        return Uni.createFrom().voidItem();
+                    }
+                    return runRepository.update(run)
+                            .call(() -> historyRepository.append(
+                                    runId,
+                                    ExecutionEventTypes.STATUS_CHANGED,
+                                    run.getStatus().name(),
+                                    Map.of("signals", signals.size())))
+                            .invoke(() -> eventBus.publish("silat.runs.v1.updated", runId.value()))
+                            .replaceWithVoid();
+                }));
     }
 
     // ==================== QUERY ====================
 
+    @Override
+    public Uni<WorkflowRun> awaitCompletion(WorkflowRunId runId, TenantId tenantId, Duration timeout) {
+        long deadline = System.nanoTime() + completionWaiters.clamp(timeout).toNanos();
+        // Registered on subscription, so a full waiter table fails the Uni
+        // (TooManyWaitersException) rather than the caller
+        return Uni.createFrom().deferred(() -> {
+            RunCompletionWaiters.Waiter waiter = completionWaiters.register(runId);
+            return awaitCompletion(waiter, runId, tenantId, deadline)
+                    .eventually(waiter::cancel);
+        });
+    }
+
+    // Reads the run, then waits for its completion event or the next read
+    private Uni<WorkflowRun> awaitCompletion(RunCompletionWaiters.Waiter waiter, WorkflowRunId runId,
+            TenantId tenantId, long deadline) {
+        return getRun(runId, tenantId).chain(run -> {
+            Duration remaining = Duration.ofNanos(deadline - System.nanoTime());
+            if (run == null || run.getStatus().isTerminal() || !remaining.isPositive()) {
+                return Uni.createFrom().item(run);
+            }
+            return waiter.await(completionWaiters.slice(remaining))
+                    .chain(completed -> completed
+                            ? getRun(runId, tenantId)
+                            : awaitCompletion(waiter, runId, tenantId, deadline));
+        });
+    }
+
     @Override
     public Uni<WorkflowRun> getRun(WorkflowRunId runId, TenantId tenantId) {
-        return runRepository.findById(runId, tenantId);
+        return runRepository.findById(runId, tenantId)
+                .onItem().ifNull().switchTo(() -> runArchive.find(runId, tenantId)
+                        .onItem().ifNotNull().transformToUni(archived -> definitionRegistry
+                                .getDefinition(archived.definitionId(), tenantId)
+                                .map(archived::toRun)));
     }
 
     @Override
     public Uni<WorkflowRunSnapshot> getSnapshot(
             WorkflowRunId runId,
             TenantId tenantId) {
-        return runRepository.snapshot(runId, tenantId);
+        return ownership.snapshot(runId, tenantId)
+                .map(snapshot -> Uni.createFrom().item(snapshot))
+                .orElseGet(() -> runRepository.snapshot(runId, tenantId));
     }
 
     @Override
     public Uni<ExecutionHistory> getExecutionHistory(
             WorkflowRunId runId,
             TenantId tenantId) {
-        return historyRepository.load(runId);
+        return historyRepository.load(runId)
+                .flatMap(history -> {
+                    if (!history.getEvents().isEmpty()) {
+                        return Uni.createFrom().item(history);
+                    }
+                    return runRepository.findById(runId, tenantId).flatMap(run -> {
+                        if (run != null) {
+                            // Stored events, none older than the run, so older partitions are skipped
+                            return eventStore.getEvents(runId, run.getCreatedAt())
+                                    .map(events -> ExecutionHistory.fromEvents(runId, events));
+                        }
+                        // Runs moved to cold storage no longer have hot history
+                        return runArchive.find(runId, tenantId)
+                                .map(archived -> archived == null
+                                        ? history
+                                        : ExecutionHistory.fromEvents(runId, archived.events()));
+                    });
+                });
     }
 
     @Override
@@ -277,6 +805,7 @@ public class DefaultWorkflowRunManager implements tech.kayys.silat.api.engine.Wo
 
     @Override
     public Uni<Long> getActiveRunsCount(TenantId tenantId) {
+        // From the event projection where enabled, which covers every instance
         return runRepository.countActiveRuns(tenantId);
     }
 
@@ -288,6 +817,48 @@ public class DefaultWorkflowRunManager implements tech.kayys.silat.api.engine.Wo
                 .map(run -> transitionValidator.validate(run.getStatus(), targetStatus));
     }
 
+    /**
+     * Run an action under the run's lock; once the lock is released, the
+     * signal index is brought up to date and a run that the action moved to
+     * a terminal status is announced on {@link RunCompletionWaiters#RUN_COMPLETED}
+     * and a child run that can no longer complete is reported to its parent
+     */
+    private <T> Uni<T> withRunLock(WorkflowRunId runId, Function<WorkflowRun, Uni<T>> action) {
+        AtomicReference<WorkflowRun> locked = new AtomicReference<>();
+        AtomicBoolean completed = new AtomicBoolean();
+        AtomicBoolean ended = new AtomicBoolean();
+        return runRepository.withLock(runId, run -> {
+            boolean wasTerminal = run.getStatus().isTerminal();
+            boolean hadEnded = hasEnded(run);
+            return action.apply(run)
+                    .invoke(() -> {
+                        locked.set(run);
+                        completed.set(!wasTerminal && run.getStatus().isTerminal());
+                        ended.set(!hadEnded && hasEnded(run));
+                    });
+        }).invoke(() -> {
+            if (locked.get() != null) {
+                signalRouter.track(locked.get());
+                ownership.remember(locked.get());
+            }
+            if (ended.get() && locked.get().getParent() != null) {
+                reportToParent(ChildRunResult.of(locked.get()));
+            }
+            if (completed.get()) {
+                eventBus.publish(RunCompletionWaiters.RUN_COMPLETED, runId.value());
+                timerService.cancelRun(runId).subscribe().with(
+                        ignored -> {
+                        },
+                        e -> LOG.warn("Failed to drop timers of run {}", runId.value(), e));
+            }
+        });
+    }
+
+    // A compensating run will not complete, so its parent need not wait for the compensation
+    private static boolean hasEnded(WorkflowRun run) {
+        return run.getStatus().isTerminal() || run.getStatus() == RunStatus.COMPENSATING;
+    }
+
     // ==================== TOKEN ====================
 
     @Override
@@ -47,6 +47,13 @@ public class InMemoryExecutionHistoryRepository implements ExecutionHistoryRepos
                 ExecutionHistory.fromEvents(runId, runEvents));
     }
 
+    @Override
+    public Uni<Void> evict(WorkflowRunId runId) {
+        events.remove(runId);
+        processedNodeKeys.removeIf(key -> key.startsWith(runId + ":"));
+        return Uni.createFrom().voidItem();
+    }
+
     @Override
     public Uni<Boolean> isNodeResultProcessed(
             WorkflowRunId runId,
@@ -0,0 +1,187 @@
+package tech.kayys.silat.engine.impl;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.eventbus.EventBus;
+import io.vertx.mutiny.core.eventbus.MessageConsumer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import tech.kayys.silat.cluster.ClusterNotifications;
+import tech.kayys.silat.model.WorkflowRunId;
+
+/**
+ * Requests parked until a run reaches a terminal status
+ *
+ * A waiter is a future keyed by run id, completed by the run-completion
+ * event on the event bus or dropped when its timeout elapses. Parked
+ * requests hold no thread and no database connection.
+ *
+ * The completion event only reaches other instances with a cluster
+ * transport. Without one, a run finishing on another instance would go
+ * unnoticed, so waits are cut into {@code silat.runs.await.poll-interval}
+ * slices and the run is read again after each.
+ */
+@ApplicationScoped
+public class RunCompletionWaiters {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RunCompletionWaiters.class);
+
+    /**
+     * Published with the run id once a run has reached a terminal status;
+     * with a cluster transport it reaches every instance, see
+     * {@link tech.kayys.silat.cluster.ClusterNotifications#BROADCAST_ADDRESSES}
+     */
+    public static final String RUN_COMPLETED = "silat.runs.v1.completed";
+
+    @Inject
+    EventBus eventBus;
+
+    @Inject
+    ClusterNotifications notifications;
+
+    @ConfigProperty(name = "silat.runs.await.max-waiters", defaultValue = "10000")
+    int maxWaiters;
+
+    @ConfigProperty(name = "silat.runs.await.max-timeout", defaultValue = "PT5M")
+    Duration maxTimeout;
+
+    @ConfigProperty(name = "silat.runs.await.poll-interval", defaultValue = "PT1S")
+    Duration pollInterval;
+
+    private final Map<String, Set<CompletableFuture<Void>>> waiters = new ConcurrentHashMap<>();
+    private final AtomicInteger count = new AtomicInteger();
+    private MessageConsumer<String> consumer;
+
+    @PostConstruct
+    void init() {
+        consumer = eventBus.<String>consumer(RUN_COMPLETED).handler(message -> wake(message.body()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (consumer != null) {
+            consumer.unregisterAndForget();
+        }
+    }
+
+    /**
+     * Register a waiter before reading the run, so a completion between
+     * the read and the wait isn't missed
+     *
+     * @throws TooManyWaitersException once {@code silat.runs.await.max-waiters}
+     *         requests are already parked
+     */
+    public Waiter register(WorkflowRunId runId) {
+        if (count.incrementAndGet() > maxWaiters) {
+            count.decrementAndGet();
+            throw new TooManyWaitersException(maxWaiters);
+        }
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        waiters.compute(runId.value(), (id, futures) -> {
+            Set<CompletableFuture<Void>> registered = futures != null ? futures : ConcurrentHashMap.newKeySet();
+            registered.add(future);
+            return registered;
+        });
+        return new Waiter(runId.value(), future);
+    }
+
+    /**
+     * Timeouts are capped at {@code silat.runs.await.max-timeout}
+     */
+    public Duration clamp(Duration timeout) {
+        if (timeout == null || timeout.isNegative() || timeout.compareTo(maxTimeout) > 0) {
+            return maxTimeout;
+        }
+        return timeout;
+    }
+
+    /**
+     * How long to wait before reading the run again, given the time left
+     */
+    public Duration slice(Duration remaining) {
+        if (notifications.broadcasting() || remaining.compareTo(pollInterval) <= 0) {
+            return remaining;
+        }
+        return pollInterval;
+    }
+
+    int waiting() {
+        return count.get();
+    }
+
+    void wake(String runId) {
+        Set<CompletableFuture<Void>> woken = waiters.remove(runId);
+        if (woken == null) {
+            return;
+        }
+        LOG.debug("Waking {} waiters of run {}", woken.size(), runId);
+        for (CompletableFuture<Void> future : woken) {
+            future.complete(null);
+        }
+    }
+
+    private void release(String runId, CompletableFuture<Void> future) {
+        count.decrementAndGet();
+        waiters.computeIfPresent(runId, (id, futures) -> {
+            futures.remove(future);
+            return futures.isEmpty() ? null : futures;
+        });
+    }
+
+    /**
+     * One parked request
+     */
+    public final class Waiter {
+
+        private final String runId;
+        private final CompletableFuture<Void> future;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Waiter(String runId, CompletableFuture<Void> future) {
+            this.runId = runId;
+            this.future = future;
+        }
+
+        /**
+         * True once the run completed, false if the timeout elapsed first;
+         * the waiter stays registered until cancelled
+         */
+        public Uni<Boolean> await(Duration timeout) {
+            return Uni.createFrom().completionStage(future)
+                    .replaceWith(Boolean.TRUE)
+                    .ifNoItem().after(timeout).recoverWithItem(Boolean.FALSE);
+        }
+
+        /**
+         * Stop waiting, releasing the waiter's slot
+         */
+        public void cancel() {
+            if (released.compareAndSet(false, true)) {
+                release(runId, future);
+            }
+        }
+    }
+
+    /**
+     * Every waiter slot is taken; the caller may retry once some of the
+     * parked requests have returned
+     */
+    public static final class TooManyWaitersException extends RuntimeException {
+        TooManyWaitersException(int maxWaiters) {
+            super("Too many requests waiting for run completion (" + maxWaiters + ")", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package tech.kayys.silat.engine.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntSupplier;
+
+import tech.kayys.silat.model.WorkflowRunId;
+
+/**
+ * Per-run queues drained in batches by a single drainer at a time
+ *
+ * Whoever offers into an idle queue becomes its drainer; items offered
+ * meanwhile are picked up by the drainer's next batch, so a burst costs
+ * one locked transition per batch rather than one per item.
+ */
+final class RunInbox<T> {
+
+    private final Map<WorkflowRunId, Inbox<T>> inboxes = new ConcurrentHashMap<>();
+    private final IntSupplier maxBatch;
+
+    private static final class Inbox<T> {
+        final Queue<T> items = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean draining = new AtomicBoolean();
+    }
+
+    /**
+     * @param maxBatch largest batch handed out by {@link #take}
+     */
+    RunInbox(IntSupplier maxBatch) {
+        this.maxBatch = maxBatch;
+    }
+
+    /**
+     * Queue an item for the run
+     *
+     * @return true if the caller must start draining the run's queue
+     */
+    boolean offer(WorkflowRunId runId, T item) {
+        Inbox<T> inbox = inboxes.compute(runId, (id, existing) -> {
+            Inbox<T> target = existing != null ? existing : new Inbox<>();
+            target.items.add(item);
+            return target;
+        });
+        return inbox.draining.compareAndSet(false, true);
+    }
+
+    /**
+     * Next batch of the run's queued items, in arrival order
+     */
+    List<T> take(WorkflowRunId runId) {
+        Inbox<T> inbox = inboxes.get(runId);
+        if (inbox == null) {
+            return List.of();
+        }
+        int limit = maxBatch.getAsInt();
+        List<T> batch = new ArrayList<>();
+        T item;
+        while (batch.size() < limit && (item = inbox.items.poll()) != null) {
+            batch.add(item);
+        }
+        return batch;
+    }
+
+    /**
+     * Mark a batch as applied
+     *
+     * @return true if more items arrived and the caller must keep draining
+     */
+    boolean drained(WorkflowRunId runId) {
+        Inbox<T> inbox = inboxes.get(runId);
+        if (inbox == null) {
+            return false;
+        }
+        inbox.draining.set(false);
+        if (!inbox.items.isEmpty() && inbox.draining.compareAndSet(false, true)) {
+            return true;
+        }
+        // Offers are serialised with this on the map entry, so none can be lost
+        inboxes.computeIfPresent(runId,
+                (id, current) -> current.items.isEmpty() && !current.draining.get() ? null : current);
+        return false;
+    }
+
+    int queued() {
+        return inboxes.values().stream().mapToInt(inbox -> inbox.items.size()).sum();
+    }
+}
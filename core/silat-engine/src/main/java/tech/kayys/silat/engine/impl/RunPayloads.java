@@ -0,0 +1,76 @@
+package tech.kayys.silat.engine.impl;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import tech.kayys.silat.payload.FileSystemPayloadStore;
+import tech.kayys.silat.payload.PayloadOffloader;
+import tech.kayys.silat.payload.PayloadStore;
+
+/**
+ * Claim checks for large run inputs and node outputs
+ *
+ * Values whose JSON reaches {@code silat.payloads.threshold} bytes are
+ * written to the payload store once and replaced by a reference before they
+ * enter the run's variables, so the database, the broker and every dispatch
+ * carry the reference only; executors fetch the value from the store when
+ * they read it.
+ *
+ * The store is a {@link PayloadStore} bean if the application provides one
+ * (an object storage adapter), otherwise a {@link FileSystemPayloadStore} at
+ * {@code silat.payloads.location}. With neither, values stay inline.
+ */
+@ApplicationScoped
+public class RunPayloads {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RunPayloads.class);
+
+    @ConfigProperty(name = "silat.payloads.location")
+    Optional<String> location;
+
+    @ConfigProperty(name = "silat.payloads.threshold", defaultValue = "262144")
+    int threshold;
+
+    @Inject
+    Instance<PayloadStore> stores;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    private PayloadOffloader offloader;
+
+    @PostConstruct
+    void init() {
+        PayloadStore store;
+        String target;
+        if (stores.isResolvable()) {
+            store = stores.get();
+            target = store.getClass().getSimpleName();
+        } else if (location.isPresent()) {
+            store = FileSystemPayloadStore.at(location.get());
+            target = location.get();
+        } else {
+            return;
+        }
+        offloader = new PayloadOffloader(store, objectMapper, threshold);
+        LOG.info("Offloading run values of {} bytes or more to {}", threshold, target);
+    }
+
+    /**
+     * The values with the large ones replaced by references
+     */
+    public Uni<Map<String, Object>> offload(Map<String, Object> values) {
+        return offloader != null ? offloader.offload(values) : Uni.createFrom().item(values);
+    }
+}
@@ -0,0 +1,115 @@
+package tech.kayys.silat.engine.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import tech.kayys.silat.model.Signal;
+import tech.kayys.silat.model.TenantId;
+import tech.kayys.silat.model.WorkflowRun;
+import tech.kayys.silat.model.WorkflowRunId;
+
+/**
+ * Routes signals to runs
+ *
+ * Signals for a run queue in that run's inbox and are handed out in
+ * batches, so a burst of signals costs one state transition rather than
+ * one per signal. Suspended runs are indexed by the signal name they wait
+ * on, so a single broadcast finds every waiting run without a scan.
+ */
+@ApplicationScoped
+public class SignalRouter {
+
+    @ConfigProperty(name = "silat.signals.max-batch", defaultValue = "500")
+    int maxBatch;
+
+    @ConfigProperty(name = "silat.signals.broadcast-concurrency", defaultValue = "32")
+    int broadcastConcurrency;
+
+    private final Map<WaitKey, Set<WorkflowRunId>> waiting = new ConcurrentHashMap<>();
+    private final Map<WorkflowRunId, WaitKey> waitingOn = new ConcurrentHashMap<>();
+    private final RunInbox<Delivery> inbox = new RunInbox<>(() -> maxBatch);
+
+    /**
+     * A queued signal and the future completed once it has been applied
+     */
+    public record Delivery(Signal signal, CompletableFuture<Void> delivered) {
+    }
+
+    private record WaitKey(String tenantId, String signalName) {
+    }
+
+    // ==================== WAIT INDEX ====================
+
+    /**
+     * Index the run under the signal it now waits on, or drop it from the
+     * index if it no longer waits on one
+     */
+    public void track(WorkflowRun run) {
+        String signalName = run.getAwaitedSignal();
+        WorkflowRunId runId = run.getId();
+        WaitKey key = signalName != null ? new WaitKey(run.getTenantId().value(), signalName) : null;
+        WaitKey previous = key != null ? waitingOn.put(runId, key) : waitingOn.remove(runId);
+        if (previous != null && !previous.equals(key)) {
+            waiting.computeIfPresent(previous, (k, runs) -> {
+                runs.remove(runId);
+                return runs.isEmpty() ? null : runs;
+            });
+        }
+        if (key != null) {
+            waiting.compute(key, (k, runs) -> {
+                Set<WorkflowRunId> indexed = runs != null ? runs : ConcurrentHashMap.newKeySet();
+                indexed.add(runId);
+                return indexed;
+            });
+        }
+    }
+
+    /**
+     * Runs of the tenant currently waiting on the signal
+     */
+    public List<WorkflowRunId> waitingFor(TenantId tenantId, String signalName) {
+        Set<WorkflowRunId> runs = waiting.get(new WaitKey(tenantId.value(), signalName));
+        return runs != null ? List.copyOf(runs) : List.of();
+    }
+
+    public int broadcastConcurrency() {
+        return broadcastConcurrency;
+    }
+
+    // ==================== INBOX ====================
+
+    /**
+     * Queue a signal for the run
+     *
+     * @return true if the caller must start draining the run's inbox
+     */
+    public boolean offer(WorkflowRunId runId, Delivery delivery) {
+        return inbox.offer(runId, delivery);
+    }
+
+    /**
+     * Next batch of the run's queued signals, in arrival order
+     */
+    public List<Delivery> take(WorkflowRunId runId) {
+        return inbox.take(runId);
+    }
+
+    /**
+     * Mark a batch as applied
+     *
+     * @return true if more signals arrived and the caller must keep draining
+     */
+    public boolean drained(WorkflowRunId runId) {
+        return inbox.drained(runId);
+    }
+
+    int queued() {
+        return inbox.queued();
+    }
+}
@@ -10,6 +10,7 @@ import io.smallrye.common.annotation.Blocking;
 import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,6 +25,7 @@ import tech.kayys.silat.model.WorkflowRunId;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * ============================================================================
@@ -52,6 +54,9 @@ public class WorkflowServiceImpl implements WorkflowService {
         @Inject
         GrpcTenantInterceptor tenantInterceptor;
 
+        @ConfigProperty(name = "silat.grpc.create-runs.batch-size", defaultValue = "1000")
+        int createRunsBatchSize;
+
         // ==================== CREATE RUN ====================
 
         @Override
@@ -67,10 +72,9 @@ public class WorkflowServiceImpl implements WorkflowService {
                 tech.kayys.silat.model.CreateRunRequest domainRequest = new tech.kayys.silat.model.CreateRunRequest(
                                 request.getWorkflowDefinitionId(),
                                 null, // version/name?
-                                mapper.structToMap(request.getInputs()),
+                                mapper.payloadOrStruct(request.getInputsBin(), request.getInputs()),
                                 null, // trigger/source?
-                                false // isDryRun/sync?
-                );
+                                request.getAutoStart());
                 // domainRequest.setLabels(request.getLabelsMap()); // If setters exist
 
                 return runManager.createRun(domainRequest, tenantId)
@@ -78,6 +82,61 @@ public class WorkflowServiceImpl implements WorkflowService {
                                 .onFailure().transform(this::mapException);
         }
 
+        /**
+         * Requests are taken from the stream in batches, each created with
+         * one bulk insert
+         */
+        @Override
+        public Uni<CreateRunsResponse> createRuns(Multi<CreateRunRequest> requests) {
+
+                TenantId tenantId = tenantInterceptor.getCurrentTenantId();
+                AtomicInteger offset = new AtomicInteger();
+
+                return requests
+                                .map(request -> new tech.kayys.silat.model.CreateRunRequest(
+                                                request.getWorkflowDefinitionId(),
+                                                null,
+                                                mapper.payloadOrStruct(request.getInputsBin(), request.getInputs()),
+                                                null,
+                                                request.getAutoStart()))
+                                .group().intoLists().of(createRunsBatchSize)
+                                .onItem().transformToUniAndConcatenate(batch -> {
+                                        int base = offset.getAndAdd(batch.size());
+                                        return runManager.createRuns(batch, tenantId)
+                                                        .map(results -> results.stream()
+                                                                        .map(result -> toProtoCreateRunResult(base, result))
+                                                                        .toList());
+                                })
+                                .collect().in(CreateRunsResponse::newBuilder, (response, results) -> {
+                                        for (tech.kayys.silat.grpc.v1.CreateRunResult result : results) {
+                                                response.addResults(result);
+                                                if (result.getError().isEmpty()) {
+                                                        response.setCreated(response.getCreated() + 1);
+                                                } else {
+                                                        response.setRejected(response.getRejected() + 1);
+                                                }
+                                        }
+                                })
+                                .map(CreateRunsResponse.Builder::build)
+                                .invoke(response -> LOG.info("gRPC: Created {} runs in bulk, {} rejected",
+                                                response.getCreated(), response.getRejected()))
+                                .onFailure().transform(this::mapException);
+        }
+
+        private tech.kayys.silat.grpc.v1.CreateRunResult toProtoCreateRunResult(
+                        int base, tech.kayys.silat.model.CreateRunResult result) {
+                tech.kayys.silat.grpc.v1.CreateRunResult.Builder builder = tech.kayys.silat.grpc.v1.CreateRunResult
+                                .newBuilder()
+                                .setIndex(base + result.index());
+                if (result.isSuccess()) {
+                        builder.setRunId(result.runId())
+                                        .setStatus(mapper.toProtoRunStatus(result.status()));
+                } else {
+                        builder.setError(result.error());
+                }
+                return builder.build();
+        }
+
         // ==================== GET RUN ====================
 
         @Override
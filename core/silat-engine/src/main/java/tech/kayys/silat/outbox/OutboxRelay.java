@@ -0,0 +1,225 @@
+package tech.kayys.silat.outbox;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.Cancellable;
+import io.vertx.core.json.JsonObject;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import tech.kayys.silat.cluster.ClusterMembership;
+import tech.kayys.silat.cluster.PgChannels;
+import tech.kayys.silat.kafka.KafkaEventPublisher;
+import tech.kayys.silat.kafka.WorkflowEventMessage;
+
+/**
+ * Publishes the events of {@link WorkflowOutbox} to the events topic
+ *
+ * One instance at a time relays, holding the lease row of
+ * {@code workflow_outbox_relay}, so the outbox is read in one order. It is
+ * woken by the {@code NOTIFY} of each insert and also looks every
+ * {@code silat.outbox.poll-interval}. Each pass reads up to
+ * {@code silat.outbox.batch-size} rows in insertion order, which for any
+ * one run is commit order since its writes hold the run's row lock, sends
+ * them grouped by run without waiting on each send, and deletes them once
+ * all were acknowledged. A pass that fails, or a relay that dies before
+ * deleting, leaves the rows to be published again: events are delivered at
+ * least once, and consumers skip an event id they have just seen.
+ */
+@ApplicationScoped
+public class OutboxRelay {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OutboxRelay.class);
+
+    static final String LEASE = "workflow-events";
+
+    @ConfigProperty(name = "silat.outbox.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "silat.outbox.batch-size", defaultValue = "1000")
+    int batchSize;
+
+    @ConfigProperty(name = "silat.outbox.poll-interval", defaultValue = "PT1S")
+    Duration pollInterval;
+
+    @ConfigProperty(name = "silat.outbox.lease-ttl", defaultValue = "PT15S")
+    Duration leaseTtl;
+
+    @Inject
+    Pool pgPool;
+
+    @Inject
+    PgChannels channels;
+
+    @Inject
+    ClusterMembership membership;
+
+    @Inject
+    KafkaEventPublisher publisher;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean woken = new AtomicBoolean();
+    // Age of the oldest unpublished event as of the last pass
+    private final AtomicLong lagMillis = new AtomicLong();
+    private volatile boolean running;
+    private Cancellable poller;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("silat.outbox.lag", lagMillis, lag -> lag.get() / 1000.0)
+                .description("Age in seconds of the oldest event waiting in the outbox")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        running = true;
+        channels.listen(WorkflowOutbox.CHANNEL, this::wake);
+        poller = Multi.createFrom().ticks().every(pollInterval)
+                .subscribe().with(tick -> wake());
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (!running) {
+            return;
+        }
+        running = false;
+        poller.cancel();
+        // Let another instance take over without waiting for the lease to run out
+        try {
+            pgPool.preparedQuery("DELETE FROM workflow_outbox_relay WHERE name = $1 AND owner = $2")
+                    .execute(Tuple.of(LEASE, membership.instanceId()))
+                    .await().atMost(Duration.ofSeconds(5));
+        } catch (RuntimeException e) {
+            LOG.debug("Could not release the outbox relay lease", e);
+        }
+    }
+
+    // One pass at a time; a wake-up during a pass makes it go round again
+    void wake() {
+        woken.set(true);
+        if (!running || !draining.compareAndSet(false, true)) {
+            return;
+        }
+        woken.set(false);
+        lease()
+                .chain(held -> held ? relay() : Uni.createFrom().item(false))
+                .subscribe().with(
+                        more -> finishPass(more),
+                        failure -> {
+                            LOG.warn("Failed to relay outbox events", failure);
+                            finishPass(false);
+                        });
+    }
+
+    private void finishPass(boolean more) {
+        draining.set(false);
+        if (more || woken.get()) {
+            wake();
+        }
+    }
+
+    // Take or renew the relay lease; false while another instance holds it
+    private Uni<Boolean> lease() {
+        double ttlSeconds = leaseTtl.toMillis() / 1000.0;
+        return pgPool.preparedQuery("INSERT INTO workflow_outbox_relay (name, owner, expires_at)"
+                + " VALUES ($1, $2, now() + make_interval(secs => $3))"
+                + " ON CONFLICT (name) DO UPDATE SET owner = EXCLUDED.owner, expires_at = EXCLUDED.expires_at"
+                + " WHERE workflow_outbox_relay.owner = EXCLUDED.owner OR workflow_outbox_relay.expires_at < now()"
+                + " RETURNING owner")
+                .execute(Tuple.of(LEASE, membership.instanceId(), ttlSeconds))
+                .map(rows -> rows.rowCount() > 0);
+    }
+
+    // Publish and delete one batch; true when the batch was full
+    private Uni<Boolean> relay() {
+        return pgPool.preparedQuery("SELECT id, event_id, run_id, tenant_id, event_type, event_data,"
+                + " occurred_at, created_at FROM workflow_outbox ORDER BY id LIMIT $1")
+                .execute(Tuple.of(batchSize))
+                .chain(rows -> {
+                    List<Long> ids = new ArrayList<>();
+                    List<WorkflowEventMessage> messages = new ArrayList<>();
+                    Instant oldest = null;
+                    for (Row row : rows) {
+                        ids.add(row.getLong("id"));
+                        messages.add(toMessage(row));
+                        if (oldest == null) {
+                            oldest = row.getOffsetDateTime("created_at").toInstant();
+                        }
+                    }
+                    lagMillis.set(oldest == null ? 0
+                            : Math.max(0, System.currentTimeMillis() - oldest.toEpochMilli()));
+                    if (messages.isEmpty()) {
+                        return Uni.createFrom().item(false);
+                    }
+                    Timer.Sample sample = Timer.start(meterRegistry);
+                    return publisher.publishAll(byRun(messages))
+                            .invoke(() -> sample.stop(publishTimer()))
+                            .chain(() -> pgPool.preparedQuery("DELETE FROM workflow_outbox WHERE id = ANY($1)")
+                                    .execute(Tuple.of(ids.toArray(Long[]::new))))
+                            .invoke(() -> publishedCounter().increment(ids.size()))
+                            .map(ignored -> ids.size() == batchSize);
+                });
+    }
+
+    private static WorkflowEventMessage toMessage(Row row) {
+        JsonObject data = row.getJsonObject("event_data");
+        return new WorkflowEventMessage(
+                row.getString("event_id"),
+                row.getString("run_id"),
+                row.getString("tenant_id"),
+                row.getString("event_type"),
+                row.getOffsetDateTime("occurred_at").toInstant(),
+                data != null ? data.getMap() : Map.of());
+    }
+
+    /**
+     * The messages with each run's kept together, runs in the order of
+     * their first message and each run's messages in their own order
+     */
+    static List<WorkflowEventMessage> byRun(List<WorkflowEventMessage> messages) {
+        Map<String, List<WorkflowEventMessage>> runs = new LinkedHashMap<>();
+        for (WorkflowEventMessage message : messages) {
+            runs.computeIfAbsent(message.runId(), runId -> new ArrayList<>()).add(message);
+        }
+        List<WorkflowEventMessage> ordered = new ArrayList<>(messages.size());
+        runs.values().forEach(ordered::addAll);
+        return ordered;
+    }
+
+    private Counter publishedCounter() {
+        return Counter.builder("silat.outbox.published")
+                .description("Outbox events published to the events topic")
+                .register(meterRegistry);
+    }
+
+    private Timer publishTimer() {
+        return Timer.builder("silat.outbox.publish")
+                .description("Time to publish one outbox batch until every event was acknowledged")
+                .register(meterRegistry);
+    }
+}
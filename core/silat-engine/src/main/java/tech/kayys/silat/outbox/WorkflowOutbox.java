@@ -0,0 +1,66 @@
+package tech.kayys.silat.outbox;
+
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import tech.kayys.silat.kafka.WorkflowEventMessage;
+import tech.kayys.silat.model.WorkflowRun;
+import tech.kayys.silat.model.event.ExecutionEvent;
+
+/**
+ * Rows of {@code workflow_outbox}, the events of runs waiting to be published
+ *
+ * A run's new events are inserted in the same transaction as the write of
+ * the run, already shaped as the message that goes on the events topic, so
+ * they are published if and only if the state change was committed. The
+ * insert also wakes the {@link OutboxRelay} through {@link #CHANNEL}.
+ */
+public final class WorkflowOutbox {
+
+    public static final String CHANNEL = "silat_workflow_outbox";
+
+    private WorkflowOutbox() {
+    }
+
+    /**
+     * Statement inserting the events encoded by {@link #encode}, with the
+     * given placeholder for them; returns the number of rows added
+     */
+    public static String insert(String placeholder) {
+        return """
+                WITH added AS (
+                    INSERT INTO workflow_outbox (event_id, run_id, tenant_id, event_type, event_data, occurred_at)
+                    SELECT e->>'eventId', e->>'runId', e->>'tenantId', e->>'eventType', e->'eventData',
+                           CAST(e->>'occurredAt' AS timestamptz)
+                    FROM jsonb_array_elements(CAST(%s AS jsonb)) WITH ORDINALITY AS events(e, position)
+                    ORDER BY position
+                    RETURNING id)
+                SELECT count(*) FROM added, LATERAL (SELECT pg_notify('%s', '')) AS woken
+                """.formatted(placeholder, CHANNEL);
+    }
+
+    /**
+     * The uncommitted events of the runs as one JSON array, in the order
+     * they were raised; null when there are none
+     */
+    public static String encode(List<WorkflowRun> runs, ObjectMapper objectMapper) throws JsonProcessingException {
+        JsonArray events = new JsonArray();
+        for (WorkflowRun run : runs) {
+            for (ExecutionEvent event : run.getUncommittedEvents()) {
+                WorkflowEventMessage message = WorkflowEventMessage.of(event, run.getTenantId().value());
+                events.add(new JsonObject()
+                        .put("eventId", message.eventId())
+                        .put("runId", message.runId())
+                        .put("tenantId", message.tenantId())
+                        .put("eventType", message.eventType())
+                        .put("occurredAt", message.occurredAt().toString())
+                        .put("eventData", new JsonObject(objectMapper.writeValueAsString(message.eventData()))));
+            }
+        }
+        return events.isEmpty() ? null : events.encode();
+    }
+}
@@ -0,0 +1,367 @@
+package tech.kayys.silat.plugin;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import tech.kayys.silat.execution.NodeExecutionResult;
+import tech.kayys.silat.execution.NodeExecutionStatus;
+import tech.kayys.silat.execution.NodeExecutionTask;
+import tech.kayys.silat.model.NodeId;
+import tech.kayys.silat.model.WorkflowRunId;
+import tech.kayys.silat.plugin.impl.PluginManager;
+import tech.kayys.silat.plugin.interceptor.ExecutionInterceptorPlugin;
+import tech.kayys.silat.plugin.transformer.DataTransformerPlugin;
+
+/**
+ * Runs started {@link ExecutionInterceptorPlugin}s and
+ * {@link DataTransformerPlugin}s around task dispatch and result handling.
+ *
+ * Chains are precomputed per node type (the node's executor type) into
+ * arrays and rebuilt only when a plugin is started, stopped or unloaded, so
+ * the dispatch path does no plugin lookups. With no matching plugins the
+ * chain is empty and tasks pass through untouched.
+ *
+ * Interceptors run in ascending {@code getOrder()} before dispatch and in
+ * reverse order afterwards. Interceptor failures are logged and never fail
+ * the task. The per-task context created at dispatch is kept until the
+ * result for the same attempt arrives on this instance.
+ */
+@ApplicationScoped
+public class ExecutionPluginPipeline {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExecutionPluginPipeline.class);
+
+    @Inject
+    PluginManager pluginManager;
+
+    @ConfigProperty(name = "silat.plugins.task-context-ttl", defaultValue = "PT1H")
+    Duration taskContextTtl;
+
+    private volatile Plugins plugins = Plugins.EMPTY;
+
+    private final Map<TaskKey, TaskContext> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        pluginManager.addStateListener(this::rebuild);
+        rebuild();
+    }
+
+    void rebuild() {
+        ExecutionInterceptorPlugin[] interceptors = pluginManager
+                .getStartedPluginsByType(ExecutionInterceptorPlugin.class).stream()
+                .sorted(Comparator.comparingInt(ExecutionInterceptorPlugin::getOrder))
+                .toArray(ExecutionInterceptorPlugin[]::new);
+        DataTransformerPlugin[] transformers = pluginManager
+                .getStartedPluginsByType(DataTransformerPlugin.class)
+                .toArray(DataTransformerPlugin[]::new);
+        plugins = new Plugins(interceptors, transformers, pluginManager, new ConcurrentHashMap<>());
+        LOG.debug("Rebuilt execution plugin chains: {} interceptors, {} transformers",
+                interceptors.length, transformers.length);
+    }
+
+    /**
+     * Chain for a node type, built on first use after each rebuild
+     */
+    Chain chainFor(String nodeType) {
+        Plugins current = plugins;
+        return current.chains().computeIfAbsent(nodeType == null ? "" : nodeType, current::chain);
+    }
+
+    // ==================== DISPATCH ====================
+
+    /**
+     * Transform the task input, run before-interceptors and dispatch
+     */
+    public Uni<Void> dispatch(
+            NodeExecutionTask task,
+            String nodeType,
+            Function<NodeExecutionTask, Uni<Void>> dispatcher) {
+        Chain chain = chainFor(nodeType);
+        if (chain.isEmpty()) {
+            return dispatcher.apply(task);
+        }
+
+        NodeExecutionTask transformed = task;
+        if (chain.transformers.length > 0) {
+            try {
+                transformed = new NodeExecutionTask(
+                        task.runId(),
+                        task.nodeId(),
+                        task.attempt(),
+                        task.token(),
+                        chain.transformInput(task.nodeId().value(), nodeType, task.context()),
+                        task.retryPolicy());
+            } catch (RuntimeException e) {
+                // Fails the dispatch like any dispatcher error, so the node is retried
+                return Uni.createFrom().failure(e);
+            }
+        }
+        if (chain.interceptors.length == 0) {
+            return dispatcher.apply(transformed);
+        }
+
+        NodeExecutionTask dispatched = transformed;
+        TaskKey key = new TaskKey(task.runId(), task.nodeId(), task.attempt());
+        TaskContext context = new TaskContext(dispatched, nodeType);
+        inFlight.put(key, context);
+        return chain.before(context)
+                .chain(() -> dispatcher.apply(dispatched))
+                .onFailure().call(error -> {
+                    inFlight.remove(key, context);
+                    return chain.onError(context, error);
+                });
+    }
+
+    // ==================== RESULTS ====================
+
+    /**
+     * Context for a result: the one created at dispatch, or a new one when
+     * the task was dispatched by another instance
+     */
+    public TaskContext resultContext(NodeExecutionResult result, Supplier<String> nodeType) {
+        TaskContext context = inFlight.remove(new TaskKey(result.runId(), result.nodeId(), result.attempt()));
+        if (context != null) {
+            return context;
+        }
+        return new TaskContext(result.runId(), result.nodeId(), result.attempt(), nodeType.get(), Map.of());
+    }
+
+    /**
+     * Output with the node type's transformers applied; a transformer that
+     * throws fails the returned Uni
+     */
+    public Uni<Map<String, Object>> transformOutput(TaskContext context, Map<String, Object> output) {
+        Chain chain = chainFor(context.nodeType());
+        if (chain.transformers.length == 0) {
+            return Uni.createFrom().item(output);
+        }
+        return Uni.createFrom().item(() -> chain.transformOutput(context.nodeId(), context.nodeType(), output));
+    }
+
+    /**
+     * Run after-interceptors for an applied result
+     */
+    public Uni<Void> afterResult(TaskContext context, NodeExecutionResult result, Map<String, Object> output) {
+        Chain chain = chainFor(context.nodeType());
+        if (chain.interceptors.length == 0) {
+            return Uni.createFrom().voidItem();
+        }
+        return chain.after(context, new Result(
+                result.status() == NodeExecutionStatus.COMPLETED,
+                output != null ? output : Map.of(),
+                result.error() != null ? result.error().message() : null));
+    }
+
+    // Results that never arrive would otherwise keep their context forever
+    @Scheduled(every = "${silat.plugins.task-context-cleanup-interval:5m}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void evictStaleContexts() {
+        Instant cutoff = Instant.now().minus(taskContextTtl);
+        inFlight.values().removeIf(context -> context.dispatchedAt.isBefore(cutoff));
+    }
+
+    // ==================== CHAINS ====================
+
+    private record Plugins(
+            ExecutionInterceptorPlugin[] interceptors,
+            DataTransformerPlugin[] transformers,
+            PluginManager pluginManager,
+            Map<String, Chain> chains) {
+
+        static final Plugins EMPTY = new Plugins(
+                new ExecutionInterceptorPlugin[0], new DataTransformerPlugin[0], null, new ConcurrentHashMap<>());
+
+        Chain chain(String nodeType) {
+            List<DataTransformerPlugin> supported = new ArrayList<>();
+            for (DataTransformerPlugin transformer : transformers) {
+                try {
+                    if (transformer.supports(nodeType)) {
+                        supported.add(transformer);
+                    }
+                } catch (RuntimeException e) {
+                    LOG.warn("Transformer {} failed to answer supports({})",
+                            transformer.getMetadata().id(), nodeType, e);
+                }
+            }
+            return new Chain(interceptors, supported.toArray(DataTransformerPlugin[]::new), pluginManager);
+        }
+    }
+
+    /**
+     * Every plugin call holds a lease, so a plugin reload waits for calls
+     * still running on the replaced instance
+     */
+    static final class Chain {
+
+        final ExecutionInterceptorPlugin[] interceptors;
+        final DataTransformerPlugin[] transformers;
+        private final PluginManager pluginManager;
+
+        Chain(ExecutionInterceptorPlugin[] interceptors, DataTransformerPlugin[] transformers,
+                PluginManager pluginManager) {
+            this.interceptors = interceptors;
+            this.transformers = transformers;
+            this.pluginManager = pluginManager;
+        }
+
+        boolean isEmpty() {
+            return interceptors.length == 0 && transformers.length == 0;
+        }
+
+        Map<String, Object> transformInput(String nodeId, String nodeType, Map<String, Object> input) {
+            NodeContext node = new NodeContext(nodeId, nodeType, input);
+            Map<String, Object> transformed = input;
+            for (DataTransformerPlugin transformer : transformers) {
+                try (PluginManager.PluginLease lease = pluginManager.acquire(transformer)) {
+                    transformed = transformer.transformInput(transformed, node);
+                } catch (RuntimeException e) {
+                    LOG.warn("Transformer {} failed to transform the input of node {}",
+                            transformer.getMetadata().id(), nodeId, e);
+                    throw e;
+                }
+            }
+            return transformed;
+        }
+
+        Map<String, Object> transformOutput(String nodeId, String nodeType, Map<String, Object> output) {
+            NodeContext node = new NodeContext(nodeId, nodeType, Map.of());
+            Map<String, Object> transformed = output;
+            for (DataTransformerPlugin transformer : transformers) {
+                try (PluginManager.PluginLease lease = pluginManager.acquire(transformer)) {
+                    transformed = transformer.transformOutput(transformed, node);
+                } catch (RuntimeException e) {
+                    LOG.warn("Transformer {} failed to transform the output of node {}",
+                            transformer.getMetadata().id(), nodeId, e);
+                    throw e;
+                }
+            }
+            return transformed;
+        }
+
+        Uni<Void> before(TaskContext context) {
+            Uni<Void> chain = Uni.createFrom().voidItem();
+            for (ExecutionInterceptorPlugin interceptor : interceptors) {
+                chain = chain.call(() -> guarded(interceptor, () -> interceptor.beforeExecution(context)));
+            }
+            return chain;
+        }
+
+        Uni<Void> after(TaskContext context, Result result) {
+            Uni<Void> chain = Uni.createFrom().voidItem();
+            for (int i = interceptors.length - 1; i >= 0; i--) {
+                ExecutionInterceptorPlugin interceptor = interceptors[i];
+                chain = chain.call(() -> guarded(interceptor, () -> interceptor.afterExecution(context, result)));
+            }
+            return chain;
+        }
+
+        Uni<Void> onError(TaskContext context, Throwable error) {
+            Uni<Void> chain = Uni.createFrom().voidItem();
+            for (int i = interceptors.length - 1; i >= 0; i--) {
+                ExecutionInterceptorPlugin interceptor = interceptors[i];
+                chain = chain.call(() -> guarded(interceptor, () -> interceptor.onError(context, error)));
+            }
+            return chain;
+        }
+
+        private Uni<Void> guarded(ExecutionInterceptorPlugin interceptor, Supplier<Uni<Void>> callback) {
+            PluginManager.PluginLease lease = PluginManager.PluginLease.NONE;
+            Uni<Void> call;
+            try {
+                lease = pluginManager.acquire(interceptor);
+                call = callback.get();
+            } catch (RuntimeException e) {
+                call = Uni.createFrom().failure(e);
+            }
+            return call.onFailure().recoverWithItem(error -> {
+                LOG.warn("Interceptor {} failed", interceptor.getMetadata().id(), error);
+                return null;
+            }).eventually(lease::close);
+        }
+    }
+
+    // ==================== CONTEXTS ====================
+
+    private record TaskKey(WorkflowRunId runId, NodeId nodeId, int attempt) {
+    }
+
+    /**
+     * Per-attempt context handed to interceptors
+     */
+    public static final class TaskContext implements ExecutionInterceptorPlugin.TaskContext {
+
+        private final String runId;
+        private final String nodeId;
+        private final int attempt;
+        private final String nodeType;
+        private final Map<String, Object> inputs;
+        private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+        final Instant dispatchedAt = Instant.now();
+
+        TaskContext(NodeExecutionTask task, String nodeType) {
+            this(task.runId(), task.nodeId(), task.attempt(), nodeType, task.context());
+        }
+
+        TaskContext(WorkflowRunId runId, NodeId nodeId, int attempt, String nodeType, Map<String, Object> inputs) {
+            this.runId = runId.value();
+            this.nodeId = nodeId.value();
+            this.attempt = attempt;
+            this.nodeType = nodeType;
+            this.inputs = inputs != null ? inputs : Map.of();
+        }
+
+        @Override
+        public String runId() {
+            return runId;
+        }
+
+        @Override
+        public String nodeId() {
+            return nodeId;
+        }
+
+        @Override
+        public String nodeType() {
+            return nodeType;
+        }
+
+        @Override
+        public Map<String, Object> inputs() {
+            return inputs;
+        }
+
+        @Override
+        public int attempt() {
+            return attempt;
+        }
+
+        @Override
+        public Map<String, Object> attributes() {
+            return attributes;
+        }
+    }
+
+    private record NodeContext(String nodeId, String nodeType, Map<String, Object> configuration)
+            implements DataTransformerPlugin.NodeContext {
+    }
+
+    private record Result(boolean isSuccess, Map<String, Object> outputs, String errorMessage)
+            implements ExecutionInterceptorPlugin.ExecutionResult {
+    }
+}
@@ -1,5 +1,8 @@
 package tech.kayys.silat.plugin;
 
+import java.time.Duration;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -8,6 +11,7 @@ import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
 
 import io.quarkus.runtime.StartupEvent;
+import tech.kayys.silat.plugin.impl.PluginManager;
 
 /**
  * Initializes and registers default plugins when the application starts
@@ -20,12 +24,23 @@ public class PluginRegistrar {
         @Inject
         PluginService pluginService;
 
+        @Inject
+        PluginManager pluginManager;
+
+        @ConfigProperty(name = "silat.plugins.reload-drain-timeout", defaultValue = "PT30S")
+        Duration reloadDrainTimeout;
+
+        @ConfigProperty(name = "silat.plugins.classloader-leak-threshold", defaultValue = "PT5M")
+        Duration classLoaderLeakThreshold;
+
         public void onStart(@Observes StartupEvent ev) {
                 LOG.info("Initializing plugins...");
 
                 // Set plugin directory
                 pluginService.setPluginDirectory("./plugins");
                 pluginService.setDataDirectory("./plugin-data");
+                pluginManager.setDrainTimeout(reloadDrainTimeout);
+                pluginManager.setLeakThreshold(classLoaderLeakThreshold);
 
                 // 1. Discover and load all plugins (from classpath and directory)
                 pluginService.discoverAndLoadPlugins()
@@ -1,5 +1,7 @@
 package tech.kayys.silat.repository;
 
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -13,9 +15,11 @@ import io.smallrye.mutiny.Uni;
 import io.vertx.mutiny.sqlclient.Pool;
 import io.vertx.mutiny.sqlclient.Row;
 import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.SqlConnection;
 import io.vertx.mutiny.sqlclient.Tuple;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import tech.kayys.silat.model.ConcurrencyException;
 import tech.kayys.silat.model.EventStore;
 import tech.kayys.silat.model.WorkflowRunId;
 import tech.kayys.silat.model.event.ExecutionEvent;
@@ -57,7 +61,7 @@ public class PostgresEventStore implements EventStore {
                 VALUES ($1, $2, $3, $4, $5, $6, $7)
                 """;
 
-        List<Uni<RowSet<Row>>> batch = new ArrayList<>();
+        List<Tuple> rows = new ArrayList<>();
         for (int i = 0; i < events.size(); i++) {
             ExecutionEvent event = events.get(i);
             try {
@@ -66,27 +70,54 @@ public class PostgresEventStore implements EventStore {
                         new com.fasterxml.jackson.core.type.TypeReference<>() {
                         });
 
-                batch.add(pgPool.preparedQuery(sql)
-                        .execute(Tuple.tuple()
-                                .addValue(event.eventId())
-                                .addValue(runId.value())
-                                .addValue(extractTenantId(event))
-                                .addValue(event.eventType())
-                                .addValue(expectedVersion + i + 1)
-                                .addValue(objectMapper.writeValueAsString(eventData))
-                                .addValue(event.occurredAt())));
+                rows.add(Tuple.tuple()
+                        .addValue(event.eventId())
+                        .addValue(runId.value())
+                        .addValue(extractTenantId(event))
+                        .addValue(event.eventType())
+                        .addValue(expectedVersion + i + 1)
+                        .addValue(objectMapper.writeValueAsString(eventData))
+                        .addValue(event.occurredAt()));
             } catch (Exception e) {
                 return Uni.createFrom().failure(e);
             }
         }
 
-        return Uni.join().all(batch)
-                .andFailFast()
+        long lastSequence = expectedVersion + events.size();
+        return pgPool.withTransaction(conn -> claimSequences(conn, runId, expectedVersion, lastSequence)
+                .flatMap(ignored -> conn.preparedQuery(sql).executeBatch(rows)))
                 .replaceWithVoid()
                 .onFailure()
                 .invoke(throwable -> LOG.error("Failed to append events for run: {}", runId.value(), throwable));
     }
 
+    /**
+     * Moves the run's last sequence from {@code expectedVersion} to
+     * {@code lastSequence}, or fails when another append got there first.
+     * The unique constraint on workflow_events includes occurred_at, so it
+     * cannot catch two appends of one sequence number on its own.
+     */
+    private Uni<Void> claimSequences(SqlConnection conn, WorkflowRunId runId,
+            long expectedVersion, long lastSequence) {
+        Uni<RowSet<Row>> claim = expectedVersion == 0
+                ? conn.preparedQuery("""
+                        INSERT INTO workflow_event_sequences (run_id, last_sequence)
+                        VALUES ($1, $2)
+                        ON CONFLICT (run_id) DO NOTHING
+                        """)
+                        .execute(Tuple.of(runId.value(), lastSequence))
+                : conn.preparedQuery("""
+                        UPDATE workflow_event_sequences SET last_sequence = $2
+                        WHERE run_id = $1 AND last_sequence = $3
+                        """)
+                        .execute(Tuple.of(runId.value(), lastSequence, expectedVersion));
+
+        return claim.flatMap(rows -> rows.rowCount() == 1
+                ? Uni.createFrom().voidItem()
+                : Uni.createFrom().failure(new ConcurrencyException(
+                        "Events of run " + runId.value() + " were appended past version " + expectedVersion)));
+    }
+
     @Override
     public Uni<List<ExecutionEvent>> getEvents(WorkflowRunId runId) {
         String sql = """
@@ -114,6 +145,34 @@ public class PostgresEventStore implements EventStore {
                 });
     }
 
+    @Override
+    public Uni<List<ExecutionEvent>> getEvents(WorkflowRunId runId, Instant occurredSince) {
+        // The time bound lets the planner prune partitions older than the run
+        String sql = """
+                SELECT event_id, event_type, event_data, occurred_at
+                FROM workflow_events
+                WHERE run_id = $1 AND occurred_at >= $2
+                ORDER BY sequence_number ASC
+                """;
+
+        return pgPool.preparedQuery(sql)
+                .execute(Tuple.of(runId.value(), occurredSince.atOffset(ZoneOffset.UTC)))
+                .map(rows -> {
+                    List<ExecutionEvent> events = new ArrayList<>();
+                    for (Row row : rows) {
+                        try {
+                            ExecutionEvent event = deserializeEvent(
+                                    row.getString("event_type"),
+                                    row.getString("event_data"));
+                            events.add(event);
+                        } catch (Exception e) {
+                            LOG.error("Failed to deserialize event", e);
+                        }
+                    }
+                    return events;
+                });
+    }
+
     @Override
     public Uni<List<ExecutionEvent>> getEventsAfterVersion(
             WorkflowRunId runId,
@@ -183,7 +242,7 @@ public class PostgresEventStore implements EventStore {
         return "system"; // fallback
     }
 
-    private ExecutionEvent deserializeEvent(String eventType, String eventData)
+    ExecutionEvent deserializeEvent(String eventType, String eventData)
             throws Exception {
         // Deserialize based on event type
         return objectMapper.readValue(eventData,
@@ -1,13 +1,17 @@
 package tech.kayys.silat.repository;
 
 import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.function.Function;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -15,6 +19,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.quarkus.hibernate.reactive.panache.Panache;
 import io.quarkus.hibernate.reactive.panache.PanacheRepositoryBase;
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import io.vertx.mutiny.sqlclient.Pool;
 import io.vertx.mutiny.sqlclient.RowSet;
@@ -25,14 +30,21 @@ import jakarta.persistence.LockModeType;
 
 import tech.kayys.silat.domain.WorkflowRunEntity;
 import tech.kayys.silat.execution.NodeExecutionSnapshot;
+import tech.kayys.silat.kafka.EventProjectionService;
 import tech.kayys.silat.model.CallbackRegistration;
+import tech.kayys.silat.model.ConcurrencyException;
 import tech.kayys.silat.model.ExecutionToken;
+import tech.kayys.silat.model.NodeExecution;
+import tech.kayys.silat.model.NodeId;
+import tech.kayys.silat.model.ParentRunRef;
 import tech.kayys.silat.model.RunStatus;
 import tech.kayys.silat.model.TenantId;
 import tech.kayys.silat.model.WorkflowDefinitionId;
 import tech.kayys.silat.model.WorkflowRun;
 import tech.kayys.silat.model.WorkflowRunId;
 import tech.kayys.silat.model.WorkflowRunSnapshot;
+import tech.kayys.silat.outbox.WorkflowOutbox;
+import tech.kayys.silat.workflow.WorkflowDefinitionRegistry;
 
 @ApplicationScoped
 public class PostgresWorkflowRunRepository implements tech.kayys.silat.api.repository.WorkflowRunRepository,
@@ -46,26 +58,208 @@ public class PostgresWorkflowRunRepository implements tech.kayys.silat.api.repos
         @Inject
         Pool pgPool;
 
+        @ConfigProperty(name = "silat.outbox.enabled", defaultValue = "true")
+        boolean outboxEnabled;
+
+        @Inject
+        EventProjectionService projection;
+
+        @Inject
+        WorkflowDefinitionRegistry definitionRegistry;
+
+        // Only enable where the event projection consumes the workflow-events topic
+        @ConfigProperty(name = "silat.projection.active-run-reads", defaultValue = "false")
+        boolean projectedActiveRuns;
+
         @Override
         public Uni<WorkflowRun> persist(WorkflowRun run) {
                 WorkflowRunEntity entity = toEntity(run);
-                return persist(entity)
-                                .map(saved -> run)
+                String events;
+                try {
+                        events = outboxEvents(List.of(run));
+                } catch (Exception e) {
+                        return Uni.createFrom().failure(e);
+                }
+                return Panache.withTransaction(() -> persist(entity)
+                                .call(() -> events == null ? Uni.createFrom().voidItem()
+                                                : getSession().flatMap(session -> session
+                                                                .createNativeQuery(WorkflowOutbox.insert("?1"))
+                                                                .setParameter(1, events)
+                                                                .getSingleResult())))
+                                .map(saved -> {
+                                        markWritten(run, run.getVersion());
+                                        return run;
+                                })
                                 .onFailure()
                                 .invoke(throwable -> LOG.error("Failed to persist workflow run: {}",
                                                 run.getId().value(), throwable));
         }
 
+        /**
+         * One multi-row INSERT (arrays unnested server side) in one
+         * transaction, instead of a persist per run, together with the runs'
+         * events for the outbox
+         */
+        @Override
+        public Uni<List<WorkflowRun>> persistAll(List<WorkflowRun> runs) {
+                if (runs.isEmpty()) {
+                        return Uni.createFrom().item(runs);
+                }
+                String sql = """
+                                INSERT INTO workflow_runs
+                                (run_id, tenant_id, definition_id, status, context_variables, node_executions,
+                                 created_at, started_at, last_updated_at, version, parent_run_id, metadata)
+                                SELECT run_id, tenant_id, definition_id, status, context_variables::jsonb,
+                                       node_executions::jsonb, created_at, started_at, last_updated_at, version,
+                                       parent_run_id, metadata::jsonb
+                                FROM UNNEST($1::varchar[], $2::varchar[], $3::varchar[], $4::varchar[], $5::text[],
+                                            $6::text[], $7::timestamptz[], $8::timestamptz[], $9::timestamptz[],
+                                            $10::bigint[], $11::varchar[], $12::text[])
+                                AS r(run_id, tenant_id, definition_id, status, context_variables, node_executions,
+                                     created_at, started_at, last_updated_at, version, parent_run_id, metadata)
+                                """;
+
+                int size = runs.size();
+                String[] runIds = new String[size];
+                String[] tenantIds = new String[size];
+                String[] definitionIds = new String[size];
+                String[] statuses = new String[size];
+                String[] contexts = new String[size];
+                String[] nodeExecutions = new String[size];
+                OffsetDateTime[] createdAt = new OffsetDateTime[size];
+                OffsetDateTime[] startedAt = new OffsetDateTime[size];
+                OffsetDateTime[] lastUpdatedAt = new OffsetDateTime[size];
+                Long[] versions = new Long[size];
+                String[] parentRunIds = new String[size];
+                String[] metadata = new String[size];
+                String events;
+                try {
+                        events = outboxEvents(runs);
+                        for (int i = 0; i < size; i++) {
+                                WorkflowRun run = runs.get(i);
+                                WorkflowRunEntity entity = toEntity(run);
+                                runIds[i] = entity.getRunId();
+                                tenantIds[i] = entity.getTenantId();
+                                definitionIds[i] = entity.getDefinitionId();
+                                statuses[i] = entity.getStatus().name();
+                                contexts[i] = objectMapper.writeValueAsString(entity.getContextVariables());
+                                nodeExecutions[i] = objectMapper.writeValueAsString(entity.getNodeExecutions());
+                                createdAt[i] = toOffsetDateTime(run.getCreatedAt());
+                                startedAt[i] = toOffsetDateTime(run.getStartedAt());
+                                lastUpdatedAt[i] = toOffsetDateTime(
+                                                run.getLastUpdatedAt() != null ? run.getLastUpdatedAt()
+                                                                : run.getCreatedAt());
+                                versions[i] = run.getVersion();
+                                parentRunIds[i] = entity.getParentRunId();
+                                metadata[i] = entity.getMetadata() != null
+                                                ? objectMapper.writeValueAsString(entity.getMetadata())
+                                                : null;
+                        }
+                } catch (Exception e) {
+                        return Uni.createFrom().failure(e);
+                }
+
+                Tuple params = Tuple.tuple()
+                                .addArrayOfString(runIds)
+                                .addArrayOfString(tenantIds)
+                                .addArrayOfString(definitionIds)
+                                .addArrayOfString(statuses)
+                                .addArrayOfString(contexts)
+                                .addArrayOfString(nodeExecutions)
+                                .addArrayOfOffsetDateTime(createdAt)
+                                .addArrayOfOffsetDateTime(startedAt)
+                                .addArrayOfOffsetDateTime(lastUpdatedAt)
+                                .addArrayOfLong(versions)
+                                .addArrayOfString(parentRunIds)
+                                .addArrayOfString(metadata);
+                return pgPool.withTransaction(conn -> conn.preparedQuery(sql).execute(params)
+                                .call(() -> events == null ? Uni.createFrom().voidItem()
+                                                : conn.preparedQuery(WorkflowOutbox.insert("$1"))
+                                                                .execute(Tuple.of(events))))
+                                .invoke(() -> runs.forEach(run -> markWritten(run, run.getVersion())))
+                                .replaceWith(runs)
+                                .onFailure()
+                                .invoke(throwable -> LOG.error("Failed to persist {} workflow runs", size, throwable));
+        }
+
+        // The runs' new events for the outbox, or null when there are none to write
+        private String outboxEvents(List<WorkflowRun> runs) throws Exception {
+                return outboxEnabled ? WorkflowOutbox.encode(runs, objectMapper) : null;
+        }
+
+        // The run's state and events were committed at the given version
+        private static void markWritten(WorkflowRun run, long version) {
+                run.markEventsAsCommitted();
+                run.markPersisted(version);
+        }
+
+        private static OffsetDateTime toOffsetDateTime(Instant instant) {
+                return instant != null ? instant.atOffset(ZoneOffset.UTC) : null;
+        }
+
+        /**
+         * Writes only what changed since the run was last persisted: the
+         * changed node executions and variables are merged into the stored
+         * JSONB documents key by key, so a node completion costs the same
+         * whatever the size of the run. The write is checked against the
+         * version the run was read at, and runs in the caller's session so
+         * it joins the row lock taken by {@link #withLock}. The run's new
+         * events go to the outbox in the same transaction.
+         */
         @Override
         public Uni<WorkflowRun> update(WorkflowRun run) {
-                // Since we are updating, we should merge or update the existing entity
-                WorkflowRunEntity entity = toEntity(run);
-                // Using getEntityManager().merge(entity) for update if detached, or just
-                // persist if managed?
-                // Panache persist acts as persist.
-                // For update, we usually fetch and update or use merge.
-                return Panache.withTransaction(() -> getSession().flatMap(session -> session.merge(entity)))
-                                .map(merged -> run);
+                String sql = """
+                                UPDATE workflow_runs SET
+                                    status = ?1,
+                                    started_at = COALESCE(CAST(?2 AS timestamptz), started_at),
+                                    completed_at = COALESCE(CAST(?3 AS timestamptz), completed_at),
+                                    last_updated_at = ?4,
+                                    context_variables = CASE WHEN ?5 THEN CAST(?6 AS jsonb)
+                                        ELSE (COALESCE(context_variables, '{}'::jsonb)
+                                                - ARRAY(SELECT jsonb_array_elements_text(CAST(?7 AS jsonb))))
+                                            || CAST(?6 AS jsonb)
+                                        END,
+                                    node_executions = COALESCE(node_executions, '{}'::jsonb) || CAST(?8 AS jsonb),
+                                    version = version + 1
+                                WHERE run_id = ?9 AND version = ?10
+                                """;
+
+                RunStateDelta delta;
+                String events;
+                try {
+                        delta = RunStateDelta.of(run, objectMapper);
+                        events = outboxEvents(List.of(run));
+                } catch (Exception e) {
+                        return Uni.createFrom().failure(e);
+                }
+                long expectedVersion = run.getVersion();
+                return Panache.withTransaction(() -> getSession().flatMap(session -> session.createNativeQuery(sql)
+                                .setParameter(1, run.getStatus().name())
+                                .setParameter(2, run.getStartedAt())
+                                .setParameter(3, run.getCompletedAt())
+                                .setParameter(4, run.getLastUpdatedAt() != null ? run.getLastUpdatedAt()
+                                                : Instant.now())
+                                .setParameter(5, delta.replaceVariables())
+                                .setParameter(6, delta.variables())
+                                .setParameter(7, delta.removedVariables())
+                                .setParameter(8, delta.nodeExecutions())
+                                .setParameter(9, run.getId().value())
+                                .setParameter(10, expectedVersion)
+                                .executeUpdate()
+                                .call(updated -> updated == 0 || events == null ? Uni.createFrom().voidItem()
+                                                : session.createNativeQuery(WorkflowOutbox.insert("?1"))
+                                                                .setParameter(1, events)
+                                                                .getSingleResult())))
+                                .flatMap(updated -> {
+                                        if (updated == 0) {
+                                                return Uni.createFrom().failure(new ConcurrencyException(
+                                                                "WorkflowRun " + run.getId().value()
+                                                                                + " was modified concurrently or no longer exists (expected version "
+                                                                                + expectedVersion + ")"));
+                                        }
+                                        markWritten(run, expectedVersion + 1);
+                                        return Uni.createFrom().item(run);
+                                });
         }
 
         @Override
@@ -78,18 +272,8 @@ public class PostgresWorkflowRunRepository implements tech.kayys.silat.api.repos
                                                 return Uni.createFrom().failure(new NoSuchElementException(
                                                                 "WorkflowRun not found: " + runId.value()));
                                         }
-                                        // We must map it to domain, executing action, and then likely forcing update if
-                                        // changed?
-                                        // The action returns Uni<T>. If action modifies the domain object and calls
-                                        // repository.update, that's fine.
-                                        // But here we just pass the domain object.
-                                        WorkflowRun run = toDomain(entity);
-                                        if (run == null) {
-                                                // Fallback if toDomain returns null (as per current stub)
-                                                return Uni.createFrom().failure(new IllegalStateException(
-                                                                "Failed to map entity to domain"));
-                                        }
-                                        return action.apply(run);
+                                        // The action persists its changes through update(), in this transaction
+                                        return toDomain(entity).flatMap(run -> action.apply(run));
                                 }));
         }
 
@@ -107,14 +291,14 @@ public class PostgresWorkflowRunRepository implements tech.kayys.silat.api.repos
         public Uni<WorkflowRun> findById(WorkflowRunId id) {
                 return find("runId", id.value())
                                 .firstResult()
-                                .map(entity -> entity != null ? toDomain(entity) : null);
+                                .flatMap(entity -> entity != null ? toDomain(entity) : Uni.createFrom().nullItem());
         }
 
         @Override
         public Uni<WorkflowRun> findById(WorkflowRunId id, TenantId tenantId) {
                 return find("runId = ?1 and tenantId = ?2", id.value(), tenantId.value())
                                 .firstResult()
-                                .map(entity -> entity != null ? toDomain(entity) : null);
+                                .flatMap(entity -> entity != null ? toDomain(entity) : Uni.createFrom().nullItem());
         }
 
         @Override
@@ -142,17 +326,40 @@ public class PostgresWorkflowRunRepository implements tech.kayys.silat.api.repos
                 return find(query.toString(), params.toArray())
                                 .page(page, size)
                                 .list()
-                                .map(entities -> entities.stream()
-                                                .map(this::toDomain)
-                                                .toList());
+                                .flatMap(entities -> Multi.createFrom().iterable(entities)
+                                                .onItem().transformToUniAndConcatenate(this::toDomain)
+                                                .collect().asList());
         }
 
+        /**
+         * Active runs of a tenant. With {@code silat.projection.active-run-reads}
+         * the count comes from the event projection's per-tenant counters, which
+         * lag the runs by up to one projection flush, instead of a count over
+         * workflow_runs.
+         */
         @Override
         public Uni<Long> countActiveRuns(TenantId tenantId) {
+                if (projectedActiveRuns) {
+                        return projection.countActiveRuns(tenantId);
+                }
                 return count("tenantId = ?1 and status in ('RUNNING', 'PENDING', 'SUSPENDED')",
                                 tenantId.value());
         }
 
+        @Override
+        public Uni<List<WorkflowRunId>> findStalled(RunStatus status, Instant updatedBefore, int limit) {
+                String sql = "SELECT run_id FROM workflow_runs WHERE status = $1 AND last_updated_at < $2"
+                                + " ORDER BY last_updated_at LIMIT $3";
+
+                return pgPool.preparedQuery(sql)
+                                .execute(Tuple.of(status.name(), updatedBefore.atOffset(ZoneOffset.UTC), limit))
+                                .map(rows -> {
+                                        List<WorkflowRunId> runIds = new ArrayList<>();
+                                        rows.forEach(row -> runIds.add(WorkflowRunId.of(row.getString("run_id"))));
+                                        return runIds;
+                                });
+        }
+
         @Override
         public Uni<Void> storeToken(ExecutionToken token) {
                 String sql = """
@@ -240,28 +447,69 @@ public class PostgresWorkflowRunRepository implements tech.kayys.silat.api.repos
                 entity.setStatus(run.getStatus());
                 entity.setContextVariables(run.getContext().getVariables());
                 entity.setCreatedAt(run.getCreatedAt());
+                entity.setStartedAt(run.getStartedAt());
+                entity.setCompletedAt(run.getCompletedAt());
+                entity.setLastUpdatedAt(run.getLastUpdatedAt());
                 entity.setVersion(run.getVersion());
+                if (run.getParent() != null) {
+                        // The parent's node and item index ride along in the metadata
+                        entity.setParentRunId(run.getParent().runId().value());
+                        entity.setMetadata(Map.of(
+                                        "parentNodeId", run.getParent().nodeId().value(),
+                                        "parentAttempt", String.valueOf(run.getParent().attempt()),
+                                        "parentIndex", String.valueOf(run.getParent().index())));
+                }
 
                 // Convert node executions
                 Map<String, NodeExecutionSnapshot> nodeSnapshots = new HashMap<>();
-                run.getAllNodeExecutions().forEach((nodeId, exec) -> {
-                        nodeSnapshots.put(nodeId.value(), new NodeExecutionSnapshot(
-                                        nodeId.value(),
-                                        exec.getStatus().name(),
-                                        exec.getAttempt(),
-                                        null, // simplified
-                                        null,
-                                        exec.getOutput(),
-                                        null));
-                });
+                run.getAllNodeExecutions().forEach((nodeId, exec) -> nodeSnapshots.put(nodeId.value(),
+                                RunStateDelta.snapshot(nodeId, exec)));
                 entity.setNodeExecutions(nodeSnapshots);
 
                 return entity;
         }
 
-        private WorkflowRun toDomain(WorkflowRunEntity entity) {
-                // This is simplified - full implementation would reconstruct from events
-                // For now, return null and rely on event sourcing
-                return null;
+        // The stored row against its definition, the way RunArchive reads an archived one
+        Uni<WorkflowRun> toDomain(WorkflowRunEntity entity) {
+                return definitionRegistry.getDefinition(WorkflowDefinitionId.of(entity.getDefinitionId()),
+                                TenantId.of(entity.getTenantId()))
+                                .map(definition -> {
+                                        Map<NodeId, NodeExecution> executions = new LinkedHashMap<>();
+                                        if (entity.getNodeExecutions() != null) {
+                                                entity.getNodeExecutions().forEach((id, snapshot) -> {
+                                                        NodeId nodeId = NodeId.of(id);
+                                                        executions.put(nodeId,
+                                                                        RunStateDelta.restore(nodeId, snapshot, definition));
+                                                });
+                                        }
+                                        return WorkflowRun.restore(
+                                                        WorkflowRunId.of(entity.getRunId()),
+                                                        TenantId.of(entity.getTenantId()),
+                                                        definition,
+                                                        entity.getStatus(),
+                                                        entity.getContextVariables() != null
+                                                                        ? new HashMap<>(entity.getContextVariables())
+                                                                        : new HashMap<>(),
+                                                        executions,
+                                                        entity.getCreatedAt(),
+                                                        entity.getStartedAt(),
+                                                        entity.getCompletedAt(),
+                                                        entity.getLastUpdatedAt(),
+                                                        entity.getVersion() != null ? entity.getVersion() : 0L,
+                                                        parent(entity));
+                                });
+        }
+
+        // The parent's node, attempt and item index ride along in the metadata
+        private static ParentRunRef parent(WorkflowRunEntity entity) {
+                if (entity.getParentRunId() == null) {
+                        return null;
+                }
+                Map<String, String> metadata = entity.getMetadata() != null ? entity.getMetadata() : Map.of();
+                return new ParentRunRef(
+                                WorkflowRunId.of(entity.getParentRunId()),
+                                NodeId.of(metadata.get("parentNodeId")),
+                                Integer.parseInt(metadata.getOrDefault("parentAttempt", "1")),
+                                Integer.parseInt(metadata.getOrDefault("parentIndex", "0")));
         }
 }
\ No newline at end of file
@@ -0,0 +1,432 @@
+package tech.kayys.silat.repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.SqlConnection;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import tech.kayys.silat.api.engine.ExecutionHistoryRepository;
+import tech.kayys.silat.execution.NodeExecutionSnapshot;
+import tech.kayys.silat.model.NodeExecution;
+import tech.kayys.silat.model.NodeId;
+import tech.kayys.silat.model.ParentRunRef;
+import tech.kayys.silat.model.RunStatus;
+import tech.kayys.silat.model.TenantId;
+import tech.kayys.silat.model.WorkflowDefinition;
+import tech.kayys.silat.model.WorkflowDefinitionId;
+import tech.kayys.silat.model.WorkflowRun;
+import tech.kayys.silat.model.WorkflowRunId;
+import tech.kayys.silat.model.event.ExecutionEvent;
+
+/**
+ * Cold storage for terminal runs.
+ *
+ * Runs that finished more than {@code silat.archive.min-age} ago are moved
+ * out of {@code workflow_runs} and {@code workflow_events} into one gzipped
+ * JSON document per run under
+ * {@code <location>/<tenant>/<yyyy>/<MM>/<dd>/<runId>.json.gz} (completion
+ * date, UTC). The location is a directory or any URI with an installed NIO
+ * file system provider, so object storage can be mounted the same way.
+ *
+ * Only {@code archived_runs} (run id to archive key) stays in Postgres, which
+ * keeps the hot tables and their indexes down to recent and in-flight runs.
+ * A run read back is rebuilt from its archived row, so it reads the same as
+ * before it was moved; events are archived too when the run had any.
+ */
+@ApplicationScoped
+public class RunArchive {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RunArchive.class);
+
+    static final int FORMAT_VERSION = 1;
+
+    private static final String TERMINAL_STATUSES = "('COMPLETED', 'FAILED', 'CANCELLED', 'COMPENSATED')";
+
+    /**
+     * A run read back from the archive: its workflow_runs row and whatever
+     * events were stored for it
+     */
+    public record ArchivedRun(
+            WorkflowRunId runId,
+            TenantId tenantId,
+            WorkflowDefinitionId definitionId,
+            RunStatus status,
+            Map<String, Object> variables,
+            Map<String, NodeExecutionSnapshot> nodeExecutions,
+            Instant createdAt,
+            Instant startedAt,
+            Instant completedAt,
+            Instant lastUpdatedAt,
+            long version,
+            ParentRunRef parent,
+            List<ExecutionEvent> events) {
+
+        /**
+         * The run as it was when archived, against the given definition
+         */
+        public WorkflowRun toRun(WorkflowDefinition definition) {
+            Map<NodeId, NodeExecution> executions = new LinkedHashMap<>();
+            nodeExecutions.forEach((id, snapshot) -> {
+                NodeId nodeId = NodeId.of(id);
+                executions.put(nodeId, RunStateDelta.restore(nodeId, snapshot, definition));
+            });
+            return WorkflowRun.restore(runId, tenantId, definition, status, variables, executions,
+                    createdAt, startedAt, completedAt, lastUpdatedAt, version, parent);
+        }
+    }
+
+    @Inject
+    Pool pgPool;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    PostgresEventStore eventStore;
+
+    @Inject
+    ExecutionHistoryRepository historyRepository;
+
+    @ConfigProperty(name = "silat.archive.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "silat.archive.location")
+    Optional<String> location;
+
+    @ConfigProperty(name = "silat.archive.min-age", defaultValue = "P30D")
+    Duration minAge;
+
+    @ConfigProperty(name = "silat.archive.batch-size", defaultValue = "200")
+    int batchSize;
+
+    @ConfigProperty(name = "silat.archive.timeout", defaultValue = "PT10M")
+    Duration timeout;
+
+    private static final Duration EVICT_OVERLAP = Duration.ofMinutes(5);
+
+    // Archives up to here were evicted from this instance's history
+    private volatile OffsetDateTime evictedUpTo = OffsetDateTime.now(ZoneOffset.UTC);
+
+    public boolean isEnabled() {
+        return enabled && location.isPresent();
+    }
+
+    /**
+     * Look up an archived run; emits null when the run was never archived
+     */
+    public Uni<ArchivedRun> find(WorkflowRunId runId, TenantId tenantId) {
+        if (!isEnabled()) {
+            return Uni.createFrom().nullItem();
+        }
+        return pgPool.preparedQuery("SELECT archive_key FROM archived_runs WHERE run_id = $1 AND tenant_id = $2")
+                .execute(Tuple.of(runId.value(), tenantId.value()))
+                .flatMap(rows -> {
+                    if (!rows.iterator().hasNext()) {
+                        return Uni.createFrom().nullItem();
+                    }
+                    Path file = root().resolve(rows.iterator().next().getString("archive_key"));
+                    return Uni.createFrom().item(() -> toArchivedRun(readDocument(objectMapper, file)))
+                            .runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+                });
+    }
+
+    @Scheduled(every = "${silat.archive.check-interval:15m}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void archiveExpiredRuns() {
+        if (!enabled) {
+            return;
+        }
+        if (location.isEmpty()) {
+            LOG.warn("silat.archive.enabled is set without silat.archive.location, nothing is archived");
+            return;
+        }
+        try {
+            Instant cutoff = Instant.now().minus(minAge);
+            int archived = 0;
+            List<String> batch;
+            int archivedInBatch;
+            do {
+                batch = findCandidates(cutoff);
+                archivedInBatch = 0;
+                for (String runId : batch) {
+                    if (archiveRun(runId)) {
+                        archivedInBatch++;
+                    }
+                }
+                archived += archivedInBatch;
+                // Stop on a batch of runs locked by another instance
+            } while (batch.size() == batchSize && archivedInBatch > 0);
+            if (archived > 0) {
+                LOG.info("Archived {} runs completed before {}", archived, cutoff);
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Run archival failed", e);
+        }
+    }
+
+    private List<String> findCandidates(Instant cutoff) {
+        return pgPool.preparedQuery("SELECT run_id FROM workflow_runs WHERE status IN " + TERMINAL_STATUSES
+                + " AND completed_at < $1 ORDER BY completed_at LIMIT $2")
+                .execute(Tuple.of(cutoff.atOffset(ZoneOffset.UTC), batchSize))
+                .map(rows -> {
+                    List<String> runIds = new ArrayList<>();
+                    rows.forEach(row -> runIds.add(row.getString("run_id")));
+                    return runIds;
+                })
+                .await().atMost(timeout);
+    }
+
+    // Writes the document first and deletes the rows in the same transaction
+    // that records the archive key; a failed commit only leaves a file that
+    // the next attempt overwrites
+    boolean archiveRun(String runId) {
+        return pgPool.withTransaction(conn -> conn.preparedQuery(
+                "SELECT row_to_json(r)::text AS doc, r.tenant_id, r.definition_id, r.status, r.created_at, r.completed_at"
+                        + " FROM workflow_runs r WHERE run_id = $1 AND status IN " + TERMINAL_STATUSES
+                        + " FOR UPDATE SKIP LOCKED")
+                .execute(Tuple.of(runId))
+                .flatMap(rows -> {
+                    if (!rows.iterator().hasNext()) {
+                        // Locked by another instance or no longer eligible
+                        return Uni.createFrom().item(false);
+                    }
+                    Row run = rows.iterator().next();
+                    return archive(conn, runId, run).replaceWith(true);
+                }))
+                .await().atMost(timeout);
+    }
+
+    /**
+     * Every instance drops the hot history it holds for runs archived since
+     * it last looked, whichever instance archived them
+     */
+    @Scheduled(every = "${silat.archive.evict-interval:1m}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void evictArchivedHistory() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            // Overlap the last look, for archives committed late with an earlier timestamp
+            OffsetDateTime since = evictedUpTo.minus(EVICT_OVERLAP);
+            pgPool.preparedQuery("SELECT run_id, archived_at FROM archived_runs WHERE archived_at > $1"
+                    + " ORDER BY archived_at")
+                    .execute(Tuple.of(since))
+                    .call(rows -> {
+                        List<Uni<Void>> evictions = new ArrayList<>();
+                        for (Row row : rows) {
+                            evictions.add(historyRepository.evict(WorkflowRunId.of(row.getString("run_id"))));
+                            OffsetDateTime archivedAt = row.getOffsetDateTime("archived_at");
+                            if (archivedAt.isAfter(evictedUpTo)) {
+                                evictedUpTo = archivedAt;
+                            }
+                        }
+                        return evictions.isEmpty() ? Uni.createFrom().voidItem()
+                                : Uni.join().all(evictions).andCollectFailures().replaceWithVoid();
+                    })
+                    .await().atMost(timeout);
+        } catch (RuntimeException e) {
+            LOG.warn("Failed to evict the history of archived runs", e);
+        }
+    }
+
+    private Uni<Void> archive(SqlConnection conn, String runId, Row run) {
+        String tenantId = run.getString("tenant_id");
+        OffsetDateTime completedAt = run.getOffsetDateTime("completed_at");
+        // No event of the run is older than the run, which prunes older partitions
+        OffsetDateTime createdAt = run.getOffsetDateTime("created_at");
+        String key = archiveKey(tenantId, completedAt.toLocalDate(), runId);
+
+        return conn.preparedQuery("SELECT row_to_json(e)::text AS doc FROM workflow_events e"
+                + " WHERE run_id = $1 AND occurred_at >= $2 ORDER BY sequence_number")
+                .execute(Tuple.of(runId, createdAt))
+                .emitOn(Infrastructure.getDefaultWorkerPool())
+                .invoke(events -> {
+                    List<String> eventDocs = new ArrayList<>();
+                    events.forEach(event -> eventDocs.add(event.getString("doc")));
+                    writeDocument(objectMapper, root().resolve(key),
+                            document(objectMapper, run.getString("doc"), eventDocs));
+                })
+                .flatMap(events -> conn.preparedQuery("""
+                        INSERT INTO archived_runs
+                        (run_id, tenant_id, definition_id, status, completed_at, archive_key, event_count, archived_at)
+                        VALUES ($1, $2, $3, $4, $5, $6, $7, NOW())
+                        ON CONFLICT (run_id) DO UPDATE SET archive_key = EXCLUDED.archive_key,
+                            event_count = EXCLUDED.event_count, archived_at = EXCLUDED.archived_at
+                        """)
+                        .execute(Tuple.tuple()
+                                .addValue(runId)
+                                .addValue(tenantId)
+                                .addValue(run.getString("definition_id"))
+                                .addValue(run.getString("status"))
+                                .addValue(completedAt)
+                                .addValue(key)
+                                .addValue(events.rowCount())))
+                .flatMap(ignored -> conn.preparedQuery(
+                        "DELETE FROM workflow_events WHERE run_id = $1 AND occurred_at >= $2")
+                        .execute(Tuple.of(runId, createdAt)))
+                .flatMap(ignored -> conn.preparedQuery("DELETE FROM workflow_event_sequences WHERE run_id = $1")
+                        .execute(Tuple.of(runId)))
+                .flatMap(ignored -> conn.preparedQuery("DELETE FROM workflow_runs WHERE run_id = $1")
+                        .execute(Tuple.of(runId)))
+                .replaceWithVoid();
+    }
+
+    /**
+     * The archive document of a run, from the JSON of its workflow_runs row
+     * and of its workflow_events rows
+     */
+    static ObjectNode document(ObjectMapper mapper, String runJson, List<String> events) {
+        try {
+            ObjectNode document = mapper.createObjectNode();
+            document.put("formatVersion", FORMAT_VERSION);
+            document.set("run", mapper.readTree(runJson));
+            ArrayNode eventNodes = document.putArray("events");
+            for (String event : events) {
+                eventNodes.add(mapper.readTree(event));
+            }
+            return document;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    ArchivedRun toArchivedRun(JsonNode document) {
+        JsonNode run = document.path("run");
+        List<ExecutionEvent> events = new ArrayList<>();
+        for (JsonNode event : document.path("events")) {
+            try {
+                events.add(eventStore.deserializeEvent(
+                        event.path("event_type").asText(),
+                        event.path("event_data").toString()));
+            } catch (Exception e) {
+                LOG.error("Failed to deserialize archived event {}", event.path("event_id").asText(), e);
+            }
+        }
+        Map<String, Object> variables = run.hasNonNull("context_variables")
+                ? objectMapper.convertValue(run.get("context_variables"), new TypeReference<Map<String, Object>>() {
+                })
+                : Map.of();
+        Map<String, NodeExecutionSnapshot> nodeExecutions = run.hasNonNull("node_executions")
+                ? objectMapper.convertValue(run.get("node_executions"),
+                        new TypeReference<Map<String, NodeExecutionSnapshot>>() {
+                        })
+                : Map.of();
+        return new ArchivedRun(
+                WorkflowRunId.of(run.path("run_id").asText()),
+                TenantId.of(run.path("tenant_id").asText()),
+                WorkflowDefinitionId.of(run.path("definition_id").asText()),
+                RunStatus.valueOf(run.path("status").asText()),
+                variables,
+                nodeExecutions,
+                instant(run, "created_at"),
+                instant(run, "started_at"),
+                instant(run, "completed_at"),
+                instant(run, "last_updated_at"),
+                run.path("version").asLong(),
+                parent(run),
+                events);
+    }
+
+    private static Instant instant(JsonNode run, String column) {
+        return run.hasNonNull(column) ? OffsetDateTime.parse(run.get(column).asText()).toInstant() : null;
+    }
+
+    // The parent's node, attempt and item index ride along in the metadata
+    private static ParentRunRef parent(JsonNode run) {
+        if (!run.hasNonNull("parent_run_id")) {
+            return null;
+        }
+        JsonNode metadata = run.path("metadata");
+        return new ParentRunRef(
+                WorkflowRunId.of(run.get("parent_run_id").asText()),
+                NodeId.of(metadata.path("parentNodeId").asText()),
+                metadata.path("parentAttempt").asInt(1),
+                metadata.path("parentIndex").asInt(0));
+    }
+
+    private Path root() {
+        return resolveRoot(location.orElseThrow());
+    }
+
+    // ==================== FILES ====================
+
+    static Path resolveRoot(String location) {
+        return location.contains("://") ? Path.of(URI.create(location)) : Path.of(location);
+    }
+
+    static String archiveKey(String tenantId, LocalDate completedOn, String runId) {
+        return String.format("%s/%04d/%02d/%02d/%s.json.gz",
+                safeSegment(tenantId),
+                completedOn.getYear(),
+                completedOn.getMonthValue(),
+                completedOn.getDayOfMonth(),
+                safeSegment(runId));
+    }
+
+    private static String safeSegment(String value) {
+        return value.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    static void writeDocument(ObjectMapper mapper, Path target, JsonNode document) {
+        Path temp = target.resolveSibling(target.getFileName() + ".part");
+        try {
+            Files.createDirectories(target.getParent());
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                mapper.writeValue(out, document);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write archive " + target, e);
+        }
+    }
+
+    static JsonNode readDocument(ObjectMapper mapper, Path source) {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(source))) {
+            JsonNode document = mapper.readTree(in);
+            int version = document.path("formatVersion").asInt();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalStateException("Unsupported archive format " + version + " in " + source);
+            }
+            return document;
+        } catch (NoSuchFileException e) {
+            throw new IllegalStateException("Archive file missing: " + source, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archive " + source, e);
+        }
+    }
+}
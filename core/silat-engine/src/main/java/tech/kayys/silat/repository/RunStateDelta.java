@@ -0,0 +1,105 @@
+package tech.kayys.silat.repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import tech.kayys.silat.execution.ExecutionContext;
+import tech.kayys.silat.execution.NodeExecutionSnapshot;
+import tech.kayys.silat.execution.NodeExecutionStatus;
+import tech.kayys.silat.model.ErrorInfo;
+import tech.kayys.silat.model.ErrorSnapshot;
+import tech.kayys.silat.model.NodeExecution;
+import tech.kayys.silat.model.NodeId;
+import tech.kayys.silat.model.WorkflowDefinition;
+import tech.kayys.silat.model.WorkflowRun;
+
+/**
+ * The part of a run's JSONB state that changed since it was last persisted:
+ * the changed node executions and variables as objects to merge into the
+ * stored documents, and the names of removed variables
+ *
+ * Its size follows what one step changed, not how large the run has grown.
+ *
+ * @param variables        changed variables, or all of them if replaced
+ * @param removedVariables names of the variables to drop
+ * @param replaceVariables whether {@code variables} replaces the stored
+ *                         document rather than merging into it
+ * @param nodeExecutions   changed node executions by node id
+ */
+record RunStateDelta(
+        String variables,
+        String removedVariables,
+        boolean replaceVariables,
+        String nodeExecutions) {
+
+    static RunStateDelta of(WorkflowRun run, ObjectMapper objectMapper) throws JsonProcessingException {
+        ExecutionContext context = run.getContext();
+        Map<String, Object> variables = context.getVariables();
+
+        Map<String, Object> changedVariables;
+        List<String> removedVariables = new ArrayList<>();
+        if (context.variablesReplaced()) {
+            changedVariables = variables;
+        } else {
+            changedVariables = new HashMap<>();
+            for (String name : context.changedVariables()) {
+                if (variables.containsKey(name)) {
+                    changedVariables.put(name, variables.get(name));
+                } else {
+                    removedVariables.add(name);
+                }
+            }
+        }
+
+        Map<String, NodeExecutionSnapshot> changedNodes = new HashMap<>();
+        for (NodeId nodeId : run.getChangedNodes()) {
+            NodeExecution execution = run.getAllNodeExecutions().get(nodeId);
+            if (execution != null) {
+                changedNodes.put(nodeId.value(), snapshot(nodeId, execution));
+            }
+        }
+
+        return new RunStateDelta(
+                objectMapper.writeValueAsString(changedVariables),
+                objectMapper.writeValueAsString(removedVariables),
+                context.variablesReplaced(),
+                objectMapper.writeValueAsString(changedNodes));
+    }
+
+    static NodeExecutionSnapshot snapshot(NodeId nodeId, NodeExecution execution) {
+        ErrorInfo error = execution.getLastError();
+        return new NodeExecutionSnapshot(
+                nodeId.value(),
+                execution.getStatus().name(),
+                execution.getAttempt(),
+                execution.getStartedAt(),
+                execution.getCompletedAt(),
+                execution.getOutput(),
+                error != null ? new ErrorSnapshot(error.code(), error.message(), error.stackTrace()) : null);
+    }
+
+    /**
+     * The node execution a stored snapshot was taken of, against the run's
+     * definition
+     */
+    static NodeExecution restore(NodeId nodeId, NodeExecutionSnapshot snapshot, WorkflowDefinition definition) {
+        NodeExecution execution = NodeExecution.create(nodeId, definition.findNode(nodeId).orElse(null));
+        execution.setStatus(NodeExecutionStatus.valueOf(snapshot.status()));
+        execution.setAttempt(snapshot.attempt());
+        execution.setStartedAt(snapshot.startedAt());
+        execution.setCompletedAt(snapshot.completedAt());
+        if (snapshot.output() != null) {
+            execution.setOutput(snapshot.output());
+        }
+        if (snapshot.error() != null) {
+            execution.setLastError(new ErrorInfo(snapshot.error().code(), snapshot.error().message(),
+                    snapshot.error().stackTrace(), Map.of()));
+        }
+        return execution;
+    }
+}
@@ -0,0 +1,324 @@
+package tech.kayys.silat.repository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Manages time range partitions of the append-only tables
+ * ({@code workflow_events} by {@code occurred_at}, {@code audit_log} by
+ * {@code performed_at}).
+ *
+ * - Pre-creates partitions for the current and upcoming periods so inserts
+ * never land in the default partition.
+ * - Detaches partitions whose whole range is older than the table's retention.
+ * With an archive directory configured, a detached partition is exported as
+ * gzipped JSON lines and dropped; otherwise it is left as a standalone table.
+ * An expired table left detached, because archiving failed or the directory
+ * was configured later, is archived and dropped on a later run.
+ *
+ * Runs on one instance at a time, under a Postgres advisory lock, and without
+ * blocking the scheduler's thread.
+ *
+ * Partitions are named {@code <table>_p<from>_<to>} (dates as yyyyMMdd, UTC);
+ * partitions with other names are never touched. Tables that are not
+ * partitioned (e.g. schema generated by Hibernate in dev) are skipped.
+ */
+@ApplicationScoped
+public class TimePartitionManager {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TimePartitionManager.class);
+
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    // Keys the advisory lock that keeps maintenance to one instance
+    private static final String LOCK_NAME = "silat.storage.partitioning";
+
+    enum Granularity {
+        WEEKLY,
+        MONTHLY
+    }
+
+    record ManagedTable(String name, Duration retention) {
+    }
+
+    record Partition(String name, LocalDate from, LocalDate to) {
+    }
+
+    @Inject
+    Pool pgPool;
+
+    @ConfigProperty(name = "silat.storage.partitioning.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "silat.storage.partitioning.granularity", defaultValue = "MONTHLY")
+    Granularity granularity;
+
+    // Number of future periods to keep created ahead of time
+    @ConfigProperty(name = "silat.storage.partitioning.premake", defaultValue = "3")
+    int premake;
+
+    @ConfigProperty(name = "silat.storage.partitioning.workflow-events.retention", defaultValue = "P365D")
+    Duration eventsRetention;
+
+    @ConfigProperty(name = "silat.storage.partitioning.audit-log.retention", defaultValue = "P730D")
+    Duration auditRetention;
+
+    @ConfigProperty(name = "silat.storage.partitioning.archive-dir")
+    Optional<String> archiveDir;
+
+    @ConfigProperty(name = "silat.storage.partitioning.timeout", defaultValue = "PT30M")
+    Duration timeout;
+
+    @Scheduled(every = "${silat.storage.partitioning.check-interval:1h}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    Uni<Void> maintainPartitions() {
+        if (!enabled) {
+            return Uni.createFrom().voidItem();
+        }
+        // One instance at a time across the cluster; the lock is held by this session
+        return pgPool.withConnection(conn -> conn.preparedQuery("SELECT pg_try_advisory_lock(hashtext($1))")
+                .execute(Tuple.of(LOCK_NAME))
+                .flatMap(rows -> {
+                    if (!rows.iterator().next().getBoolean(0)) {
+                        LOG.debug("Partition maintenance is running on another instance");
+                        return Uni.createFrom().voidItem();
+                    }
+                    return maintainAll(LocalDate.now(ZoneOffset.UTC))
+                            .eventually(() -> conn.preparedQuery("SELECT pg_advisory_unlock(hashtext($1))")
+                                    .execute(Tuple.of(LOCK_NAME)));
+                }));
+    }
+
+    private Uni<Void> maintainAll(LocalDate today) {
+        return each(List.of(
+                new ManagedTable("workflow_events", eventsRetention),
+                new ManagedTable("audit_log", auditRetention)),
+                table -> maintain(table, today)
+                        .ifNoItem().after(timeout).fail()
+                        .onFailure().invoke(e -> LOG.error("Partition maintenance failed for {}", table.name(), e))
+                        .onFailure().recoverWithNull());
+    }
+
+    Uni<Void> maintain(ManagedTable table, LocalDate today) {
+        return isPartitioned(table.name()).flatMap(partitioned -> {
+            if (!partitioned) {
+                LOG.debug("Table {} is not partitioned, skipping partition maintenance", table.name());
+                return Uni.createFrom().voidItem();
+            }
+
+            List<Partition> upcoming = new ArrayList<>();
+            LocalDate from = periodStart(today, granularity);
+            for (int i = 0; i <= premake; i++) {
+                LocalDate to = nextPeriod(from, granularity);
+                upcoming.add(new Partition(partitionName(table.name(), from, to), from, to));
+                from = to;
+            }
+
+            LocalDate cutoff = today.minusDays(table.retention().toDays());
+            return each(upcoming, partition -> createPartition(table.name(), partition))
+                    .chain(() -> listPartitions(table.name()))
+                    .chain(partitions -> each(expired(partitions, cutoff), partition -> retire(table.name(), partition)))
+                    .chain(() -> archiveDir.isEmpty()
+                            ? Uni.createFrom().voidItem()
+                            : listDetached(table.name())
+                                    .chain(detached -> each(expired(detached, cutoff), this::archiveAndDrop)));
+        });
+    }
+
+    private static List<Partition> expired(List<Partition> partitions, LocalDate cutoff) {
+        return partitions.stream().filter(partition -> !partition.to().isAfter(cutoff)).toList();
+    }
+
+    // One step after the other, in order
+    private static <T> Uni<Void> each(List<T> items, Function<T, Uni<Void>> step) {
+        return Multi.createFrom().iterable(items)
+                .onItem().transformToUniAndConcatenate(item -> step.apply(item))
+                .collect().asList()
+                .replaceWithVoid();
+    }
+
+    private Uni<Boolean> isPartitioned(String table) {
+        return pgPool.preparedQuery("""
+                SELECT EXISTS (
+                    SELECT 1 FROM pg_partitioned_table p
+                    JOIN pg_class c ON c.oid = p.partrelid
+                    WHERE c.relname = $1
+                )
+                """)
+                .execute(Tuple.of(table))
+                .map(rows -> rows.iterator().next().getBoolean(0));
+    }
+
+    private Uni<Void> createPartition(String table, Partition partition) {
+        return pgPool.query("CREATE TABLE IF NOT EXISTS " + partition.name() + " PARTITION OF " + table
+                + " FOR VALUES FROM ('" + partition.from() + " 00:00:00+00') TO ('" + partition.to()
+                + " 00:00:00+00')")
+                .execute()
+                .replaceWithVoid();
+    }
+
+    private Uni<List<Partition>> listPartitions(String table) {
+        return pgPool.preparedQuery("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = $1::regclass
+                """)
+                .execute(Tuple.of(table))
+                .map(rows -> {
+                    List<Partition> partitions = new ArrayList<>();
+                    for (Row row : rows) {
+                        parsePartition(table, row.getString("relname")).ifPresent(partitions::add);
+                    }
+                    return partitions;
+                });
+    }
+
+    // Expired partitions detached by an earlier run but not archived
+    private Uni<List<Partition>> listDetached(String table) {
+        return pgPool.preparedQuery("""
+                SELECT c.relname FROM pg_class c
+                WHERE c.relkind = 'r' AND NOT c.relispartition
+                  AND c.relnamespace = current_schema()::regnamespace
+                  AND c.relname LIKE $1 || '_p%'
+                """)
+                .execute(Tuple.of(table))
+                .map(rows -> {
+                    List<Partition> partitions = new ArrayList<>();
+                    for (Row row : rows) {
+                        parsePartition(table, row.getString("relname")).ifPresent(partitions::add);
+                    }
+                    return partitions;
+                });
+    }
+
+    private Uni<Void> retire(String table, Partition partition) {
+        LOG.info("Detaching expired partition {} ({} to {})", partition.name(), partition.from(), partition.to());
+        return pgPool.query("ALTER TABLE " + table + " DETACH PARTITION " + partition.name())
+                .execute()
+                .chain(() -> archiveDir.isPresent() ? archiveAndDrop(partition) : Uni.createFrom().voidItem());
+    }
+
+    private Uni<Void> archiveAndDrop(Partition partition) {
+        Path target = Path.of(archiveDir.get(), partition.name() + ".ndjson.gz");
+        return archive(partition.name(), target)
+                .call(() -> pgPool.query("DROP TABLE " + partition.name()).execute())
+                .invoke(rows -> LOG.info("Archived {} rows of {} to {}", rows, partition.name(), target))
+                .replaceWithVoid();
+    }
+
+    // Streams the detached table through a cursor into a gzipped JSON lines file, off the event loop
+    Uni<Long> archive(String partitionTable, Path target) {
+        Path temp = target.resolveSibling(target.getFileName() + ".part");
+        return Uni.createFrom().item(() -> open(temp))
+                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool())
+                .flatMap(writer -> pgPool.withTransaction(conn -> conn
+                        .prepare("SELECT row_to_json(t)::text FROM " + partitionTable + " t")
+                        .flatMap(statement -> statement.createStream(1000).toMulti()
+                                .emitOn(Infrastructure.getDefaultWorkerPool())
+                                .invoke(row -> writeLine(writer, row.getString(0)))
+                                .collect().with(Collectors.counting())))
+                        .eventually(() -> close(writer)))
+                .emitOn(Infrastructure.getDefaultWorkerPool())
+                .invoke(() -> move(temp, target));
+    }
+
+    private static Writer open(Path file) {
+        try {
+            Files.createDirectories(file.getParent());
+            return new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(file)), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open " + file, e);
+        }
+    }
+
+    private static void close(Writer writer) {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void move(Path source, Path target) {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to move " + source + " to " + target, e);
+        }
+    }
+
+    private static void writeLine(Writer writer, String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ==================== NAMING ====================
+
+    static LocalDate periodStart(LocalDate date, Granularity granularity) {
+        return switch (granularity) {
+            case WEEKLY -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTHLY -> date.withDayOfMonth(1);
+        };
+    }
+
+    static LocalDate nextPeriod(LocalDate periodStart, Granularity granularity) {
+        return switch (granularity) {
+            case WEEKLY -> periodStart.plusWeeks(1);
+            case MONTHLY -> periodStart.plusMonths(1);
+        };
+    }
+
+    static String partitionName(String table, LocalDate from, LocalDate to) {
+        return table + "_p" + BOUND_FORMAT.format(from) + "_" + BOUND_FORMAT.format(to);
+    }
+
+    static Optional<Partition> parsePartition(String table, String name) {
+        Matcher matcher = Pattern.compile(Pattern.quote(table) + "_p(\\d{8})_(\\d{8})").matcher(name);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        return Optional.of(new Partition(
+                name,
+                LocalDate.parse(matcher.group(1), BOUND_FORMAT),
+                LocalDate.parse(matcher.group(2), BOUND_FORMAT)));
+    }
+}
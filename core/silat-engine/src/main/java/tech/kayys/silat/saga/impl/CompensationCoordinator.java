@@ -1,29 +1,53 @@
 package tech.kayys.silat.saga.impl;
 
-import java.time.Duration;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import tech.kayys.silat.api.engine.ExecutionTokenService;
+import tech.kayys.silat.dispatcher.FairDispatchQueue;
+import tech.kayys.silat.execution.NodeExecutionResult;
+import tech.kayys.silat.execution.NodeExecutionStatus;
+import tech.kayys.silat.execution.NodeExecutionTask;
+import tech.kayys.silat.model.ErrorInfo;
+import tech.kayys.silat.model.ExecutorInfo;
 import tech.kayys.silat.model.NodeDefinition;
+import tech.kayys.silat.model.NodeExecution;
 import tech.kayys.silat.model.NodeId;
 import tech.kayys.silat.model.RunStatus;
 import tech.kayys.silat.model.WorkflowDefinition;
 import tech.kayys.silat.model.WorkflowRun;
+import tech.kayys.silat.registry.ExecutorRegistry;
 import tech.kayys.silat.saga.CompensationPolicy;
 import tech.kayys.silat.saga.CompensationResult;
 import tech.kayys.silat.saga.CompensationService;
+import tech.kayys.silat.saga.CompensationStrategy;
 import tech.kayys.silat.workflow.WorkflowDefinitionRegistry;
 
 /**
  * Coordinates compensation (saga pattern) for failed workflows
+ *
+ * Completed nodes are rolled back in reverse dependency order: a node is
+ * compensated once every node that depended on it has been, so independent
+ * branches roll back side by side, up to {@code silat.compensation.max-concurrency}
+ * nodes at a time for the PARALLEL strategy and one at a time otherwise.
+ *
+ * A node's {@code compensationHandler} names the executor type that undoes
+ * it. The compensation task goes through the regular dispatch queue with the
+ * node's configuration and output, {@code compensate = true}, and an attempt
+ * number above the node's own attempts; its result comes back through
+ * {@link #onResult}. Nodes without a handler are compensated at once.
+ * Progress is kept on the run, so an interrupted compensation resumes where
+ * it stopped.
  */
 @ApplicationScoped
 public class CompensationCoordinator implements CompensationService {
@@ -33,8 +57,21 @@ public class CompensationCoordinator implements CompensationService {
         @Inject
         WorkflowDefinitionRegistry definitionRegistry;
 
+        @Inject
+        ExecutorRegistry executorRegistry;
+
+        @Inject
+        FairDispatchQueue dispatchQueue;
+
+        @Inject
+        ExecutionTokenService tokenService;
+
+        @ConfigProperty(name = "silat.compensation.max-concurrency", defaultValue = "8")
+        int maxConcurrency;
+
         /**
-         * Execute compensation for a failed workflow
+         * Start compensation for a run that failed or was cancelled; the
+         * first compensation tasks are dispatched before this completes
          */
         public Uni<CompensationResult> compensate(WorkflowRun run) {
                 LOG.info("Starting compensation for run: {}", run.getId().value());
@@ -49,139 +86,124 @@ public class CompensationCoordinator implements CompensationService {
                                                                 new CompensationResult(true, "No compensation needed"));
                                         }
 
-                                        // Get nodes to compensate (completed nodes in reverse order)
-                                        List<NodeId> completedNodes = getCompletedNodes(run);
-
-                                        if (completedNodes.isEmpty()) {
+                                        if (!run.isCompensating() || run.getCompensationState() == null
+                                                        || run.getCompensationState().nodesToCompensate().isEmpty()) {
                                                 return Uni.createFrom().item(
                                                                 new CompensationResult(true, "No nodes to compensate"));
                                         }
 
-                                        return executeCompensationStrategy(
-                                                        run, definition, completedNodes, policy);
-                                });
-        }
-
-        /**
-         * Get list of completed nodes that need compensation
-         */
-        private List<NodeId> getCompletedNodes(WorkflowRun run) {
-                List<NodeId> completed = new ArrayList<>();
-
-                run.getAllNodeExecutions().forEach((nodeId, execution) -> {
-                        if (execution.isCompleted()) {
-                                completed.add(nodeId);
-                        }
-                });
+                                        if (policy.strategy() == CompensationStrategy.CUSTOM) {
+                                                LOG.warn("Custom compensation not implemented, using sequential");
+                                        }
 
-                // Reverse order for sequential compensation
-                Collections.reverse(completed);
+                                        LOG.info("Executing {} compensation for {} nodes",
+                                                        policy.strategy() == CompensationStrategy.PARALLEL
+                                                                        ? "parallel" : "sequential",
+                                                        run.getCompensationState().nodesToCompensate().size());
 
-                return completed;
+                                        return advance(run, definition, policy)
+                                                        .map(ignored -> new CompensationResult(true,
+                                                                        policy.strategy() == CompensationStrategy.PARALLEL
+                                                                                        ? "Parallel compensation started"
+                                                                                        : "Sequential compensation started"));
+                                });
         }
 
         /**
-         * Execute compensation based on strategy
+         * Pick up a stalled compensation: tasks that never answered are
+         * dispatched again
          */
-        private Uni<CompensationResult> executeCompensationStrategy(
-                        WorkflowRun run,
-                        WorkflowDefinition definition,
-                        List<NodeId> nodesToCompensate,
-                        CompensationPolicy policy) {
-
-                return switch (policy.strategy()) {
-                        case SEQUENTIAL -> executeSequentialCompensation(
-                                        run, definition, nodesToCompensate, policy);
-                        case PARALLEL -> executeParallelCompensation(
-                                        run, definition, nodesToCompensate, policy);
-                        case CUSTOM -> executeCustomCompensation(
-                                        run, definition, nodesToCompensate, policy);
-                };
+        public Uni<Void> resume(WorkflowRun run) {
+                run.resumeCompensation();
+                CompensationPolicy policy = run.getDefinition().compensationPolicy();
+                return advance(run, run.getDefinition(), policy).replaceWithVoid();
         }
 
         /**
-         * Sequential compensation (one by one in reverse order)
+         * Apply the result of a compensation task to the compensating run and
+         * dispatch whatever it unblocks; results of superseded attempts are
+         * ignored
+         *
+         * @return whether the result changed the run
          */
-        private Uni<CompensationResult> executeSequentialCompensation(
-                        WorkflowRun run,
-                        WorkflowDefinition definition,
-                        List<NodeId> nodesToCompensate,
-                        CompensationPolicy policy) {
-
-                LOG.info("Executing sequential compensation for {} nodes",
-                                nodesToCompensate.size());
-
-                Uni<CompensationResult> chain = Uni.createFrom().item(
-                                new CompensationResult(true, "Starting compensation"));
-
-                for (NodeId nodeId : nodesToCompensate) {
-                        chain = chain.flatMap(previousResult -> {
-                                if (!previousResult.success() && policy.failOnCompensationError()) {
-                                        return Uni.createFrom().item(previousResult);
-                                }
+        public Uni<Boolean> onResult(WorkflowRun run, NodeExecutionResult result) {
+                NodeId nodeId = result.nodeId();
+                if (!run.isCompensating() || run.getCompensationState() == null
+                                || !run.getCompensationState().isInFlight(nodeId)
+                                || run.getCompensationState().attemptOf(nodeId) != result.attempt()) {
+                        LOG.debug("Ignoring result of node {} attempt {} for compensating run {}",
+                                        nodeId.value(), result.attempt(), run.getId().value());
+                        return Uni.createFrom().item(false);
+                }
 
-                                return compensateNode(run, definition, nodeId)
-                                                .onFailure().recoverWithItem(error -> {
-                                                        LOG.error("Compensation failed for node: {}",
-                                                                        nodeId.value(), error);
-                                                        return new CompensationResult(false,
-                                                                        "Compensation failed: " + error.getMessage());
-                                                });
-                        });
+                WorkflowDefinition definition = run.getDefinition();
+                CompensationPolicy policy = definition.compensationPolicy();
+
+                if (result.status() == NodeExecutionStatus.COMPLETED) {
+                        LOG.debug("Node compensated: {}", nodeId.value());
+                        run.compensateNode(nodeId);
+                } else {
+                        int tries = result.attempt() - run.getNodeExecution(nodeId).getAttempt();
+                        if (tries <= policy.maxRetries()) {
+                                LOG.warn("Compensation of node {} failed, retrying ({}/{})",
+                                                nodeId.value(), tries, policy.maxRetries());
+                                run.retryCompensation(nodeId);
+                        } else if (policy.failOnCompensationError()) {
+                                LOG.error("Compensation failed for node: {}", nodeId.value());
+                                run.failCompensation(result.error() != null ? result.error()
+                                                : new ErrorInfo("COMPENSATION_FAILED",
+                                                                "Compensation of node " + nodeId.value() + " failed",
+                                                                null, Map.of("nodeId", nodeId.value())));
+                                return Uni.createFrom().item(true);
+                        } else {
+                                LOG.warn("Compensation failed for node {}, continuing", nodeId.value());
+                                run.compensateNode(nodeId);
+                        }
                 }
 
-                return chain.map(result -> new CompensationResult(true,
-                                "Sequential compensation completed"));
+                return advance(run, definition, policy).replaceWith(true);
         }
 
         /**
-         * Parallel compensation (all at once)
+         * Dispatch the compensations that are ready, over and over while
+         * nodes without a handler complete at once and unblock others
          */
-        private Uni<CompensationResult> executeParallelCompensation(
+        private Uni<CompensationResult> advance(
                         WorkflowRun run,
                         WorkflowDefinition definition,
-                        List<NodeId> nodesToCompensate,
                         CompensationPolicy policy) {
 
-                LOG.info("Executing parallel compensation for {} nodes",
-                                nodesToCompensate.size());
+                List<NodeId> ready = run.nextCompensations(maxInFlight(policy));
+                if (ready.isEmpty()) {
+                        return Uni.createFrom().item(new CompensationResult(true, "Nothing to dispatch"));
+                }
+                int compensatedBefore = run.getCompensationState().getCompensatedCount();
 
-                List<Uni<CompensationResult>> compensations = nodesToCompensate.stream()
-                                .map(nodeId -> compensateNode(run, definition, nodeId)
+                return Multi.createFrom().iterable(ready)
+                                .onItem().transformToUniAndConcatenate(nodeId -> compensateNode(run, definition, nodeId)
                                                 .onFailure().recoverWithItem(error -> {
                                                         LOG.error("Compensation failed for node: {}",
                                                                         nodeId.value(), error);
                                                         return new CompensationResult(false,
-                                                                        "Failed: " + error.getMessage());
+                                                                        "Compensation failed: " + error.getMessage());
                                                 }))
-                                .toList();
-
-                return Uni.join().all(compensations).andFailFast()
-                                .map(results -> {
-                                        boolean allSuccess = results.stream()
-                                                        .allMatch(CompensationResult::success);
-
-                                        return new CompensationResult(allSuccess,
-                                                        "Parallel compensation completed");
-                                });
+                                .collect().asList()
+                                .flatMap(results -> run.isCompensating()
+                                                && run.getCompensationState().getCompensatedCount() > compensatedBefore
+                                                                ? advance(run, definition, policy)
+                                                                : Uni.createFrom().item(new CompensationResult(
+                                                                                results.stream().allMatch(CompensationResult::success),
+                                                                                "Compensations dispatched")));
         }
 
-        /**
-         * Custom compensation (hook for extensions)
-         */
-        private Uni<CompensationResult> executeCustomCompensation(
-                        WorkflowRun run,
-                        WorkflowDefinition definition,
-                        List<NodeId> nodesToCompensate,
-                        CompensationPolicy policy) {
-
-                LOG.warn("Custom compensation not implemented, using sequential");
-                return executeSequentialCompensation(
-                                run, definition, nodesToCompensate, policy);
+        private int maxInFlight(CompensationPolicy policy) {
+                return policy.strategy() == CompensationStrategy.PARALLEL ? Math.max(1, maxConcurrency) : 1;
         }
 
         /**
-         * Compensate a single node (implements CompensationService)
+         * Compensate a single node (implements CompensationService): nodes
+         * without a handler are marked compensated, the others get a
+         * compensation task dispatched
          */
         @Override
         public Uni<CompensationResult> compensateNode(
@@ -205,15 +227,50 @@ public class CompensationCoordinator implements CompensationService {
 
                 if (compensationHandler == null) {
                         LOG.debug("No compensation handler for node: {}", nodeId.value());
+                        if (run.isCompensating()) {
+                                run.compensateNode(nodeId);
+                        }
                         return Uni.createFrom().item(
                                         new CompensationResult(true, "No compensation needed"));
                 }
 
-                // Execute compensation handler
-                // In real implementation, this would invoke the compensation executor
-                return Uni.createFrom().item(
-                                new CompensationResult(true, "Node compensated"))
-                                .onItem().delayIt().by(Duration.ofMillis(100)); // Simulate work
+                NodeExecution execution = run.getNodeExecution(nodeId);
+                int attempt = Math.max(run.getCompensationState().attemptOf(nodeId), execution.getAttempt()) + 1;
+
+                return selectExecutor(nodeId, compensationHandler.toString())
+                                .flatMap(executor -> {
+                                        if (executor.isEmpty()) {
+                                                // Left pending; the resume sweep tries again
+                                                LOG.warn("No executor available for compensation handler {} of node {}",
+                                                                compensationHandler, nodeId.value());
+                                                return Uni.createFrom().item(new CompensationResult(false,
+                                                                "No executor for " + compensationHandler));
+                                        }
+
+                                        Map<String, Object> context = new HashMap<>(nodeDef.configuration());
+                                        context.put("compensate", true);
+                                        context.put("output", execution.getOutput() != null
+                                                        ? execution.getOutput() : Map.of());
+
+                                        return tokenService.issue(run.getId(), nodeId, attempt)
+                                                        .flatMap(token -> dispatchQueue.submit(run.getTenantId(),
+                                                                        definition,
+                                                                        new NodeExecutionTask(run.getId(), nodeId, attempt,
+                                                                                        token, context, null),
+                                                                        executor.get()))
+                                                        .invoke(() -> run.markCompensationDispatched(nodeId, attempt))
+                                                        .replaceWith(new CompensationResult(true,
+                                                                        "Compensation dispatched"));
+                                });
+        }
+
+        // An executor of the handler's type, otherwise whichever the registry picks for the node
+        private Uni<Optional<ExecutorInfo>> selectExecutor(NodeId nodeId, String handler) {
+                return executorRegistry.getExecutorsByType(handler)
+                                .flatMap(executors -> executors.isEmpty()
+                                                ? executorRegistry.getExecutorForNode(nodeId)
+                                                : Uni.createFrom().item(Optional.of(executors.get(
+                                                                Math.floorMod(nodeId.hashCode(), executors.size())))));
         }
 
         /**
@@ -222,6 +279,7 @@ public class CompensationCoordinator implements CompensationService {
         @Override
         public boolean needsCompensation(WorkflowRun run) {
                 // Compensation is needed if workflow failed and has completed nodes
-                return run.getStatus() == RunStatus.FAILED && !getCompletedNodes(run).isEmpty();
+                return run.getStatus() == RunStatus.FAILED && run.getAllNodeExecutions().values().stream()
+                                .anyMatch(NodeExecution::isCompleted);
         }
 }
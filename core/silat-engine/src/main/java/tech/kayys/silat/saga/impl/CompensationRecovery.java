@@ -0,0 +1,58 @@
+package tech.kayys.silat.saga.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import tech.kayys.silat.api.repository.WorkflowRunRepository;
+import tech.kayys.silat.engine.impl.DefaultWorkflowRunManager;
+import tech.kayys.silat.model.RunStatus;
+
+/**
+ * Resumes compensations that stopped making progress
+ *
+ * A compensating run not updated for {@code silat.compensation.stall-timeout}
+ * has lost its compensation tasks, to an executor or an engine instance
+ * going away. Its unanswered tasks are dispatched again with a new attempt
+ * number; nodes already compensated are not touched.
+ */
+@ApplicationScoped
+public class CompensationRecovery {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CompensationRecovery.class);
+
+    @ConfigProperty(name = "silat.compensation.stall-timeout", defaultValue = "PT5M")
+    Duration stallTimeout;
+
+    @ConfigProperty(name = "silat.compensation.resume-batch-size", defaultValue = "100")
+    int batchSize;
+
+    @Inject
+    WorkflowRunRepository runRepository;
+
+    @Inject
+    DefaultWorkflowRunManager runManager;
+
+    @Scheduled(every = "${silat.compensation.resume-interval:1m}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    Uni<Void> resumeStalled() {
+        return runRepository.findStalled(RunStatus.COMPENSATING, Instant.now().minus(stallTimeout), batchSize)
+                .onItem().transformToMulti(runIds -> Multi.createFrom().iterable(runIds))
+                .onItem().transformToUniAndConcatenate(runId -> runManager.resumeCompensation(runId)
+                        .invoke(() -> LOG.info("Resumed stalled compensation of run {}", runId.value()))
+                        .onFailure().invoke(e -> LOG.warn("Failed to resume compensation of run {}",
+                                runId.value(), e))
+                        .onFailure().recoverWithNull())
+                .collect().last()
+                .replaceWithVoid()
+                .onFailure().invoke(error -> LOG.warn("Failed to look up stalled compensations", error))
+                .onFailure().recoverWithNull();
+    }
+}
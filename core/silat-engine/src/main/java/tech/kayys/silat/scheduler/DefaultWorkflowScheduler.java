@@ -16,7 +16,8 @@ import io.quarkus.scheduler.Scheduled;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import tech.kayys.silat.dispatcher.TaskDispatcher;
+import tech.kayys.silat.api.repository.WorkflowRunRepository;
+import tech.kayys.silat.dispatcher.FairDispatchQueue;
 import tech.kayys.silat.execution.NodeExecutionTask;
 import tech.kayys.silat.api.event.EventPublisher;
 import tech.kayys.silat.registry.ExecutorRegistry;
@@ -36,7 +37,10 @@ public class DefaultWorkflowScheduler implements WorkflowScheduler {
         ReactiveRedisDataSource redis;
 
         @Inject
-        tech.kayys.silat.dispatcher.TaskDispatcherAggregator taskDispatcher;
+        FairDispatchQueue dispatchQueue;
+
+        @Inject
+        WorkflowRunRepository runRepository;
 
         @Inject
         EventPublisher eventPublisher;
@@ -84,7 +88,13 @@ public class DefaultWorkflowScheduler implements WorkflowScheduler {
                                                         executor.executorId(),
                                                         executor.communicationType());
 
-                                        return taskDispatcher.dispatch(task, executor)
+                                        // Queued behind the run's tenant like every other dispatch
+                                        return runRepository.findById(task.runId())
+                                                        .flatMap(run -> run != null
+                                                                        ? dispatchQueue.submit(run.getTenantId(),
+                                                                                        run.getDefinition(), task, executor)
+                                                                        : Uni.createFrom().failure(new IllegalStateException(
+                                                                                        "Run not found: " + task.runId().value())))
                                                         .invoke(() -> {
                                                                 LOG.debug("Task dispatch initiated successfully [{}]",
                                                                                 taskId);
@@ -0,0 +1,69 @@
+package tech.kayys.silat.scheduler;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import io.vertx.core.json.JsonObject;
+import tech.kayys.silat.model.NodeId;
+import tech.kayys.silat.model.TenantId;
+import tech.kayys.silat.model.WorkflowRunId;
+
+/**
+ * A persisted timer owned by a run
+ *
+ * The id is derived from run, node and kind, so re-arming a timer replaces
+ * it and cancelling one needs no lookup.
+ */
+public record DurableTimer(
+        String timerId,
+        TenantId tenantId,
+        WorkflowRunId runId,
+        NodeId nodeId,
+        Kind kind,
+        int attempt,
+        Instant fireAt) {
+
+    public enum Kind {
+        NODE_TIMEOUT, // Node didn't report a result within its timeout
+        TIMER_NODE, // TIMER node elapsed
+        WAIT_EXPIRY // Suspended run waited longer than its node's timeout
+    }
+
+    public static DurableTimer of(
+            Kind kind,
+            TenantId tenantId,
+            WorkflowRunId runId,
+            NodeId nodeId,
+            int attempt,
+            Instant fireAt) {
+        // Millisecond precision, as stored and compared when the timer fires
+        return new DurableTimer(id(runId, nodeId, kind), tenantId, runId, nodeId, kind, attempt,
+                fireAt.truncatedTo(ChronoUnit.MILLIS));
+    }
+
+    public static String id(WorkflowRunId runId, NodeId nodeId, Kind kind) {
+        return runId.value() + ":" + nodeId.value() + ":" + kind.name();
+    }
+
+    public JsonObject toJson() {
+        return new JsonObject()
+                .put("timerId", timerId)
+                .put("tenantId", tenantId.value())
+                .put("runId", runId.value())
+                .put("nodeId", nodeId.value())
+                .put("kind", kind.name())
+                .put("attempt", attempt)
+                .put("fireAt", fireAt.toEpochMilli());
+    }
+
+    public static DurableTimer fromJson(JsonObject json) {
+        return new DurableTimer(
+                json.getString("timerId"),
+                TenantId.of(json.getString("tenantId")),
+                WorkflowRunId.of(json.getString("runId")),
+                NodeId.of(json.getString("nodeId")),
+                Kind.valueOf(json.getString("kind")),
+                json.getInteger("attempt", 1),
+                Instant.ofEpochMilli(json.getLong("fireAt")));
+    }
+}
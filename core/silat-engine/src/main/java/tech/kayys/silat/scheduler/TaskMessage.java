@@ -1,12 +1,20 @@
 package tech.kayys.silat.scheduler;
 
+import java.time.Instant;
 import java.util.Map;
 
+/**
+ * Task as written to the tasks topic; same shape as the executor side's
+ * {@code tech.kayys.silat.kafka.TaskMessage}
+ */
 public record TaskMessage(
+        String taskId,
         String runId,
         String nodeId,
         int attempt,
-        String token,
+        String executionToken,
+        Instant tokenExpiresAt,
         Map<String, Object> context,
-        String targetExecutor) {
+        String targetExecutor,
+        Instant scheduledAt) {
 }
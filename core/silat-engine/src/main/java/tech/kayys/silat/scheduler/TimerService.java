@@ -0,0 +1,350 @@
+package tech.kayys.silat.scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.quarkus.runtime.Startup;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.eventbus.EventBus;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import tech.kayys.silat.model.NodeId;
+import tech.kayys.silat.model.TenantId;
+import tech.kayys.silat.model.WorkflowRunId;
+
+/**
+ * Durable timers for node timeouts, TIMER nodes and wait expirations
+ *
+ * Every timer is stored in {@code workflow_timers}; those due within
+ * {@code silat.timers.horizon} are also armed on an in-memory
+ * {@link TimingWheel}, so they fire to the millisecond with one thread for
+ * all of them. Timers are sharded by run; each instance leases a fair share
+ * of the shards and periodically loads their near-term timers, which is how
+ * long timers and timers of a failed instance get armed. A firing timer is
+ * claimed by deleting its row for the attempt it was armed for, so a timer
+ * armed on two instances fires once.
+ *
+ * Fired timers are published on {@link #TIMER_FIRED}.
+ */
+@Startup
+@ApplicationScoped
+public class TimerService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TimerService.class);
+
+    public static final String TIMER_FIRED = "silat.timers.v1.fired";
+
+    @Inject
+    Pool pgPool;
+
+    @Inject
+    EventBus eventBus;
+
+    @ConfigProperty(name = "silat.timers.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "silat.timers.shards", defaultValue = "64")
+    int shards;
+
+    @ConfigProperty(name = "silat.timers.horizon", defaultValue = "PT2M")
+    Duration horizon;
+
+    @ConfigProperty(name = "silat.timers.lease-ttl", defaultValue = "PT45S")
+    Duration leaseTtl;
+
+    @ConfigProperty(name = "silat.timers.load-batch-size", defaultValue = "5000")
+    int loadBatchSize;
+
+    @ConfigProperty(name = "silat.timers.tick", defaultValue = "PT0.001S")
+    Duration tick;
+
+    @ConfigProperty(name = "silat.timers.wheel-size", defaultValue = "512")
+    int wheelSize;
+
+    private final String owner = UUID.randomUUID().toString();
+    private final Map<String, TimingWheel.Timeout<DurableTimer>> armed = new ConcurrentHashMap<>();
+    private volatile Set<Integer> ownedShards = Set.of();
+    private volatile boolean running;
+    private TimingWheel<DurableTimer> wheel;
+    private Thread ticker;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            LOG.info("Durable timers are disabled");
+            return;
+        }
+        wheel = new TimingWheel<>(Math.max(1, tick.toMillis()), wheelSize, this::fire);
+        running = true;
+        ticker = Thread.ofPlatform().daemon().name("silat-timer-wheel").start(this::advanceLoop);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (ticker != null) {
+            ticker.interrupt();
+        }
+        if (enabled && !ownedShards.isEmpty()) {
+            try {
+                pgPool.preparedQuery("DELETE FROM workflow_timer_leases WHERE owner = $1")
+                        .execute(Tuple.of(owner))
+                        .await().atMost(Duration.ofSeconds(5));
+            } catch (RuntimeException e) {
+                LOG.debug("Could not release timer shard leases", e);
+            }
+        }
+    }
+
+    // ==================== TIMERS ====================
+
+    /**
+     * Persist the timer and arm it if due within the horizon. A stored timer
+     * of the same attempt is kept as it is, so planning the same dispatch
+     * again does not push its deadline back; a new attempt replaces it
+     */
+    public Uni<Void> schedule(DurableTimer timer) {
+        if (!enabled) {
+            return Uni.createFrom().voidItem();
+        }
+        return pgPool.preparedQuery("INSERT INTO workflow_timers"
+                + " (timer_id, shard, tenant_id, run_id, node_id, kind, attempt, fire_at)"
+                + " VALUES ($1, $2, $3, $4, $5, $6, $7, $8)"
+                + " ON CONFLICT (timer_id) DO UPDATE SET fire_at = EXCLUDED.fire_at, attempt = EXCLUDED.attempt"
+                + " WHERE workflow_timers.attempt <> EXCLUDED.attempt")
+                .execute(Tuple.from(List.of(
+                        timer.timerId(),
+                        shardOf(timer.runId()),
+                        timer.tenantId().value(),
+                        timer.runId().value(),
+                        timer.nodeId().value(),
+                        timer.kind().name(),
+                        timer.attempt(),
+                        timer.fireAt().atOffset(ZoneOffset.UTC))))
+                .invoke(rows -> {
+                    // Nothing written: the timer of this attempt is already stored and armed
+                    if (rows.rowCount() > 0
+                            && Duration.between(Instant.now(), timer.fireAt()).compareTo(horizon) < 0) {
+                        arm(timer);
+                    }
+                })
+                .replaceWithVoid();
+    }
+
+    /**
+     * Cancel the timer if it still belongs to {@code attempt}; a late call
+     * for an earlier attempt leaves the re-armed timer of a retry in place
+     */
+    public Uni<Void> cancel(WorkflowRunId runId, NodeId nodeId, DurableTimer.Kind kind, int attempt) {
+        if (!enabled) {
+            return Uni.createFrom().voidItem();
+        }
+        String timerId = DurableTimer.id(runId, nodeId, kind);
+        armed.computeIfPresent(timerId, (id, timeout) -> {
+            if (timeout.item().attempt() != attempt) {
+                return timeout;
+            }
+            timeout.cancel();
+            return null;
+        });
+        return pgPool.preparedQuery("DELETE FROM workflow_timers WHERE timer_id = $1 AND attempt = $2")
+                .execute(Tuple.of(timerId, attempt))
+                .replaceWithVoid();
+    }
+
+    /**
+     * Drop the run's stored timers; any still armed find no row when they
+     * fire and are discarded
+     */
+    public Uni<Void> cancelRun(WorkflowRunId runId) {
+        if (!enabled) {
+            return Uni.createFrom().voidItem();
+        }
+        return pgPool.preparedQuery("DELETE FROM workflow_timers WHERE run_id = $1")
+                .execute(Tuple.of(runId.value()))
+                .replaceWithVoid();
+    }
+
+    public int armedCount() {
+        return wheel != null ? wheel.size() : 0;
+    }
+
+    public Set<Integer> ownedShards() {
+        return ownedShards;
+    }
+
+    int shardOf(WorkflowRunId runId) {
+        return Math.floorMod(runId.value().hashCode(), shards);
+    }
+
+    private void arm(DurableTimer timer) {
+        long delay = Duration.between(Instant.now(), timer.fireAt()).toMillis();
+        TimingWheel.Timeout<DurableTimer> timeout = wheel.add(timer, delay);
+        TimingWheel.Timeout<DurableTimer> previous = armed.put(timer.timerId(), timeout);
+        if (previous != null && previous != timeout) {
+            previous.cancel();
+        }
+        if (!timeout.isPending()) {
+            // Already due and fired while being added
+            armed.remove(timer.timerId(), timeout);
+        }
+    }
+
+    // Runs on the wheel thread: claim the row and hand off, never block
+    private void fire(DurableTimer timer) {
+        armed.computeIfPresent(timer.timerId(), (id, timeout) -> timeout.item() == timer ? null : timeout);
+        pgPool.preparedQuery("DELETE FROM workflow_timers WHERE timer_id = $1 AND attempt = $2")
+                .execute(Tuple.of(timer.timerId(), timer.attempt()))
+                .subscribe().with(
+                        rows -> {
+                            if (rows.rowCount() > 0) {
+                                LOG.debug("Timer {} fired", timer.timerId());
+                                eventBus.publish(TIMER_FIRED, timer.toJson());
+                            }
+                        },
+                        error -> LOG.warn("Failed to claim timer {}", timer.timerId(), error));
+    }
+
+    private void advanceLoop() {
+        while (running) {
+            try {
+                wheel.advance(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                LOG.error("Timer wheel failed to advance", e);
+            }
+        }
+    }
+
+    // ==================== SHARDS ====================
+
+    @Scheduled(every = "${silat.timers.refresh-interval:15s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    Uni<Void> refresh() {
+        if (!enabled) {
+            return Uni.createFrom().voidItem();
+        }
+        return rebalanceLeases()
+                .chain(owned -> {
+                    ownedShards = owned;
+                    return owned.isEmpty()
+                            ? Uni.createFrom().voidItem()
+                            : loadDue(owned.toArray(Integer[]::new), Instant.EPOCH, "");
+                })
+                .onFailure().invoke(error -> LOG.warn("Failed to refresh timer shards", error))
+                .onFailure().recoverWithNull();
+    }
+
+    /**
+     * Renew this instance's leases, then release or claim shards so every
+     * live instance holds about the same number
+     */
+    Uni<Set<Integer>> rebalanceLeases() {
+        double ttlSeconds = leaseTtl.toMillis() / 1000.0;
+        return pgPool.preparedQuery("UPDATE workflow_timer_leases"
+                + " SET expires_at = now() + make_interval(secs => $2) WHERE owner = $1 RETURNING shard")
+                .execute(Tuple.of(owner, ttlSeconds))
+                .map(TimerService::shardsOf)
+                .chain(owned -> pgPool.preparedQuery("SELECT count(DISTINCT owner) AS owners"
+                        + " FROM workflow_timer_leases WHERE expires_at > now() AND owner <> $1")
+                        .execute(Tuple.of(owner))
+                        .chain(owners -> {
+                            long others = owners.iterator().next().getLong("owners");
+                            int fairShare = (int) Math.ceil(shards / (double) (others + 1));
+                            if (owned.size() > fairShare) {
+                                List<Integer> excess = new ArrayList<>(owned).subList(fairShare, owned.size());
+                                return pgPool.preparedQuery(
+                                        "DELETE FROM workflow_timer_leases WHERE owner = $1 AND shard = ANY($2)")
+                                        .execute(Tuple.of(owner, excess.toArray(Integer[]::new)))
+                                        .map(ignored -> {
+                                            Set<Integer> kept = new HashSet<>(owned);
+                                            excess.forEach(kept::remove);
+                                            return kept;
+                                        });
+                            }
+                            if (owned.size() == fairShare) {
+                                return Uni.createFrom().item(owned);
+                            }
+                            return pgPool.preparedQuery("INSERT INTO workflow_timer_leases (shard, owner, expires_at)"
+                                    + " SELECT s, $1, now() + make_interval(secs => $2)"
+                                    + " FROM generate_series(0, $3 - 1) s"
+                                    + " LEFT JOIN workflow_timer_leases l ON l.shard = s"
+                                    + " WHERE l.shard IS NULL OR l.expires_at < now()"
+                                    + " ORDER BY random() LIMIT $4"
+                                    + " ON CONFLICT (shard) DO UPDATE SET owner = EXCLUDED.owner,"
+                                    + " expires_at = EXCLUDED.expires_at"
+                                    + " WHERE workflow_timer_leases.expires_at < now()"
+                                    + " RETURNING shard")
+                                    .execute(Tuple.of(owner, ttlSeconds, shards, fairShare - owned.size()))
+                                    .map(claimed -> {
+                                        Set<Integer> all = new HashSet<>(owned);
+                                        all.addAll(shardsOf(claimed));
+                                        return all;
+                                    });
+                        }));
+    }
+
+    // Arms the shards' timers due within the horizon, page by page
+    private Uni<Void> loadDue(Integer[] owned, Instant afterFireAt, String afterTimerId) {
+        Instant until = Instant.now().plus(horizon);
+        return pgPool.preparedQuery("SELECT timer_id, tenant_id, run_id, node_id, kind, attempt, fire_at"
+                + " FROM workflow_timers WHERE shard = ANY($1) AND fire_at < $2"
+                + " AND (fire_at, timer_id) > ($3, $4) ORDER BY fire_at, timer_id LIMIT $5")
+                .execute(Tuple.from(List.of(owned, until.atOffset(ZoneOffset.UTC),
+                        afterFireAt.atOffset(ZoneOffset.UTC), afterTimerId, loadBatchSize)))
+                .chain(rows -> {
+                    DurableTimer last = null;
+                    int loaded = 0;
+                    for (Row row : rows) {
+                        last = toTimer(row);
+                        if (!armed.containsKey(last.timerId())) {
+                            arm(last);
+                            loaded++;
+                        }
+                    }
+                    if (loaded > 0) {
+                        LOG.debug("Armed {} stored timers", loaded);
+                    }
+                    if (last == null || rows.size() < loadBatchSize) {
+                        return Uni.createFrom().voidItem();
+                    }
+                    return loadDue(owned, last.fireAt(), last.timerId());
+                });
+    }
+
+    private static Set<Integer> shardsOf(Iterable<Row> rows) {
+        Set<Integer> shards = new HashSet<>();
+        rows.forEach(row -> shards.add(row.getInteger("shard")));
+        return shards;
+    }
+
+    private static DurableTimer toTimer(Row row) {
+        return new DurableTimer(
+                row.getString("timer_id"),
+                TenantId.of(row.getString("tenant_id")),
+                WorkflowRunId.of(row.getString("run_id")),
+                NodeId.of(row.getString("node_id")),
+                DurableTimer.Kind.valueOf(row.getString("kind")),
+                row.getInteger("attempt"),
+                row.getOffsetDateTime("fire_at").toInstant());
+    }
+}
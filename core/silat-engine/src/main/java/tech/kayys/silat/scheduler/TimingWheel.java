@@ -0,0 +1,300 @@
+package tech.kayys.silat.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel
+ *
+ * Each level is a ring of buckets, one per tick; a timer beyond the range
+ * of a level goes to the next, coarser one and cascades down as the clock
+ * reaches it. Only non-empty buckets are queued, so the thread calling
+ * {@link #advance(long)} sleeps until the next bucket is due rather than
+ * ticking, and adding or cancelling a timer is O(1) however many are
+ * pending.
+ */
+public final class TimingWheel<T> {
+
+    private final Consumer<T> onExpire;
+    private final DelayQueue<Bucket<T>> queue = new DelayQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Level root;
+
+    /**
+     * @param tickMs    resolution of the finest level
+     * @param wheelSize buckets per level
+     * @param onExpire  called with each expired item, on the thread that
+     *                  advances the wheel (or adds an already due item);
+     *                  it must hand work off rather than block
+     */
+    public TimingWheel(long tickMs, int wheelSize, Consumer<T> onExpire) {
+        if (tickMs < 1 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMs must be >= 1 and wheelSize >= 2");
+        }
+        this.onExpire = onExpire;
+        this.root = new Level(tickMs, wheelSize, now());
+    }
+
+    /**
+     * Arm a timer that expires after the delay; a due timer expires at once
+     */
+    public Timeout<T> add(T item, long delayMs) {
+        Timeout<T> timeout = new Timeout<>(this, item, now() + Math.max(delayMs, 0));
+        size.incrementAndGet();
+        boolean added;
+        lock.readLock().lock();
+        try {
+            added = root.add(timeout);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!added) {
+            expire(timeout);
+        }
+        return timeout;
+    }
+
+    /**
+     * Wait up to the timeout for the next due bucket and expire or cascade
+     * everything in it
+     *
+     * @return true if a bucket was processed
+     */
+    public boolean advance(long timeoutMs) throws InterruptedException {
+        Bucket<T> bucket = queue.poll(timeoutMs, TimeUnit.MILLISECONDS);
+        if (bucket == null) {
+            return false;
+        }
+        List<Timeout<T>> expired = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            while (bucket != null) {
+                root.advance(bucket.expiration());
+                for (Timeout<T> timeout : bucket.flush()) {
+                    if (!timeout.isCancelled() && !root.add(timeout)) {
+                        expired.add(timeout);
+                    }
+                }
+                bucket = queue.poll();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        expired.forEach(this::expire);
+        return true;
+    }
+
+    /**
+     * Pending timers
+     */
+    public int size() {
+        return size.get();
+    }
+
+    private void expire(Timeout<T> timeout) {
+        if (timeout.markDone()) {
+            size.decrementAndGet();
+            onExpire.accept(timeout.item());
+        }
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    /**
+     * A pending timer
+     */
+    public static final class Timeout<T> {
+
+        private final TimingWheel<T> wheel;
+        private final T item;
+        private final long expirationMs;
+        private final AtomicInteger state = new AtomicInteger(); // 0 pending, 1 expired, 2 cancelled
+        private volatile Bucket<T> bucket;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(TimingWheel<T> wheel, T item, long expirationMs) {
+            this.wheel = wheel;
+            this.item = item;
+            this.expirationMs = expirationMs;
+        }
+
+        public T item() {
+            return item;
+        }
+
+        /**
+         * @return true if the timer was still pending
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(0, 2)) {
+                return false;
+            }
+            wheel.size.decrementAndGet();
+            Bucket<T> current;
+            while ((current = bucket) != null) {
+                current.remove(this);
+            }
+            return true;
+        }
+
+        public boolean isPending() {
+            return state.get() == 0;
+        }
+
+        boolean isCancelled() {
+            return state.get() == 2;
+        }
+
+        private boolean markDone() {
+            return state.compareAndSet(0, 1);
+        }
+    }
+
+    private final class Level {
+
+        private final long tickMs;
+        private final int wheelSize;
+        private final long interval;
+        private final List<Bucket<T>> buckets;
+        private volatile long currentTime;
+        private volatile Level overflow;
+
+        Level(long tickMs, int wheelSize, long startMs) {
+            this.tickMs = tickMs;
+            this.wheelSize = wheelSize;
+            this.interval = tickMs * wheelSize;
+            this.buckets = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                buckets.add(new Bucket<>());
+            }
+            this.currentTime = startMs - (startMs % tickMs);
+        }
+
+        // False when the timer is already due
+        boolean add(Timeout<T> timeout) {
+            long expiration = timeout.expirationMs;
+            if (expiration < currentTime + tickMs) {
+                return false;
+            }
+            if (expiration < currentTime + interval) {
+                long virtualId = expiration / tickMs;
+                Bucket<T> bucket = buckets.get((int) (virtualId % wheelSize));
+                bucket.add(timeout);
+                if (bucket.setExpiration(virtualId * tickMs)) {
+                    queue.offer(bucket);
+                }
+                return true;
+            }
+            return overflow().add(timeout);
+        }
+
+        void advance(long timeMs) {
+            if (timeMs >= currentTime + tickMs) {
+                currentTime = timeMs - (timeMs % tickMs);
+                Level next = overflow;
+                if (next != null) {
+                    next.advance(currentTime);
+                }
+            }
+        }
+
+        private Level overflow() {
+            Level next = overflow;
+            if (next == null) {
+                synchronized (this) {
+                    next = overflow;
+                    if (next == null) {
+                        next = new Level(interval, wheelSize, currentTime);
+                        overflow = next;
+                    }
+                }
+            }
+            return next;
+        }
+    }
+
+    private static final class Bucket<T> implements Delayed {
+
+        private final AtomicLong expiration = new AtomicLong(-1);
+        private Timeout<T> head;
+        private Timeout<T> tail;
+
+        synchronized void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        synchronized void remove(Timeout<T> timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        synchronized List<Timeout<T>> flush() {
+            List<Timeout<T>> flushed = new ArrayList<>();
+            Timeout<T> current = head;
+            while (current != null) {
+                Timeout<T> next = current.next;
+                current.prev = null;
+                current.next = null;
+                current.bucket = null;
+                flushed.add(current);
+                current = next;
+            }
+            head = null;
+            tail = null;
+            expiration.set(-1);
+            return flushed;
+        }
+
+        // True when the bucket was reused for a new tick and must be queued again
+        boolean setExpiration(long expirationMs) {
+            return expiration.getAndSet(expirationMs) != expirationMs;
+        }
+
+        long expiration() {
+            return expiration.get();
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Math.max(expiration.get() - now(), 0), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(expiration.get(), ((Bucket<?>) other).expiration.get());
+        }
+    }
+}
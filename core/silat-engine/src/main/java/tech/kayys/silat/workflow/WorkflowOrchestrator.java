@@ -10,11 +10,20 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import tech.kayys.silat.api.engine.WorkflowRunManager;
 import tech.kayys.silat.api.repository.WorkflowRunRepository;
+import tech.kayys.silat.cluster.RoutedCalls;
+import tech.kayys.silat.cluster.RunOwnership;
+import tech.kayys.silat.execution.DefaultNodeExecutionResult;
 import tech.kayys.silat.execution.NodeExecutionResult;
+import tech.kayys.silat.execution.NodeExecutionStatus;
 import tech.kayys.silat.execution.NodeExecutionTask;
 import tech.kayys.silat.model.*;
 import tech.kayys.silat.registry.ExecutorRegistry;
+import tech.kayys.silat.scheduler.DurableTimer;
+import tech.kayys.silat.scheduler.TimerService;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -45,7 +54,16 @@ public class WorkflowOrchestrator {
     ExecutorRegistry executorRegistry;
 
     @Inject
-    tech.kayys.silat.dispatcher.TaskDispatcherAggregator taskDispatcher;
+    tech.kayys.silat.dispatcher.FairDispatchQueue dispatchQueue;
+
+    @Inject
+    tech.kayys.silat.dispatcher.TaskHedging hedging;
+
+    @Inject
+    TimerService timerService;
+
+    @Inject
+    RunOwnership ownership;
 
     @jakarta.annotation.PostConstruct
     void init() {
@@ -54,36 +72,103 @@ public class WorkflowOrchestrator {
         // 1. Listen for results from executors
         eventBus.<JsonObject>consumer("silat.results")
                 .handler(msg -> {
-                    NodeExecutionResult result = msg.body().mapTo(NodeExecutionResult.class);
+                    NodeExecutionResult result;
+                    try {
+                        result = msg.body().mapTo(NodeExecutionResult.class);
+                    } catch (RuntimeException e) {
+                        LOG.error("Dropping unreadable node result: {}", msg.body(), e);
+                        msg.fail(400, String.valueOf(e.getMessage()));
+                        return;
+                    }
                     LOG.info("Received node result: run={}, node={}, status={}",
                             result.runId().value(), result.nodeId().value(), result.status());
 
                     runManager.handleNodeResult(result.runId(), result)
                             .subscribe().with(
-                                    v -> LOG.debug("Result handled for run: {}", result.runId().value()),
-                                    error -> LOG.error("Failed to handle result for run: {}", result.runId().value(),
-                                            error));
+                                    v -> {
+                                        LOG.debug("Result handled for run: {}", result.runId().value());
+                                        msg.reply(null);
+                                    },
+                                    error -> {
+                                        LOG.error("Failed to handle result for run: {}", result.runId().value(),
+                                                error);
+                                        msg.fail(500, String.valueOf(error.getMessage()));
+                                    });
                 });
 
-        // 2. Listen for run updates to drive the workflow
+        // 2. Listen for run updates to drive the workflow on the run's owner;
+        // the reply tells a bridged notification (see ClusterNotifications) it was taken
         eventBus.<String>consumer("silat.runs.v1.updated")
                 .handler(msg -> {
                     String runId = msg.body();
                     System.out.println("WorkflowOrchestrator SEVERE LOG: Received run update for " + runId);
                     LOG.info("Driving workflow run: {}", runId);
-                    drive(WorkflowRunId.of(runId))
+                    driveOnOwner(WorkflowRunId.of(runId))
                             .subscribe().with(
                                     v -> {
                                         System.out.println(
                                                 "WorkflowOrchestrator SEVERE LOG: Drive cycle completed for " + runId);
                                         LOG.info("Drive cycle completed for run: {}", runId);
+                                        msg.reply(null);
                                     },
                                     error -> {
                                         System.out.println(
                                                 "WorkflowOrchestrator SEVERE LOG: Drive cycle failed for " + runId);
                                         LOG.error("Drive cycle failed for run: {}", runId, error);
+                                        msg.fail(500, String.valueOf(error.getMessage()));
                                     });
                 });
+
+        eventBus.<JsonObject>consumer(RunOwnership.address(RoutedCalls.DRIVE))
+                .handler(msg -> drive(WorkflowRunId.of(msg.body().getString("runId")))
+                        .subscribe().with(
+                                ignored -> msg.reply(null),
+                                failure -> msg.fail(500, String.valueOf(failure.getMessage()))));
+
+        // 3. Timers: TIMER nodes, node timeouts and wait expirations
+        eventBus.<JsonObject>consumer(TimerService.TIMER_FIRED)
+                .handler(msg -> {
+                    DurableTimer timer = DurableTimer.fromJson(msg.body());
+                    onTimer(timer).subscribe().with(
+                            v -> LOG.debug("Timer handled: {}", timer.timerId()),
+                            error -> LOG.error("Failed to handle timer {}", timer.timerId(), error));
+                });
+    }
+
+    Uni<Void> onTimer(DurableTimer timer) {
+        return switch (timer.kind()) {
+            case TIMER_NODE -> runManager.handleNodeResult(timer.runId(), new DefaultNodeExecutionResult(
+                    timer.runId(),
+                    timer.nodeId(),
+                    timer.attempt(),
+                    NodeExecutionStatus.COMPLETED,
+                    Map.of("firedAt", timer.fireAt().toString()),
+                    null,
+                    null));
+            // A late result for the same attempt is ignored as already processed
+            case NODE_TIMEOUT -> runManager.handleNodeResult(timer.runId(), new DefaultNodeExecutionResult(
+                    timer.runId(),
+                    timer.nodeId(),
+                    timer.attempt(),
+                    NodeExecutionStatus.FAILED,
+                    Map.of(),
+                    new ErrorInfo(
+                            "NODE_TIMEOUT",
+                            "Node " + timer.nodeId().value() + " did not finish within its timeout",
+                            null,
+                            Map.of("nodeId", timer.nodeId().value(), "attempt", timer.attempt())),
+                    null));
+            case WAIT_EXPIRY -> runManager.expireWait(timer.runId(), timer.tenantId(), timer.nodeId());
+        };
+    }
+
+    /**
+     * Drive the run on the instance owning it. Results are applied on the
+     * owner too, so a task's dispatch slot and hedge timer are freed on the
+     * instance that took them
+     */
+    Uni<Void> driveOnOwner(WorkflowRunId runId) {
+        return ownership.route(runId, RoutedCalls.DRIVE, JsonObject::new, () -> drive(runId));
     }
 
     /**
@@ -139,6 +224,17 @@ public class WorkflowOrchestrator {
 
         NodeDefinition node = nodeOpt.get();
 
+        if (node.type() == NodeType.TIMER) {
+            // Completed by the timer service, no executor involved
+            return timerService.schedule(DurableTimer.of(
+                    DurableTimer.Kind.TIMER_NODE, run.getTenantId(), run.getId(), nodeId, 1, timerFireAt(node)));
+        }
+
+        if (node.type() == NodeType.SUB_WORKFLOW) {
+            // Runs as child runs, each planned and persisted on its own
+            return runManager.startSubWorkflow(run.getId(), nodeId);
+        }
+
         return executorRegistry.getExecutorForNode(nodeId)
                 .flatMap(execOpt -> {
                     if (execOpt.isEmpty()) {
@@ -160,8 +256,44 @@ public class WorkflowOrchestrator {
                                         node.configuration(),
                                         node.retryPolicy());
 
-                                return taskDispatcher.dispatch(task, executor);
+                                return dispatchQueue.submit(run.getTenantId(), definition, task, executor)
+                                        .invoke(() -> {
+                                            if (tech.kayys.silat.dispatcher.TaskHedging.isHedged(node)) {
+                                                hedging.watch(task, executor);
+                                            }
+                                        })
+                                        .call(() -> node.timeout() == null
+                                                ? Uni.createFrom().voidItem()
+                                                : timerService.schedule(DurableTimer.of(
+                                                        DurableTimer.Kind.NODE_TIMEOUT,
+                                                        run.getTenantId(),
+                                                        run.getId(),
+                                                        nodeId,
+                                                        task.attempt(),
+                                                        Instant.now().plus(node.timeout()))));
                             });
                 });
     }
+
+    /**
+     * A TIMER node fires at its {@code until} instant, or {@code duration}
+     * (ISO-8601 or milliseconds) after being reached
+     */
+    static Instant timerFireAt(NodeDefinition node) {
+        Object until = node.configuration().get("until");
+        if (until != null) {
+            return Instant.parse(until.toString());
+        }
+        Object duration = node.configuration().get("duration");
+        if (duration instanceof Number millis) {
+            return Instant.now().plusMillis(millis.longValue());
+        }
+        if (duration != null) {
+            String value = duration.toString();
+            return Instant.now().plus(value.startsWith("P") || value.startsWith("p")
+                    ? Duration.parse(value)
+                    : Duration.ofMillis(Long.parseLong(value)));
+        }
+        return Instant.now();
+    }
 }
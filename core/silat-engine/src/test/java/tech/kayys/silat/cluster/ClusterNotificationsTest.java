@@ -0,0 +1,221 @@
+package tech.kayys.silat.cluster;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.json.JsonObject;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.core.eventbus.Message;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.PreparedQuery;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.Tuple;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ClusterNotificationsTest {
+
+    private static final String UPDATED = "silat.runs.v1.updated";
+    private static final String COMPLETED = "silat.runs.v1.completed";
+
+    private final List<List<String>> sent = new CopyOnWriteArrayList<>();
+    private final List<Message<String>> received = new CopyOnWriteArrayList<>();
+    private Vertx vertx;
+    private ClusterNotifications notifications;
+    private final List<Tuple> notified = new CopyOnWriteArrayList<>();
+    private final AtomicReference<Consumer<String>> broadcasts = new AtomicReference<>();
+    private volatile boolean sendFails;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        vertx = Vertx.vertx();
+        notifications = new ClusterNotifications();
+        notifications.transportName = "test";
+        notifications.batchSize = 100;
+        notifications.linger = Duration.ofMillis(20);
+        notifications.deliveryTimeout = Duration.ofSeconds(5);
+        notifications.eventBus = vertx.eventBus();
+        notifications.meterRegistry = new SimpleMeterRegistry();
+        notifications.membership = new ClusterMembership();
+        notifications.membership.configuredInstanceId = Optional.of("a");
+        notifications.membership.virtualNodes = 8;
+        notifications.membership.init();
+        notifications.pgPool = mock(Pool.class);
+        PreparedQuery<RowSet<Row>> notify = mock(PreparedQuery.class);
+        when(notifications.pgPool.preparedQuery(anyString())).thenReturn(notify);
+        when(notify.execute(any(Tuple.class))).thenAnswer(invocation -> {
+            notified.add(invocation.getArgument(0));
+            return Uni.createFrom().nullItem();
+        });
+        notifications.channels = mock(PgChannels.class);
+        when(notifications.channels.listen(eq(ClusterNotifications.BROADCAST_CHANNEL), any(Consumer.class)))
+                .thenAnswer(invocation -> {
+                    broadcasts.set(invocation.getArgument(1));
+                    return true;
+                });
+        notifications.start(new FakeTransport());
+    }
+
+    @AfterEach
+    void tearDown() {
+        vertx.closeAndAwait();
+    }
+
+    @Test
+    void publishedUpdates_leaveThroughTheTransportCoalesced() throws InterruptedException {
+        consume(message -> message.reply(null));
+
+        for (int i = 0; i < 3; i++) {
+            vertx.eventBus().publish(UPDATED, "run-1");
+        }
+        vertx.eventBus().publish(UPDATED, "run-2");
+        Thread.sleep(200);
+
+        assertEquals(1, sent.size());
+        assertEquals(List.of("run-1", "run-2"),
+                sent.get(0).stream().map(raw -> new JsonObject(raw).getString("body")).toList());
+        assertTrue(received.isEmpty());
+        assertEquals(2.0, notifications.meterRegistry.get("silat.cluster.notifications")
+                .tag("outcome", "coalesced").counter().count());
+    }
+
+    @Test
+    void deliveredBatch_isAcknowledgedOnceTheConsumersAnswered() {
+        consume(message -> vertx.setTimer(100, id -> message.reply(null)));
+
+        long start = System.nanoTime();
+        notifications.deliver(List.of(notification("run-1"), notification("run-1"), notification("run-2")))
+                .await().atMost(Duration.ofSeconds(5));
+
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(100).toNanos());
+        assertEquals(List.of("run-1", "run-2"), received.stream().map(Message::body).sorted().toList());
+        assertTrue(received.stream().allMatch(message -> message.headers().contains(ClusterNotifications.BRIDGED)));
+        // Delivered notifications are not bridged again
+        assertTrue(sent.isEmpty());
+    }
+
+    @Test
+    void failingConsumer_stillTookTheNotification() {
+        consume(message -> message.fail(500, "drive failed"));
+
+        notifications.deliver(List.of(notification("run-1"))).await().atMost(Duration.ofSeconds(5));
+
+        assertEquals(1, received.size());
+    }
+
+    @Test
+    void consumerThatNeverAnswers_leavesTheBatchUnacknowledged() {
+        notifications.deliveryTimeout = Duration.ofMillis(100);
+        consume(message -> {
+        });
+
+        assertThrows(RuntimeException.class,
+                () -> notifications.deliver(List.of(notification("run-1"))).await().atMost(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void batchTheTransportCannotTake_isHandledLocally() throws InterruptedException {
+        sendFails = true;
+        consume(message -> message.reply(null));
+
+        vertx.eventBus().publish(UPDATED, "run-1");
+        Thread.sleep(200);
+
+        assertEquals(List.of("run-1"), received.stream().map(Message::body).toList());
+    }
+
+    @Test
+    void completions_reachTheLocalConsumersAndEveryOtherInstance() throws InterruptedException {
+        List<Message<String>> completed = new CopyOnWriteArrayList<>();
+        vertx.eventBus().<String>consumer(COMPLETED).handler(completed::add);
+
+        vertx.eventBus().publish(COMPLETED, "run-1");
+        Thread.sleep(100);
+
+        assertEquals(List.of("run-1"), completed.stream().map(Message::body).toList());
+        assertTrue(sent.isEmpty());
+        assertEquals(1, notified.size());
+        assertEquals(ClusterNotifications.BROADCAST_CHANNEL, notified.get(0).getString(0));
+        JsonObject payload = new JsonObject(notified.get(0).getString(1));
+        assertEquals("a", payload.getString("origin"));
+        assertEquals(COMPLETED, payload.getString("address"));
+        assertEquals("run-1", payload.getString("body"));
+    }
+
+    @Test
+    void broadcastsOfOtherInstances_arePublishedLocallyOnce() throws InterruptedException {
+        List<Message<String>> completed = new CopyOnWriteArrayList<>();
+        vertx.eventBus().<String>consumer(COMPLETED).handler(completed::add);
+
+        broadcasts.get().accept(null);
+        broadcasts.get().accept(broadcast("b", "run-2"));
+        // Our own broadcast comes back too; its consumers already had it
+        broadcasts.get().accept(broadcast("a", "run-3"));
+        Thread.sleep(100);
+
+        assertEquals(List.of("run-2"), completed.stream().map(Message::body).toList());
+        assertTrue(completed.get(0).headers().contains(ClusterNotifications.BRIDGED));
+        assertTrue(notified.isEmpty());
+    }
+
+    private static String broadcast(String origin, String runId) {
+        return new JsonObject().put("origin", origin).put("address", COMPLETED).put("body", runId).encode();
+    }
+
+    private void consume(java.util.function.Consumer<Message<String>> reply) {
+        vertx.eventBus().<String>consumer(UPDATED).handler(message -> {
+            received.add(message);
+            reply.accept(message);
+        });
+    }
+
+    private static String notification(String runId) {
+        return new JsonObject()
+                .put("address", UPDATED)
+                .put("body", runId)
+                .put("publishedAt", System.currentTimeMillis())
+                .encode();
+    }
+
+    private class FakeTransport implements ClusterTransport {
+
+        @Override
+        public String name() {
+            return "test";
+        }
+
+        @Override
+        public Uni<Void> send(List<String> batch) {
+            if (sendFails) {
+                return Uni.createFrom().failure(new IllegalStateException("transport down"));
+            }
+            sent.add(batch);
+            return Uni.createFrom().voidItem();
+        }
+
+        @Override
+        public void start(String consumer, Function<List<String>, Uni<Void>> handler) {
+        }
+
+        @Override
+        public void stop() {
+        }
+    }
+}
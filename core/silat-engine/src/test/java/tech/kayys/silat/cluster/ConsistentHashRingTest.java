@@ -0,0 +1,67 @@
+package tech.kayys.silat.cluster;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 30_000;
+
+    @Test
+    void ownerOf_spreadsRunsEvenlyOverTheMembers() {
+        ConsistentHashRing ring = new ConsistentHashRing(Set.of("a", "b", "c"), 128);
+
+        Map<String, Integer> owned = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            owned.merge(ring.ownerOf("run-" + i), 1, Integer::sum);
+        }
+
+        assertEquals(Set.of("a", "b", "c"), owned.keySet());
+        for (int count : owned.values()) {
+            double share = count / (double) KEYS;
+            assertTrue(share > 0.25 && share < 0.42, "share was " + share);
+        }
+    }
+
+    @Test
+    void joiningMember_takesRunsOnlyFromTheOthers() {
+        ConsistentHashRing before = new ConsistentHashRing(Set.of("a", "b", "c"), 128);
+        ConsistentHashRing after = new ConsistentHashRing(Set.of("a", "b", "c", "d"), 128);
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String key = "run-" + i;
+            if (!before.ownerOf(key).equals(after.ownerOf(key))) {
+                assertEquals("d", after.ownerOf(key));
+                moved++;
+            }
+        }
+
+        double share = moved / (double) KEYS;
+        assertTrue(share > 0.15 && share < 0.35, "moved " + share);
+    }
+
+    @Test
+    void ownerOf_doesNotDependOnTheOrderMembersAreListed() {
+        ConsistentHashRing one = new ConsistentHashRing(List.of("a", "b", "c"), 16);
+        ConsistentHashRing other = new ConsistentHashRing(List.of("c", "a", "b", "a"), 16);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(one.ownerOf("run-" + i), other.ownerOf("run-" + i));
+        }
+    }
+
+    @Test
+    void emptyRing_ownsNothing() {
+        ConsistentHashRing ring = new ConsistentHashRing(Set.of(), 16);
+
+        assertTrue(ring.isEmpty());
+        assertNull(ring.ownerOf("run-1"));
+    }
+}
@@ -0,0 +1,254 @@
+package tech.kayys.silat.cluster;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.redis.datasource.pubsub.ReactivePubSubCommands;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.json.JsonObject;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.redis.client.Response;
+import tech.kayys.silat.execution.DefaultNodeExecutionResult;
+import tech.kayys.silat.execution.NodeExecutionResult;
+import tech.kayys.silat.execution.NodeExecutionStatus;
+import tech.kayys.silat.model.ErrorInfo;
+import tech.kayys.silat.model.NodeId;
+import tech.kayys.silat.model.TenantId;
+import tech.kayys.silat.model.WorkflowRun;
+import tech.kayys.silat.model.WorkflowRunId;
+import tech.kayys.silat.model.WorkflowRunSnapshot;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RunOwnershipTest {
+
+    private static final TenantId TENANT = TenantId.of("tenant-a");
+
+    // Stands in for Redis: a message published to an instance's channel reaches it
+    private final Map<String, RunOwnership> channels = new HashMap<>();
+    private final AtomicInteger localCalls = new AtomicInteger();
+    private Vertx vertxA;
+    private Vertx vertxB;
+    private RunOwnership a;
+    private RunOwnership b;
+
+    @BeforeEach
+    void setUp() {
+        vertxA = Vertx.vertx();
+        vertxB = Vertx.vertx();
+        a = instance("a", vertxA);
+        b = instance("b", vertxB);
+        a.membership.update(Set.of("a", "b"));
+        b.membership.update(Set.of("a", "b"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        vertxA.closeAndAwait();
+        vertxB.closeAndAwait();
+    }
+
+    @Test
+    void ownRun_isAppliedLocally() {
+        WorkflowRunId runId = runOwnedBy("a");
+
+        a.route(runId, RoutedCalls.RESULT, JsonObject::new, this::local).await().atMost(Duration.ofSeconds(5));
+
+        assertEquals(1, localCalls.get());
+    }
+
+    @Test
+    void otherInstancesRun_isAppliedOnItsOwner() {
+        WorkflowRunId runId = runOwnedBy("b");
+        AtomicReference<JsonObject> applied = new AtomicReference<>();
+        vertxB.eventBus().<JsonObject>consumer(RunOwnership.address(RoutedCalls.RESULT)).handler(message -> {
+            applied.set(message.body());
+            message.reply(null);
+        });
+        NodeExecutionResult result = new DefaultNodeExecutionResult(runId, NodeId.of("charge"), 2,
+                NodeExecutionStatus.FAILED, Map.of("amount", 42),
+                new ErrorInfo("DECLINED", "card declined", null, Map.of("retry", false)), null);
+
+        a.route(runId, RoutedCalls.RESULT, () -> RoutedCalls.toJson(result), this::local)
+                .await().atMost(Duration.ofSeconds(5));
+
+        assertEquals(0, localCalls.get());
+        assertEquals(runId.value(), applied.get().getString("runId"));
+        NodeExecutionResult received = RoutedCalls.resultFrom(applied.get());
+        assertEquals(result.nodeId(), received.nodeId());
+        assertEquals(2, received.attempt());
+        assertEquals(NodeExecutionStatus.FAILED, received.status());
+        assertEquals(42, received.output().get("amount"));
+        assertEquals("DECLINED", received.error().code());
+        assertEquals(1.0, a.meterRegistry.get("silat.cluster.routed").tag("outcome", "forwarded").counter()
+                .count());
+    }
+
+    @Test
+    void failureOnTheOwner_reachesTheCaller() {
+        WorkflowRunId runId = runOwnedBy("b");
+        vertxB.eventBus().<JsonObject>consumer(RunOwnership.address(RoutedCalls.SIGNAL))
+                .handler(message -> message.fail(500, "WorkflowRun not found"));
+
+        Uni<Void> routed = a.route(runId, RoutedCalls.SIGNAL, JsonObject::new, this::local);
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> routed.await().atMost(Duration.ofSeconds(5)));
+        assertEquals("WorkflowRun not found", error.getMessage());
+        assertEquals(0, localCalls.get());
+    }
+
+    @Test
+    void ownerThatCannotApplyIt_leavesItToTheCaller() {
+        WorkflowRunId runId = runOwnedBy("b");
+
+        a.route(runId, RoutedCalls.SIGNAL, JsonObject::new, this::local).await().atMost(Duration.ofSeconds(5));
+
+        assertEquals(1, localCalls.get());
+    }
+
+    @Test
+    void ownerNotListening_leavesItToTheCaller() {
+        a.membership.update(Set.of("a", "gone"));
+        WorkflowRunId runId = runOwnedBy("gone");
+
+        a.route(runId, RoutedCalls.RESULT, JsonObject::new, this::local).await().atMost(Duration.ofSeconds(5));
+
+        assertEquals(1, localCalls.get());
+        assertEquals(1.0, a.meterRegistry.get("silat.cluster.routed").tag("outcome", "local").counter().count());
+    }
+
+    @Test
+    void ownerThatDoesNotConfirmInTime_failsTheCallWithoutApplyingItLocally() {
+        WorkflowRunId runId = runOwnedBy("b");
+        vertxB.eventBus().<JsonObject>consumer(RunOwnership.address(RoutedCalls.RESULT)).handler(message -> {
+            // Still applying it when the caller gives up
+        });
+
+        Uni<Void> routed = a.route(runId, RoutedCalls.RESULT, JsonObject::new, this::local);
+
+        assertThrows(RunOwnership.RoutingTimeoutException.class,
+                () -> routed.await().atMost(Duration.ofSeconds(5)));
+        assertEquals(0, localCalls.get());
+        assertEquals(1.0, a.meterRegistry.get("silat.cluster.routed").tag("outcome", "timeout").counter()
+                .count());
+    }
+
+    @Test
+    void ownerLeavingTheRing_failsItsUnconfirmedCallsAtOnce() {
+        a.timeout = Duration.ofSeconds(30);
+        WorkflowRunId runId = runOwnedBy("b");
+        vertxB.eventBus().<JsonObject>consumer(RunOwnership.address(RoutedCalls.SIGNAL)).handler(message -> {
+            // Never confirmed: b goes down while applying it
+        });
+        Uni<Void> routed = a.route(runId, RoutedCalls.SIGNAL, JsonObject::new, this::local).memoize().indefinitely();
+        routed.subscribe().with(ignored -> {
+        }, ignored -> {
+        });
+
+        a.membership.update(Set.of("a"));
+
+        assertThrows(RunOwnership.RoutingTimeoutException.class,
+                () -> routed.await().atMost(Duration.ofSeconds(2)));
+        assertEquals(0, localCalls.get());
+    }
+
+    @Test
+    void membershipChange_handsOffTheSnapshotsOfRunsThatMoved() {
+        a.membership.update(Set.of("a"));
+        List<WorkflowRunId> runs = java.util.stream.IntStream.range(0, 200)
+                .mapToObj(i -> WorkflowRunId.of("run-" + i)).toList();
+        runs.forEach(runId -> a.remember(run(runId)));
+        assertTrue(runs.stream().allMatch(runId -> a.snapshot(runId, TENANT).isPresent()));
+
+        a.membership.update(Set.of("a", "b"));
+
+        for (WorkflowRunId runId : runs) {
+            Optional<WorkflowRunSnapshot> snapshot = a.snapshot(runId, TENANT);
+            assertEquals(a.membership.isLocal(runId.value()), snapshot.isPresent(), runId.value());
+        }
+        assertTrue(a.snapshot(runs.get(0), TenantId.of("tenant-b")).isEmpty());
+    }
+
+    @SuppressWarnings("unchecked")
+    private RunOwnership instance(String id, Vertx vertx) {
+        ClusterMembership membership = new ClusterMembership();
+        membership.enabled = true;
+        membership.configuredInstanceId = Optional.of(id);
+        membership.virtualNodes = 64;
+        membership.init();
+
+        RunOwnership ownership = new RunOwnership();
+        ownership.enabled = true;
+        ownership.timeout = Duration.ofMillis(300);
+        ownership.snapshotTtl = Duration.ofMinutes(1);
+        ownership.snapshotCacheSize = 1_000;
+        ownership.membership = membership;
+        ownership.eventBus = vertx.eventBus();
+        ownership.meterRegistry = new SimpleMeterRegistry();
+        ReactivePubSubCommands<String> pubsub = mock(ReactivePubSubCommands.class);
+        when(pubsub.subscribe(anyString(), any(Consumer.class)))
+                .thenReturn(Uni.createFrom().item(mock(ReactivePubSubCommands.ReactiveRedisSubscriber.class)));
+        when(pubsub.publish(anyString(), anyString())).thenAnswer(invocation -> {
+            RunOwnership target = channels.get(invocation.<String>getArgument(0));
+            if (target != null) {
+                target.onMessage(invocation.getArgument(1));
+            }
+            return Uni.createFrom().voidItem();
+        });
+        ownership.redis = mock(ReactiveRedisDataSource.class);
+        when(ownership.redis.pubsub(String.class)).thenReturn(pubsub);
+        when(ownership.redis.execute(eq("PUBLISH"), any(String[].class))).thenAnswer(invocation -> {
+            RunOwnership target = channels.get(invocation.<String>getArgument(1));
+            if (target != null) {
+                target.onMessage(invocation.getArgument(2));
+            }
+            Response receivers = mock(Response.class);
+            when(receivers.toLong()).thenReturn(target != null ? 1L : 0L);
+            return Uni.createFrom().item(receivers);
+        });
+        ownership.onStart(null);
+        channels.put("silat:cluster:" + id, ownership);
+        return ownership;
+    }
+
+    private Uni<Void> local() {
+        localCalls.incrementAndGet();
+        return Uni.createFrom().voidItem();
+    }
+
+    private WorkflowRunId runOwnedBy(String instanceId) {
+        for (int i = 0;; i++) {
+            WorkflowRunId runId = WorkflowRunId.of("run-" + i);
+            if (instanceId.equals(a.membership.ownerOf(runId.value()))) {
+                return runId;
+            }
+        }
+    }
+
+    private static WorkflowRun run(WorkflowRunId runId) {
+        WorkflowRun run = mock(WorkflowRun.class);
+        when(run.getId()).thenReturn(runId);
+        when(run.createSnapshot()).thenReturn(new WorkflowRunSnapshot(runId, TENANT, null, null, Map.of(),
+                Map.of(), List.of(), Instant.now(), null, null, 1));
+        return run;
+    }
+}
@@ -0,0 +1,154 @@
+package tech.kayys.silat.dispatcher;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import tech.kayys.silat.dispatcher.ExecutorConcurrencyLimit.CircuitState;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutorConcurrencyLimitTest {
+
+    private static final long MS = 1_000_000L;
+
+    private static ExecutorConcurrencyLimit limit(int initial) {
+        return new ExecutorConcurrencyLimit(new ExecutorConcurrencyLimit.Settings(
+                initial, 1, 100, 2.0, 0.5, 10, 4, 0.5, Duration.ofSeconds(30)));
+    }
+
+    @Test
+    void tryAcquire_stopsAtTheLimit() {
+        ExecutorConcurrencyLimit limit = limit(2);
+
+        assertTrue(limit.tryAcquire(0));
+        assertTrue(limit.tryAcquire(0));
+        assertFalse(limit.tryAcquire(0));
+        assertEquals(2, limit.inFlight());
+    }
+
+    @Test
+    void fastResults_raiseTheLimit() {
+        ExecutorConcurrencyLimit limit = limit(2);
+
+        for (int i = 0; i < 20; i++) {
+            limit.tryAcquire(0);
+            limit.onResult(10 * MS);
+        }
+
+        assertTrue(limit.limit() > 2, "limit was " + limit.limit());
+    }
+
+    @Test
+    void slowResults_cutTheLimit() {
+        ExecutorConcurrencyLimit limit = limit(16);
+        limit.tryAcquire(0);
+        limit.onResult(10 * MS);
+
+        limit.tryAcquire(0);
+        limit.onResult(100 * MS);
+
+        assertEquals(8, limit.limit());
+    }
+
+    @Test
+    void limit_neverDropsBelowTheMinimum() {
+        ExecutorConcurrencyLimit limit = limit(2);
+
+        for (int i = 0; i < 10; i++) {
+            limit.tryAcquire(0);
+            limit.onLost(0);
+        }
+
+        assertEquals(1, limit.limit());
+    }
+
+    @Test
+    void freedSlot_isHandedToTheFirstWaiter() {
+        ExecutorConcurrencyLimit limit = limit(1);
+        limit.tryAcquire(0);
+        CompletableFuture<Void> first = limit.await();
+        CompletableFuture<Void> second = limit.await();
+
+        assertSame(first, limit.onResult(10 * MS));
+        assertEquals(1, limit.inFlight());
+        assertFalse(second.isDone());
+    }
+
+    @Test
+    void waiterThatGaveUp_isSkipped() {
+        ExecutorConcurrencyLimit limit = limit(1);
+        limit.tryAcquire(0);
+        limit.await().cancel(false);
+        CompletableFuture<Void> second = limit.await();
+
+        assertSame(second, limit.release());
+    }
+
+    @Test
+    void dispatchFailures_openTheCircuit() {
+        ExecutorConcurrencyLimit limit = limit(10);
+        for (int i = 0; i < 2; i++) {
+            limit.tryAcquire(0);
+            limit.onDispatched(0);
+        }
+        for (int i = 0; i < 2; i++) {
+            limit.tryAcquire(0);
+            limit.onDispatchFailed(0);
+        }
+
+        assertEquals(CircuitState.OPEN, limit.state());
+        assertFalse(limit.tryAcquire(Duration.ofSeconds(10).toNanos()));
+        assertFalse(limit.accepting(Duration.ofSeconds(10).toNanos()));
+    }
+
+    @Test
+    void failuresBelowTheRequestVolume_keepTheCircuitClosed() {
+        ExecutorConcurrencyLimit limit = limit(10);
+        for (int i = 0; i < 3; i++) {
+            limit.tryAcquire(0);
+            limit.onDispatchFailed(0);
+        }
+
+        assertEquals(CircuitState.CLOSED, limit.state());
+    }
+
+    @Test
+    void openCircuit_letsOneTrialThroughAfterTheDelay() {
+        ExecutorConcurrencyLimit limit = openCircuit();
+        long later = Duration.ofSeconds(31).toNanos();
+
+        assertTrue(limit.tryAcquire(later));
+        assertEquals(CircuitState.HALF_OPEN, limit.state());
+        assertFalse(limit.tryAcquire(later));
+
+        limit.onDispatched(later);
+        limit.onResult(10 * MS);
+
+        assertEquals(CircuitState.CLOSED, limit.state());
+        assertTrue(limit.tryAcquire(later));
+    }
+
+    @Test
+    void failedTrial_reopensTheCircuit() {
+        ExecutorConcurrencyLimit limit = openCircuit();
+        long later = Duration.ofSeconds(31).toNanos();
+
+        limit.tryAcquire(later);
+        limit.onDispatchFailed(later);
+
+        assertEquals(CircuitState.OPEN, limit.state());
+        assertFalse(limit.tryAcquire(later + Duration.ofSeconds(1).toNanos()));
+    }
+
+    private static ExecutorConcurrencyLimit openCircuit() {
+        ExecutorConcurrencyLimit limit = limit(10);
+        for (int i = 0; i < 4; i++) {
+            limit.tryAcquire(0);
+            limit.onDispatchFailed(0);
+        }
+        assertEquals(CircuitState.OPEN, limit.state());
+        return limit;
+    }
+}
@@ -0,0 +1,221 @@
+package tech.kayys.silat.dispatcher;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import tech.kayys.silat.execution.NodeExecutionTask;
+import tech.kayys.silat.model.CommunicationType;
+import tech.kayys.silat.model.ExecutorInfo;
+import tech.kayys.silat.model.NodeId;
+import tech.kayys.silat.model.TenantId;
+import tech.kayys.silat.model.WorkflowDefinition;
+import tech.kayys.silat.model.WorkflowMetadata;
+import tech.kayys.silat.model.WorkflowRunId;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class FairDispatchQueueTest {
+
+    private static final TenantId NOISY = TenantId.of("noisy");
+    private static final TenantId QUIET = TenantId.of("quiet");
+
+    private final List<NodeExecutionTask> dispatched = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private FairDispatchQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        queue = newQueue(2, Optional.empty(), Optional.empty(), 0);
+    }
+
+    private FairDispatchQueue newQueue(int maxInFlight, Optional<List<String>> weights,
+            Optional<List<String>> quotas, int defaultQuota) {
+        FairDispatchQueue fair = new FairDispatchQueue();
+        fair.enabled = true;
+        fair.maxInFlight = maxInFlight;
+        fair.perDefinition = false;
+        fair.defaultWeight = 1;
+        fair.defaultQuota = defaultQuota;
+        fair.weights = weights;
+        fair.quotas = quotas;
+        fair.leaseTimeout = Duration.ofMinutes(5);
+        fair.meterRegistry = meterRegistry;
+        fair.taskDispatcher = mock(TaskDispatcherAggregator.class);
+        when(fair.taskDispatcher.dispatch(any(), any())).thenAnswer(invocation -> {
+            dispatched.add(invocation.getArgument(0));
+            return Uni.createFrom().voidItem();
+        });
+        fair.init();
+        return fair;
+    }
+
+    @Test
+    void submit_underCapacity_dispatchesAtOnce() {
+        queue.submit(NOISY, null, task("run-1", "a"), executor()).await().indefinitely();
+
+        assertEquals(1, dispatched.size());
+        assertEquals(1, queue.inFlight());
+    }
+
+    @Test
+    void noisyTenant_doesNotStarveAnother() {
+        for (int i = 0; i < 50; i++) {
+            queue.submit(NOISY, null, task("noisy-" + i, "a"), executor()).subscribe().with(ignored -> {
+            });
+        }
+        queue.submit(QUIET, null, task("quiet-1", "a"), executor()).subscribe().with(ignored -> {
+        });
+        assertEquals(2, dispatched.size());
+
+        // Tenants take turns: the quiet one waits one slot, not the forty-eight queued ahead of it
+        release(dispatched.get(0));
+        release(dispatched.get(1));
+
+        assertEquals(List.of("noisy-2", "quiet-1"), runIds().subList(2, 4));
+    }
+
+    @Test
+    void weights_shareSlotsProportionally() {
+        queue = newQueue(1, Optional.of(List.of("noisy=3")), Optional.empty(), 0);
+        for (int i = 0; i < 20; i++) {
+            queue.submit(NOISY, null, task("noisy-" + i, "a"), executor()).subscribe().with(ignored -> {
+            });
+            queue.submit(QUIET, null, task("quiet-" + i, "a"), executor()).subscribe().with(ignored -> {
+            });
+        }
+        for (int i = 0; i < 16; i++) {
+            release(dispatched.get(dispatched.size() - 1));
+        }
+
+        long noisy = dispatched.stream().skip(1).filter(task -> task.runId().value().startsWith("noisy")).count();
+        assertEquals(12, noisy);
+        assertEquals(4, dispatched.size() - 1 - noisy);
+    }
+
+    @Test
+    void quota_holdsTasksBackUntilASlotIsReleased() {
+        queue = newQueue(10, Optional.empty(), Optional.of(List.of("noisy=1")), 0);
+        queue.submit(NOISY, null, task("noisy-1", "a"), executor()).subscribe().with(ignored -> {
+        });
+        queue.submit(NOISY, null, task("noisy-2", "a"), executor()).subscribe().with(ignored -> {
+        });
+        queue.submit(QUIET, null, task("quiet-1", "a"), executor()).subscribe().with(ignored -> {
+        });
+
+        assertEquals(List.of("noisy-1", "quiet-1"), runIds());
+
+        release(dispatched.get(0));
+
+        assertEquals(List.of("noisy-1", "quiet-1", "noisy-2"), runIds());
+    }
+
+    @Test
+    void highPriority_goesFirstWithinATenant() {
+        queue = newQueue(1, Optional.empty(), Optional.empty(), 0);
+        queue.submit(NOISY, null, task("running", "a"), executor()).subscribe().with(ignored -> {
+        });
+        queue.submit(NOISY, definition("low"), task("low-1", "a"), executor()).subscribe().with(ignored -> {
+        });
+        queue.submit(NOISY, null, task("normal-1", "a"), executor()).subscribe().with(ignored -> {
+        });
+        queue.submit(NOISY, definition("high"), task("high-1", "a"), executor()).subscribe().with(ignored -> {
+        });
+
+        release(dispatched.get(0));
+        release(dispatched.get(1));
+        release(dispatched.get(2));
+
+        assertEquals(List.of("running", "high-1", "normal-1", "low-1"), runIds());
+    }
+
+    @Test
+    void release_ofAnUnknownAttempt_freesNothing() {
+        queue.submit(NOISY, null, task("run-1", "a"), executor()).await().indefinitely();
+
+        queue.release(WorkflowRunId.of("run-1"), NodeId.of("a"), 7);
+
+        assertEquals(1, queue.inFlight());
+    }
+
+    @Test
+    void expireLeases_freesSlotsWhoseResultNeverCame() {
+        queue.leaseTimeout = Duration.ZERO;
+        for (int i = 0; i < 3; i++) {
+            queue.submit(NOISY, null, task("run-" + i, "a"), executor()).subscribe().with(ignored -> {
+            });
+        }
+        assertEquals(2, dispatched.size());
+
+        queue.expireLeases();
+
+        assertEquals(3, dispatched.size());
+        assertEquals(1, queue.inFlight());
+    }
+
+    @Test
+    void failedDispatch_releasesItsSlot() {
+        FairDispatchQueue failing = newQueue(1, Optional.empty(), Optional.empty(), 0);
+        when(failing.taskDispatcher.dispatch(any(), any()))
+                .thenReturn(Uni.createFrom().failure(new IllegalStateException("executor down")));
+
+        assertThrows(IllegalStateException.class,
+                () -> failing.submit(NOISY, null, task("run-1", "a"), executor()).await().indefinitely());
+        assertEquals(0, failing.inFlight());
+    }
+
+    @Test
+    void queueWait_isRecordedPerTenant() {
+        queue.submit(NOISY, null, task("run-1", "a"), executor()).await().indefinitely();
+        queue.submit(QUIET, null, task("run-2", "a"), executor()).await().indefinitely();
+
+        assertEquals(1, meterRegistry.get("silat.dispatch.queue.wait").tag("tenant", "noisy").timer().count());
+        assertEquals(1, meterRegistry.get("silat.dispatch.queue.wait").tag("tenant", "quiet").timer().count());
+    }
+
+    @Test
+    void disabled_dispatchesWithoutHoldingSlots() {
+        queue.enabled = false;
+        for (int i = 0; i < 5; i++) {
+            queue.submit(NOISY, null, task("run-" + i, "a"), executor()).await().indefinitely();
+        }
+
+        assertEquals(5, dispatched.size());
+        assertEquals(0, queue.inFlight());
+    }
+
+    private void release(NodeExecutionTask task) {
+        queue.release(task.runId(), task.nodeId(), task.attempt());
+    }
+
+    private List<String> runIds() {
+        return dispatched.stream().map(task -> task.runId().value()).toList();
+    }
+
+    private static NodeExecutionTask task(String runId, String nodeId) {
+        return new NodeExecutionTask(WorkflowRunId.of(runId), NodeId.of(nodeId), 1, null, Map.of(), null);
+    }
+
+    private static ExecutorInfo executor() {
+        return new ExecutorInfo("executor-1", "worker", CommunicationType.GRPC, "localhost:9090",
+                Duration.ofSeconds(30), Map.of());
+    }
+
+    private static WorkflowDefinition definition(String priority) {
+        WorkflowDefinition definition = mock(WorkflowDefinition.class);
+        when(definition.metadata()).thenReturn(new WorkflowMetadata(
+                Map.of(DispatchPriority.LABEL, priority), Map.of(), Instant.now(), "test"));
+        return definition;
+    }
+}
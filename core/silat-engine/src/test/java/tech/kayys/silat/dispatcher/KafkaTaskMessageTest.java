@@ -0,0 +1,40 @@
+package tech.kayys.silat.dispatcher;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.vertx.core.json.JsonObject;
+import tech.kayys.silat.scheduler.TaskMessage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KafkaTaskMessageTest {
+
+    @Test
+    void dispatchedMessage_readsAsTheExecutorSidesTaskMessage() throws Exception {
+        Instant expiresAt = Instant.now().plus(5, ChronoUnit.MINUTES);
+        Instant scheduledAt = Instant.now();
+        TaskMessage sent = new TaskMessage("run-1:charge:2", "run-1", "charge", 2, "token-value-123",
+                expiresAt, Map.of("amount", 42), "executor-1", scheduledAt);
+
+        // Encoded as KafkaTaskDispatcher does, read with the executor's defaults
+        String json = JsonObject.mapFrom(sent).encode();
+        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
+        tech.kayys.silat.kafka.TaskMessage received = mapper.readValue(json,
+                tech.kayys.silat.kafka.TaskMessage.class);
+
+        assertEquals("run-1:charge:2", received.taskId());
+        assertEquals("token-value-123", received.executionToken());
+        assertEquals(expiresAt, received.tokenExpiresAt());
+        assertEquals(scheduledAt, received.scheduledAt());
+        assertEquals(2, received.attempt());
+        assertEquals(42, received.context().get("amount"));
+    }
+}
@@ -0,0 +1,222 @@
+package tech.kayys.silat.dispatcher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.inject.Instance;
+import tech.kayys.silat.execution.NodeExecutionTask;
+import tech.kayys.silat.model.CommunicationType;
+import tech.kayys.silat.model.ExecutorInfo;
+import tech.kayys.silat.model.NodeId;
+import tech.kayys.silat.model.WorkflowRunId;
+import tech.kayys.silat.plugin.ExecutionPluginPipeline;
+import tech.kayys.silat.registry.ExecutorRegistry;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class TaskDispatcherAggregatorTest {
+
+    private static final ExecutorInfo PRIMARY = executor("primary");
+    private static final ExecutorInfo SECONDARY = executor("secondary");
+
+    private final List<String> sentTo = new ArrayList<>();
+    private TaskDispatcher dispatcher;
+    private TaskDispatcherAggregator aggregator;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        dispatcher = mock(TaskDispatcher.class);
+        when(dispatcher.supports(any())).thenReturn(true);
+        when(dispatcher.dispatch(any(), any())).thenAnswer(invocation -> {
+            sentTo.add(invocation.<ExecutorInfo>getArgument(1).executorId());
+            return Uni.createFrom().voidItem();
+        });
+
+        aggregator = new TaskDispatcherAggregator();
+        aggregator.availableDispatchers = mock(Instance.class);
+        when(aggregator.availableDispatchers.iterator()).thenAnswer(invocation -> List.of(dispatcher).iterator());
+        aggregator.executionPlugins = mock(ExecutionPluginPipeline.class);
+        when(aggregator.executionPlugins.dispatch(any(), anyString(), any())).thenAnswer(invocation -> invocation
+                .<Function<NodeExecutionTask, Uni<Void>>>getArgument(2).apply(invocation.getArgument(0)));
+        aggregator.executorRegistry = mock(ExecutorRegistry.class);
+        when(aggregator.executorRegistry.getHealthyExecutors())
+                .thenReturn(Uni.createFrom().item(List.of(PRIMARY, SECONDARY)));
+        aggregator.meterRegistry = new SimpleMeterRegistry();
+        aggregator.latencyHistory = new ExecutorLatencyHistory();
+        aggregator.latencyHistory.window = 16;
+        aggregator.adaptive = true;
+        aggregator.initialLimit = 1;
+        aggregator.minLimit = 1;
+        aggregator.maxLimit = 10;
+        aggregator.latencyTolerance = 2.0;
+        aggregator.backoff = 0.5;
+        aggregator.acquireTimeout = Duration.ofSeconds(5);
+        aggregator.resultTimeout = Duration.ofMinutes(5);
+        aggregator.circuitWindow = 10;
+        aggregator.requestVolume = 2;
+        aggregator.failureRatio = 0.5;
+        aggregator.circuitDelay = Duration.ofMinutes(1);
+    }
+
+    @Test
+    void fullExecutor_failsOverToAnotherOfTheSameType() {
+        aggregator.dispatch(task("run-1"), PRIMARY).await().indefinitely();
+        aggregator.dispatch(task("run-2"), PRIMARY).await().indefinitely();
+
+        assertEquals(List.of("primary", "secondary"), sentTo);
+    }
+
+    @Test
+    void executorsOfAnotherType_areNotUsed() {
+        ExecutorInfo other = new ExecutorInfo("other", "email", CommunicationType.REST, "http://other",
+                Duration.ofSeconds(10), Map.of());
+        when(aggregator.executorRegistry.getHealthyExecutors())
+                .thenReturn(Uni.createFrom().item(List.of(PRIMARY, other)));
+        aggregator.acquireTimeout = Duration.ofMillis(50);
+        aggregator.dispatch(task("run-1"), PRIMARY).await().indefinitely();
+
+        // Waits for the full primary rather than using the other type, then gives up
+        assertThrows(TaskDispatchException.class,
+                () -> aggregator.dispatch(task("run-2"), PRIMARY).await().atMost(Duration.ofSeconds(5)));
+
+        assertEquals(List.of("primary"), sentTo);
+    }
+
+    @Test
+    void allFull_waitsForAResult() {
+        aggregator.dispatch(task("run-1"), PRIMARY).await().indefinitely();
+        aggregator.dispatch(task("run-2"), PRIMARY).await().indefinitely();
+        aggregator.dispatch(task("run-3"), PRIMARY).subscribe().with(ignored -> {
+        });
+        assertEquals(2, sentTo.size());
+
+        aggregator.completed(WorkflowRunId.of("run-1"), NodeId.of("a"), 1);
+
+        assertEquals(List.of("primary", "secondary", "primary"), sentTo);
+    }
+
+    @Test
+    void allFull_failsWhenNoSlotFreesUpInTime() {
+        aggregator.acquireTimeout = Duration.ofMillis(50);
+        aggregator.dispatch(task("run-1"), PRIMARY).await().indefinitely();
+        aggregator.dispatch(task("run-2"), PRIMARY).await().indefinitely();
+
+        assertThrows(TaskDispatchException.class,
+                () -> aggregator.dispatch(task("run-3"), PRIMARY).await().atMost(Duration.ofSeconds(5)));
+
+        // The slot that frees up later is not lost to the waiter that gave up
+        aggregator.completed(WorkflowRunId.of("run-1"), NodeId.of("a"), 1);
+        aggregator.dispatch(task("run-4"), PRIMARY).await().indefinitely();
+        assertEquals("primary", sentTo.get(2));
+    }
+
+    @Test
+    void failingExecutor_opensItsCircuitAndTrafficMoves() {
+        aggregator.initialLimit = 10;
+        doReturn(Uni.createFrom().failure(new TaskDispatchException("unavailable", 503, "")))
+                .when(dispatcher).dispatch(any(), eq(PRIMARY));
+        for (int i = 0; i < 2; i++) {
+            String runId = "failed-" + i;
+            assertThrows(TaskDispatchException.class,
+                    () -> aggregator.dispatch(task(runId), PRIMARY).await().indefinitely());
+        }
+
+        aggregator.dispatch(task("run-1"), PRIMARY).await().indefinitely();
+
+        assertEquals(List.of("secondary"), sentTo);
+    }
+
+    @Test
+    void openCircuitWithoutAlternatives_failsAtOnce() {
+        aggregator.initialLimit = 10;
+        when(aggregator.executorRegistry.getHealthyExecutors()).thenReturn(Uni.createFrom().item(List.of(PRIMARY)));
+        doReturn(Uni.createFrom().failure(new TaskDispatchException("unavailable", 503, "")))
+                .when(dispatcher).dispatch(any(), eq(PRIMARY));
+        for (int i = 0; i < 2; i++) {
+            String runId = "failed-" + i;
+            assertThrows(TaskDispatchException.class,
+                    () -> aggregator.dispatch(task(runId), PRIMARY).await().indefinitely());
+        }
+
+        TaskDispatchException error = assertThrows(TaskDispatchException.class,
+                () -> aggregator.dispatch(task("run-1"), PRIMARY).await().indefinitely());
+        assertTrue(error.getMessage().contains("Circuit open"));
+    }
+
+    @Test
+    void expireOutstanding_freesTheSlotOfALostResult() {
+        aggregator.resultTimeout = Duration.ZERO;
+        aggregator.requestVolume = 5;
+        aggregator.dispatch(task("run-1"), PRIMARY).await().indefinitely();
+
+        aggregator.expireOutstanding();
+        aggregator.dispatch(task("run-2"), PRIMARY).await().indefinitely();
+
+        assertEquals(List.of("primary", "primary"), sentTo);
+    }
+
+    @Test
+    void completed_recordsTheLatencyOfTheExecutorType() {
+        aggregator.dispatch(task("run-1"), PRIMARY).await().indefinitely();
+
+        aggregator.completed(WorkflowRunId.of("run-1"), NodeId.of("a"), 1);
+
+        assertTrue(aggregator.latencyHistory.percentile("http-worker", 0.5, 1).isPresent());
+    }
+
+    @Test
+    void hedge_goesOnlyToAnExecutorWithAFreeSlot() {
+        aggregator.dispatch(task("run-1"), SECONDARY).await().indefinitely();
+
+        assertFalse(aggregator.hedge(task("run-2"), SECONDARY).await().indefinitely());
+        assertTrue(aggregator.hedge(task("run-2"), PRIMARY).await().indefinitely());
+        assertEquals(List.of("secondary", "primary"), sentTo);
+    }
+
+    @Test
+    void hedgedTask_givesBackBothSlotsOnItsResult() {
+        aggregator.dispatch(task("run-1"), PRIMARY).await().indefinitely();
+        aggregator.hedge(task("run-1"), SECONDARY).await().indefinitely();
+        assertEquals(java.util.Optional.of("primary"),
+                aggregator.dispatchedTo(WorkflowRunId.of("run-1"), NodeId.of("a"), 1));
+
+        aggregator.completed(WorkflowRunId.of("run-1"), NodeId.of("a"), 1);
+
+        aggregator.dispatch(task("run-2"), PRIMARY).await().indefinitely();
+        aggregator.dispatch(task("run-3"), SECONDARY).await().indefinitely();
+        assertEquals(List.of("primary", "secondary", "primary", "secondary"), sentTo);
+        // Which copy answered is unknown, so no latency is learned from it
+        assertTrue(aggregator.latencyHistory.percentile("http-worker", 0.5, 1).isEmpty());
+    }
+
+    @Test
+    void disabled_sendsStraightThrough() {
+        aggregator.adaptive = false;
+        for (int i = 0; i < 3; i++) {
+            aggregator.dispatch(task("run-" + i), PRIMARY).await().indefinitely();
+        }
+
+        assertEquals(List.of("primary", "primary", "primary"), sentTo);
+    }
+
+    private static NodeExecutionTask task(String runId) {
+        return new NodeExecutionTask(WorkflowRunId.of(runId), NodeId.of("a"), 1, null, Map.of(), null);
+    }
+
+    private static ExecutorInfo executor(String id) {
+        return new ExecutorInfo(id, "http-worker", CommunicationType.REST, "http://" + id, Duration.ofSeconds(10),
+                Map.of());
+    }
+}
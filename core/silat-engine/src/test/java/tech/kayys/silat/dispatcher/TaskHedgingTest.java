@@ -0,0 +1,163 @@
+package tech.kayys.silat.dispatcher;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import tech.kayys.silat.api.repository.WorkflowRunRepository;
+import tech.kayys.silat.execution.NodeExecutionStatus;
+import tech.kayys.silat.execution.NodeExecutionTask;
+import tech.kayys.silat.model.CommunicationType;
+import tech.kayys.silat.model.ExecutorInfo;
+import tech.kayys.silat.model.NodeDefinition;
+import tech.kayys.silat.model.NodeExecution;
+import tech.kayys.silat.model.NodeId;
+import tech.kayys.silat.model.RunStatus;
+import tech.kayys.silat.model.WorkflowRun;
+import tech.kayys.silat.model.WorkflowRunId;
+import tech.kayys.silat.registry.ExecutorRegistry;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class TaskHedgingTest {
+
+    private static final ExecutorInfo PRIMARY = executor("primary", "http-worker");
+    private static final ExecutorInfo SECONDARY = executor("secondary", "http-worker");
+    private static final NodeExecutionTask TASK = new NodeExecutionTask(WorkflowRunId.of("run-1"), NodeId.of("a"), 1,
+            null, Map.of(), null);
+
+    private TaskHedging hedging;
+    private WorkflowRun run;
+    private NodeExecution execution;
+
+    @BeforeEach
+    void setUp() {
+        hedging = new TaskHedging();
+        hedging.enabled = true;
+        hedging.percentile = 0.95;
+        hedging.minSamples = 5;
+        hedging.minDelay = Duration.ofMillis(20);
+        hedging.maxAge = Duration.ofMinutes(30);
+        hedging.meterRegistry = new SimpleMeterRegistry();
+        hedging.latencyHistory = new ExecutorLatencyHistory();
+        hedging.latencyHistory.window = 100;
+        for (int i = 0; i < 10; i++) {
+            hedging.latencyHistory.record("http-worker", Duration.ofMillis(5));
+        }
+
+        hedging.taskDispatcher = mock(TaskDispatcherAggregator.class);
+        when(hedging.taskDispatcher.hedge(any(), any())).thenReturn(Uni.createFrom().item(true));
+        when(hedging.taskDispatcher.cancel(any(), any())).thenReturn(Uni.createFrom().voidItem());
+        when(hedging.taskDispatcher.dispatchedTo(any(), any(), anyInt())).thenReturn(Optional.of("primary"));
+        hedging.executorRegistry = mock(ExecutorRegistry.class);
+        when(hedging.executorRegistry.getHealthyExecutors()).thenReturn(Uni.createFrom().item(List.of(
+                PRIMARY, executor("mailer", "email"), SECONDARY)));
+
+        run = mock(WorkflowRun.class);
+        execution = mock(NodeExecution.class);
+        when(run.getStatus()).thenReturn(RunStatus.RUNNING);
+        when(run.getAllNodeExecutions()).thenReturn(Map.of(NodeId.of("a"), execution));
+        when(execution.getAttempt()).thenReturn(1);
+        when(execution.getStatus()).thenReturn(NodeExecutionStatus.RUNNING);
+        hedging.runRepository = mock(WorkflowRunRepository.class);
+        when(hedging.runRepository.findById(any(WorkflowRunId.class))).thenReturn(Uni.createFrom().item(run));
+    }
+
+    @Test
+    void slowTask_isHedgedToAnotherExecutorOfItsType() {
+        hedging.watch(TASK, PRIMARY);
+
+        verify(hedging.taskDispatcher, timeout(2000)).hedge(TASK, SECONDARY);
+        assertEquals(1.0, hedging.meterRegistry.get("silat.dispatch.hedged").counter().count());
+    }
+
+    @Test
+    void resultInTime_preventsTheHedge() throws InterruptedException {
+        hedging.minDelay = Duration.ofMillis(200);
+        hedging.watch(TASK, PRIMARY);
+
+        hedging.completed(TASK.runId(), TASK.nodeId(), TASK.attempt());
+        Thread.sleep(400);
+
+        verify(hedging.taskDispatcher, never()).hedge(any(), any());
+        verify(hedging.taskDispatcher, never()).cancel(any(), any());
+    }
+
+    @Test
+    void resultAfterTheHedge_cancelsBothCopies() {
+        hedging.watch(TASK, PRIMARY);
+        verify(hedging.taskDispatcher, timeout(2000)).hedge(TASK, SECONDARY);
+
+        hedging.completed(TASK.runId(), TASK.nodeId(), TASK.attempt());
+
+        verify(hedging.taskDispatcher).cancel(TASK, PRIMARY);
+        verify(hedging.taskDispatcher).cancel(TASK, SECONDARY);
+    }
+
+    @Test
+    void withoutEnoughHistory_nothingIsHedged() throws InterruptedException {
+        hedging.minSamples = 50;
+        hedging.watch(TASK, PRIMARY);
+        Thread.sleep(200);
+
+        verify(hedging.taskDispatcher, never()).hedge(any(), any());
+    }
+
+    @Test
+    void nodeNoLongerRunning_isNotHedged() throws InterruptedException {
+        when(execution.getStatus()).thenReturn(NodeExecutionStatus.COMPLETED);
+        hedging.watch(TASK, PRIMARY);
+
+        verify(hedging.runRepository, timeout(2000)).findById(TASK.runId());
+        Thread.sleep(100);
+        verify(hedging.taskDispatcher, never()).hedge(any(), any());
+    }
+
+    @Test
+    void failedOverTask_isHedgedAwayFromTheExecutorHoldingIt() {
+        when(hedging.taskDispatcher.dispatchedTo(any(), any(), anyInt())).thenReturn(Optional.of("secondary"));
+        hedging.watch(TASK, PRIMARY);
+
+        verify(hedging.taskDispatcher, timeout(2000)).hedge(TASK, PRIMARY);
+    }
+
+    @Test
+    void isHedged_readsTheNodeConfiguration() {
+        assertTrue(TaskHedging.isHedged(node(Map.of("hedge", true))));
+        assertTrue(TaskHedging.isHedged(node(Map.of("hedge", "true"))));
+        assertFalse(TaskHedging.isHedged(node(Map.of())));
+    }
+
+    @Test
+    void percentile_isTakenFromTheRecentLatencies() {
+        ExecutorLatencyHistory history = new ExecutorLatencyHistory();
+        history.window = 10;
+        for (int i = 1; i <= 20; i++) {
+            history.record("worker", Duration.ofMillis(i));
+        }
+
+        assertEquals(Duration.ofMillis(20), history.percentile("worker", 0.95, 10).orElseThrow());
+        assertEquals(Duration.ofMillis(15), history.percentile("worker", 0.5, 10).orElseThrow());
+        assertTrue(history.percentile("worker", 0.95, 11).isEmpty());
+        assertTrue(history.percentile("other", 0.95, 1).isEmpty());
+    }
+
+    private static NodeDefinition node(Map<String, Object> configuration) {
+        NodeDefinition node = mock(NodeDefinition.class);
+        when(node.configuration()).thenReturn(configuration);
+        return node;
+    }
+
+    private static ExecutorInfo executor(String id, String type) {
+        return new ExecutorInfo(id, type, CommunicationType.REST, "http://" + id, Duration.ofSeconds(10), Map.of());
+    }
+}
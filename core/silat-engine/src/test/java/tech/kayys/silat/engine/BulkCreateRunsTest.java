@@ -0,0 +1,164 @@
+package tech.kayys.silat.engine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.eventbus.EventBus;
+import tech.kayys.silat.api.repository.WorkflowRunRepository;
+import tech.kayys.silat.engine.impl.DefaultWorkflowRunManager;
+import tech.kayys.silat.engine.impl.InMemoryExecutionHistoryRepository;
+import tech.kayys.silat.engine.impl.RunPayloads;
+import tech.kayys.silat.model.CreateRunRequest;
+import tech.kayys.silat.model.CreateRunResult;
+import tech.kayys.silat.model.InputDefinition;
+import tech.kayys.silat.model.NodeDefinition;
+import tech.kayys.silat.model.NodeId;
+import tech.kayys.silat.model.NodeType;
+import tech.kayys.silat.model.RunStatus;
+import tech.kayys.silat.model.TenantId;
+import tech.kayys.silat.model.WorkflowDefinition;
+import tech.kayys.silat.model.WorkflowDefinitionId;
+import tech.kayys.silat.model.WorkflowRun;
+import tech.kayys.silat.workflow.WorkflowDefinitionRegistry;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class BulkCreateRunsTest {
+
+    @InjectMocks
+    DefaultWorkflowRunManager runManager;
+
+    @Mock
+    WorkflowRunRepository runRepository;
+
+    @Mock
+    InMemoryExecutionHistoryRepository historyRepository;
+
+    @Mock
+    WorkflowDefinitionRegistry definitionRegistry;
+
+    @Mock
+    EventBus eventBus;
+
+    @Mock
+    RunPayloads payloads;
+
+    private final TenantId tenantId = TenantId.of("tenant-a");
+    private final List<List<WorkflowRun>> persisted = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        WorkflowDefinition definition = WorkflowDefinition.builder()
+                .id(WorkflowDefinitionId.of("orders"))
+                .tenantId(tenantId)
+                .name("orders")
+                .version("1.0.0")
+                .addNode(new NodeDefinition(NodeId.of("start"), "start", NodeType.TASK, "http",
+                        Map.of(), List.of(), List.of(), null, null, false))
+                .addInput("orderId", new InputDefinition("orderId", "string", true, null, null))
+                .build();
+        when(definitionRegistry.getDefinition(eq(WorkflowDefinitionId.of("orders")), eq(tenantId)))
+                .thenReturn(Uni.createFrom().item(definition));
+        when(definitionRegistry.getDefinition(eq(WorkflowDefinitionId.of("missing")), eq(tenantId)))
+                .thenReturn(Uni.createFrom().failure(new NoSuchElementException("missing")));
+        when(runRepository.persistAll(anyList())).thenAnswer(invocation -> {
+            List<WorkflowRun> runs = invocation.getArgument(0);
+            persisted.add(runs);
+            return Uni.createFrom().item(runs);
+        });
+        when(historyRepository.appendEvents(any(), anyList())).thenReturn(Uni.createFrom().voidItem());
+        when(historyRepository.append(any(), anyString(), anyString(), anyMap()))
+                .thenReturn(Uni.createFrom().voidItem());
+        // Stands in for the payload store: long strings are replaced by a reference
+        when(payloads.offload(any())).thenAnswer(invocation -> {
+            Map<String, Object> offloaded = new HashMap<>(invocation.<Map<String, Object>>getArgument(0));
+            offloaded.replaceAll((name, value) -> value instanceof String text && text.length() > 1024
+                    ? Map.of("$ref", "payload:" + name)
+                    : value);
+            return Uni.createFrom().item(offloaded);
+        });
+    }
+
+    @Test
+    void createRuns_insertsValidRunsTogetherAndRejectsInvalidOnes() {
+        List<CreateRunRequest> requests = List.of(
+                request("orders", Map.of("orderId", "1"), true),
+                request("missing", Map.of(), true),
+                request("orders", Map.of(), true),
+                request("orders", Map.of("orderId", "2"), false));
+
+        List<CreateRunResult> results = runManager.createRuns(requests, tenantId).await().indefinitely();
+
+        assertEquals(4, results.size());
+        assertEquals(RunStatus.RUNNING, results.get(0).status());
+        assertNotNull(results.get(0).runId());
+        assertFalse(results.get(1).isSuccess());
+        assertTrue(results.get(1).error().contains("not found"));
+        assertFalse(results.get(2).isSuccess());
+        assertTrue(results.get(2).error().contains("orderId"));
+        assertEquals(RunStatus.CREATED, results.get(3).status());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).index());
+        }
+
+        // One insert for the whole batch, one lookup per definition, no per-run lock
+        assertEquals(1, persisted.size());
+        assertEquals(2, persisted.get(0).size());
+        verify(definitionRegistry, times(1)).getDefinition(eq(WorkflowDefinitionId.of("orders")), eq(tenantId));
+        verify(runRepository, never()).withLock(any(), any());
+        verify(historyRepository, times(1)).append(any(), eq(ExecutionEventTypes.STATUS_CHANGED),
+                eq(RunStatus.RUNNING.name()), anyMap());
+
+        ArgumentCaptor<Object> started = ArgumentCaptor.forClass(Object.class);
+        verify(eventBus).publish(eq("silat.runs.v1.updated"), started.capture());
+        assertEquals(results.get(0).runId(), started.getValue());
+    }
+
+    @Test
+    void createRuns_withNothingValid_skipsInsert() {
+        List<CreateRunResult> results = runManager
+                .createRuns(List.of(request("missing", Map.of(), true)), tenantId)
+                .await().indefinitely();
+
+        assertEquals(1, results.size());
+        assertFalse(results.get(0).isSuccess());
+        assertTrue(persisted.isEmpty());
+    }
+
+    @Test
+    void createRuns_offloadsOversizedInputs() {
+        List<CreateRunRequest> requests = List.of(
+                request("orders", Map.of("orderId", "1", "document", "x".repeat(4096)), false),
+                request("orders", Map.of("orderId", "2"), false));
+
+        List<CreateRunResult> results = runManager.createRuns(requests, tenantId).await().indefinitely();
+
+        assertTrue(results.stream().allMatch(CreateRunResult::isSuccess));
+        Map<String, Object> stored = persisted.get(0).get(0).getContext().getVariables();
+        assertEquals(Map.of("$ref", "payload:document"), stored.get("document"));
+        assertEquals("1", stored.get("orderId"));
+        verify(payloads, times(2)).offload(anyMap());
+    }
+
+    private static CreateRunRequest request(String workflowId, Map<String, Object> inputs, boolean autoStart) {
+        return new CreateRunRequest(workflowId, null, new HashMap<>(inputs), null, autoStart);
+    }
+}
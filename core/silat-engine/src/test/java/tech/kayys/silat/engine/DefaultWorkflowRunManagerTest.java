@@ -8,18 +8,29 @@ import java.time.Clock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import tech.kayys.silat.cluster.RunOwnership;
+import tech.kayys.silat.dispatcher.FairDispatchQueue;
+import tech.kayys.silat.dispatcher.TaskHedging;
 import tech.kayys.silat.engine.impl.DefaultWorkflowRunManager;
+import tech.kayys.silat.engine.impl.InMemoryExecutionHistoryRepository;
+import tech.kayys.silat.engine.impl.RunPayloads;
+import tech.kayys.silat.engine.impl.SignalRouter;
 import tech.kayys.silat.execution.DefaultNodeExecutionResult;
 import tech.kayys.silat.execution.NodeExecutionStatus;
 import tech.kayys.silat.model.*;
-import tech.kayys.silat.repository.WorkflowRunRepository;
+import tech.kayys.silat.api.repository.WorkflowRunRepository;
+import tech.kayys.silat.plugin.ExecutionPluginPipeline;
+import tech.kayys.silat.scheduler.TimerService;
 import tech.kayys.silat.scheduler.WorkflowScheduler;
 import tech.kayys.silat.security.TenantSecurityContext;
 import tech.kayys.silat.workflow.WorkflowDefinitionRegistry;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -39,7 +50,7 @@ public class DefaultWorkflowRunManagerTest {
         WorkflowRunRepository repository;
 
         @Mock
-        ExecutionHistoryRepository historyRepository;
+        InMemoryExecutionHistoryRepository historyRepository;
 
         @Mock
         WorkflowScheduler scheduler;
@@ -53,6 +64,30 @@ public class DefaultWorkflowRunManagerTest {
         @Mock
         Clock clock;
 
+        @Mock
+        FairDispatchQueue dispatchQueue;
+
+        @Mock
+        TaskHedging hedging;
+
+        @Mock
+        RunOwnership ownership;
+
+        @Mock
+        RunPayloads payloads;
+
+        @Mock
+        ExecutionPluginPipeline executionPlugins;
+
+        @Mock
+        TimerService timerService;
+
+        @Mock
+        SignalRouter signalRouter;
+
+        @Mock
+        io.vertx.mutiny.core.eventbus.EventBus eventBus;
+
         private WorkflowRun mockRun;
         private WorkflowRunId runId;
         private TenantId tenantId;
@@ -67,6 +102,10 @@ public class DefaultWorkflowRunManagerTest {
                 when(tenantContext.validateAccess(any(TenantId.class)))
                                 .thenReturn(Uni.createFrom().voidItem());
 
+                // A single instance owns every run
+                when(ownership.route(any(), anyString(), any(), any()))
+                                .thenAnswer(invocation -> invocation.<Supplier<Uni<Void>>>getArgument(3).get());
+
                 // Mock withLock to execute the action immediately with the mockRun
                 when(repository.withLock(eq(runId), any()))
                                 .thenAnswer(invocation -> {
@@ -76,20 +115,53 @@ public class DefaultWorkflowRunManagerTest {
 
                 when(mockRun.getId()).thenReturn(runId);
                 when(mockRun.getStatus()).thenReturn(RunStatus.RUNNING);
+
+                // No plugins, no offloading and no stored timers
+                when(payloads.offload(any())).thenAnswer(invocation -> Uni.createFrom().item(invocation.<Map<String, Object>>getArgument(0)));
+                when(executionPlugins.transformOutput(any(), any()))
+                                .thenAnswer(invocation -> Uni.createFrom().item(invocation.<Map<String, Object>>getArgument(1)));
+                when(executionPlugins.afterResult(any(), any(), any())).thenReturn(Uni.createFrom().voidItem());
+                when(timerService.cancel(any(), any(), any(), anyInt())).thenReturn(Uni.createFrom().voidItem());
+
+                // Each signal is applied in a batch of its own
+                List<SignalRouter.Delivery> inbox = new ArrayList<>();
+                when(signalRouter.offer(eq(runId), any())).thenAnswer(invocation -> inbox.add(invocation.getArgument(1)));
+                when(signalRouter.take(runId)).thenAnswer(invocation -> {
+                        List<SignalRouter.Delivery> batch = List.copyOf(inbox);
+                        inbox.clear();
+                        return batch;
+                });
         }
 
         @Test
-        void testCreateRun_ThrowsException() {
+        void testCreateRun_AppliesDefaultInputs() {
                 CreateRunRequest request = CreateRunRequest.builder()
                                 .workflowId("test-def")
                                 .workflowVersion("1.0.0")
                                 .inputs(Map.of())
                                 .correlationId("cor-id")
-                                .autoStart(true)
+                                .autoStart(false)
                                 .build();
+                // The request's inputs are immutable and lack the defaulted one
+                WorkflowDefinition definition = WorkflowDefinition.builder()
+                                .id(WorkflowDefinitionId.of("test-def"))
+                                .tenantId(tenantId)
+                                .name("test-def")
+                                .version("1.0.0")
+                                .addNode(new NodeDefinition(NodeId.of("task"), "task", NodeType.TASK, "http",
+                                                Map.of(), List.of(), List.of(), null, null, false))
+                                .addInput("priority", new InputDefinition("priority", "string", true, "normal", null))
+                                .build();
+                when(definitionRegistry.getDefinition(eq(WorkflowDefinitionId.of("test-def")), eq(tenantId)))
+                                .thenReturn(Uni.createFrom().item(definition));
+                when(repository.persist(any(WorkflowRun.class)))
+                                .thenAnswer(invocation -> Uni.createFrom().item(invocation.<WorkflowRun>getArgument(0)));
+                when(historyRepository.appendEvents(any(), anyList())).thenReturn(Uni.createFrom().voidItem());
+
+                WorkflowRun run = runManager.createRun(request, tenantId).await().indefinitely();
 
-                assertThrows(UnsupportedOperationException.class,
-                                () -> runManager.createRun(request, tenantId).await().indefinitely());
+                assertEquals("normal", run.getContext().getVariable("priority"));
+                assertTrue(request.getInputs().isEmpty());
         }
 
         @Test
@@ -0,0 +1,134 @@
+package tech.kayys.silat.engine.impl;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import io.vertx.mutiny.core.Vertx;
+import tech.kayys.silat.api.repository.WorkflowRunRepository;
+import tech.kayys.silat.cluster.ClusterNotifications;
+import tech.kayys.silat.model.RunStatus;
+import tech.kayys.silat.model.TenantId;
+import tech.kayys.silat.model.WorkflowRun;
+import tech.kayys.silat.model.WorkflowRunId;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AwaitCompletionTest {
+
+    private final TenantId tenantId = TenantId.of("tenant-a");
+    private final WorkflowRunId runId = WorkflowRunId.of("run-1");
+
+    private Vertx vertx;
+    private DefaultWorkflowRunManager runManager;
+    private final AtomicReference<WorkflowRun> stored = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() {
+        vertx = Vertx.vertx();
+
+        RunCompletionWaiters waiters = new RunCompletionWaiters();
+        waiters.eventBus = vertx.eventBus();
+        waiters.maxWaiters = 10;
+        waiters.maxTimeout = Duration.ofSeconds(5);
+        waiters.pollInterval = Duration.ofMillis(50);
+        waiters.notifications = mock(ClusterNotifications.class);
+        when(waiters.notifications.broadcasting()).thenReturn(true);
+        waiters.init();
+
+        WorkflowRunRepository runRepository = mock(WorkflowRunRepository.class);
+        when(runRepository.findById(eq(runId), eq(tenantId)))
+                .thenAnswer(invocation -> Uni.createFrom().item(stored.get()));
+
+        runManager = new DefaultWorkflowRunManager();
+        runManager.runRepository = runRepository;
+        runManager.completionWaiters = waiters;
+    }
+
+    @AfterEach
+    void tearDown() {
+        vertx.closeAndAwait();
+    }
+
+    @Test
+    void awaitCompletion_returnsWhenCompletionEventArrives() {
+        stored.set(run(RunStatus.RUNNING));
+
+        UniAssertSubscriber<WorkflowRun> subscriber = runManager
+                .awaitCompletion(runId, tenantId, Duration.ofSeconds(5))
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+
+        stored.set(run(RunStatus.COMPLETED));
+        vertx.eventBus().publish(RunCompletionWaiters.RUN_COMPLETED, runId.value());
+
+        WorkflowRun run = subscriber.awaitItem(Duration.ofSeconds(2)).getItem();
+        assertEquals(RunStatus.COMPLETED, run.getStatus());
+    }
+
+    @Test
+    void awaitCompletion_withoutBroadcasts_readsTheRunAgain() {
+        when(runManager.completionWaiters.notifications.broadcasting()).thenReturn(false);
+        stored.set(run(RunStatus.RUNNING));
+
+        UniAssertSubscriber<WorkflowRun> subscriber = runManager
+                .awaitCompletion(runId, tenantId, Duration.ofSeconds(5))
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+
+        // Finished on another instance: no completion event reaches this one
+        stored.set(run(RunStatus.COMPLETED));
+
+        WorkflowRun run = subscriber.awaitItem(Duration.ofSeconds(2)).getItem();
+        assertEquals(RunStatus.COMPLETED, run.getStatus());
+        assertEquals(0, runManager.completionWaiters.waiting());
+    }
+
+    @Test
+    void awaitCompletion_returnsLatestStateOnTimeout() {
+        stored.set(run(RunStatus.RUNNING));
+
+        WorkflowRun run = runManager.awaitCompletion(runId, tenantId, Duration.ofMillis(50))
+                .subscribe().withSubscriber(UniAssertSubscriber.create())
+                .awaitItem(Duration.ofSeconds(2))
+                .getItem();
+
+        assertEquals(RunStatus.RUNNING, run.getStatus());
+    }
+
+    @Test
+    void awaitCompletion_finishedRunReturnsImmediately() {
+        stored.set(run(RunStatus.FAILED));
+
+        WorkflowRun run = runManager.awaitCompletion(runId, tenantId, Duration.ofMinutes(1))
+                .await().atMost(Duration.ofSeconds(1));
+
+        assertEquals(RunStatus.FAILED, run.getStatus());
+    }
+
+    @Test
+    void awaitCompletion_failsTheUniWhenEveryWaiterSlotIsTaken() {
+        stored.set(run(RunStatus.RUNNING));
+        runManager.completionWaiters.maxWaiters = 1;
+        runManager.awaitCompletion(runId, tenantId, Duration.ofSeconds(5))
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+
+        Uni<WorkflowRun> rejected = runManager.awaitCompletion(runId, tenantId, Duration.ofSeconds(5));
+
+        rejected.subscribe().withSubscriber(UniAssertSubscriber.create())
+                .assertFailedWith(RunCompletionWaiters.TooManyWaitersException.class);
+        assertEquals(1, runManager.completionWaiters.waiting());
+    }
+
+    private WorkflowRun run(RunStatus status) {
+        WorkflowRun run = mock(WorkflowRun.class);
+        when(run.getId()).thenReturn(runId);
+        when(run.getStatus()).thenReturn(status);
+        return run;
+    }
+}
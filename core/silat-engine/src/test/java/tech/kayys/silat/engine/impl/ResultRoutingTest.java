@@ -0,0 +1,99 @@
+package tech.kayys.silat.engine.impl;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.json.JsonObject;
+import io.vertx.mutiny.core.eventbus.EventBus;
+import tech.kayys.silat.api.repository.WorkflowRunRepository;
+import tech.kayys.silat.cluster.RoutedCalls;
+import tech.kayys.silat.cluster.RunOwnership;
+import tech.kayys.silat.dispatcher.FairDispatchQueue;
+import tech.kayys.silat.dispatcher.TaskHedging;
+import tech.kayys.silat.execution.DefaultNodeExecutionResult;
+import tech.kayys.silat.execution.NodeExecutionStatus;
+import tech.kayys.silat.model.NodeDefinition;
+import tech.kayys.silat.model.NodeId;
+import tech.kayys.silat.model.NodeType;
+import tech.kayys.silat.model.TenantId;
+import tech.kayys.silat.model.WorkflowDefinition;
+import tech.kayys.silat.model.WorkflowDefinitionId;
+import tech.kayys.silat.model.WorkflowRun;
+import tech.kayys.silat.scheduler.TimerService;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ResultRoutingTest {
+
+    private final NodeId node = NodeId.of("charge");
+
+    private WorkflowRun run;
+    private DefaultWorkflowRunManager owner;
+    private DefaultWorkflowRunManager receiver;
+
+    @BeforeEach
+    void setUp() {
+        TenantId tenantId = TenantId.of("tenant-a");
+        WorkflowDefinition definition = WorkflowDefinition.builder()
+                .id(WorkflowDefinitionId.of("payment"))
+                .tenantId(tenantId)
+                .name("payment")
+                .version("1.0.0")
+                .addNode(new NodeDefinition(node, "charge", NodeType.TASK, "http",
+                        Map.of(), List.of(), List.of(), null, null, false))
+                .build();
+        run = WorkflowRun.create(tenantId, definition, new HashMap<>());
+        run.start();
+
+        owner = manager();
+        when(owner.runRepository.withLock(eq(run.getId()), any()))
+                .thenAnswer(invocation -> invocation.<Function<WorkflowRun, Uni<?>>>getArgument(1).apply(run));
+        // Already applied: only the release on receipt is under test
+        when(owner.historyRepository.isNodeResultProcessed(run.getId(), node, 1))
+                .thenReturn(Uni.createFrom().item(true));
+        when(owner.timerService.cancel(any(), any(), any(), anyInt())).thenReturn(Uni.createFrom().voidItem());
+        when(owner.ownership.route(eq(run.getId()), anyString(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<Uni<Void>>>getArgument(3).get());
+
+        // Another instance takes the result off the bus and forwards it over the wire
+        receiver = manager();
+        when(receiver.ownership.route(eq(run.getId()), eq(RoutedCalls.RESULT), any(), any()))
+                .thenAnswer(invocation -> {
+                    JsonObject call = invocation.<Supplier<JsonObject>>getArgument(2).get();
+                    return owner.handleNodeResult(run.getId(), RoutedCalls.resultFrom(call));
+                });
+    }
+
+    @Test
+    void resultReceivedElsewhere_releasesTheSlotOnTheOwner() {
+        receiver.handleNodeResult(run.getId(), new DefaultNodeExecutionResult(run.getId(), node, 1,
+                NodeExecutionStatus.COMPLETED, Map.of("charged", true), null, null))
+                .await().atMost(Duration.ofSeconds(5));
+
+        verify(owner.dispatchQueue).release(run.getId(), node, 1);
+        verify(owner.hedging).completed(run.getId(), node, 1);
+        verifyNoInteractions(receiver.dispatchQueue, receiver.hedging, receiver.runRepository);
+    }
+
+    private static DefaultWorkflowRunManager manager() {
+        DefaultWorkflowRunManager manager = new DefaultWorkflowRunManager();
+        manager.runRepository = mock(WorkflowRunRepository.class);
+        manager.historyRepository = mock(InMemoryExecutionHistoryRepository.class);
+        manager.dispatchQueue = mock(FairDispatchQueue.class);
+        manager.hedging = mock(TaskHedging.class);
+        manager.ownership = mock(RunOwnership.class);
+        manager.signalRouter = mock(SignalRouter.class);
+        manager.eventBus = mock(EventBus.class);
+        manager.timerService = mock(TimerService.class);
+        return manager;
+    }
+}
@@ -0,0 +1,115 @@
+package tech.kayys.silat.engine.impl;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.enterprise.inject.Instance;
+import tech.kayys.silat.payload.FileSystemPayloadStore;
+import tech.kayys.silat.payload.PayloadOffloader;
+import tech.kayys.silat.payload.PayloadRef;
+import tech.kayys.silat.payload.PayloadStore;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RunPayloadsTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @TempDir
+    Path storeRoot;
+
+    private RunPayloads payloads;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        payloads = new RunPayloads();
+        payloads.location = Optional.of(storeRoot.toString());
+        payloads.threshold = 1024;
+        payloads.objectMapper = mapper;
+        payloads.stores = mock(Instance.class);
+        payloads.init();
+    }
+
+    @Test
+    void offload_replacesOnlyLargeValuesWithReferences() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("id", 42);
+        values.put("document", Map.of("body", "x".repeat(4096)));
+
+        Map<String, Object> offloaded = payloads.offload(values).await().atMost(TIMEOUT);
+
+        assertEquals(42, offloaded.get("id"));
+        PayloadRef ref = PayloadRef.from(offloaded.get("document")).orElseThrow();
+        assertTrue(ref.size() > 4096);
+        assertEquals(List.of("id", "document"), List.copyOf(offloaded.keySet()));
+    }
+
+    @Test
+    void offload_withNothingLarge_returnsTheSameMap() {
+        Map<String, Object> values = Map.of("id", 42, "name", "small");
+
+        assertSame(values, payloads.offload(values).await().atMost(TIMEOUT));
+    }
+
+    @Test
+    void offload_storesEqualValuesOnce() throws Exception {
+        Map<String, Object> first = payloads.offload(Map.of("a", "y".repeat(2048))).await().atMost(TIMEOUT);
+        Map<String, Object> second = payloads.offload(Map.of("b", "y".repeat(2048))).await().atMost(TIMEOUT);
+
+        assertEquals(first.get("a"), second.get("b"));
+        try (Stream<Path> files = Files.walk(storeRoot)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void resolve_readsTheValueBackFromTheStore() {
+        Map<String, Object> document = Map.of("body", "z".repeat(4096), "pages", 3);
+        Map<String, Object> offloaded = payloads.offload(Map.of("document", document)).await().atMost(TIMEOUT);
+
+        PayloadOffloader reader = new PayloadOffloader(FileSystemPayloadStore.at(storeRoot.toUri().toString()),
+                mapper, 1024);
+
+        assertEquals(document, reader.resolve(offloaded.get("document")).await().atMost(TIMEOUT));
+        assertEquals("plain", reader.resolve("plain").await().atMost(TIMEOUT));
+    }
+
+    @Test
+    void resolve_missingPayload_fails() {
+        PayloadStore store = FileSystemPayloadStore.at(storeRoot.toString());
+        PayloadRef ref = new PayloadRef("sha256:" + "0".repeat(64), 10);
+
+        assertThrows(NoSuchElementException.class, () -> store.get(ref).await().atMost(TIMEOUT));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void offload_withoutStore_keepsValuesInline() {
+        RunPayloads disabled = new RunPayloads();
+        disabled.location = Optional.empty();
+        disabled.threshold = 1024;
+        disabled.objectMapper = mapper;
+        disabled.stores = mock(Instance.class);
+        disabled.init();
+        Map<String, Object> values = Map.of("document", "x".repeat(4096));
+
+        assertSame(values, disabled.offload(values).await().atMost(TIMEOUT));
+    }
+}
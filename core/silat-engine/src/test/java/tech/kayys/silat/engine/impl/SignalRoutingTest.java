@@ -0,0 +1,148 @@
+package tech.kayys.silat.engine.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.eventbus.EventBus;
+import tech.kayys.silat.api.repository.WorkflowRunRepository;
+import tech.kayys.silat.cluster.RunOwnership;
+import tech.kayys.silat.model.NodeDefinition;
+import tech.kayys.silat.model.NodeId;
+import tech.kayys.silat.model.NodeType;
+import tech.kayys.silat.model.RunStatus;
+import tech.kayys.silat.model.Signal;
+import tech.kayys.silat.model.TenantId;
+import tech.kayys.silat.model.WorkflowDefinition;
+import tech.kayys.silat.model.WorkflowDefinitionId;
+import tech.kayys.silat.model.WorkflowRun;
+import tech.kayys.silat.model.WorkflowRunId;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SignalRoutingTest {
+
+    private final TenantId tenantId = TenantId.of("tenant-a");
+    private final NodeId waitNode = NodeId.of("wait");
+    private final Map<WorkflowRunId, WorkflowRun> runs = new ConcurrentHashMap<>();
+    private final AtomicInteger locks = new AtomicInteger();
+
+    private SignalRouter router;
+    private DefaultWorkflowRunManager runManager;
+
+    @BeforeEach
+    void setUp() {
+        router = new SignalRouter();
+        router.maxBatch = 500;
+        router.broadcastConcurrency = 32;
+
+        WorkflowRunRepository runRepository = mock(WorkflowRunRepository.class, withSettings().stubOnly());
+        when(runRepository.withLock(any(), any())).thenAnswer(invocation -> {
+            locks.incrementAndGet();
+            WorkflowRun run = runs.get(invocation.<WorkflowRunId>getArgument(0));
+            Function<WorkflowRun, Uni<?>> action = invocation.getArgument(1);
+            // Completes a little later on another thread, like a database round trip
+            return action.apply(run).onItem().delayIt().by(Duration.ofMillis(10));
+        });
+        when(runRepository.update(any())).thenAnswer(invocation -> Uni.createFrom().item(invocation.<WorkflowRun>getArgument(0)));
+
+        InMemoryExecutionHistoryRepository historyRepository = mock(InMemoryExecutionHistoryRepository.class,
+                withSettings().stubOnly());
+        when(historyRepository.append(any(), anyString(), anyString(), anyMap()))
+                .thenReturn(Uni.createFrom().voidItem());
+
+        runManager = new DefaultWorkflowRunManager();
+        runManager.runRepository = runRepository;
+        runManager.historyRepository = historyRepository;
+        runManager.eventBus = mock(EventBus.class, withSettings().stubOnly());
+        runManager.signalRouter = router;
+        runManager.ownership = new RunOwnership();
+    }
+
+    @Test
+    void broadcastSignal_resumesEveryWaitingRunOfTheTenant() {
+        List<WorkflowRun> waiting = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            waiting.add(suspendedRun(tenantId));
+        }
+        WorkflowRun otherTenant = suspendedRun(TenantId.of("tenant-b"));
+
+        int delivered = runManager.broadcastSignal(tenantId, signal("approved", null))
+                .await().atMost(Duration.ofSeconds(10));
+
+        assertEquals(1_000, delivered);
+        assertTrue(waiting.stream().allMatch(run -> run.getStatus() == RunStatus.RUNNING));
+        assertEquals(RunStatus.SUSPENDED, otherTenant.getStatus());
+        assertTrue(router.waitingFor(tenantId, "approved").isEmpty());
+        assertEquals(1, router.waitingFor(TenantId.of("tenant-b"), "approved").size());
+    }
+
+    @Test
+    void signal_nonMatchingSignalIsBufferedOnTheRun() {
+        WorkflowRun run = suspendedRun(tenantId);
+
+        runManager.signal(run.getId(), signal("other", null)).await().atMost(Duration.ofSeconds(5));
+
+        assertEquals(RunStatus.SUSPENDED, run.getStatus());
+        assertEquals(1, run.getPendingSignals("other").size());
+        assertEquals(List.of(run.getId()), router.waitingFor(tenantId, "approved"));
+    }
+
+    @Test
+    void signal_manySignalsAreAppliedInBatchesPerRun() throws Exception {
+        List<WorkflowRun> targets = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            targets.add(suspendedRun(tenantId));
+        }
+
+        // Throughput is measured by SignalRoutingBenchmark; this only checks the batching
+        List<CompletableFuture<Void>> deliveries = new ArrayList<>(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            WorkflowRun run = targets.get(i % targets.size());
+            deliveries.add(runManager.signal(run.getId(), signal("progress-" + (i % 10), null))
+                    .subscribeAsCompletionStage());
+        }
+        CompletableFuture.allOf(deliveries.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+        assertTrue(deliveries.stream().noneMatch(CompletableFuture::isCompletedExceptionally));
+        assertTrue(locks.get() < 1_000, locks.get() + " lock acquisitions for 10000 signals");
+        assertEquals(0, router.queued());
+        // Buffered by (name, target node): repeats replace rather than pile up
+        assertEquals(1, targets.get(0).getPendingSignals("progress-0").size());
+        assertEquals(RunStatus.SUSPENDED, targets.get(0).getStatus());
+    }
+
+    private WorkflowRun suspendedRun(TenantId tenant) {
+        WorkflowDefinition definition = WorkflowDefinition.builder()
+                .id(WorkflowDefinitionId.of("approval"))
+                .tenantId(tenant)
+                .name("approval")
+                .version("1.0.0")
+                .addNode(new NodeDefinition(waitNode, "wait", NodeType.EVENT_WAIT, "event",
+                        Map.of("signal", "approved"), List.of(), List.of(), null, null, false))
+                .build();
+        WorkflowRun run = WorkflowRun.create(tenant, definition, new java.util.HashMap<>());
+        run.start();
+        run.suspend("Waiting for approval", waitNode);
+        runs.put(run.getId(), run);
+        router.track(run);
+        return run;
+    }
+
+    private static Signal signal(String name, NodeId target) {
+        return new Signal(name, target, Map.of(), Instant.now());
+    }
+}
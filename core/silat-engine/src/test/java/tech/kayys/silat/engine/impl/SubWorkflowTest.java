@@ -0,0 +1,207 @@
+package tech.kayys.silat.engine.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.eventbus.EventBus;
+import tech.kayys.silat.api.repository.WorkflowRunRepository;
+import tech.kayys.silat.cluster.RunOwnership;
+import tech.kayys.silat.execution.NodeExecutionStatus;
+import tech.kayys.silat.model.NodeDefinition;
+import tech.kayys.silat.model.NodeId;
+import tech.kayys.silat.model.NodeType;
+import tech.kayys.silat.model.RunStatus;
+import tech.kayys.silat.model.TenantId;
+import tech.kayys.silat.model.WorkflowDefinition;
+import tech.kayys.silat.model.WorkflowDefinitionId;
+import tech.kayys.silat.model.WorkflowRun;
+import tech.kayys.silat.model.WorkflowRunId;
+import tech.kayys.silat.scheduler.TimerService;
+import tech.kayys.silat.workflow.WorkflowDefinitionRegistry;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SubWorkflowTest {
+
+    private final TenantId tenantId = TenantId.of("tenant-a");
+    private final NodeId splitNode = NodeId.of("split");
+    private final Map<WorkflowRunId, WorkflowRun> runs = new ConcurrentHashMap<>();
+    private final Map<WorkflowRunId, AtomicInteger> locks = new ConcurrentHashMap<>();
+    private final AtomicInteger maxRunningChildren = new AtomicInteger();
+
+    private DefaultWorkflowRunManager runManager;
+
+    @BeforeEach
+    void setUp() {
+        WorkflowRunRepository runRepository = mock(WorkflowRunRepository.class, withSettings().stubOnly());
+        when(runRepository.withLock(any(), any())).thenAnswer(invocation -> {
+            WorkflowRunId runId = invocation.getArgument(0);
+            locks.computeIfAbsent(runId, id -> new AtomicInteger()).incrementAndGet();
+            Function<WorkflowRun, Uni<?>> action = invocation.getArgument(1);
+            WorkflowRun run = runs.get(runId);
+            // Serialised per run like a row lock, completing a little later like a database round trip
+            synchronized (run) {
+                return Uni.createFrom().item(action.apply(run).await().indefinitely())
+                        .onItem().delayIt().by(Duration.ofMillis(5));
+            }
+        });
+        when(runRepository.update(any())).thenAnswer(invocation -> Uni.createFrom().item(invocation.<WorkflowRun>getArgument(0)));
+        when(runRepository.persistAll(any())).thenAnswer(invocation -> {
+            List<WorkflowRun> created = invocation.getArgument(0);
+            created.forEach(run -> runs.put(run.getId(), run));
+            maxRunningChildren.accumulateAndGet(runningChildren(), Math::max);
+            return Uni.createFrom().item(created);
+        });
+
+        InMemoryExecutionHistoryRepository historyRepository = mock(InMemoryExecutionHistoryRepository.class,
+                withSettings().stubOnly());
+        when(historyRepository.append(any(), anyString(), anyString(), anyMap()))
+                .thenReturn(Uni.createFrom().voidItem());
+        when(historyRepository.appendEvents(any(), any())).thenReturn(Uni.createFrom().voidItem());
+
+        WorkflowDefinitionRegistry definitionRegistry = mock(WorkflowDefinitionRegistry.class, withSettings().stubOnly());
+        when(definitionRegistry.getDefinition(any(), any())).thenReturn(Uni.createFrom().item(childDefinition()));
+
+        TimerService timerService = mock(TimerService.class, withSettings().stubOnly());
+        when(timerService.cancelRun(any())).thenReturn(Uni.createFrom().voidItem());
+
+        ChildRunTracker childRuns = new ChildRunTracker();
+        childRuns.maxBatch = 500;
+        childRuns.defaultConcurrency = 100;
+
+        runManager = new DefaultWorkflowRunManager();
+        runManager.runRepository = runRepository;
+        runManager.historyRepository = historyRepository;
+        runManager.definitionRegistry = definitionRegistry;
+        runManager.eventBus = mock(EventBus.class, withSettings().stubOnly());
+        runManager.signalRouter = new SignalRouter();
+        runManager.timerService = timerService;
+        runManager.childRuns = childRuns;
+        runManager.ownership = new RunOwnership();
+        // No payload store: inputs stay inline
+        runManager.payloads = new RunPayloads();
+    }
+
+    @Test
+    void startSubWorkflow_fansOutOverTheListWithinTheCapAndCollectsResultsInOrder() throws Exception {
+        WorkflowRun parent = parentRun(IntStream.range(0, 1_000).boxed().toList(), 50);
+
+        runManager.startSubWorkflow(parent.getId(), splitNode).await().atMost(Duration.ofSeconds(5));
+        assertEquals(50, children().size());
+
+        completeChildrenUntil(() -> parent.getStatus().isTerminal());
+
+        assertEquals(RunStatus.COMPLETED, parent.getStatus());
+        assertEquals(1_000, children().size());
+        assertTrue(maxRunningChildren.get() <= 50, maxRunningChildren.get() + " children ran at once");
+        List<?> results = (List<?>) parent.getNodeExecution(splitNode).getOutput().get("results");
+        assertEquals(1_000, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(Map.of("doubled", i * 2), results.get(i));
+        }
+        int parentLocks = locks.get(parent.getId()).get();
+        assertTrue(parentLocks < 500, parentLocks + " locked updates of the parent for 1000 children");
+    }
+
+    @Test
+    void startSubWorkflow_isIdempotentAcrossDrives() {
+        WorkflowRun parent = parentRun(List.of(1, 2, 3), 10);
+
+        runManager.startSubWorkflow(parent.getId(), splitNode).await().atMost(Duration.ofSeconds(5));
+        runManager.startSubWorkflow(parent.getId(), splitNode).await().atMost(Duration.ofSeconds(5));
+
+        assertEquals(3, children().size());
+        assertEquals(NodeExecutionStatus.RUNNING, parent.getNodeExecution(splitNode).getStatus());
+    }
+
+    @Test
+    void failedChild_stopsTheFanOutAndFailsTheNode() throws Exception {
+        WorkflowRun parent = parentRun(List.of(1, 2, 3, 4, 5), 2);
+        runManager.startSubWorkflow(parent.getId(), splitNode).await().atMost(Duration.ofSeconds(5));
+        List<WorkflowRun> firstWave = children();
+        assertEquals(2, firstWave.size());
+
+        runManager.cancelRun(firstWave.get(0).getId(), tenantId, "rejected").await().atMost(Duration.ofSeconds(5));
+        completeChildrenUntil(() -> parent.getNodeExecution(splitNode).getStatus() != NodeExecutionStatus.RUNNING);
+
+        assertEquals(NodeExecutionStatus.FAILED, parent.getNodeExecution(splitNode).getStatus());
+        assertEquals("SUB_WORKFLOW_FAILED", parent.getNodeExecution(splitNode).getLastError().code());
+        assertEquals(2, children().size());
+    }
+
+    // Complete every running child, wave after wave, until the condition holds
+    private void completeChildrenUntil(java.util.function.BooleanSupplier done) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!done.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "sub-workflow never finished");
+            List<CompletableFuture<WorkflowRun>> completions = new ArrayList<>();
+            for (WorkflowRun child : children()) {
+                if (child.getStatus() == RunStatus.RUNNING) {
+                    int item = (Integer) child.getContext().getVariable("item");
+                    completions.add(runManager.completeRun(child.getId(), tenantId, Map.of("doubled", item * 2))
+                            .subscribeAsCompletionStage());
+                }
+            }
+            if (completions.isEmpty()) {
+                Thread.sleep(5);
+                continue;
+            }
+            CompletableFuture.allOf(completions.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private List<WorkflowRun> children() {
+        return runs.values().stream()
+                .filter(run -> run.getParent() != null)
+                .sorted(java.util.Comparator.comparingInt(run -> run.getParent().index()))
+                .toList();
+    }
+
+    private int runningChildren() {
+        return (int) children().stream().filter(run -> !run.getStatus().isTerminal()).count();
+    }
+
+    private WorkflowRun parentRun(List<Integer> items, int maxConcurrency) {
+        WorkflowDefinition definition = WorkflowDefinition.builder()
+                .id(WorkflowDefinitionId.of("batch"))
+                .tenantId(tenantId)
+                .name("batch")
+                .version("1.0.0")
+                .addNode(new NodeDefinition(splitNode, "split", NodeType.SUB_WORKFLOW, "sub-workflow",
+                        Map.of("workflowId", "double", "forEach", "items", "maxConcurrency", maxConcurrency),
+                        List.of(), List.of(), null, null, false))
+                .build();
+        Map<String, Object> inputs = new HashMap<>();
+        inputs.put("items", items);
+        WorkflowRun run = WorkflowRun.create(tenantId, definition, inputs);
+        run.start();
+        runs.put(run.getId(), run);
+        return run;
+    }
+
+    private WorkflowDefinition childDefinition() {
+        return WorkflowDefinition.builder()
+                .id(WorkflowDefinitionId.of("double"))
+                .tenantId(tenantId)
+                .name("double")
+                .version("1.0.0")
+                .addNode(new NodeDefinition(NodeId.of("work"), "work", NodeType.TASK, "compute",
+                        Map.of(), List.of(), List.of(), null, null, false))
+                .build();
+    }
+}
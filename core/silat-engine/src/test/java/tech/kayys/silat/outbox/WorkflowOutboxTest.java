@@ -0,0 +1,98 @@
+package tech.kayys.silat.outbox;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import tech.kayys.silat.kafka.WorkflowEventMessage;
+import tech.kayys.silat.model.NodeDefinition;
+import tech.kayys.silat.model.NodeId;
+import tech.kayys.silat.model.NodeType;
+import tech.kayys.silat.model.TenantId;
+import tech.kayys.silat.model.WorkflowDefinition;
+import tech.kayys.silat.model.WorkflowDefinitionId;
+import tech.kayys.silat.model.WorkflowRun;
+import tech.kayys.silat.model.event.ExecutionEvent;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkflowOutboxTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void encode_carriesTheRunsEventsInOrderAsTopicMessages() throws Exception {
+        WorkflowRun run = runWithCompletedNode();
+        List<ExecutionEvent> raised = run.getUncommittedEvents();
+
+        JsonArray events = new JsonArray(WorkflowOutbox.encode(List.of(run), mapper));
+
+        assertEquals(raised.size(), events.size());
+        for (int i = 0; i < raised.size(); i++) {
+            JsonObject encoded = events.getJsonObject(i);
+            WorkflowEventMessage expected = WorkflowEventMessage.of(raised.get(i), "tenant-a");
+            assertEquals(expected.eventId(), encoded.getString("eventId"));
+            assertEquals(expected.eventType(), encoded.getString("eventType"));
+            assertEquals(run.getId().value(), encoded.getString("runId"));
+            assertEquals("tenant-a", encoded.getString("tenantId"));
+            assertEquals(expected.occurredAt(), Instant.parse(encoded.getString("occurredAt")));
+            assertEquals(expected.eventType(), encoded.getJsonObject("eventData").getString("eventType"));
+        }
+        JsonObject completed = events.stream()
+                .map(JsonObject.class::cast)
+                .filter(event -> "NodeCompleted".equals(event.getString("eventType")))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("n1", completed.getJsonObject("eventData").getString("nodeId"));
+        assertEquals(Map.of("value", 1), completed.getJsonObject("eventData").getJsonObject("output").getMap());
+    }
+
+    @Test
+    void encode_isNullOnceTheEventsWereCommitted() throws Exception {
+        WorkflowRun run = runWithCompletedNode();
+        run.markEventsAsCommitted();
+
+        assertNull(WorkflowOutbox.encode(List.of(run), mapper));
+    }
+
+    @Test
+    void byRun_keepsEachRunsEventsTogetherAndInOrder() {
+        List<WorkflowEventMessage> messages = List.of(
+                message("e1", "run-a"),
+                message("e2", "run-b"),
+                message("e3", "run-a"),
+                message("e4", "run-c"),
+                message("e5", "run-b"));
+
+        assertEquals(List.of("e1", "e3", "e2", "e5", "e4"),
+                OutboxRelay.byRun(messages).stream().map(WorkflowEventMessage::eventId).toList());
+    }
+
+    private static WorkflowRun runWithCompletedNode() {
+        TenantId tenantId = TenantId.of("tenant-a");
+        NodeId nodeId = NodeId.of("n1");
+        WorkflowDefinition definition = WorkflowDefinition.builder()
+                .id(WorkflowDefinitionId.of("single"))
+                .tenantId(tenantId)
+                .name("single")
+                .version("1.0.0")
+                .addNode(new NodeDefinition(nodeId, nodeId.value(), NodeType.TASK, "work",
+                        Map.of(), List.of(), List.of(), null, null, false))
+                .build();
+        WorkflowRun run = WorkflowRun.create(tenantId, definition, Map.of());
+        run.start();
+        run.startNode(nodeId, 1);
+        run.completeNode(nodeId, 1, Map.of("value", 1));
+        return run;
+    }
+
+    private static WorkflowEventMessage message(String eventId, String runId) {
+        return new WorkflowEventMessage(eventId, runId, "tenant-a", "NodeCompleted", Instant.now(), Map.of());
+    }
+}
@@ -0,0 +1,290 @@
+package tech.kayys.silat.plugin;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import io.smallrye.mutiny.Uni;
+import tech.kayys.silat.execution.DefaultNodeExecutionResult;
+import tech.kayys.silat.execution.NodeExecutionStatus;
+import tech.kayys.silat.execution.NodeExecutionTask;
+import tech.kayys.silat.model.NodeId;
+import tech.kayys.silat.model.RetryPolicy;
+import tech.kayys.silat.model.WorkflowRunId;
+import tech.kayys.silat.plugin.impl.PluginManager;
+import tech.kayys.silat.plugin.interceptor.ExecutionInterceptorPlugin;
+import tech.kayys.silat.plugin.transformer.DataTransformerPlugin;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ExecutionPluginPipelineTest {
+
+    @InjectMocks
+    ExecutionPluginPipeline pipeline;
+
+    @Mock
+    PluginManager pluginManager;
+
+    private final List<String> calls = new ArrayList<>();
+    private final WorkflowRunId runId = WorkflowRunId.of("run-1");
+    private final NodeId nodeId = NodeId.of("node-1");
+
+    @BeforeEach
+    void setUp() {
+        when(pluginManager.getStartedPluginsByType(ExecutionInterceptorPlugin.class)).thenReturn(List.of());
+        when(pluginManager.getStartedPluginsByType(DataTransformerPlugin.class)).thenReturn(List.of());
+        when(pluginManager.acquire(any())).thenReturn(PluginManager.PluginLease.NONE);
+        pipeline.init();
+    }
+
+    @Test
+    void dispatch_withoutPlugins_passesTaskThrough() {
+        NodeExecutionTask task = task(Map.of("a", 1));
+        AtomicReference<NodeExecutionTask> dispatched = new AtomicReference<>();
+
+        pipeline.dispatch(task, "http", t -> {
+            dispatched.set(t);
+            return Uni.createFrom().voidItem();
+        }).await().indefinitely();
+
+        assertSame(task, dispatched.get());
+    }
+
+    @Test
+    void dispatchAndResult_runInterceptorsInOrderWithSharedContext() {
+        when(pluginManager.getStartedPluginsByType(ExecutionInterceptorPlugin.class))
+                .thenReturn(List.of(new Recording("second", 2), new Recording("first", 1)));
+        pipeline.rebuild();
+
+        pipeline.dispatch(task(Map.of()), "http", t -> {
+            calls.add("dispatch");
+            return Uni.createFrom().voidItem();
+        }).await().indefinitely();
+
+        var context = pipeline.resultContext(result(NodeExecutionStatus.COMPLETED), () -> "unused");
+        pipeline.afterResult(context, result(NodeExecutionStatus.COMPLETED), Map.of())
+                .await().indefinitely();
+
+        assertEquals(List.of("before:first", "before:second", "dispatch",
+                "after:second:true", "after:first:true"), calls);
+        assertEquals("first", context.attributes().get("first"));
+        assertEquals("http", context.nodeType());
+    }
+
+    @Test
+    void dispatchFailure_callsOnErrorAndPropagates() {
+        when(pluginManager.getStartedPluginsByType(ExecutionInterceptorPlugin.class))
+                .thenReturn(List.of(new Recording("only", 0)));
+        pipeline.rebuild();
+
+        assertThrows(IllegalStateException.class, () -> pipeline.dispatch(task(Map.of()), "http",
+                t -> Uni.createFrom().failure(new IllegalStateException("down"))).await().indefinitely());
+
+        assertEquals(List.of("before:only", "error:only:down"), calls);
+        // The failed attempt's context is not handed to a later result
+        var context = pipeline.resultContext(result(NodeExecutionStatus.FAILED), () -> "grpc");
+        assertEquals("grpc", context.nodeType());
+    }
+
+    @Test
+    void failingInterceptor_doesNotFailDispatch() {
+        ExecutionInterceptorPlugin failing = mock(ExecutionInterceptorPlugin.class);
+        when(failing.getMetadata()).thenReturn(metadata("failing"));
+        when(failing.beforeExecution(any())).thenThrow(new RuntimeException("boom"));
+        when(pluginManager.getStartedPluginsByType(ExecutionInterceptorPlugin.class)).thenReturn(List.of(failing));
+        pipeline.rebuild();
+
+        pipeline.dispatch(task(Map.of()), "http", t -> {
+            calls.add("dispatch");
+            return Uni.createFrom().voidItem();
+        }).await().indefinitely();
+
+        assertEquals(List.of("dispatch"), calls);
+    }
+
+    @Test
+    void transformers_applyOnlyToSupportedNodeTypes() {
+        when(pluginManager.getStartedPluginsByType(DataTransformerPlugin.class))
+                .thenReturn(List.of(new Tagging("http")));
+        pipeline.rebuild();
+
+        AtomicReference<NodeExecutionTask> dispatched = new AtomicReference<>();
+        pipeline.dispatch(task(Map.of("a", 1)), "http", t -> {
+            dispatched.set(t);
+            return Uni.createFrom().voidItem();
+        }).await().indefinitely();
+        assertEquals(Map.of("a", 1, "in", "http"), dispatched.get().context());
+
+        pipeline.dispatch(task(Map.of("a", 1)), "grpc", t -> {
+            dispatched.set(t);
+            return Uni.createFrom().voidItem();
+        }).await().indefinitely();
+        assertEquals(Map.of("a", 1), dispatched.get().context());
+
+        var context = pipeline.resultContext(result(NodeExecutionStatus.COMPLETED), () -> "http");
+        assertEquals(Map.of("b", 2, "out", "http"),
+                pipeline.transformOutput(context, Map.of("b", 2)).await().indefinitely());
+    }
+
+    @Test
+    void failingTransformer_failsTheUniInsteadOfThrowing() {
+        DataTransformerPlugin failing = mock(DataTransformerPlugin.class);
+        when(failing.getMetadata()).thenReturn(metadata("failing"));
+        when(failing.supports("http")).thenReturn(true);
+        when(failing.transformInput(any(), any())).thenThrow(new IllegalArgumentException("bad input"));
+        when(failing.transformOutput(any(), any())).thenThrow(new IllegalArgumentException("bad output"));
+        when(pluginManager.getStartedPluginsByType(DataTransformerPlugin.class)).thenReturn(List.of(failing));
+        pipeline.rebuild();
+
+        Uni<Void> dispatch = pipeline.dispatch(task(Map.of()), "http", t -> {
+            calls.add("dispatch");
+            return Uni.createFrom().voidItem();
+        });
+        var dispatchError = assertThrows(IllegalArgumentException.class, () -> dispatch.await().indefinitely());
+        assertEquals("bad input", dispatchError.getMessage());
+        assertEquals(List.of(), calls);
+
+        var context = pipeline.resultContext(result(NodeExecutionStatus.COMPLETED), () -> "http");
+        Uni<Map<String, Object>> output = pipeline.transformOutput(context, Map.of("b", 2));
+        var outputError = assertThrows(IllegalArgumentException.class, () -> output.await().indefinitely());
+        assertEquals("bad output", outputError.getMessage());
+    }
+
+    @Test
+    void pluginCalls_holdLease() {
+        Recording interceptor = new Recording("only", 0);
+        Tagging transformer = new Tagging("http");
+        when(pluginManager.getStartedPluginsByType(ExecutionInterceptorPlugin.class))
+                .thenReturn(List.of(interceptor));
+        when(pluginManager.getStartedPluginsByType(DataTransformerPlugin.class)).thenReturn(List.of(transformer));
+        pipeline.rebuild();
+
+        pipeline.dispatch(task(Map.of()), "http", t -> Uni.createFrom().voidItem()).await().indefinitely();
+
+        verify(pluginManager).acquire(interceptor);
+        verify(pluginManager).acquire(transformer);
+    }
+
+    @Test
+    void rebuild_replacesChains() {
+        when(pluginManager.getStartedPluginsByType(ExecutionInterceptorPlugin.class))
+                .thenReturn(List.of(new Recording("only", 0)));
+        pipeline.rebuild();
+        assertFalse(pipeline.chainFor("http").isEmpty());
+
+        when(pluginManager.getStartedPluginsByType(ExecutionInterceptorPlugin.class)).thenReturn(List.of());
+        pipeline.rebuild();
+        assertTrue(pipeline.chainFor("http").isEmpty());
+    }
+
+    private NodeExecutionTask task(Map<String, Object> context) {
+        return new NodeExecutionTask(runId, nodeId, 1, null, context, RetryPolicy.none());
+    }
+
+    private DefaultNodeExecutionResult result(NodeExecutionStatus status) {
+        return new DefaultNodeExecutionResult(runId, nodeId, 1, status, Map.of(), null, null);
+    }
+
+    private static PluginMetadata metadata(String id) {
+        return new PluginMetadata(id, id, "1.0.0", "test", "test", List.of(), Map.of());
+    }
+
+    private abstract static class TestPlugin implements Plugin {
+        @Override
+        public void initialize(PluginContext context) {
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void stop() {
+        }
+    }
+
+    private class Recording extends TestPlugin implements ExecutionInterceptorPlugin {
+        private final String name;
+        private final int order;
+
+        Recording(String name, int order) {
+            this.name = name;
+            this.order = order;
+        }
+
+        @Override
+        public PluginMetadata getMetadata() {
+            return metadata(name);
+        }
+
+        @Override
+        public int getOrder() {
+            return order;
+        }
+
+        @Override
+        public Uni<Void> beforeExecution(TaskContext task) {
+            calls.add("before:" + name);
+            task.attributes().put(name, name);
+            return Uni.createFrom().voidItem();
+        }
+
+        @Override
+        public Uni<Void> afterExecution(TaskContext task, ExecutionResult result) {
+            calls.add("after:" + name + ":" + result.isSuccess());
+            return Uni.createFrom().voidItem();
+        }
+
+        @Override
+        public Uni<Void> onError(TaskContext task, Throwable error) {
+            calls.add("error:" + name + ":" + error.getMessage());
+            return Uni.createFrom().voidItem();
+        }
+    }
+
+    private static class Tagging extends TestPlugin implements DataTransformerPlugin {
+        private final String nodeType;
+
+        Tagging(String nodeType) {
+            this.nodeType = nodeType;
+        }
+
+        @Override
+        public PluginMetadata getMetadata() {
+            return metadata("tagging");
+        }
+
+        @Override
+        public boolean supports(String type) {
+            return nodeType.equals(type);
+        }
+
+        @Override
+        public Map<String, Object> transformInput(Map<String, Object> input, NodeContext node) {
+            Map<String, Object> transformed = new HashMap<>(input);
+            transformed.put("in", node.nodeType());
+            return transformed;
+        }
+
+        @Override
+        public Map<String, Object> transformOutput(Map<String, Object> output, NodeContext node) {
+            Map<String, Object> transformed = new HashMap<>(output);
+            transformed.put("out", node.nodeType());
+            return transformed;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package tech.kayys.silat.repository;
+
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.PreparedQuery;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowIterator;
+import io.vertx.mutiny.sqlclient.RowSet;
+import tech.kayys.silat.api.repository.WorkflowRunRepository;
+import tech.kayys.silat.engine.impl.DefaultWorkflowRunManager;
+import tech.kayys.silat.execution.NodeExecutionSnapshot;
+import tech.kayys.silat.model.NodeDefinition;
+import tech.kayys.silat.model.NodeId;
+import tech.kayys.silat.model.NodeType;
+import tech.kayys.silat.model.OutputDefinition;
+import tech.kayys.silat.model.RunStatus;
+import tech.kayys.silat.model.TenantId;
+import tech.kayys.silat.model.WorkflowDefinition;
+import tech.kayys.silat.model.WorkflowDefinitionId;
+import tech.kayys.silat.model.WorkflowRun;
+import tech.kayys.silat.workflow.WorkflowDefinitionRegistry;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ArchivedRunReadTest {
+
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+    private final TenantId tenantId = TenantId.of("tenant-a");
+
+    @TempDir
+    Path archiveRoot;
+
+    @InjectMocks
+    DefaultWorkflowRunManager runManager;
+
+    @Mock
+    WorkflowRunRepository runRepository;
+
+    @Mock
+    WorkflowDefinitionRegistry definitionRegistry;
+
+    @Spy
+    RunArchive runArchive = new RunArchive();
+
+    @Mock
+    Pool pgPool;
+
+    private WorkflowDefinition definition;
+
+    @BeforeEach
+    void setUp() {
+        definition = WorkflowDefinition.builder()
+                .id(WorkflowDefinitionId.of("orders"))
+                .tenantId(tenantId)
+                .name("orders")
+                .version("1.0.0")
+                .addNode(new NodeDefinition(NodeId.of("charge"), "charge", NodeType.TASK, "http",
+                        Map.of(), List.of(), List.of(), null, null, false))
+                .outputs(Map.of("charge.total", new OutputDefinition("charge.total", "number", null)))
+                .build();
+        runArchive.enabled = true;
+        runArchive.location = Optional.of(archiveRoot.toString());
+        runArchive.objectMapper = mapper;
+        runArchive.pgPool = pgPool;
+        when(runRepository.findById(any(), any())).thenReturn(Uni.createFrom().nullItem());
+        when(definitionRegistry.getDefinition(eq(definition.id()), eq(tenantId)))
+                .thenReturn(Uni.createFrom().item(definition));
+    }
+
+    @Test
+    void getRun_rebuildsAnArchivedRunFromItsRow() throws Exception {
+        WorkflowRun run = WorkflowRun.create(tenantId, definition, new HashMap<>(Map.of("orderId", "o-1")));
+        run.start();
+        run.startNode(NodeId.of("charge"), 1);
+        run.completeNode(NodeId.of("charge"), 1, Map.of("total", 42));
+        assertEquals(RunStatus.COMPLETED, run.getStatus());
+        archive(run);
+
+        WorkflowRun read = runManager.getRun(run.getId(), tenantId).await().indefinitely();
+
+        assertNotNull(read);
+        assertEquals(run.getId(), read.getId());
+        assertEquals(RunStatus.COMPLETED, read.getStatus());
+        assertEquals("o-1", read.getContext().getVariable("orderId"));
+        assertEquals(Map.of("charge.total", 42), read.getOutputs());
+        assertEquals(Map.of("total", 42), read.getNodeExecution(NodeId.of("charge")).getOutput());
+        assertEquals(run.getCompletedAt().toEpochMilli(), read.getCompletedAt().toEpochMilli());
+        assertEquals(run.getVersion(), read.getVersion());
+        assertTrue(read.getUncommittedEvents().isEmpty());
+    }
+
+    @Test
+    void getRun_ofARunNeverArchived_isNull() {
+        stubArchivedRuns(null);
+
+        assertNull(runManager.getRun(run().getId(), tenantId).await().indefinitely());
+    }
+
+    private WorkflowRun run() {
+        return WorkflowRun.create(tenantId, definition, new HashMap<>());
+    }
+
+    // Writes the document archiveRun writes for the run's workflow_runs row, which has no events
+    private void archive(WorkflowRun run) throws Exception {
+        Map<String, NodeExecutionSnapshot> nodes = new HashMap<>();
+        run.getAllNodeExecutions().forEach((nodeId, execution) -> nodes.put(nodeId.value(),
+                RunStateDelta.snapshot(nodeId, execution)));
+        ObjectNode row = mapper.createObjectNode()
+                .put("run_id", run.getId().value())
+                .put("tenant_id", tenantId.value())
+                .put("definition_id", definition.id().value())
+                .put("status", run.getStatus().name())
+                .put("created_at", run.getCreatedAt().atOffset(ZoneOffset.UTC).toString())
+                .put("started_at", run.getStartedAt().atOffset(ZoneOffset.UTC).toString())
+                .put("completed_at", run.getCompletedAt().atOffset(ZoneOffset.UTC).toString())
+                .put("last_updated_at", run.getLastUpdatedAt().atOffset(ZoneOffset.UTC).toString())
+                .put("version", run.getVersion())
+                .putNull("parent_run_id");
+        row.set("context_variables", mapper.valueToTree(run.getContext().getVariables()));
+        row.set("node_executions", mapper.readTree(mapper.writeValueAsString(nodes)));
+
+        String key = RunArchive.archiveKey(tenantId.value(),
+                run.getCompletedAt().atOffset(ZoneOffset.UTC).toLocalDate(), run.getId().value());
+        RunArchive.writeDocument(mapper, archiveRoot.resolve(key),
+                RunArchive.document(mapper, row.toString(), List.of()));
+        stubArchivedRuns(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubArchivedRuns(String archiveKey) {
+        PreparedQuery<RowSet<Row>> query = mock(PreparedQuery.class);
+        RowSet<Row> rows = mock(RowSet.class);
+        RowIterator<Row> iterator = mock(RowIterator.class);
+        Row row = mock(Row.class);
+        when(pgPool.preparedQuery(anyString())).thenReturn(query);
+        when(query.execute(any())).thenReturn(Uni.createFrom().item(rows));
+        when(rows.iterator()).thenReturn(iterator);
+        when(iterator.hasNext()).thenReturn(archiveKey != null);
+        when(iterator.next()).thenReturn(row);
+        when(row.getString("archive_key")).thenReturn(archiveKey);
+    }
+}
@@ -0,0 +1,121 @@
+package tech.kayys.silat.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.PreparedQuery;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowIterator;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.SqlConnection;
+import tech.kayys.silat.model.ConcurrencyException;
+import tech.kayys.silat.model.TenantId;
+import tech.kayys.silat.model.WorkflowDefinitionId;
+import tech.kayys.silat.model.WorkflowRunId;
+import tech.kayys.silat.model.event.ExecutionEvent;
+import tech.kayys.silat.model.event.WorkflowStartedEvent;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PostgresEventStoreAppendTest {
+
+    private final WorkflowRunId runId = WorkflowRunId.of("run-1");
+
+    @InjectMocks
+    PostgresEventStore eventStore;
+
+    @Mock
+    Pool pgPool;
+
+    @Spy
+    ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Mock
+    SqlConnection conn;
+
+    @Mock
+    PreparedQuery<RowSet<Row>> claim;
+
+    @Mock
+    PreparedQuery<RowSet<Row>> insert;
+
+    @Mock
+    RowSet<Row> claimed;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(pgPool.withTransaction(any(Function.class)))
+                .thenAnswer(invocation -> ((Function<SqlConnection, Uni<?>>) invocation.getArgument(0)).apply(conn));
+        when(conn.preparedQuery(contains("workflow_event_sequences"))).thenReturn(claim);
+        when(conn.preparedQuery(contains("INSERT INTO workflow_events"))).thenReturn(insert);
+        when(claim.execute(any())).thenReturn(Uni.createFrom().item(claimed));
+        when(insert.executeBatch(anyList())).thenReturn(Uni.createFrom().item(mock(RowSet.class)));
+    }
+
+    @Test
+    void appendEvents_claimsTheNextSequencesBeforeInserting() {
+        when(claimed.rowCount()).thenReturn(1);
+
+        eventStore.appendEvents(runId, List.of(event(), event()), 4).await().indefinitely();
+
+        verify(conn).preparedQuery(contains("UPDATE workflow_event_sequences"));
+        verify(claim).execute(argThat(tuple -> tuple.getLong(1) == 6L && tuple.getLong(2) == 4L));
+        verify(insert).executeBatch(argThat(rows -> rows.size() == 2
+                && rows.get(0).getLong(4) == 5L && rows.get(1).getLong(4) == 6L));
+    }
+
+    @Test
+    void appendEvents_pastTheExpectedVersion_failsWithoutInserting() {
+        when(claimed.rowCount()).thenReturn(0);
+
+        assertThrows(ConcurrencyException.class,
+                () -> eventStore.appendEvents(runId, List.of(event()), 0).await().indefinitely());
+        verify(conn).preparedQuery(contains("ON CONFLICT (run_id) DO NOTHING"));
+        verify(insert, never()).executeBatch(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getEvents_sinceTheRunsCreation_boundsOccurredAt() {
+        PreparedQuery<RowSet<Row>> read = mock(PreparedQuery.class);
+        RowSet<Row> rows = mock(RowSet.class);
+        RowIterator<Row> none = mock(RowIterator.class);
+        when(rows.iterator()).thenReturn(none);
+        when(pgPool.preparedQuery(anyString())).thenReturn(read);
+        when(read.execute(any())).thenReturn(Uni.createFrom().item(rows));
+        Instant createdAt = Instant.parse("2026-03-01T08:00:00Z");
+
+        assertTrue(eventStore.getEvents(runId, createdAt).await().indefinitely().isEmpty());
+
+        verify(pgPool).preparedQuery(contains("occurred_at >= $2"));
+        verify(read).execute(argThat(tuple -> tuple.getString(0).equals(runId.value())
+                && tuple.getOffsetDateTime(1).toInstant().equals(createdAt)));
+    }
+
+    private ExecutionEvent event() {
+        return new WorkflowStartedEvent(UUID.randomUUID().toString(), runId,
+                WorkflowDefinitionId.of("orders"), TenantId.of("tenant-a"), Map.of(), Instant.now());
+    }
+}
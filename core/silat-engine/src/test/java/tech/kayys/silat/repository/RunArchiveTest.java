@@ -0,0 +1,71 @@
+package tech.kayys.silat.repository;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RunArchiveTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @TempDir
+    Path archiveRoot;
+
+    @Test
+    void archiveKey_isGroupedByTenantAndCompletionDate() {
+        assertEquals("acme/2024/03/07/run-1.json.gz",
+                RunArchive.archiveKey("acme", LocalDate.of(2024, 3, 7), "run-1"));
+    }
+
+    @Test
+    void archiveKey_sanitizesPathSegments() {
+        assertEquals("_.._x/2024/12/31/a_b.json.gz",
+                RunArchive.archiveKey("/../x", LocalDate.of(2024, 12, 31), "a/b"));
+    }
+
+    @Test
+    void resolveRoot_acceptsPlainPathsAndFileUris() {
+        assertEquals(archiveRoot, RunArchive.resolveRoot(archiveRoot.toString()));
+        assertEquals(archiveRoot, RunArchive.resolveRoot(archiveRoot.toUri().toString()));
+    }
+
+    @Test
+    void writeDocument_roundTripsCompressed() throws Exception {
+        ObjectNode document = mapper.createObjectNode();
+        document.put("formatVersion", RunArchive.FORMAT_VERSION);
+        document.putObject("run").put("run_id", "run-1").put("status", "COMPLETED");
+        document.putArray("events").addObject().put("event_type", "WorkflowStarted");
+
+        Path file = archiveRoot.resolve(RunArchive.archiveKey("acme", LocalDate.of(2024, 3, 7), "run-1"));
+        RunArchive.writeDocument(mapper, file, document);
+
+        assertTrue(Files.exists(file));
+        assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".part")));
+        JsonNode read = RunArchive.readDocument(mapper, file);
+        assertEquals(document, read);
+    }
+
+    @Test
+    void readDocument_rejectsUnknownFormat() {
+        ObjectNode document = mapper.createObjectNode().put("formatVersion", 99);
+        Path file = archiveRoot.resolve("future.json.gz");
+        RunArchive.writeDocument(mapper, file, document);
+
+        assertThrows(IllegalStateException.class, () -> RunArchive.readDocument(mapper, file));
+    }
+
+    @Test
+    void readDocument_missingFile_fails() {
+        assertThrows(IllegalStateException.class,
+                () -> RunArchive.readDocument(mapper, archiveRoot.resolve("missing.json.gz")));
+    }
+}
@@ -0,0 +1,89 @@
+package tech.kayys.silat.repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.mutiny.Uni;
+import tech.kayys.silat.domain.WorkflowRunEntity;
+import tech.kayys.silat.execution.NodeExecutionSnapshot;
+import tech.kayys.silat.execution.NodeExecutionStatus;
+import tech.kayys.silat.model.ErrorSnapshot;
+import tech.kayys.silat.model.NodeDefinition;
+import tech.kayys.silat.model.NodeId;
+import tech.kayys.silat.model.NodeType;
+import tech.kayys.silat.model.RunStatus;
+import tech.kayys.silat.model.TenantId;
+import tech.kayys.silat.model.WorkflowDefinition;
+import tech.kayys.silat.model.WorkflowDefinitionId;
+import tech.kayys.silat.model.WorkflowRun;
+import tech.kayys.silat.workflow.WorkflowDefinitionRegistry;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RunRowReadTest {
+
+    private final TenantId tenantId = TenantId.of("tenant-a");
+    private final NodeId charge = NodeId.of("charge");
+    private final NodeId ship = NodeId.of("ship");
+    private final PostgresWorkflowRunRepository repository = new PostgresWorkflowRunRepository();
+
+    @BeforeEach
+    void setUp() {
+        WorkflowDefinition definition = WorkflowDefinition.builder()
+                .id(WorkflowDefinitionId.of("orders"))
+                .tenantId(tenantId)
+                .name("orders")
+                .version("1.0.0")
+                .addNode(new NodeDefinition(charge, "charge", NodeType.TASK, "http",
+                        Map.of(), List.of(), List.of(), null, null, false))
+                .addNode(new NodeDefinition(ship, "ship", NodeType.TASK, "http",
+                        Map.of(), List.of(charge), List.of(), null, null, false))
+                .build();
+        repository.definitionRegistry = mock(WorkflowDefinitionRegistry.class);
+        when(repository.definitionRegistry.getDefinition(definition.id(), tenantId))
+                .thenReturn(Uni.createFrom().item(definition));
+    }
+
+    @Test
+    void toDomain_restoresTheStoredRun() {
+        Instant started = Instant.parse("2026-03-01T08:00:00Z");
+        WorkflowRunEntity entity = new WorkflowRunEntity();
+        entity.setRunId("run-1");
+        entity.setTenantId(tenantId.value());
+        entity.setDefinitionId("orders");
+        entity.setStatus(RunStatus.RUNNING);
+        entity.setContextVariables(Map.of("orderId", "o-1"));
+        entity.setNodeExecutions(Map.of(
+                "charge", new NodeExecutionSnapshot("charge", "COMPLETED", 2, started, started.plusSeconds(3),
+                        Map.of("charged", true), new ErrorSnapshot("TIMEOUT", "first attempt timed out", null)),
+                "ship", new NodeExecutionSnapshot("ship", "PENDING", 0, null, null, null, null)));
+        entity.setCreatedAt(started.minusSeconds(1));
+        entity.setStartedAt(started);
+        entity.setLastUpdatedAt(started.plusSeconds(3));
+        entity.setVersion(7L);
+        entity.setParentRunId("parent-1");
+        entity.setMetadata(Map.of("parentNodeId", "fan-out", "parentAttempt", "1", "parentIndex", "4"));
+
+        WorkflowRun run = repository.toDomain(entity).await().atMost(Duration.ofSeconds(5));
+
+        assertEquals("run-1", run.getId().value());
+        assertEquals(RunStatus.RUNNING, run.getStatus());
+        assertEquals(started, run.getStartedAt());
+        assertEquals(7, run.getVersion());
+        assertEquals("o-1", run.getContext().getVariables().get("orderId"));
+        assertEquals(List.of(ship), run.getPendingNodes());
+        assertEquals(NodeExecutionStatus.COMPLETED, run.getNodeExecution(charge).getStatus());
+        assertEquals(2, run.getNodeExecution(charge).getAttempt());
+        assertEquals(started.plusSeconds(3), run.getNodeExecution(charge).getCompletedAt());
+        assertEquals("TIMEOUT", run.getNodeExecution(charge).getLastError().code());
+        assertEquals("fan-out", run.getParent().nodeId().value());
+        assertEquals(4, run.getParent().index());
+        assertTrue(run.getUncommittedEvents().isEmpty());
+    }
+}
@@ -0,0 +1,132 @@
+package tech.kayys.silat.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import tech.kayys.silat.execution.NodeExecutionSnapshot;
+import tech.kayys.silat.model.ErrorInfo;
+import tech.kayys.silat.model.NodeDefinition;
+import tech.kayys.silat.model.NodeExecution;
+import tech.kayys.silat.model.NodeId;
+import tech.kayys.silat.model.NodeType;
+import tech.kayys.silat.model.TenantId;
+import tech.kayys.silat.model.WorkflowDefinition;
+import tech.kayys.silat.model.WorkflowDefinitionId;
+import tech.kayys.silat.model.WorkflowRun;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RunStateDeltaTest {
+
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void of_carriesOnlyTheNodeAndVariablesChangedSinceLastPersisted() throws Exception {
+        WorkflowRun run = runWithCompletedNodes(5);
+
+        RunStateDelta delta = RunStateDelta.of(run, mapper);
+
+        assertFalse(delta.replaceVariables());
+        assertEquals(Map.of("n5.value", 5), read(delta.variables()));
+        assertEquals(List.of(), mapper.readValue(delta.removedVariables(), List.class));
+        Map<String, Object> nodes = read(delta.nodeExecutions());
+        assertEquals(1, nodes.size());
+        assertEquals("COMPLETED", ((Map<?, ?>) nodes.get("n5")).get("status"));
+    }
+
+    @Test
+    void of_staysTheSameSizeAsTheRunGrows() throws Exception {
+        int small = RunStateDelta.of(runWithCompletedNodes(5), mapper).toString().length();
+        int large = RunStateDelta.of(runWithCompletedNodes(200), mapper).toString().length();
+
+        // Only the digits of the node id and its output differ
+        assertTrue(large - small <= 16, small + " vs " + large + " characters");
+    }
+
+    @Test
+    void of_afterPersisting_isEmpty() throws Exception {
+        WorkflowRun run = runWithCompletedNodes(3);
+        run.markPersisted(4);
+
+        RunStateDelta delta = RunStateDelta.of(run, mapper);
+
+        assertEquals("{}", delta.variables());
+        assertEquals("{}", delta.nodeExecutions());
+        assertEquals(4, run.getVersion());
+    }
+
+    @Test
+    void of_listsRemovedAndReplacedVariables() throws Exception {
+        WorkflowRun run = runWithCompletedNodes(1);
+        run.markPersisted(1);
+        run.getContext().withoutVariable("n1.value");
+
+        assertEquals(List.of("n1.value"), mapper.readValue(RunStateDelta.of(run, mapper).removedVariables(), List.class));
+
+        run.getContext().setVariables(Map.of("only", true));
+        RunStateDelta replaced = RunStateDelta.of(run, mapper);
+        assertTrue(replaced.replaceVariables());
+        assertEquals(Map.of("only", true), read(replaced.variables()));
+    }
+
+    @Test
+    void snapshot_keepsTheNodesTimesAndErrorThroughTheStoredDocument() throws Exception {
+        WorkflowRun run = runWithCompletedNodes(1);
+        NodeId nodeId = NodeId.of("n1");
+        NodeExecution completed = run.getNodeExecution(nodeId);
+        completed.setLastError(new ErrorInfo("TIMEOUT", "first attempt timed out", null, Map.of()));
+
+        String stored = mapper.writeValueAsString(RunStateDelta.snapshot(nodeId, completed));
+        NodeExecution restored = RunStateDelta.restore(nodeId,
+                mapper.readValue(stored, NodeExecutionSnapshot.class), run.getDefinition());
+
+        assertEquals(completed.getStatus(), restored.getStatus());
+        assertNotNull(restored.getStartedAt());
+        assertEquals(completed.getStartedAt(), restored.getStartedAt());
+        assertEquals(completed.getCompletedAt(), restored.getCompletedAt());
+        assertEquals(Map.of("value", 1), restored.getOutput());
+        assertEquals("TIMEOUT", restored.getLastError().code());
+        assertEquals("first attempt timed out", restored.getLastError().message());
+    }
+
+    // A chain of nodes, all completed and persisted but the last
+    private WorkflowRun runWithCompletedNodes(int count) {
+        TenantId tenantId = TenantId.of("tenant-a");
+        WorkflowDefinition.Builder definition = WorkflowDefinition.builder()
+                .id(WorkflowDefinitionId.of("chain"))
+                .tenantId(tenantId)
+                .name("chain")
+                .version("1.0.0");
+        List<NodeId> nodes = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            NodeId nodeId = NodeId.of("n" + i);
+            List<NodeId> dependsOn = nodes.isEmpty() ? List.of() : List.of(nodes.get(nodes.size() - 1));
+            definition.addNode(new NodeDefinition(nodeId, nodeId.value(), NodeType.TASK, "work",
+                    Map.of(), dependsOn, List.of(), null, null, false));
+            nodes.add(nodeId);
+        }
+        WorkflowRun run = WorkflowRun.create(tenantId, definition.build(), Map.of());
+        run.start();
+        for (int i = 0; i < nodes.size(); i++) {
+            NodeId nodeId = nodes.get(i);
+            if (i == nodes.size() - 1) {
+                run.markPersisted(i);
+            }
+            // Each completion schedules the next node
+            run.startNode(nodeId, 1);
+            run.completeNode(nodeId, 1, Map.of("value", i + 1));
+        }
+        return run;
+    }
+
+    private Map<String, Object> read(String json) throws Exception {
+        return mapper.readValue(json, new TypeReference<Map<String, Object>>() {
+        });
+    }
+}
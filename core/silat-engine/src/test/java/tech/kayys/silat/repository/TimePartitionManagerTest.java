@@ -0,0 +1,182 @@
+package tech.kayys.silat.repository;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.PreparedQuery;
+import io.vertx.mutiny.sqlclient.Query;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowIterator;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.SqlConnection;
+import tech.kayys.silat.repository.TimePartitionManager.Granularity;
+import tech.kayys.silat.repository.TimePartitionManager.ManagedTable;
+import tech.kayys.silat.repository.TimePartitionManager.Partition;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TimePartitionManagerTest {
+
+    @Test
+    void periodStart_alignsToMonthAndIsoWeek() {
+        LocalDate date = LocalDate.of(2026, 10, 15); // Thursday
+
+        assertEquals(LocalDate.of(2026, 10, 1), TimePartitionManager.periodStart(date, Granularity.MONTHLY));
+        assertEquals(LocalDate.of(2026, 10, 12), TimePartitionManager.periodStart(date, Granularity.WEEKLY));
+        assertEquals(LocalDate.of(2027, 1, 1),
+                TimePartitionManager.nextPeriod(LocalDate.of(2026, 12, 1), Granularity.MONTHLY));
+    }
+
+    @Test
+    void partitionName_roundTripsThroughParse() {
+        String name = TimePartitionManager.partitionName("workflow_events",
+                LocalDate.of(2026, 10, 1), LocalDate.of(2026, 11, 1));
+
+        assertEquals("workflow_events_p20261001_20261101", name);
+        Partition partition = TimePartitionManager.parsePartition("workflow_events", name).orElseThrow();
+        assertEquals(LocalDate.of(2026, 10, 1), partition.from());
+        assertEquals(LocalDate.of(2026, 11, 1), partition.to());
+    }
+
+    @Test
+    void parsePartition_ignoresForeignPartitions() {
+        assertTrue(TimePartitionManager.parsePartition("workflow_events", "workflow_events_default").isEmpty());
+        assertTrue(TimePartitionManager.parsePartition("audit_log", "workflow_events_p20261001_20261101").isEmpty());
+    }
+
+    @TempDir
+    Path archiveRoot;
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 15);
+    private static final String LEFTOVER = "workflow_events_p20240101_20240201";
+
+    @Test
+    void maintain_archivesAndDropsExpiredPartitionsLeftDetached() {
+        Pool pool = mock(Pool.class);
+        TimePartitionManager manager = manager(pool, Optional.of(archiveRoot.toString()));
+        doReturn(Uni.createFrom().item(3L)).when(manager).archive(anyString(), any());
+
+        manager.maintain(new ManagedTable("workflow_events", Duration.ofDays(365)), TODAY)
+                .await().atMost(Duration.ofSeconds(5));
+
+        verify(manager).archive(eq(LEFTOVER), eq(archiveRoot.resolve(LEFTOVER + ".ndjson.gz")));
+        verify(pool).query("DROP TABLE " + LEFTOVER);
+        verify(pool, never()).query(contains("DETACH PARTITION " + LEFTOVER));
+    }
+
+    @Test
+    void maintain_withoutArchiveDir_leavesDetachedPartitions() {
+        Pool pool = mock(Pool.class);
+        TimePartitionManager manager = manager(pool, Optional.empty());
+
+        manager.maintain(new ManagedTable("workflow_events", Duration.ofDays(365)), TODAY)
+                .await().atMost(Duration.ofSeconds(5));
+
+        verify(manager, never()).archive(anyString(), any());
+        verify(pool, never()).query(startsWith("DROP TABLE"));
+        verify(pool, never()).preparedQuery(contains("relispartition"));
+    }
+
+    @Test
+    void maintainPartitions_heldByAnotherInstance_doesNothing() {
+        Pool pool = mock(Pool.class);
+        TimePartitionManager manager = manager(pool, Optional.empty());
+        SqlConnection conn = lockingConnection(pool, false);
+
+        manager.maintainPartitions().await().atMost(Duration.ofSeconds(5));
+
+        verify(manager, never()).maintain(any(), any());
+        verify(conn, never()).preparedQuery(contains("pg_advisory_unlock"));
+    }
+
+    @Test
+    void maintainPartitions_releasesTheLockWhenDone() {
+        Pool pool = mock(Pool.class);
+        TimePartitionManager manager = manager(pool, Optional.empty());
+        SqlConnection conn = lockingConnection(pool, true);
+        doReturn(Uni.createFrom().failure(new IllegalStateException("boom")))
+                .when(manager).maintain(argThat(table -> table.name().equals("workflow_events")), any());
+
+        manager.maintainPartitions().await().atMost(Duration.ofSeconds(5));
+
+        // A failing table does not keep the other from being maintained
+        verify(manager).maintain(argThat(table -> table.name().equals("audit_log")), any());
+        verify(conn).preparedQuery(contains("pg_advisory_unlock"));
+    }
+
+    // A connection whose pg_try_advisory_lock answers acquired
+    @SuppressWarnings("unchecked")
+    private static SqlConnection lockingConnection(Pool pool, boolean acquired) {
+        SqlConnection conn = mock(SqlConnection.class);
+        when(pool.withConnection(any(Function.class)))
+                .thenAnswer(invocation -> ((Function<SqlConnection, Uni<?>>) invocation.getArgument(0)).apply(conn));
+        PreparedQuery<RowSet<Row>> query = mock(PreparedQuery.class);
+        RowSet<Row> rows = mock(RowSet.class);
+        Row row = mock(Row.class);
+        when(row.getBoolean(0)).thenReturn(acquired);
+        when(conn.preparedQuery(anyString())).thenReturn(query);
+        when(query.execute(any())).thenReturn(Uni.createFrom().item(rows));
+        when(rows.iterator()).thenAnswer(invocation -> iterator(List.of(row).iterator()));
+        return conn;
+    }
+
+    // A partitioned table with no attached partitions past retention and one expired leftover
+    @SuppressWarnings("unchecked")
+    private TimePartitionManager manager(Pool pool, Optional<String> archiveDir) {
+        TimePartitionManager manager = spy(new TimePartitionManager());
+        manager.pgPool = pool;
+        manager.granularity = Granularity.MONTHLY;
+        manager.premake = 1;
+        manager.archiveDir = archiveDir;
+        manager.timeout = Duration.ofSeconds(5);
+        manager.enabled = true;
+        manager.eventsRetention = Duration.ofDays(365);
+        manager.auditRetention = Duration.ofDays(730);
+
+        Query<RowSet<Row>> ddl = mock(Query.class);
+        when(pool.query(anyString())).thenReturn(ddl);
+        when(ddl.execute()).thenReturn(Uni.createFrom().item(mock(RowSet.class)));
+
+        Row partitioned = mock(Row.class);
+        when(partitioned.getBoolean(0)).thenReturn(true);
+        stubQuery(pool, "pg_partitioned_table", List.of(partitioned));
+        stubQuery(pool, "pg_inherits", List.of());
+        Row leftover = mock(Row.class);
+        when(leftover.getString("relname")).thenReturn(LEFTOVER);
+        stubQuery(pool, "relispartition", List.of(leftover));
+        return manager;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void stubQuery(Pool pool, String sqlFragment, List<Row> result) {
+        PreparedQuery<RowSet<Row>> query = mock(PreparedQuery.class);
+        RowSet<Row> rows = mock(RowSet.class);
+        when(pool.preparedQuery(contains(sqlFragment))).thenReturn(query);
+        when(query.execute(any())).thenReturn(Uni.createFrom().item(rows));
+        when(rows.iterator()).thenAnswer(invocation -> iterator(result.iterator()));
+        doAnswer(invocation -> {
+            result.forEach(invocation.getArgument(0));
+            return null;
+        }).when(rows).forEach(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RowIterator<Row> iterator(Iterator<Row> rows) {
+        RowIterator<Row> iterator = mock(RowIterator.class);
+        when(iterator.hasNext()).thenAnswer(invocation -> rows.hasNext());
+        when(iterator.next()).thenAnswer(invocation -> rows.next());
+        return iterator;
+    }
+}
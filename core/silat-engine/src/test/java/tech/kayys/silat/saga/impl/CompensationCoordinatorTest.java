@@ -2,21 +2,36 @@ package tech.kayys.silat.saga.impl;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import io.smallrye.mutiny.Uni;
+import tech.kayys.silat.api.engine.ExecutionTokenService;
+import tech.kayys.silat.dispatcher.FairDispatchQueue;
+import tech.kayys.silat.execution.DefaultNodeExecutionResult;
+import tech.kayys.silat.execution.NodeExecutionResult;
+import tech.kayys.silat.execution.NodeExecutionStatus;
+import tech.kayys.silat.execution.NodeExecutionTask;
 import tech.kayys.silat.model.*;
+import tech.kayys.silat.registry.ExecutorRegistry;
 import tech.kayys.silat.saga.CompensationPolicy;
 import tech.kayys.silat.saga.CompensationResult;
 import tech.kayys.silat.saga.CompensationStrategy;
@@ -32,9 +47,23 @@ class CompensationCoordinatorTest {
         @Mock
         private WorkflowDefinitionRegistry definitionRegistry;
 
+        @Mock
+        private ExecutorRegistry executorRegistry;
+
+        @Mock
+        private FairDispatchQueue dispatchQueue;
+
+        @Mock
+        private ExecutionTokenService tokenService;
+
         @InjectMocks
         private CompensationCoordinator coordinator;
 
+        private final ExecutorInfo undoExecutor = new ExecutorInfo(
+                        "undo-1", "undo", CommunicationType.GRPC, "localhost:9090", Duration.ofSeconds(30), Map.of());
+
+        private final List<NodeExecutionTask> dispatched = new ArrayList<>();
+
         private WorkflowRun failedRun;
         private WorkflowDefinition definition;
         private NodeId node1;
@@ -50,6 +79,16 @@ class CompensationCoordinatorTest {
 
                 // Create workflow definition with compensation policy
                 definition = createWorkflowDefinition();
+
+                coordinator.maxConcurrency = 8;
+                when(executorRegistry.getExecutorsByType("undo")).thenReturn(Uni.createFrom().item(List.of(undoExecutor)));
+                when(tokenService.issue(any(), any(), anyInt())).thenAnswer(invocation -> Uni.createFrom().item(
+                                new ExecutionToken("token", invocation.getArgument(0), invocation.getArgument(1),
+                                                invocation.<Integer>getArgument(2), Instant.now().plusSeconds(60))));
+                when(dispatchQueue.submit(any(), any(), any(), any())).thenAnswer(invocation -> {
+                        dispatched.add(invocation.getArgument(2));
+                        return Uni.createFrom().voidItem();
+                });
         }
 
         @Test
@@ -92,80 +131,161 @@ class CompensationCoordinatorTest {
 
         @Test
         void compensate_withSequentialStrategy_compensatesInReverseOrder() {
-                // Given: Sequential compensation policy
-                CompensationPolicy policy = new CompensationPolicy(
-                                true,
-                                CompensationStrategy.SEQUENTIAL,
-                                Duration.ofMinutes(5),
-                                true,
-                                3);
-
-                WorkflowDefinition defWithPolicy = mock(WorkflowDefinition.class);
-                when(defWithPolicy.compensationPolicy()).thenReturn(policy);
-                when(defWithPolicy.findNode(any())).thenReturn(Optional.of(createNodeDefinition()));
-
-                when(definitionRegistry.getDefinition(any(), any()))
-                                .thenReturn(io.smallrye.mutiny.Uni.createFrom().item(defWithPolicy));
+                // Given: a -> b -> c completed, d pending when the run failed
+                WorkflowRun run = failedChain(CompensationStrategy.SEQUENTIAL, true, 3);
 
                 // When
-                CompensationResult result = coordinator.compensate(failedRun)
+                CompensationResult result = coordinator.compensate(run)
                                 .await().atMost(Duration.ofSeconds(5));
 
-                // Then
+                // Then: one node at a time, dependents first
                 assertTrue(result.success());
-                assertEquals("Sequential compensation completed", result.message());
+                assertEquals("Sequential compensation started", result.message());
+                assertEquals(List.of("c"), dispatchedNodes());
+
+                complete(run, "c");
+                assertEquals(List.of("c", "b"), dispatchedNodes());
+                complete(run, "b");
+                assertEquals(List.of("c", "b", "a"), dispatchedNodes());
+                complete(run, "a");
+
+                assertEquals(RunStatus.COMPENSATED, run.getStatus());
+                assertEquals(NodeExecutionStatus.COMPENSATED, run.getNodeExecution(NodeId.of("a")).getStatus());
+                // Recorded on the nodes, so the progress is persisted with them
+                assertTrue(run.getChangedNodes().containsAll(Set.of(NodeId.of("a"), NodeId.of("b"), NodeId.of("c"))));
         }
 
         @Test
         void compensate_withParallelStrategy_compensatesAllAtOnce() {
-                // Given: Parallel compensation policy
-                CompensationPolicy policy = new CompensationPolicy(
-                                true,
-                                CompensationStrategy.PARALLEL,
-                                Duration.ofMinutes(5),
-                                false,
-                                3);
-
-                WorkflowDefinition defWithPolicy = mock(WorkflowDefinition.class);
-                when(defWithPolicy.compensationPolicy()).thenReturn(policy);
-                when(defWithPolicy.findNode(any())).thenReturn(Optional.of(createNodeDefinition()));
-
-                when(definitionRegistry.getDefinition(any(), any()))
-                                .thenReturn(io.smallrye.mutiny.Uni.createFrom().item(defWithPolicy));
+                // Given: root -> (left, right) -> join, join pending when the run failed
+                WorkflowRun run = failedDiamond(CompensationStrategy.PARALLEL);
 
                 // When
-                CompensationResult result = coordinator.compensate(failedRun)
+                CompensationResult result = coordinator.compensate(run)
                                 .await().atMost(Duration.ofSeconds(5));
 
-                // Then
+                // Then: both branches roll back together, the root waits for them
                 assertTrue(result.success());
-                assertEquals("Parallel compensation completed", result.message());
+                assertEquals("Parallel compensation started", result.message());
+                assertEquals(Set.of("left", "right"), Set.copyOf(dispatchedNodes()));
+
+                complete(run, "left");
+                assertEquals(2, dispatchedNodes().size());
+                complete(run, "right");
+                assertEquals("root", dispatchedNodes().get(2));
+                complete(run, "root");
+
+                assertEquals(RunStatus.COMPENSATED, run.getStatus());
+        }
+
+        @Test
+        void compensate_withParallelStrategy_staysWithinTheConcurrencyCap() {
+                // Given: four independent completed branches, at most two compensations at a time
+                coordinator.maxConcurrency = 2;
+                WorkflowRun run = failedFanOut(4);
+
+                // When
+                coordinator.compensate(run).await().atMost(Duration.ofSeconds(5));
+
+                // Then
+                assertEquals(2, dispatchedNodes().size());
+                complete(run, dispatchedNodes().get(0));
+                assertEquals(3, dispatchedNodes().size());
+                complete(run, dispatchedNodes().get(1));
+                complete(run, dispatchedNodes().get(2));
+                assertEquals(4, dispatchedNodes().size());
+                assertFalse(dispatchedNodes().contains("root"));
+                complete(run, dispatchedNodes().get(3));
+                assertEquals("root", dispatchedNodes().get(4));
         }
 
         @Test
         void compensate_withCustomStrategy_fallsBackToSequential() {
                 // Given: Custom compensation policy
-                CompensationPolicy policy = new CompensationPolicy(
-                                true,
-                                CompensationStrategy.CUSTOM,
-                                Duration.ofMinutes(10),
-                                true,
-                                3);
+                WorkflowRun run = failedDiamond(CompensationStrategy.CUSTOM);
 
-                WorkflowDefinition defWithPolicy = mock(WorkflowDefinition.class);
-                when(defWithPolicy.compensationPolicy()).thenReturn(policy);
-                when(defWithPolicy.findNode(any())).thenReturn(Optional.of(createNodeDefinition()));
+                // When
+                CompensationResult result = coordinator.compensate(run)
+                                .await().atMost(Duration.ofSeconds(5));
 
-                when(definitionRegistry.getDefinition(any(), any()))
-                                .thenReturn(io.smallrye.mutiny.Uni.createFrom().item(defWithPolicy));
+                // Then
+                assertTrue(result.success());
+                assertEquals("Sequential compensation started", result.message());
+                assertEquals(1, dispatchedNodes().size());
+        }
+
+        @Test
+        void compensate_withoutHandler_compensatesAtOnceAndUnblocksDependencies() {
+                // Given: only the first node of the chain has a handler
+                WorkflowRun run = failedChain(CompensationStrategy.SEQUENTIAL, false, 3);
 
                 // When
-                CompensationResult result = coordinator.compensate(failedRun)
+                coordinator.compensate(run).await().atMost(Duration.ofSeconds(5));
+
+                // Then
+                assertEquals(List.of("a"), dispatchedNodes());
+                assertEquals(List.of(NodeId.of("c"), NodeId.of("b")),
+                                run.getCompensationState().compensatedNodes());
+        }
+
+        @Test
+        void onResult_withFailure_retriesWithTheNextAttemptAndThenFailsTheCompensation() {
+                // Given: a policy allowing one retry that fails on compensation errors
+                WorkflowRun run = failedChain(CompensationStrategy.SEQUENTIAL, true, 1);
+                coordinator.compensate(run).await().atMost(Duration.ofSeconds(5));
+
+                // When: the first attempt fails
+                assertTrue(coordinator.onResult(run, result("a", 2, NodeExecutionStatus.FAILED))
+                                .await().atMost(Duration.ofSeconds(5)));
+
+                // Then: dispatched again
+                assertEquals(List.of(2, 3), dispatchedAttempts());
+                assertEquals(RunStatus.COMPENSATING, run.getStatus());
+
+                // When: the retry fails as well
+                coordinator.onResult(run, result("a", 3, NodeExecutionStatus.FAILED))
                                 .await().atMost(Duration.ofSeconds(5));
 
                 // Then
-                assertTrue(result.success());
-                assertEquals("Sequential compensation completed", result.message());
+                assertEquals(RunStatus.FAILED, run.getStatus());
+                assertTrue(run.getCompensationState().isFailed());
+        }
+
+        @Test
+        void onResult_ofSupersededAttempt_isIgnored() {
+                // Given
+                WorkflowRun run = failedChain(CompensationStrategy.SEQUENTIAL, true, 2);
+                coordinator.compensate(run).await().atMost(Duration.ofSeconds(5));
+
+                // When: a late forward result and a result for an attempt never dispatched
+                boolean forward = coordinator.onResult(run, result("b", 1, NodeExecutionStatus.COMPLETED))
+                                .await().atMost(Duration.ofSeconds(5));
+                boolean unknown = coordinator.onResult(run, result("b", 7, NodeExecutionStatus.COMPLETED))
+                                .await().atMost(Duration.ofSeconds(5));
+
+                // Then
+                assertFalse(forward);
+                assertFalse(unknown);
+                assertEquals(0, run.getCompensationState().getCompensatedCount());
+        }
+
+        @Test
+        void resume_redispatchesUnansweredTasksOnly() {
+                // Given: b compensated, a in flight when compensation stalled
+                WorkflowRun run = failedChain(CompensationStrategy.SEQUENTIAL, true, 2);
+                coordinator.compensate(run).await().atMost(Duration.ofSeconds(5));
+                complete(run, "b");
+
+                // When
+                coordinator.resume(run).await().atMost(Duration.ofSeconds(5));
+
+                // Then: a goes out again under a new attempt, the old one no longer counts
+                assertEquals(List.of("b", "a", "a"), dispatchedNodes());
+                assertEquals(List.of(2, 2, 3), dispatchedAttempts());
+                assertFalse(coordinator.onResult(run, result("a", 2, NodeExecutionStatus.COMPLETED))
+                                .await().atMost(Duration.ofSeconds(5)));
+                complete(run, "a");
+                assertEquals(RunStatus.COMPENSATED, run.getStatus());
         }
 
         @Test
@@ -224,24 +344,110 @@ class CompensationCoordinatorTest {
         }
 
         @Test
-        void compensateNode_withCompensationHandler_executesCompensation() {
+        void compensateNode_withCompensationHandler_dispatchesCompensationTask() {
                 // Given: Node with compensation handler
-                NodeDefinition nodeDef = createNodeDefinition();
-
-                WorkflowDefinition defWithNode = mock(WorkflowDefinition.class);
-                when(defWithNode.findNode(any())).thenReturn(Optional.of(nodeDef));
+                WorkflowRun run = failedChain(CompensationStrategy.SEQUENTIAL, true, 1);
 
                 // When
                 CompensationResult result = coordinator.compensateNode(
-                                failedRun, defWithNode, node1).await().atMost(Duration.ofSeconds(5));
+                                run, run.getDefinition(), NodeId.of("a")).await().atMost(Duration.ofSeconds(5));
 
-                // Then
+                // Then: sent to an executor of the handler's type with the node's output
                 assertTrue(result.success());
-                assertEquals("Node compensated", result.message());
+                assertEquals("Compensation dispatched", result.message());
+                ArgumentCaptor<NodeExecutionTask> task = ArgumentCaptor.forClass(NodeExecutionTask.class);
+                verify(dispatchQueue).submit(eq(run.getTenantId()), eq(run.getDefinition()), task.capture(),
+                                eq(undoExecutor));
+                assertEquals(2, task.getValue().attempt());
+                assertEquals(true, task.getValue().context().get("compensate"));
+                assertEquals(Map.of("value", "a"), task.getValue().context().get("output"));
+                assertTrue(run.getCompensationState().isInFlight(NodeId.of("a")));
         }
 
         // Helper methods
 
+        // A chain a -> b -> ... whose first `completed` nodes ran before the run failed
+        private WorkflowRun failedChain(CompensationStrategy strategy, boolean allHandled, int completed) {
+                WorkflowDefinition.Builder builder = definitionBuilder(strategy);
+                List<String> names = List.of("a", "b", "c", "d").subList(0, completed + 1);
+                for (int i = 0; i < names.size(); i++) {
+                        boolean handled = allHandled || i == 0;
+                        addNode(builder, names.get(i), handled, i == 0 ? List.of() : List.of(names.get(i - 1)));
+                }
+                return failedRun(builder.build(), names.subList(0, completed));
+        }
+
+        private WorkflowRun failedDiamond(CompensationStrategy strategy) {
+                WorkflowDefinition.Builder builder = definitionBuilder(strategy);
+                addNode(builder, "root", true, List.of());
+                addNode(builder, "left", true, List.of("root"));
+                addNode(builder, "right", true, List.of("root"));
+                addNode(builder, "join", true, List.of("left", "right"));
+                return failedRun(builder.build(), List.of("root", "left", "right"));
+        }
+
+        private WorkflowRun failedFanOut(int branches) {
+                WorkflowDefinition.Builder builder = definitionBuilder(CompensationStrategy.PARALLEL);
+                addNode(builder, "root", true, List.of());
+                List<String> completed = new ArrayList<>(List.of("root"));
+                for (int i = 1; i <= branches; i++) {
+                        addNode(builder, "branch-" + i, true, List.of("root"));
+                        completed.add("branch-" + i);
+                }
+                addNode(builder, "tail", true, List.of("branch-1"));
+                return failedRun(builder.build(), completed);
+        }
+
+        private WorkflowDefinition.Builder definitionBuilder(CompensationStrategy strategy) {
+                return WorkflowDefinition.builder()
+                                .id(WorkflowDefinitionId.of("saga"))
+                                .tenantId(TenantId.of("tenant-1"))
+                                .name("saga")
+                                .version("1.0.0")
+                                .compensationPolicy(CompensationPolicy.enabled(strategy, Duration.ofMinutes(5), true, 1));
+        }
+
+        private void addNode(WorkflowDefinition.Builder builder, String name, boolean handled, List<String> dependsOn) {
+                builder.addNode(new NodeDefinition(NodeId.of(name), name, NodeType.TASK, "work",
+                                handled ? Map.of("compensationHandler", "undo") : Map.of(),
+                                dependsOn.stream().map(NodeId::of).toList(), List.of(), null, null, false));
+        }
+
+        private WorkflowRun failedRun(WorkflowDefinition definition, List<String> completed) {
+                WorkflowRun run = WorkflowRun.create(definition.tenantId(), definition, new HashMap<>());
+                run.start();
+                completed.forEach(name -> {
+                        run.startNode(NodeId.of(name), 1);
+                        run.completeNode(NodeId.of(name), 1, Map.of("value", name));
+                });
+                run.fail(new ErrorInfo("BOOM", "failed", null, Map.of()));
+                when(definitionRegistry.getDefinition(any(), any())).thenReturn(Uni.createFrom().item(definition));
+                return run;
+        }
+
+        // Report the node's latest compensation task as done
+        private void complete(WorkflowRun run, String name) {
+                NodeId nodeId = NodeId.of(name);
+                coordinator.onResult(run, result(name, run.getCompensationState().attemptOf(nodeId),
+                                NodeExecutionStatus.COMPLETED)).await().atMost(Duration.ofSeconds(5));
+        }
+
+        private NodeExecutionResult result(String name, int attempt, NodeExecutionStatus status) {
+                return new DefaultNodeExecutionResult(new WorkflowRunId("run-1"), NodeId.of(name), attempt, status,
+                                Map.of(), status == NodeExecutionStatus.FAILED
+                                                ? new ErrorInfo("UNDO_FAILED", "undo failed", null, Map.of())
+                                                : null,
+                                null);
+        }
+
+        private List<String> dispatchedNodes() {
+                return dispatched.stream().map(task -> task.nodeId().value()).toList();
+        }
+
+        private List<Integer> dispatchedAttempts() {
+                return dispatched.stream().map(NodeExecutionTask::attempt).toList();
+        }
+
         private WorkflowRun createFailedWorkflowRun() {
                 WorkflowRun run = mock(WorkflowRun.class);
                 when(run.getId()).thenReturn(new WorkflowRunId("run-1"));
@@ -0,0 +1,234 @@
+package tech.kayys.silat.scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.eventbus.EventBus;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.PreparedQuery;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowIterator;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.Tuple;
+import tech.kayys.silat.model.NodeId;
+import tech.kayys.silat.model.TenantId;
+import tech.kayys.silat.model.WorkflowRunId;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TimerServiceTest {
+
+    private static final WorkflowRunId RUN = WorkflowRunId.of("run-1");
+    private static final NodeId NODE = NodeId.of("charge");
+
+    private final Pool pgPool = mock(Pool.class);
+    private final EventBus eventBus = mock(EventBus.class);
+    private final List<Executed> executed = new ArrayList<>();
+    private final TimerService timers = new TimerService();
+
+    // What the database answers
+    private int claimedRows = 1;
+    private int storedRows = 1;
+    private Set<Integer> renewedShards = Set.of();
+    private long otherOwners;
+    private Set<Integer> freeShards = Set.of();
+
+    @BeforeEach
+    void setUp() {
+        timers.pgPool = pgPool;
+        timers.eventBus = eventBus;
+        timers.enabled = true;
+        timers.shards = 4;
+        timers.horizon = Duration.ofMinutes(2);
+        timers.leaseTtl = Duration.ofSeconds(45);
+        timers.loadBatchSize = 100;
+        timers.tick = Duration.ofMillis(1);
+        timers.wheelSize = 512;
+        timers.start();
+
+        when(pgPool.preparedQuery(anyString())).thenAnswer(invocation -> query(invocation.getArgument(0)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        timers.stop();
+    }
+
+    @Test
+    void cancelForAnEarlierAttempt_keepsTheRetrysTimeout() {
+        timers.schedule(nodeTimeout(2, Instant.now().plusSeconds(60))).await().atMost(Duration.ofSeconds(5));
+        assertEquals(1, timers.armedCount());
+
+        // Late result of attempt 1 after attempt 2 was dispatched
+        timers.cancel(RUN, NODE, DurableTimer.Kind.NODE_TIMEOUT, 1).await().atMost(Duration.ofSeconds(5));
+        assertEquals(1, timers.armedCount());
+        Executed delete = last("DELETE FROM workflow_timers");
+        assertTrue(delete.sql().contains("attempt = $2"));
+        assertEquals(1, delete.tuple().getInteger(1));
+
+        timers.cancel(RUN, NODE, DurableTimer.Kind.NODE_TIMEOUT, 2).await().atMost(Duration.ofSeconds(5));
+        assertEquals(0, timers.armedCount());
+        assertEquals(2, last("DELETE FROM workflow_timers").tuple().getInteger(1));
+    }
+
+    @Test
+    void rescheduleOfTheSameAttempt_keepsTheStoredDeadline() {
+        storedRows = 0;
+        timers.schedule(nodeTimeout(1, Instant.now().plusSeconds(60))).await().atMost(Duration.ofSeconds(5));
+
+        Executed upsert = last("INSERT INTO workflow_timers ");
+        assertTrue(upsert.sql().contains("WHERE workflow_timers.attempt <> EXCLUDED.attempt"));
+        assertEquals(0, timers.armedCount());
+    }
+
+    @Test
+    void dueTimer_isPublishedOnceItsRowIsClaimed() {
+        DurableTimer timer = nodeTimeout(1, Instant.now().plusMillis(20));
+        timers.schedule(timer).await().atMost(Duration.ofSeconds(5));
+
+        verify(eventBus, timeout(2_000)).publish(eq(TimerService.TIMER_FIRED), eq(timer.toJson()));
+        Executed claim = last("DELETE FROM workflow_timers");
+        assertTrue(claim.sql().contains("attempt = $2"));
+        assertEquals(timer.timerId(), claim.tuple().getString(0));
+        assertEquals(1, claim.tuple().getInteger(1));
+        assertEquals(0, timers.armedCount());
+    }
+
+    @Test
+    void timerClaimedElsewhere_isNotPublished() {
+        claimedRows = 0;
+        timers.schedule(nodeTimeout(1, Instant.now().plusMillis(20))).await().atMost(Duration.ofSeconds(5));
+
+        verify(pgPool, timeout(2_000)).preparedQuery(
+                "DELETE FROM workflow_timers WHERE timer_id = $1 AND attempt = $2");
+        verify(eventBus, after(200).never()).publish(anyString(), any());
+    }
+
+    @Test
+    void rebalance_claimsFreeShardsUpToTheFairShare() {
+        otherOwners = 1;
+        freeShards = Set.of(3);
+        renewedShards = Set.of(0);
+
+        assertEquals(Set.of(0, 3), rebalance());
+        // Four shards over two owners
+        assertEquals(1, last("INSERT INTO workflow_timer_leases").tuple().getInteger(3));
+    }
+
+    @Test
+    void rebalance_releasesShardsBeyondTheFairShare() {
+        otherOwners = 1;
+        renewedShards = Set.of(0, 1, 2);
+
+        Set<Integer> kept = rebalance();
+
+        assertEquals(2, kept.size());
+        Integer[] released = (Integer[]) last("DELETE FROM workflow_timer_leases").tuple().getValue(1);
+        assertEquals(1, released.length);
+        assertFalse(kept.contains(released[0]));
+        assertTrue(Set.of(0, 1, 2).containsAll(kept));
+    }
+
+    @Test
+    void rebalance_keepsAFairShareAsItIs() {
+        otherOwners = 1;
+        renewedShards = Set.of(1, 2);
+
+        assertEquals(Set.of(1, 2), rebalance());
+        assertTrue(executed.stream().noneMatch(query -> query.sql().startsWith("INSERT")
+                || query.sql().startsWith("DELETE")));
+    }
+
+    private Set<Integer> rebalance() {
+        return timers.rebalanceLeases().await().atMost(Duration.ofSeconds(5));
+    }
+
+    private static DurableTimer nodeTimeout(int attempt, Instant fireAt) {
+        return DurableTimer.of(DurableTimer.Kind.NODE_TIMEOUT, TenantId.of("tenant-1"), RUN, NODE, attempt, fireAt);
+    }
+
+    private synchronized Executed last(String sqlPrefix) {
+        for (int i = executed.size() - 1; i >= 0; i--) {
+            if (executed.get(i).sql().startsWith(sqlPrefix)) {
+                return executed.get(i);
+            }
+        }
+        return fail("no query starting with " + sqlPrefix);
+    }
+
+    @SuppressWarnings("unchecked")
+    private PreparedQuery<RowSet<Row>> query(String sql) {
+        PreparedQuery<RowSet<Row>> query = mock(PreparedQuery.class);
+        when(query.execute(any(Tuple.class))).thenAnswer(invocation -> {
+            synchronized (this) {
+                executed.add(new Executed(sql, invocation.getArgument(0)));
+            }
+            return Uni.createFrom().item(answer(sql));
+        });
+        return query;
+    }
+
+    private RowSet<Row> answer(String sql) {
+        if (sql.startsWith("DELETE FROM workflow_timers WHERE timer_id = $1")) {
+            RowSet<Row> claimed = rows();
+            when(claimed.rowCount()).thenReturn(claimedRows);
+            return claimed;
+        }
+        if (sql.startsWith("INSERT INTO workflow_timers ")) {
+            RowSet<Row> stored = rows();
+            when(stored.rowCount()).thenReturn(storedRows);
+            return stored;
+        }
+        if (sql.startsWith("UPDATE workflow_timer_leases")) {
+            return shardRows(renewedShards);
+        }
+        if (sql.startsWith("SELECT count(DISTINCT owner)")) {
+            Row row = mock(Row.class);
+            when(row.getLong("owners")).thenReturn(otherOwners);
+            return rows(row);
+        }
+        if (sql.startsWith("INSERT INTO workflow_timer_leases")) {
+            return shardRows(freeShards);
+        }
+        return rows();
+    }
+
+    private static RowSet<Row> shardRows(Set<Integer> shards) {
+        return rows(shards.stream().map(shard -> {
+            Row row = mock(Row.class);
+            when(row.getInteger("shard")).thenReturn(shard);
+            return row;
+        }).toArray(Row[]::new));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RowSet<Row> rows(Row... rows) {
+        RowSet<Row> rowSet = mock(RowSet.class);
+        when(rowSet.iterator()).thenAnswer(invocation -> {
+            Iterator<Row> iterator = List.of(rows).iterator();
+            RowIterator<Row> rowIterator = mock(RowIterator.class);
+            when(rowIterator.hasNext()).thenAnswer(ignored -> iterator.hasNext());
+            when(rowIterator.next()).thenAnswer(ignored -> iterator.next());
+            return rowIterator;
+        });
+        doCallRealMethod().when(rowSet).forEach(any());
+        when(rowSet.size()).thenReturn(rows.length);
+        return rowSet;
+    }
+
+    private record Executed(String sql, Tuple tuple) {
+    }
+}
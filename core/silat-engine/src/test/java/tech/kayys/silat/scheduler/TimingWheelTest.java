@@ -0,0 +1,111 @@
+package tech.kayys.silat.scheduler;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private Thread ticker;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (ticker != null) {
+            ticker.interrupt();
+            ticker.join(1000);
+        }
+    }
+
+    @Test
+    void timersFireInDueOrderAndNotEarly() throws Exception {
+        List<String> fired = new CopyOnWriteArrayList<>();
+        Map<String, Long> firedAt = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(3);
+        TimingWheel<String> wheel = start(new TimingWheel<>(1, 16, name -> {
+            fired.add(name);
+            firedAt.put(name, System.nanoTime());
+            done.countDown();
+        }));
+
+        long start = System.nanoTime();
+        wheel.add("late", 120);
+        wheel.add("early", 20);
+        wheel.add("middle", 60);
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of("early", "middle", "late"), fired);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(firedAt.get("late") - start) >= 119);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelledTimerNeverFires() throws Exception {
+        List<String> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        TimingWheel<String> wheel = start(new TimingWheel<>(1, 16, name -> {
+            fired.add(name);
+            done.countDown();
+        }));
+
+        TimingWheel.Timeout<String> cancelled = wheel.add("cancelled", 30);
+        wheel.add("kept", 60);
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        assertEquals(List.of("kept"), fired);
+    }
+
+    @Test
+    void dueTimerFiresImmediately() {
+        List<String> fired = new CopyOnWriteArrayList<>();
+        TimingWheel<String> wheel = new TimingWheel<>(1, 16, fired::add);
+
+        TimingWheel.Timeout<String> timeout = wheel.add("now", 0);
+
+        assertEquals(List.of("now"), fired);
+        assertFalse(timeout.isPending());
+    }
+
+    @Test
+    void manyTimersCascadeThroughOverflowLevels() throws Exception {
+        int count = 200_000;
+        CountDownLatch done = new CountDownLatch(count);
+        // 8 buckets per level, so delays up to 1.5s cross several overflow levels
+        TimingWheel<Long> wheel = start(new TimingWheel<>(1, 8, due -> {
+            assertTrue(System.nanoTime() >= due - TimeUnit.MILLISECONDS.toNanos(1), "fired early");
+            done.countDown();
+        }));
+
+        for (int i = 0; i < count; i++) {
+            long delay = ThreadLocalRandom.current().nextLong(1, 1_500);
+            wheel.add(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay), delay);
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS), done.getCount() + " timers never fired");
+        assertEquals(0, wheel.size());
+    }
+
+    private <T> TimingWheel<T> start(TimingWheel<T> wheel) {
+        ticker = Thread.ofPlatform().daemon().start(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    wheel.advance(100);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        return wheel;
+    }
+}
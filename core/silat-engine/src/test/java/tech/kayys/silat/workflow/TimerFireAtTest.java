@@ -0,0 +1,67 @@
+package tech.kayys.silat.workflow;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import tech.kayys.silat.model.NodeDefinition;
+import tech.kayys.silat.model.NodeId;
+import tech.kayys.silat.model.NodeType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerFireAtTest {
+
+    @Test
+    void until_isTakenAsIs() {
+        assertEquals(Instant.parse("2026-03-01T08:00:00Z"),
+                WorkflowOrchestrator.timerFireAt(timer(Map.of("until", "2026-03-01T08:00:00Z"))));
+    }
+
+    @Test
+    void until_winsOverDuration() {
+        assertEquals(Instant.parse("2026-03-01T08:00:00Z"), WorkflowOrchestrator.timerFireAt(
+                timer(Map.of("until", "2026-03-01T08:00:00Z", "duration", 5_000))));
+    }
+
+    @Test
+    void numericDuration_isMilliseconds() {
+        assertFiresAfter(Duration.ofMillis(1_500), timer(Map.of("duration", 1_500)));
+    }
+
+    @Test
+    void isoDuration_isParsed() {
+        assertFiresAfter(Duration.ofMinutes(5), timer(Map.of("duration", "PT5M")));
+    }
+
+    @Test
+    void numericStringDuration_isMilliseconds() {
+        assertFiresAfter(Duration.ofMillis(2_000), timer(Map.of("duration", "2000")));
+    }
+
+    @Test
+    void noSchedule_firesImmediately() {
+        assertFiresAfter(Duration.ZERO, timer(Map.of()));
+    }
+
+    @Test
+    void malformedDuration_isRejected() {
+        assertThrows(NumberFormatException.class,
+                () -> WorkflowOrchestrator.timerFireAt(timer(Map.of("duration", "soon"))));
+    }
+
+    private static void assertFiresAfter(Duration expected, NodeDefinition node) {
+        Instant before = Instant.now();
+        Instant fireAt = WorkflowOrchestrator.timerFireAt(node);
+        Instant after = Instant.now();
+        assertFalse(fireAt.isBefore(before.plus(expected)), fireAt + " is before " + before.plus(expected));
+        assertFalse(fireAt.isAfter(after.plus(expected)), fireAt + " is after " + after.plus(expected));
+    }
+
+    private static NodeDefinition timer(Map<String, Object> configuration) {
+        return new NodeDefinition(NodeId.of("wait"), "wait", NodeType.TIMER, "timer", configuration,
+                null, null, null, null, false);
+    }
+}
@@ -0,0 +1,16 @@
+package tech.kayys.silat.plugin;
+
+import java.time.Instant;
+
+/**
+ * A plugin classloader that is still reachable well after its plugin
+ * version was unloaded or replaced, usually because something outside the
+ * plugin still references one of its classes (a thread, a static cache, an
+ * event handler that was never unsubscribed)
+ *
+ * @param pluginId  plugin the classloader belonged to
+ * @param version   plugin version loaded by it
+ * @param retiredAt when the classloader was closed
+ */
+public record ClassLoaderLeak(String pluginId, String version, Instant retiredAt) {
+}
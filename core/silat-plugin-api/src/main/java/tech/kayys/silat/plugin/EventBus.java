@@ -1,31 +1,59 @@
 package tech.kayys.silat.plugin;
 
+import java.util.List;
 import java.util.function.Consumer;
 
 /**
  * Event bus for plugin event communication
- * 
- * Plugins can publish and subscribe to events.
+ *
+ * Plugins can publish and subscribe to events. A subscription receives
+ * events of its type and of all subtypes.
  */
 public interface EventBus {
-    
+
     /**
      * Publish an event
-     * 
+     *
      * @param event the event to publish
      */
     void publish(PluginEvent event);
-    
+
     /**
      * Subscribe to events of a specific type
-     * 
+     *
+     * The handler runs synchronously on the publisher's thread.
+     *
      * @param eventType the event type
      * @param handler the event handler
      * @param <T> the event type
      * @return a subscription that can be used to unsubscribe
      */
     <T extends PluginEvent> Subscription subscribe(Class<T> eventType, Consumer<T> handler);
-    
+
+    /**
+     * Subscribe to events of a specific type with explicit delivery options
+     *
+     * Prefer an asynchronous delivery for handlers that do I/O, so a slow
+     * handler doesn't hold up the publisher.
+     *
+     * @param eventType the event type
+     * @param handler the event handler
+     * @param options delivery options
+     * @param <T> the event type
+     * @return a subscription that can be used to unsubscribe
+     */
+    default <T extends PluginEvent> Subscription subscribe(
+            Class<T> eventType, Consumer<T> handler, SubscriptionOptions options) {
+        return subscribe(eventType, handler);
+    }
+
+    /**
+     * Statistics of all current subscriptions
+     */
+    default List<SubscriptionStats> getSubscriptionStats() {
+        return List.of();
+    }
+
     /**
      * Subscription handle
      */
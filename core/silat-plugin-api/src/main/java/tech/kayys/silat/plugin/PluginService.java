@@ -39,6 +39,10 @@ public interface PluginService extends ServiceRegistry, EventBus {
 
     /**
      * Reload a plugin (hot-reload)
+     *
+     * The new version is loaded, initialized and started next to the running
+     * one and then swapped in; the old version keeps serving calls already in
+     * progress and is stopped once they finish.
      */
     Uni<Plugin> reloadPlugin(String pluginId, Path pluginJar);
 
@@ -71,4 +75,10 @@ public interface PluginService extends ServiceRegistry, EventBus {
      * Set the data directory
      */
     void setDataDirectory(String dataDirectory);
-}
\ No newline at end of file
+
+    /**
+     * Classloaders of unloaded or replaced plugin versions that are still
+     * reachable
+     */
+    List<ClassLoaderLeak> getLeakedClassLoaders();
+}
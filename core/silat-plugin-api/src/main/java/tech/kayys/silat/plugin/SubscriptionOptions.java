@@ -0,0 +1,153 @@
+package tech.kayys.silat.plugin;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Delivery options for an {@link EventBus} subscription
+ *
+ * @param subscriberId  name reported in subscription stats; plugins default
+ *                      to their plugin id
+ * @param delivery      how events reach the handler
+ * @param queueCapacity maximum events queued for an asynchronous subscriber
+ * @param overflow      what to do with an event when the queue is full
+ * @param blockTimeout  longest a publisher waits with {@link Overflow#BLOCK}
+ *                      before the event is dropped
+ * @param concurrency   handler threads for {@link Delivery#CONCURRENT}
+ * @param key           ordering key for {@link Delivery#ORDERED} and
+ *                      coalescing key for {@link Overflow#COALESCE}
+ */
+public record SubscriptionOptions(
+        String subscriberId,
+        Delivery delivery,
+        int queueCapacity,
+        Overflow overflow,
+        Duration blockTimeout,
+        int concurrency,
+        Function<PluginEvent, Object> key) {
+
+    public enum Delivery {
+        /**
+         * On the publisher's thread, before publish returns
+         */
+        SYNC,
+        /**
+         * On virtual threads, up to {@code concurrency} events at a time
+         */
+        CONCURRENT,
+        /**
+         * On virtual threads, one at a time per key, in publish order
+         */
+        ORDERED
+    }
+
+    public enum Overflow {
+        /**
+         * Drop the new event
+         */
+        DROP,
+        /**
+         * Wait up to {@code blockTimeout} for space, then drop
+         */
+        BLOCK,
+        /**
+         * Replace a still queued event with the same key; drop the new event
+         * when there is none and the queue is full
+         */
+        COALESCE
+    }
+
+    public SubscriptionOptions {
+        Objects.requireNonNull(delivery, "delivery");
+        Objects.requireNonNull(overflow, "overflow");
+        Objects.requireNonNull(blockTimeout, "blockTimeout");
+        Objects.requireNonNull(key, "key");
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be positive");
+        }
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be positive");
+        }
+    }
+
+    /**
+     * Synchronous delivery, as with {@link EventBus#subscribe(Class, java.util.function.Consumer)}
+     */
+    public static SubscriptionOptions sync() {
+        return builder().build();
+    }
+
+    /**
+     * Asynchronous delivery on virtual threads
+     */
+    public static SubscriptionOptions concurrent(int queueCapacity, Overflow overflow) {
+        return builder().delivery(Delivery.CONCURRENT).queueCapacity(queueCapacity).overflow(overflow).build();
+    }
+
+    /**
+     * Asynchronous delivery, ordered per key
+     */
+    public static SubscriptionOptions ordered(Function<PluginEvent, Object> key, int queueCapacity, Overflow overflow) {
+        return builder().delivery(Delivery.ORDERED).key(key).queueCapacity(queueCapacity).overflow(overflow).build();
+    }
+
+    public SubscriptionOptions withSubscriberId(String subscriberId) {
+        return new SubscriptionOptions(subscriberId, delivery, queueCapacity, overflow, blockTimeout, concurrency,
+                key);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private String subscriberId;
+        private Delivery delivery = Delivery.SYNC;
+        private int queueCapacity = 1024;
+        private Overflow overflow = Overflow.DROP;
+        private Duration blockTimeout = Duration.ofSeconds(1);
+        private int concurrency = 8;
+        private Function<PluginEvent, Object> key = PluginEvent::getSourcePluginId;
+
+        public Builder subscriberId(String subscriberId) {
+            this.subscriberId = subscriberId;
+            return this;
+        }
+
+        public Builder delivery(Delivery delivery) {
+            this.delivery = delivery;
+            return this;
+        }
+
+        public Builder queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        public Builder overflow(Overflow overflow) {
+            this.overflow = overflow;
+            return this;
+        }
+
+        public Builder blockTimeout(Duration blockTimeout) {
+            this.blockTimeout = blockTimeout;
+            return this;
+        }
+
+        public Builder concurrency(int concurrency) {
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        public Builder key(Function<PluginEvent, Object> key) {
+            this.key = key;
+            return this;
+        }
+
+        public SubscriptionOptions build() {
+            return new SubscriptionOptions(subscriberId, delivery, queueCapacity, overflow, blockTimeout,
+                    concurrency, key);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package tech.kayys.silat.plugin;
+
+/**
+ * Point-in-time statistics of an {@link EventBus} subscription
+ *
+ * @param subscriberId plugin id or the id given in {@link SubscriptionOptions}
+ * @param eventType    subscribed event type
+ * @param delivery     delivery mode
+ * @param queueDepth   events waiting for the handler
+ * @param delivered    events handed to the handler
+ * @param failed       handler invocations that threw
+ * @param dropped      events dropped on overflow or unsubscribe
+ * @param coalesced    events that replaced a queued event
+ * @param lastLagMillis time the last delivered event spent queued
+ * @param maxLagMillis  largest queueing time seen
+ */
+public record SubscriptionStats(
+        String subscriberId,
+        String eventType,
+        SubscriptionOptions.Delivery delivery,
+        int queueDepth,
+        long delivered,
+        long failed,
+        long dropped,
+        long coalesced,
+        long lastLagMillis,
+        long maxLagMillis) {
+}
@@ -1,21 +1,31 @@
 package tech.kayys.silat.plugin.discovery;
 
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
 import tech.kayys.silat.plugin.Plugin;
+
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Service Discovery Plugin Interface
- * 
+ *
  * Plugins implementing this interface provide dynamic endpoint discovery
  * capabilities for executors.
  * This effectively allows overriding the static endpoint information stored in
  * the registry.
+ *
+ * Lookups are made on the dispatch path, often from an event loop thread.
+ * Implementations should answer from locally held state and refresh it in the
+ * background rather than calling the discovery backend per lookup.
  */
 public interface ServiceDiscoveryPlugin extends Plugin {
 
     /**
      * Discover the endpoint for a given executor ID.
-     * 
+     *
+     * Must not block; return empty when nothing is known locally yet.
+     *
      * @param executorId The ID of the executor to discover.
      * @return An Optional containing the discovered endpoint (e.g., "host:port" or
      *         "http://host:port"),
@@ -23,4 +33,32 @@ public interface ServiceDiscoveryPlugin extends Plugin {
      */
     Optional<String> discoverEndpoint(String executorId);
 
+    /**
+     * Resolve the endpoint for an executor, waiting for the backend only when
+     * the executor has not been looked up before.
+     */
+    default Uni<Optional<String>> resolveEndpoint(String executorId) {
+        return Uni.createFrom().item(() -> discoverEndpoint(executorId));
+    }
+
+    /**
+     * All healthy instances of an executor
+     */
+    default Uni<List<ServiceInstance>> discoverInstances(String executorId) {
+        return resolveEndpoint(executorId)
+                .map(endpoint -> endpoint
+                        .map(value -> List.of(ServiceInstance.fromEndpoint(executorId, value)))
+                        .orElse(List.of()));
+    }
+
+    /**
+     * Healthy instances of an executor, emitted again whenever they change.
+     *
+     * The default emits the current instances once; plugins backed by a
+     * watchable store should keep the stream open.
+     */
+    default Multi<List<ServiceInstance>> watchInstances(String executorId) {
+        return discoverInstances(executorId).toMulti();
+    }
+
 }
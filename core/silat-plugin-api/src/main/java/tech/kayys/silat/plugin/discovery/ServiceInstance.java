@@ -0,0 +1,45 @@
+package tech.kayys.silat.plugin.discovery;
+
+import java.util.Map;
+
+/**
+ * A discovered instance of an executor service
+ *
+ * @param id       instance id as known to the discovery backend
+ * @param address  host name or IP address
+ * @param port     service port
+ * @param metadata backend-specific metadata (tags, zone, ...)
+ */
+public record ServiceInstance(
+        String id,
+        String address,
+        int port,
+        Map<String, String> metadata) {
+
+    public ServiceInstance {
+        metadata = metadata == null ? Map.of() : Map.copyOf(metadata);
+    }
+
+    /**
+     * Endpoint in the registry's "host:port" form
+     */
+    public String endpoint() {
+        return address + ":" + port;
+    }
+
+    /**
+     * Parse a "host:port" endpoint as returned by
+     * {@link ServiceDiscoveryPlugin#discoverEndpoint(String)}
+     */
+    public static ServiceInstance fromEndpoint(String id, String endpoint) {
+        int separator = endpoint.lastIndexOf(':');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Endpoint is not host:port: " + endpoint);
+        }
+        return new ServiceInstance(
+                id,
+                endpoint.substring(0, separator),
+                Integer.parseInt(endpoint.substring(separator + 1)),
+                Map.of());
+    }
+}
@@ -1,22 +1,54 @@
 package tech.kayys.silat.plugin.impl;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import tech.kayys.silat.plugin.EventBus;
 import tech.kayys.silat.plugin.PluginEvent;
+import tech.kayys.silat.plugin.SubscriptionOptions;
+import tech.kayys.silat.plugin.SubscriptionOptions.Delivery;
+import tech.kayys.silat.plugin.SubscriptionOptions.Overflow;
+import tech.kayys.silat.plugin.SubscriptionStats;
 
 /**
  * Default implementation of EventBus
+ *
+ * Handlers are matched against the event's class and all its supertypes;
+ * the matching subscribers per event class are cached and rebuilt after
+ * the next subscribe or unsubscribe. Asynchronous subscribers each own a bounded
+ * queue drained on virtual threads, so a slow handler only delays its own
+ * events.
  */
 @ApplicationScoped
 public class DefaultEventBus implements EventBus {
 
-    private final Map<Class<? extends PluginEvent>, List<Consumer<? extends PluginEvent>>> subscribers = new ConcurrentHashMap<>();
+    private static final Logger LOG = LoggerFactory.getLogger(DefaultEventBus.class);
+
+    private final List<Subscriber<?>> subscribers = new CopyOnWriteArrayList<>();
+    // Bumped on every (un)subscribe; a cached lookup is only used while the
+    // generation it was built in is current
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<Class<?>, Matching> subscribersByEventClass = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("silat-plugin-event-", 0).factory());
 
     @Override
     public void publish(PluginEvent event) {
@@ -24,37 +56,270 @@ public class DefaultEventBus implements EventBus {
             throw new IllegalArgumentException("Event cannot be null");
         }
 
-        Class<? extends PluginEvent> eventType = event.getClass();
-        List<Consumer<? extends PluginEvent>> handlers = subscribers.get(eventType);
-
-        if (handlers != null) {
-            for (Consumer<? extends PluginEvent> handler : handlers) {
-                try {
-                    @SuppressWarnings("unchecked")
-                    Consumer<PluginEvent> typedHandler = (Consumer<PluginEvent>) handler;
-                    typedHandler.accept(event);
-                } catch (Exception e) {
-                    // Log but don't fail on handler errors
-                    System.err.println("Error in event handler: " + e.getMessage());
-                }
-            }
+        for (Subscriber<?> subscriber : subscribersFor(event.getClass())) {
+            subscriber.offer(event);
         }
     }
 
     @Override
     public <T extends PluginEvent> Subscription subscribe(Class<T> eventType, Consumer<T> handler) {
+        return subscribe(eventType, handler, SubscriptionOptions.sync());
+    }
+
+    @Override
+    public <T extends PluginEvent> Subscription subscribe(
+            Class<T> eventType, Consumer<T> handler, SubscriptionOptions options) {
         if (eventType == null) {
             throw new IllegalArgumentException("Event type cannot be null");
         }
         if (handler == null) {
             throw new IllegalArgumentException("Handler cannot be null");
         }
+        if (options == null) {
+            throw new IllegalArgumentException("Options cannot be null");
+        }
+
+        Subscriber<T> subscriber = new Subscriber<>(eventType, handler, options);
+        subscribers.add(subscriber);
+        generation.incrementAndGet();
+
+        return () -> {
+            if (subscribers.remove(subscriber)) {
+                generation.incrementAndGet();
+                subscriber.close();
+            }
+        };
+    }
+
+    @Override
+    public List<SubscriptionStats> getSubscriptionStats() {
+        List<SubscriptionStats> stats = new ArrayList<>(subscribers.size());
+        for (Subscriber<?> subscriber : subscribers) {
+            stats.add(subscriber.stats());
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Subscriber<?>[] subscribersFor(Class<?> eventClass) {
+        // Read the generation before scanning: a subscriber added during the
+        // scan bumps it past the lookup's generation, so the lookup is rebuilt
+        long current = generation.get();
+        Matching cached = subscribersByEventClass.get(eventClass);
+        if (cached != null && cached.generation() == current) {
+            return cached.subscribers();
+        }
+        List<Subscriber<?>> matching = new ArrayList<>();
+        for (Subscriber<?> subscriber : subscribers) {
+            if (subscriber.eventType.isAssignableFrom(eventClass)) {
+                matching.add(subscriber);
+            }
+        }
+        Subscriber<?>[] resolved = matching.toArray(Subscriber<?>[]::new);
+        subscribersByEventClass.put(eventClass, new Matching(current, resolved));
+        return resolved;
+    }
+
+    private record Matching(long generation, Subscriber<?>[] subscribers) {
+    }
+
+    /**
+     * One subscription; asynchronous ones queue events in FIFO order, or in
+     * one lane per key when ordered
+     */
+    private final class Subscriber<T extends PluginEvent> {
+
+        final Class<T> eventType;
+        final Consumer<T> handler;
+        final SubscriptionOptions options;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notFull = lock.newCondition();
+        private final ArrayDeque<Envelope> queue = new ArrayDeque<>();
+        private final Map<Object, ArrayDeque<Envelope>> lanes = new HashMap<>();
+        private final Map<Object, Envelope> queuedByKey = new HashMap<>();
+        private int pending;
+        private int workers;
+        private boolean closed;
+
+        private final LongAdder delivered = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+        private final AtomicLong lastLagNanos = new AtomicLong();
+        private final AtomicLong maxLagNanos = new AtomicLong();
+
+        Subscriber(Class<T> eventType, Consumer<T> handler, SubscriptionOptions options) {
+            this.eventType = eventType;
+            this.handler = handler;
+            this.options = options;
+        }
+
+        void offer(PluginEvent event) {
+            if (options.delivery() == Delivery.SYNC) {
+                deliver(event, 0);
+                return;
+            }
+
+            Object key = options.key().apply(event);
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                if (options.overflow() == Overflow.COALESCE) {
+                    Envelope queued = queuedByKey.get(key);
+                    if (queued != null) {
+                        queued.event = event;
+                        coalesced.increment();
+                        return;
+                    }
+                }
+                if (!awaitCapacity()) {
+                    dropped.increment();
+                    return;
+                }
+
+                Envelope envelope = new Envelope(event, key);
+                pending++;
+                if (options.overflow() == Overflow.COALESCE) {
+                    queuedByKey.put(key, envelope);
+                }
+                if (options.delivery() == Delivery.ORDERED) {
+                    ArrayDeque<Envelope> lane = lanes.get(key);
+                    if (lane == null) {
+                        lane = new ArrayDeque<>();
+                        lanes.put(key, lane);
+                        lane.add(envelope);
+                        ArrayDeque<Envelope> started = lane;
+                        executor.execute(() -> drain(key, started));
+                    } else {
+                        lane.add(envelope);
+                    }
+                } else {
+                    queue.add(envelope);
+                    if (workers < options.concurrency()) {
+                        workers++;
+                        executor.execute(() -> drain(null, queue));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dropped.increment();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Called with the lock held
+        private boolean awaitCapacity() throws InterruptedException {
+            if (pending < options.queueCapacity()) {
+                return true;
+            }
+            if (options.overflow() != Overflow.BLOCK) {
+                return false;
+            }
+            long remaining = options.blockTimeout().toNanos();
+            while (pending >= options.queueCapacity() && !closed) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = notFull.awaitNanos(remaining);
+            }
+            return !closed;
+        }
+
+        private void drain(Object laneKey, ArrayDeque<Envelope> source) {
+            while (true) {
+                Envelope envelope;
+                lock.lock();
+                try {
+                    envelope = source.poll();
+                    if (envelope == null) {
+                        if (source == queue) {
+                            workers--;
+                        } else {
+                            lanes.remove(laneKey, source);
+                        }
+                        return;
+                    }
+                    pending--;
+                    queuedByKey.remove(envelope.key, envelope);
+                    notFull.signal();
+                } finally {
+                    lock.unlock();
+                }
+                deliver(envelope.event, System.nanoTime() - envelope.enqueuedNanos);
+            }
+        }
 
-        List<Consumer<? extends PluginEvent>> handlers = subscribers.computeIfAbsent(
-                eventType,
-                k -> new CopyOnWriteArrayList<>());
-        handlers.add(handler);
+        private void deliver(PluginEvent event, long lagNanos) {
+            lastLagNanos.set(lagNanos);
+            maxLagNanos.accumulateAndGet(lagNanos, Math::max);
+            try {
+                handler.accept(eventType.cast(event));
+                delivered.increment();
+            } catch (Exception e) {
+                // Log but don't fail on handler errors
+                failed.increment();
+                LOG.warn("Event handler of {} failed for {}", subscriberName(), event.getClass().getSimpleName(), e);
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                closed = true;
+                dropped.add(pending);
+                pending = 0;
+                queue.clear();
+                lanes.values().forEach(ArrayDeque::clear);
+                queuedByKey.clear();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
 
-        return () -> handlers.remove(handler);
+        SubscriptionStats stats() {
+            int depth;
+            lock.lock();
+            try {
+                depth = pending;
+            } finally {
+                lock.unlock();
+            }
+            return new SubscriptionStats(
+                    subscriberName(),
+                    eventType.getName(),
+                    options.delivery(),
+                    depth,
+                    delivered.sum(),
+                    failed.sum(),
+                    dropped.sum(),
+                    coalesced.sum(),
+                    TimeUnit.NANOSECONDS.toMillis(lastLagNanos.get()),
+                    TimeUnit.NANOSECONDS.toMillis(maxLagNanos.get()));
+        }
+
+        private String subscriberName() {
+            return options.subscriberId() != null ? options.subscriberId() : handler.getClass().getName();
+        }
+    }
+
+    private static final class Envelope {
+        // Replaced in place while queued when coalescing; guarded by the subscriber lock
+        PluginEvent event;
+        final Object key;
+        final long enqueuedNanos = System.nanoTime();
+
+        Envelope(PluginEvent event, Object key) {
+            this.event = event;
+            this.key = key;
+        }
     }
 }
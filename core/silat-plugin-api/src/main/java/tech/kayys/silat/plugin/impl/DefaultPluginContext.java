@@ -1,13 +1,19 @@
 package tech.kayys.silat.plugin.impl;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import tech.kayys.silat.plugin.PluginContext;
+import tech.kayys.silat.plugin.PluginEvent;
 import tech.kayys.silat.plugin.PluginMetadata;
 import tech.kayys.silat.plugin.ServiceRegistry;
+import tech.kayys.silat.plugin.SubscriptionOptions;
+import tech.kayys.silat.plugin.SubscriptionStats;
 import tech.kayys.silat.plugin.EventBus;
 
 /**
@@ -19,7 +25,7 @@ public class DefaultPluginContext implements PluginContext {
     private final Logger logger;
     private final Map<String, String> properties;
     private final ServiceRegistry serviceRegistry;
-    private final EventBus eventBus;
+    private final PluginEventBus eventBus;
     private final String dataDirectory;
 
     public DefaultPluginContext(
@@ -33,7 +39,7 @@ public class DefaultPluginContext implements PluginContext {
         this.logger = logger;
         this.properties = new ConcurrentHashMap<>(properties);
         this.serviceRegistry = serviceRegistry;
-        this.eventBus = eventBus;
+        this.eventBus = new PluginEventBus(eventBus, metadata.id());
         this.dataDirectory = dataDirectory;
     }
 
@@ -76,4 +82,67 @@ public class DefaultPluginContext implements PluginContext {
     public String getDataDirectory() {
         return dataDirectory;
     }
+
+    /**
+     * Unsubscribe the event handlers the plugin left registered, so they
+     * don't keep its classloader reachable after it is unloaded
+     */
+    void close() {
+        eventBus.unsubscribeAll();
+    }
+
+    /**
+     * Reports the plugin's subscriptions under its plugin id and remembers
+     * them until they are unsubscribed
+     */
+    private static final class PluginEventBus implements EventBus {
+
+        private final EventBus delegate;
+        private final String pluginId;
+        private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+        PluginEventBus(EventBus delegate, String pluginId) {
+            this.delegate = delegate;
+            this.pluginId = pluginId;
+        }
+
+        @Override
+        public void publish(PluginEvent event) {
+            delegate.publish(event);
+        }
+
+        @Override
+        public <T extends PluginEvent> Subscription subscribe(Class<T> eventType, Consumer<T> handler) {
+            return subscribe(eventType, handler, SubscriptionOptions.sync());
+        }
+
+        @Override
+        public <T extends PluginEvent> Subscription subscribe(
+                Class<T> eventType, Consumer<T> handler, SubscriptionOptions options) {
+            if (options != null && options.subscriberId() == null) {
+                options = options.withSubscriberId(pluginId);
+            }
+            Subscription delegated = delegate.subscribe(eventType, handler, options);
+            Subscription subscription = new Subscription() {
+                @Override
+                public void unsubscribe() {
+                    subscriptions.remove(this);
+                    delegated.unsubscribe();
+                }
+            };
+            subscriptions.add(subscription);
+            return subscription;
+        }
+
+        @Override
+        public List<SubscriptionStats> getSubscriptionStats() {
+            return delegate.getSubscriptionStats();
+        }
+
+        void unsubscribeAll() {
+            for (Subscription subscription : List.copyOf(subscriptions)) {
+                subscription.unsubscribe();
+            }
+        }
+    }
 }
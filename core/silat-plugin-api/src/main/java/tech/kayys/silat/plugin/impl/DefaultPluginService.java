@@ -67,6 +67,11 @@ public class DefaultPluginService implements PluginService {
         return pluginManager.getAllPlugins();
     }
 
+    @Override
+    public List<tech.kayys.silat.plugin.ClassLoaderLeak> getLeakedClassLoaders() {
+        return pluginManager.getLeakedClassLoaders();
+    }
+
     @Override
     public <T extends Plugin> List<T> getPluginsByType(Class<T> pluginType) {
         return pluginManager.getPluginsByType(pluginType);
@@ -117,4 +122,16 @@ public class DefaultPluginService implements PluginService {
             Class<T> eventType, java.util.function.Consumer<T> handler) {
         return eventBus.subscribe(eventType, handler);
     }
-}
\ No newline at end of file
+
+    @Override
+    public <T extends tech.kayys.silat.plugin.PluginEvent> tech.kayys.silat.plugin.EventBus.Subscription subscribe(
+            Class<T> eventType, java.util.function.Consumer<T> handler,
+            tech.kayys.silat.plugin.SubscriptionOptions options) {
+        return eventBus.subscribe(eventType, handler, options);
+    }
+
+    @Override
+    public List<tech.kayys.silat.plugin.SubscriptionStats> getSubscriptionStats() {
+        return eventBus.getSubscriptionStats();
+    }
+}
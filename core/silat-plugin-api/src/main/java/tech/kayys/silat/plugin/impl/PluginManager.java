@@ -1,25 +1,35 @@
 package tech.kayys.silat.plugin.impl;
 
 import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.ServiceConfigurationError;
 import java.util.ServiceLoader;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import tech.kayys.silat.plugin.ClassLoaderLeak;
 import tech.kayys.silat.plugin.Plugin;
-import tech.kayys.silat.plugin.PluginContext;
 import tech.kayys.silat.plugin.PluginException;
 import tech.kayys.silat.plugin.PluginMetadata;
 
@@ -33,6 +43,14 @@ public class PluginManager {
 
     private final tech.kayys.silat.plugin.impl.PluginRegistry registry = new PluginRegistry();
     private final Map<String, PluginClassLoader> classLoaders = new ConcurrentHashMap<>();
+    private final List<Runnable> stateListeners = new CopyOnWriteArrayList<>();
+
+    // Replaced instances still draining after a reload
+    private final Set<PluginRegistry.LoadedPlugin> retiring = ConcurrentHashMap.newKeySet();
+    private final List<RetiredClassLoader> retiredClassLoaders = new CopyOnWriteArrayList<>();
+    private final ReferenceQueue<PluginClassLoader> collectedClassLoaders = new ReferenceQueue<>();
+
+    private static final Duration DRAIN_POLL_INTERVAL = Duration.ofMillis(50);
 
     @Inject
     tech.kayys.silat.plugin.ServiceRegistry serviceRegistry;
@@ -42,63 +60,38 @@ public class PluginManager {
 
     private String pluginDirectory = "/opt/silat/plugins";
     private String dataDirectory = "/opt/silat/plugin-data";
+    private Duration drainTimeout = Duration.ofSeconds(30);
+    private Duration leakThreshold = Duration.ofMinutes(5);
 
     /**
      * Load a plugin from a JAR file
      */
     public Uni<Plugin> loadPlugin(Path pluginJar) {
         return Uni.createFrom().item(() -> {
+            LOG.info("Loading plugin from: {}", pluginJar);
+            PluginRegistry.LoadedPlugin loadedPlugin = null;
             try {
-                LOG.info("Loading plugin from: {}", pluginJar);
-
-                // Create plugin classloader
-                PluginClassLoader classLoader = new PluginClassLoader(pluginJar, getClass().getClassLoader());
-
-                // Use ServiceLoader to discover plugin
-                ServiceLoader<Plugin> loader = ServiceLoader.load(Plugin.class, classLoader);
-                Optional<Plugin> pluginOpt = loader.findFirst();
-
-                if (pluginOpt.isEmpty()) {
-                    throw new RuntimeException("No plugin found in JAR: " + pluginJar);
-                }
-
-                Plugin plugin = pluginOpt.get();
-                PluginMetadata metadata = plugin.getMetadata();
+                loadedPlugin = instantiate(pluginJar);
+                PluginMetadata metadata = loadedPlugin.getMetadata();
 
                 // Check if already loaded
                 if (registry.isRegistered(metadata.id())) {
                     throw new RuntimeException("Plugin already loaded: " + metadata.id());
                 }
 
-                // Create plugin context
-                String pluginDataDir = dataDirectory + "/" + metadata.id();
-                createDirectoryIfNotExists(Paths.get(pluginDataDir));
-
-                PluginContext context = new DefaultPluginContext(
-                        metadata,
-                        LoggerFactory.getLogger("plugin." + metadata.id()),
-                        metadata.properties(),
-                        serviceRegistry,
-                        eventBus,
-                        pluginDataDir);
-
-                // Initialize plugin
-                plugin.initialize(context);
-
-                // Register plugin
-                tech.kayys.silat.plugin.impl.PluginRegistry.LoadedPlugin loadedPlugin = new tech.kayys.silat.plugin.impl.PluginRegistry.LoadedPlugin(
-                        plugin, metadata, classLoader);
-                loadedPlugin.setState(tech.kayys.silat.plugin.impl.PluginRegistry.PluginState.INITIALIZED);
+                initialize(loadedPlugin);
                 registry.register(loadedPlugin);
-                classLoaders.put(metadata.id(), classLoader);
+                classLoaders.put(metadata.id(), loadedPlugin.getClassLoader());
 
                 LOG.info("Plugin loaded successfully: {} v{}", metadata.name(), metadata.version());
-                return plugin;
+                return loadedPlugin.getPlugin();
 
             } catch (PluginException e) {
+                discard(loadedPlugin);
                 LOG.error("Failed to initialize plugin", e);
                 throw new RuntimeException("Failed to initialize plugin: " + e.getMessage(), e);
             } catch (Exception e) {
+                discard(loadedPlugin);
                 LOG.error("Failed to load plugin from: {}", pluginJar, e);
                 throw new RuntimeException("Failed to load plugin: " + e.getMessage(), e);
             }
@@ -118,25 +111,9 @@ public class PluginManager {
                     throw new RuntimeException("Plugin already registered: " + metadata.id());
                 }
 
-                // Create plugin context
-                String pluginDataDir = dataDirectory + "/" + metadata.id();
-                createDirectoryIfNotExists(Paths.get(pluginDataDir));
-
-                PluginContext context = new DefaultPluginContext(
-                        metadata,
-                        LoggerFactory.getLogger("plugin." + metadata.id()),
-                        metadata.properties(),
-                        serviceRegistry,
-                        eventBus,
-                        pluginDataDir);
-
-                // Initialize plugin
-                plugin.initialize(context);
-
-                // Register plugin
-                tech.kayys.silat.plugin.impl.PluginRegistry.LoadedPlugin loadedPlugin = new tech.kayys.silat.plugin.impl.PluginRegistry.LoadedPlugin(
-                        plugin, metadata, null); // No dedicated classloader for programmatic plugins
-                loadedPlugin.setState(tech.kayys.silat.plugin.impl.PluginRegistry.PluginState.INITIALIZED);
+                // No dedicated classloader for programmatic plugins
+                PluginRegistry.LoadedPlugin loadedPlugin = new PluginRegistry.LoadedPlugin(plugin, metadata, null);
+                initialize(loadedPlugin);
                 registry.register(loadedPlugin);
 
                 return null;
@@ -150,6 +127,50 @@ public class PluginManager {
         });
     }
 
+    private PluginRegistry.LoadedPlugin instantiate(Path pluginJar) {
+        PluginClassLoader classLoader = new PluginClassLoader(pluginJar, getClass().getClassLoader());
+        try {
+            // Use ServiceLoader to discover plugin
+            Plugin plugin = ServiceLoader.load(Plugin.class, classLoader).findFirst()
+                    .orElseThrow(() -> new RuntimeException("No plugin found in JAR: " + pluginJar));
+            return new PluginRegistry.LoadedPlugin(plugin, plugin.getMetadata(), classLoader);
+        } catch (RuntimeException | ServiceConfigurationError e) {
+            closeClassLoader(classLoader);
+            throw e;
+        }
+    }
+
+    private void initialize(PluginRegistry.LoadedPlugin loadedPlugin) throws PluginException {
+        PluginMetadata metadata = loadedPlugin.getMetadata();
+        String pluginDataDir = dataDirectory + "/" + metadata.id();
+        createDirectoryIfNotExists(Paths.get(pluginDataDir));
+
+        DefaultPluginContext context = new DefaultPluginContext(
+                metadata,
+                LoggerFactory.getLogger("plugin." + metadata.id()),
+                metadata.properties(),
+                serviceRegistry,
+                eventBus,
+                pluginDataDir);
+        loadedPlugin.setContext(context);
+
+        loadedPlugin.getPlugin().initialize(context);
+        loadedPlugin.setState(PluginRegistry.PluginState.INITIALIZED);
+    }
+
+    // Undo a load that never made it into the registry
+    private void discard(PluginRegistry.LoadedPlugin loadedPlugin) {
+        if (loadedPlugin == null) {
+            return;
+        }
+        if (loadedPlugin.getContext() != null) {
+            loadedPlugin.getContext().close();
+        }
+        if (loadedPlugin.getClassLoader() != null) {
+            closeClassLoader(loadedPlugin.getClassLoader());
+        }
+    }
+
     /**
      * Start a plugin
      */
@@ -166,6 +187,7 @@ public class PluginManager {
                 loaded.getPlugin().start();
                 loaded.setState(tech.kayys.silat.plugin.impl.PluginRegistry.PluginState.STARTED);
                 LOG.info("Plugin started: {}", pluginId);
+                fireStateChanged();
                 return null;
             } catch (PluginException e) {
                 LOG.error("Failed to start plugin: {}", pluginId, e);
@@ -190,6 +212,7 @@ public class PluginManager {
                 loaded.getPlugin().stop();
                 loaded.setState(tech.kayys.silat.plugin.impl.PluginRegistry.PluginState.STOPPED);
                 LOG.info("Plugin stopped: {}", pluginId);
+                fireStateChanged();
                 return null;
             } catch (PluginException e) {
                 LOG.error("Failed to stop plugin: {}", pluginId, e);
@@ -205,27 +228,202 @@ public class PluginManager {
         return stopPlugin(pluginId)
                 .onFailure().recoverWithNull()
                 .chain(() -> Uni.createFrom().item(() -> {
+                    Optional<PluginRegistry.LoadedPlugin> loaded = registry.getPlugin(pluginId);
                     registry.unregister(pluginId);
-                    PluginClassLoader classLoader = classLoaders.remove(pluginId);
-                    if (classLoader != null) {
-                        try {
-                            classLoader.close();
-                        } catch (IOException e) {
-                            LOG.warn("Failed to close classloader for plugin: {}", pluginId, e);
-                        }
-                    }
+                    classLoaders.remove(pluginId);
+                    loaded.ifPresent(this::release);
                     LOG.info("Plugin unloaded: {}", pluginId);
+                    fireStateChanged();
                     return null;
                 }));
     }
 
     /**
      * Reload a plugin (hot-reload)
+     *
+     * Blue/green: the new version is loaded, initialized and started in its
+     * own classloader while the current one keeps serving, then swapped in
+     * atomically, so lookups never find the plugin missing. Calls already
+     * running on the old instance (see {@link #acquire}) are given up to the
+     * drain timeout to finish before it is stopped and its classloader
+     * closed. If the new version fails to start, the old one stays active.
      */
     public Uni<Plugin> reloadPlugin(String pluginId, Path pluginJar) {
-        return unloadPlugin(pluginId)
-                .chain(() -> loadPlugin(pluginJar))
-                .chain(plugin -> startPlugin(pluginId).replaceWith(plugin));
+        Optional<PluginRegistry.LoadedPlugin> currentOpt = registry.getPlugin(pluginId);
+        if (currentOpt.isEmpty()) {
+            return loadPlugin(pluginJar)
+                    .chain(plugin -> startPlugin(pluginId).replaceWith(plugin));
+        }
+        PluginRegistry.LoadedPlugin current = currentOpt.get();
+
+        return Uni.createFrom().item(() -> {
+            LOG.info("Reloading plugin {} from: {}", pluginId, pluginJar);
+            PluginRegistry.LoadedPlugin next = null;
+            try {
+                next = instantiate(pluginJar);
+                if (!pluginId.equals(next.getMetadata().id())) {
+                    throw new RuntimeException("JAR contains plugin " + next.getMetadata().id()
+                            + ", expected " + pluginId);
+                }
+                initialize(next);
+                next.getPlugin().start();
+                next.setState(PluginRegistry.PluginState.STARTED);
+            } catch (Exception e) {
+                stopQuietly(next);
+                discard(next);
+                LOG.error("Failed to reload plugin {}, keeping v{}", pluginId, current.getMetadata().version(), e);
+                throw new RuntimeException("Failed to reload plugin: " + e.getMessage(), e);
+            }
+
+            // Retiring before the swap, so calls acquired on the old instance are counted
+            retiring.add(current);
+            if (!registry.replace(pluginId, current, next)) {
+                retiring.remove(current);
+                stopQuietly(next);
+                discard(next);
+                throw new RuntimeException("Plugin was unloaded or reloaded concurrently: " + pluginId);
+            }
+            if (next.getClassLoader() != null) {
+                classLoaders.put(pluginId, next.getClassLoader());
+            } else {
+                classLoaders.remove(pluginId);
+            }
+            fireStateChanged();
+            return next;
+        }).chain(next -> drain(current)
+                .invoke(() -> {
+                    stopQuietly(current);
+                    retiring.remove(current);
+                    release(current);
+                    LOG.info("Plugin {} reloaded: v{} -> v{}", pluginId,
+                            current.getMetadata().version(), next.getMetadata().version());
+                })
+                .replaceWith(next.getPlugin()));
+    }
+
+    /**
+     * Track a call on a plugin instance so a reload waits for it before
+     * stopping that instance. Close the lease when the call completes.
+     *
+     * Instances the manager doesn't know get a no-op lease. A replaced
+     * instance that finished draining is refused with an
+     * {@link IllegalStateException}, so a caller still holding it fails
+     * instead of calling a stopped plugin.
+     */
+    public PluginLease acquire(Plugin plugin) {
+        Optional<PluginRegistry.LoadedPlugin> registered = registry.getPlugin(plugin.getMetadata().id());
+        PluginRegistry.LoadedPlugin loaded = registered
+                .filter(candidate -> candidate.getPlugin() == plugin)
+                .orElse(null);
+        if (loaded == null) {
+            for (PluginRegistry.LoadedPlugin candidate : retiring) {
+                if (candidate.getPlugin() == plugin) {
+                    loaded = candidate;
+                    break;
+                }
+            }
+        }
+        if (loaded == null) {
+            if (registered.isPresent()) {
+                // Another instance took its place and this one was already released
+                throw retired(plugin.getMetadata());
+            }
+            return PluginLease.NONE;
+        }
+        // Entering and retiring are one compare-and-set on the same counter, so
+        // a call either holds up the drain or is refused
+        if (!loaded.tryEnter()) {
+            throw retired(loaded.getMetadata());
+        }
+        return new PluginLease(loaded);
+    }
+
+    private static IllegalStateException retired(PluginMetadata metadata) {
+        return new IllegalStateException("Plugin " + metadata.id() + " v" + metadata.version()
+                + " has been replaced and is no longer available");
+    }
+
+    private Uni<Void> drain(PluginRegistry.LoadedPlugin retired) {
+        if (retired.retireIfIdle()) {
+            return Uni.createFrom().voidItem();
+        }
+        return Multi.createFrom().ticks().every(DRAIN_POLL_INTERVAL)
+                .select().where(tick -> retired.retireIfIdle())
+                .toUni()
+                .replaceWithVoid()
+                .ifNoItem().after(drainTimeout).recoverWithItem(() -> {
+                    retired.retire();
+                    LOG.warn("Plugin {} v{} still has {} calls in flight after {}, stopping it anyway",
+                            retired.getMetadata().id(), retired.getMetadata().version(),
+                            retired.getInFlight(), drainTimeout);
+                    return null;
+                });
+    }
+
+    private void stopQuietly(PluginRegistry.LoadedPlugin loaded) {
+        if (loaded == null || loaded.getState() != PluginRegistry.PluginState.STARTED) {
+            return;
+        }
+        try {
+            loaded.getPlugin().stop();
+        } catch (Exception e) {
+            LOG.warn("Failed to stop plugin {} v{}", loaded.getMetadata().id(), loaded.getMetadata().version(), e);
+        }
+        loaded.setState(PluginRegistry.PluginState.STOPPED);
+    }
+
+    // Drop the plugin's event subscriptions and close its classloader, then watch it for leaks
+    private void release(PluginRegistry.LoadedPlugin loaded) {
+        if (loaded.getContext() != null) {
+            loaded.getContext().close();
+        }
+        PluginClassLoader classLoader = loaded.getClassLoader();
+        if (classLoader == null) {
+            return;
+        }
+        closeClassLoader(classLoader);
+        retiredClassLoaders.add(new RetiredClassLoader(
+                loaded.getMetadata().id(),
+                loaded.getMetadata().version(),
+                Instant.now(),
+                new WeakReference<>(classLoader, collectedClassLoaders)));
+        getLeakedClassLoaders();
+    }
+
+    private void closeClassLoader(PluginClassLoader classLoader) {
+        try {
+            classLoader.close();
+        } catch (IOException e) {
+            LOG.warn("Failed to close plugin classloader", e);
+        }
+    }
+
+    /**
+     * Classloaders of unloaded or replaced plugin versions that are still
+     * reachable longer than the leak threshold after being closed. Each one
+     * is logged once when first detected.
+     */
+    public List<ClassLoaderLeak> getLeakedClassLoaders() {
+        Reference<?> collected;
+        while ((collected = collectedClassLoaders.poll()) != null) {
+            Reference<?> reference = collected;
+            retiredClassLoaders.removeIf(retired -> retired.classLoader() == reference);
+        }
+
+        Instant threshold = Instant.now().minus(leakThreshold);
+        List<ClassLoaderLeak> leaks = new ArrayList<>();
+        for (RetiredClassLoader retired : retiredClassLoaders) {
+            if (retired.classLoader().get() == null || retired.retiredAt().isAfter(threshold)) {
+                continue;
+            }
+            if (retired.reported().compareAndSet(false, true)) {
+                LOG.warn("Classloader of plugin {} v{} is still reachable {} after it was closed; "
+                        + "something still references its classes",
+                        retired.pluginId(), retired.version(), Duration.between(retired.retiredAt(), Instant.now()));
+            }
+            leaks.add(new ClassLoaderLeak(retired.pluginId(), retired.version(), retired.retiredAt()));
+        }
+        return leaks;
     }
 
     /**
@@ -247,15 +445,40 @@ public class PluginManager {
     /**
      * Get plugins by type
      */
-    @SuppressWarnings("unchecked")
     public <T extends Plugin> List<T> getPluginsByType(Class<T> pluginType) {
+        return registry.getPluginsByType(pluginType);
+    }
+
+    /**
+     * Get started plugins by type
+     */
+    public <T extends Plugin> List<T> getStartedPluginsByType(Class<T> pluginType) {
         return registry.getAllPlugins().values().stream()
+                .filter(loaded -> loaded.getState() == PluginRegistry.PluginState.STARTED)
                 .map(PluginRegistry.LoadedPlugin::getPlugin)
                 .filter(pluginType::isInstance)
-                .map(p -> (T) p)
+                .map(pluginType::cast)
                 .toList();
     }
 
+    /**
+     * Register a callback invoked after a plugin is started, stopped or
+     * unloaded, for consumers that precompute state from the started plugins
+     */
+    public void addStateListener(Runnable listener) {
+        stateListeners.add(listener);
+    }
+
+    private void fireStateChanged() {
+        for (Runnable listener : stateListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                LOG.warn("Plugin state listener failed", e);
+            }
+        }
+    }
+
     /**
      * Discover and load all plugins from the plugin directory and classpath
      */
@@ -317,6 +540,21 @@ public class PluginManager {
         this.dataDirectory = dataDirectory;
     }
 
+    /**
+     * Set how long a reload waits for calls on the old instance
+     */
+    public void setDrainTimeout(Duration drainTimeout) {
+        this.drainTimeout = drainTimeout;
+    }
+
+    /**
+     * Set how long a closed plugin classloader may stay reachable before it
+     * is reported as leaked
+     */
+    public void setLeakThreshold(Duration leakThreshold) {
+        this.leakThreshold = leakThreshold;
+    }
+
     /**
      * Get the plugin registry (for internal use)
      */
@@ -333,4 +571,39 @@ public class PluginManager {
             LOG.warn("Failed to create directory: {}", dir, e);
         }
     }
+
+    /**
+     * A tracked call on a plugin instance
+     */
+    public static final class PluginLease implements AutoCloseable {
+
+        public static final PluginLease NONE = new PluginLease(null);
+
+        private final PluginRegistry.LoadedPlugin loaded;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private PluginLease(PluginRegistry.LoadedPlugin loaded) {
+            this.loaded = loaded;
+        }
+
+        @Override
+        public void close() {
+            if (loaded != null && closed.compareAndSet(false, true)) {
+                loaded.exit();
+            }
+        }
+    }
+
+    private record RetiredClassLoader(
+            String pluginId,
+            String version,
+            Instant retiredAt,
+            WeakReference<PluginClassLoader> classLoader,
+            AtomicBoolean reported) {
+
+        RetiredClassLoader(String pluginId, String version, Instant retiredAt,
+                WeakReference<PluginClassLoader> classLoader) {
+            this(pluginId, version, retiredAt, classLoader, new AtomicBoolean());
+        }
+    }
 }
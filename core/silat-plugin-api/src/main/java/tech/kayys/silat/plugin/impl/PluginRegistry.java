@@ -1,8 +1,11 @@
 package tech.kayys.silat.plugin.impl;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,6 +21,13 @@ public class PluginRegistry {
 
     private final Map<String, LoadedPlugin> plugins = new ConcurrentHashMap<>();
 
+    // Bumped after every change to plugins; a cached list is only used while
+    // the generation it was built in is current
+    private final AtomicLong generation = new AtomicLong();
+
+    // Plugins by requested type, rebuilt lazily after each (un)registration
+    private final Map<Class<?>, TypedPlugins> pluginsByType = new ConcurrentHashMap<>();
+
     /**
      * Register a loaded plugin
      */
@@ -27,6 +37,7 @@ public class PluginRegistry {
             throw new IllegalStateException("Plugin already registered: " + pluginId);
         }
         plugins.put(pluginId, plugin);
+        generation.incrementAndGet();
         LOG.info("Registered plugin: {} v{}", plugin.getMetadata().name(), plugin.getMetadata().version());
     }
 
@@ -36,10 +47,24 @@ public class PluginRegistry {
     public void unregister(String pluginId) {
         LoadedPlugin plugin = plugins.remove(pluginId);
         if (plugin != null) {
+            generation.incrementAndGet();
             LOG.info("Unregistered plugin: {}", pluginId);
         }
     }
 
+    /**
+     * Swap the registered instance of a plugin, if it is still {@code expected}
+     */
+    public boolean replace(String pluginId, LoadedPlugin expected, LoadedPlugin replacement) {
+        if (!plugins.replace(pluginId, expected, replacement)) {
+            return false;
+        }
+        generation.incrementAndGet();
+        LOG.info("Replaced plugin: {} v{} -> v{}", pluginId,
+                expected.getMetadata().version(), replacement.getMetadata().version());
+        return true;
+    }
+
     /**
      * Get a plugin by ID
      */
@@ -54,6 +79,30 @@ public class PluginRegistry {
         return Map.copyOf(plugins);
     }
 
+    /**
+     * Get the loaded plugins implementing a type
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Plugin> List<T> getPluginsByType(Class<T> pluginType) {
+        // Read before scanning: a change made during the scan bumps it past
+        // the list's generation, so that list is rebuilt on the next call
+        long current = generation.get();
+        TypedPlugins cached = pluginsByType.get(pluginType);
+        if (cached != null && cached.generation() == current) {
+            return (List<T>) cached.plugins();
+        }
+        List<T> matching = plugins.values().stream()
+                .map(LoadedPlugin::getPlugin)
+                .filter(pluginType::isInstance)
+                .map(pluginType::cast)
+                .toList();
+        pluginsByType.put(pluginType, new TypedPlugins(current, matching));
+        return matching;
+    }
+
+    private record TypedPlugins(long generation, List<? extends Plugin> plugins) {
+    }
+
     /**
      * Check if a plugin is registered
      */
@@ -75,6 +124,10 @@ public class PluginRegistry {
         private final Plugin plugin;
         private final PluginMetadata metadata;
         private final tech.kayys.silat.plugin.impl.PluginClassLoader classLoader;
+        // Calls in flight; the sign bit is set once the instance is retired,
+        // after which no new call may enter
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private DefaultPluginContext context;
         private PluginState state;
 
         public LoadedPlugin(Plugin plugin, PluginMetadata metadata, tech.kayys.silat.plugin.impl.PluginClassLoader classLoader) {
@@ -96,6 +149,56 @@ public class PluginRegistry {
             return classLoader;
         }
 
+        public DefaultPluginContext getContext() {
+            return context;
+        }
+
+        public void setContext(DefaultPluginContext context) {
+            this.context = context;
+        }
+
+        /**
+         * Calls currently running on this instance, as tracked by
+         * {@link PluginManager#acquire}
+         */
+        public int getInFlight() {
+            return inFlight.get() & Integer.MAX_VALUE;
+        }
+
+        /**
+         * Count a call, unless the instance has been retired
+         */
+        boolean tryEnter() {
+            while (true) {
+                int current = inFlight.get();
+                if (current < 0) {
+                    return false;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void exit() {
+            inFlight.decrementAndGet();
+        }
+
+        /**
+         * Retire the instance if no call is in flight; on success no call can
+         * enter any more
+         */
+        boolean retireIfIdle() {
+            return inFlight.compareAndSet(0, Integer.MIN_VALUE);
+        }
+
+        /**
+         * Retire the instance even with calls still in flight
+         */
+        void retire() {
+            inFlight.getAndUpdate(current -> current | Integer.MIN_VALUE);
+        }
+
         public PluginState getState() {
             return state;
         }
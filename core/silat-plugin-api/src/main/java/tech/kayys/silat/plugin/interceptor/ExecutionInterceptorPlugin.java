@@ -56,6 +56,10 @@ public interface ExecutionInterceptorPlugin extends Plugin {
     
     /**
      * Task context information
+     *
+     * The engine passes the same instance to every callback of one execution
+     * attempt, so interceptors can keep per-task state in {@link #attributes()}
+     * instead of in shared maps.
      */
     interface TaskContext {
         String runId();
@@ -63,6 +67,12 @@ public interface ExecutionInterceptorPlugin extends Plugin {
         String nodeType();
         java.util.Map<String, Object> inputs();
         int attempt();
+
+        /**
+         * Mutable per-task storage, shared by all interceptors; prefix keys
+         * with the plugin id
+         */
+        java.util.Map<String, Object> attributes();
     }
     
     /**
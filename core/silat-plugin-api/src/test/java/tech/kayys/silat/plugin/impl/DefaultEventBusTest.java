@@ -0,0 +1,210 @@
+package tech.kayys.silat.plugin.impl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import tech.kayys.silat.plugin.PluginEvent;
+import tech.kayys.silat.plugin.SubscriptionOptions;
+import tech.kayys.silat.plugin.SubscriptionOptions.Delivery;
+import tech.kayys.silat.plugin.SubscriptionOptions.Overflow;
+import tech.kayys.silat.plugin.SubscriptionStats;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultEventBusTest {
+
+    private final DefaultEventBus bus = new DefaultEventBus();
+
+    @AfterEach
+    void tearDown() {
+        bus.shutdown();
+    }
+
+    @Test
+    void ordered_deliversEachKeyInPublishOrder() throws Exception {
+        Map<String, List<Integer>> received = new ConcurrentHashMap<>();
+        CountDownLatch all = new CountDownLatch(600);
+        bus.subscribe(Numbered.class, event -> {
+            received.computeIfAbsent(event.getSourcePluginId(), key -> new CopyOnWriteArrayList<>()).add(event.seq);
+            all.countDown();
+        }, SubscriptionOptions.ordered(PluginEvent::getSourcePluginId, 1_000, Overflow.BLOCK));
+
+        for (int seq = 0; seq < 200; seq++) {
+            for (String key : List.of("a", "b", "c")) {
+                bus.publish(new Numbered(key, seq));
+            }
+        }
+
+        assertTrue(all.await(5, TimeUnit.SECONDS));
+        for (String key : List.of("a", "b", "c")) {
+            List<Integer> seqs = received.get(key);
+            assertEquals(200, seqs.size());
+            for (int i = 0; i < seqs.size(); i++) {
+                assertEquals(i, seqs.get(i), "key " + key);
+            }
+        }
+    }
+
+    @Test
+    void dropOverflow_dropsEventsBeyondTheQueue() throws Exception {
+        Gate gate = new Gate();
+        bus.subscribe(Numbered.class, gate::hold, options(Overflow.DROP, 2, Duration.ofSeconds(1)));
+
+        bus.publish(new Numbered("a", 0));
+        gate.awaitHolding();
+        bus.publish(new Numbered("a", 1));
+        bus.publish(new Numbered("a", 2));
+        bus.publish(new Numbered("a", 3));
+        gate.release();
+
+        assertEquals(List.of(0, 1, 2), gate.awaitDelivered(3));
+        SubscriptionStats stats = stats();
+        assertEquals(1, stats.dropped());
+        assertEquals(0, stats.queueDepth());
+    }
+
+    @Test
+    void blockOverflow_waitsForSpace() throws Exception {
+        Gate gate = new Gate();
+        bus.subscribe(Numbered.class, gate::hold, options(Overflow.BLOCK, 1, Duration.ofSeconds(5)));
+
+        bus.publish(new Numbered("a", 0));
+        gate.awaitHolding();
+        bus.publish(new Numbered("a", 1));
+        CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> bus.publish(new Numbered("a", 2)));
+
+        Thread.sleep(100);
+        assertFalse(blocked.isDone());
+        gate.release();
+        blocked.get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(0, 1, 2), gate.awaitDelivered(3));
+        assertEquals(0, stats().dropped());
+    }
+
+    @Test
+    void blockOverflow_dropsAfterTheTimeout() throws Exception {
+        Gate gate = new Gate();
+        bus.subscribe(Numbered.class, gate::hold, options(Overflow.BLOCK, 1, Duration.ofMillis(50)));
+
+        bus.publish(new Numbered("a", 0));
+        gate.awaitHolding();
+        bus.publish(new Numbered("a", 1));
+        bus.publish(new Numbered("a", 2));
+        gate.release();
+
+        assertEquals(List.of(0, 1), gate.awaitDelivered(2));
+        assertEquals(1, stats().dropped());
+    }
+
+    @Test
+    void coalesceOverflow_replacesTheQueuedEventOfTheSameKey() throws Exception {
+        Gate gate = new Gate();
+        bus.subscribe(Numbered.class, gate::hold, options(Overflow.COALESCE, 10, Duration.ofSeconds(1)));
+
+        bus.publish(new Numbered("a", 0));
+        gate.awaitHolding();
+        bus.publish(new Numbered("a", 1));
+        bus.publish(new Numbered("b", 2));
+        bus.publish(new Numbered("a", 3));
+        gate.release();
+
+        assertEquals(List.of(0, 3, 2), gate.awaitDelivered(3));
+        SubscriptionStats stats = stats();
+        assertEquals(1, stats.coalesced());
+        assertEquals(0, stats.dropped());
+    }
+
+    @Test
+    void subscriberAddedWhilePublishing_receivesTheNextEvent() throws Exception {
+        AtomicBoolean done = new AtomicBoolean();
+        Thread publisher = new Thread(() -> {
+            while (!done.get()) {
+                bus.publish(new Numbered("noise", 0));
+            }
+        });
+        publisher.start();
+
+        try {
+            for (int i = 0; i < 500; i++) {
+                AtomicInteger received = new AtomicInteger();
+                bus.subscribe(Numbered.class, event -> received.incrementAndGet());
+                bus.publish(new Numbered("check", i));
+                assertTrue(received.get() > 0, "subscriber " + i + " missed an event published after subscribing");
+            }
+        } finally {
+            done.set(true);
+            publisher.join();
+        }
+    }
+
+    private SubscriptionStats stats() {
+        return bus.getSubscriptionStats().get(0);
+    }
+
+    private static SubscriptionOptions options(Overflow overflow, int queueCapacity, Duration blockTimeout) {
+        return SubscriptionOptions.builder()
+                .delivery(Delivery.CONCURRENT)
+                .concurrency(1)
+                .queueCapacity(queueCapacity)
+                .overflow(overflow)
+                .blockTimeout(blockTimeout)
+                .build();
+    }
+
+    /**
+     * Handler that holds the first event until released, so later events
+     * stay queued
+     */
+    private static final class Gate {
+        private final CountDownLatch holding = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final List<Integer> delivered = new CopyOnWriteArrayList<>();
+
+        void hold(Numbered event) {
+            holding.countDown();
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            delivered.add(event.seq);
+        }
+
+        void awaitHolding() throws InterruptedException {
+            assertTrue(holding.await(5, TimeUnit.SECONDS));
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        List<Integer> awaitDelivered(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (delivered.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            return List.copyOf(delivered);
+        }
+    }
+
+    private static final class Numbered extends PluginEvent {
+        final int seq;
+
+        Numbered(String sourcePluginId, int seq) {
+            super(sourcePluginId, null);
+            this.seq = seq;
+        }
+    }
+}
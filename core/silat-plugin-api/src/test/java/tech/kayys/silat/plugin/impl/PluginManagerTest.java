@@ -0,0 +1,221 @@
+package tech.kayys.silat.plugin.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import tech.kayys.silat.plugin.ClassLoaderLeak;
+import tech.kayys.silat.plugin.Plugin;
+import tech.kayys.silat.plugin.PluginContext;
+import tech.kayys.silat.plugin.PluginException;
+import tech.kayys.silat.plugin.PluginMetadata;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PluginManagerTest {
+
+    private static final String PLUGIN_ID = "reloadable";
+
+    @TempDir
+    Path dir;
+
+    private final PluginManager manager = new PluginManager();
+    private final DefaultEventBus eventBus = new DefaultEventBus();
+
+    @BeforeEach
+    void setUp() {
+        manager.eventBus = eventBus;
+        manager.serviceRegistry = new DefaultServiceRegistry();
+        manager.setDataDirectory(dir.resolve("data").toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventBus.shutdown();
+    }
+
+    @Test
+    void reload_swapsInTheNewVersionAndStopsTheOldOne() throws Exception {
+        Versioned v1 = loadV1();
+
+        Plugin reloaded = manager.reloadPlugin(PLUGIN_ID, jar("v2.jar", VersionTwo.class))
+                .await().atMost(Duration.ofSeconds(5));
+
+        assertInstanceOf(VersionTwo.class, reloaded);
+        assertSame(reloaded, manager.getPlugin(PLUGIN_ID).orElseThrow());
+        assertTrue(((Versioned) reloaded).started);
+        assertTrue(v1.stopped);
+    }
+
+    @Test
+    void reload_waitsForCallsOnTheOldInstance_andThenRefusesIt() throws Exception {
+        Versioned v1 = loadV1();
+        PluginManager.PluginLease running = manager.acquire(v1);
+
+        CompletableFuture<Plugin> reload = manager.reloadPlugin(PLUGIN_ID, jar("v2.jar", VersionTwo.class))
+                .subscribeAsCompletionStage();
+        awaitSwap();
+
+        // Still draining: a late caller with the old instance is counted too
+        PluginManager.PluginLease late = manager.acquire(v1);
+        Thread.sleep(200);
+        assertFalse(reload.isDone());
+        assertFalse(v1.stopped);
+
+        running.close();
+        late.close();
+        reload.get(5, TimeUnit.SECONDS);
+
+        assertTrue(v1.stopped);
+        assertThrows(IllegalStateException.class, () -> manager.acquire(v1));
+    }
+
+    @Test
+    void drainTimeout_stopsTheOldInstanceWithCallsStillRunning() throws Exception {
+        manager.setDrainTimeout(Duration.ofMillis(100));
+        Versioned v1 = loadV1();
+        manager.acquire(v1);
+
+        manager.reloadPlugin(PLUGIN_ID, jar("v2.jar", VersionTwo.class)).await().atMost(Duration.ofSeconds(5));
+
+        assertTrue(v1.stopped);
+        assertThrows(IllegalStateException.class, () -> manager.acquire(v1));
+    }
+
+    @Test
+    void failedReload_keepsTheCurrentVersion() throws Exception {
+        Versioned v1 = loadV1();
+
+        assertThrows(RuntimeException.class, () -> manager
+                .reloadPlugin(PLUGIN_ID, jar("broken.jar", FailsToStart.class))
+                .await().atMost(Duration.ofSeconds(5)));
+
+        assertSame(v1, manager.getPlugin(PLUGIN_ID).orElseThrow());
+        assertFalse(v1.stopped);
+        manager.acquire(v1).close();
+    }
+
+    @Test
+    void unknownInstance_getsANoOpLease() {
+        assertSame(PluginManager.PluginLease.NONE, manager.acquire(new VersionOne()));
+    }
+
+    @Test
+    void replacedClassLoader_isReportedWhileReachable_andForgottenOnceCollected() throws Exception {
+        manager.setLeakThreshold(Duration.ZERO);
+        loadV1();
+        WeakReference<PluginClassLoader> oldLoader = new WeakReference<>(
+                manager.getRegistry().getPlugin(PLUGIN_ID).orElseThrow().getClassLoader());
+        // Something outside the plugin keeps the old classloader alive
+        PluginClassLoader[] leaked = { oldLoader.get() };
+
+        manager.reloadPlugin(PLUGIN_ID, jar("v2.jar", VersionTwo.class)).await().atMost(Duration.ofSeconds(5));
+
+        List<ClassLoaderLeak> leaks = manager.getLeakedClassLoaders();
+        assertEquals(1, leaks.size());
+        assertEquals(PLUGIN_ID, leaks.get(0).pluginId());
+        assertEquals("1.0.0", leaks.get(0).version());
+
+        leaked[0] = null;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (oldLoader.get() != null && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertNull(oldLoader.get(), "old classloader was not collected");
+        assertEquals(List.of(), manager.getLeakedClassLoaders());
+    }
+
+    private Versioned loadV1() throws IOException {
+        Plugin plugin = manager.loadPlugin(jar("v1.jar", VersionOne.class)).await().atMost(Duration.ofSeconds(5));
+        manager.startPlugin(PLUGIN_ID).await().atMost(Duration.ofSeconds(5));
+        return (Versioned) plugin;
+    }
+
+    private void awaitSwap() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!(manager.getPlugin(PLUGIN_ID).orElseThrow() instanceof VersionTwo)) {
+            assertTrue(System.nanoTime() < deadline, "new version was not swapped in");
+            Thread.sleep(10);
+        }
+    }
+
+    // A plugin JAR naming a provider class; the class itself comes from the
+    // shared plugin packages of the parent classloader
+    private Path jar(String name, Class<? extends Plugin> provider) throws IOException {
+        Path jar = dir.resolve(name);
+        try (OutputStream out = Files.newOutputStream(jar); JarOutputStream jarOut = new JarOutputStream(out)) {
+            jarOut.putNextEntry(new JarEntry("META-INF/services/" + Plugin.class.getName()));
+            jarOut.write(provider.getName().getBytes(StandardCharsets.UTF_8));
+            jarOut.closeEntry();
+        }
+        return jar;
+    }
+
+    public abstract static class Versioned implements Plugin {
+        volatile boolean started;
+        volatile boolean stopped;
+
+        abstract String version();
+
+        @Override
+        public void initialize(PluginContext context) {
+        }
+
+        @Override
+        public void start() throws PluginException {
+            started = true;
+        }
+
+        @Override
+        public void stop() {
+            stopped = true;
+        }
+
+        @Override
+        public PluginMetadata getMetadata() {
+            return new PluginMetadata(PLUGIN_ID, PLUGIN_ID, version(), "test", "", List.of(), Map.of());
+        }
+    }
+
+    public static class VersionOne extends Versioned {
+        @Override
+        String version() {
+            return "1.0.0";
+        }
+    }
+
+    public static class VersionTwo extends Versioned {
+        @Override
+        String version() {
+            return "2.0.0";
+        }
+    }
+
+    public static class FailsToStart extends Versioned {
+        @Override
+        String version() {
+            return "3.0.0";
+        }
+
+        @Override
+        public void start() throws PluginException {
+            throw new PluginException(PLUGIN_ID, "cannot start");
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package tech.kayys.silat.plugin.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import tech.kayys.silat.plugin.Plugin;
+import tech.kayys.silat.plugin.PluginContext;
+import tech.kayys.silat.plugin.PluginMetadata;
+import tech.kayys.silat.plugin.discovery.ServiceDiscoveryPlugin;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PluginRegistryTest {
+
+    private final PluginRegistry registry = new PluginRegistry();
+
+    @Test
+    void pluginsByType_followRegistrationChanges() {
+        PluginRegistry.LoadedPlugin discovery = loaded(new Discovery("consul"));
+        registry.register(loaded(new Other("other")));
+        assertEquals(List.of(), registry.getPluginsByType(ServiceDiscoveryPlugin.class));
+
+        registry.register(discovery);
+        assertEquals(List.of(discovery.getPlugin()), registry.getPluginsByType(ServiceDiscoveryPlugin.class));
+        assertEquals(2, registry.getPluginsByType(Plugin.class).size());
+
+        PluginRegistry.LoadedPlugin replacement = loaded(new Discovery("consul"));
+        assertTrue(registry.replace("consul", discovery, replacement));
+        assertEquals(List.of(replacement.getPlugin()), registry.getPluginsByType(ServiceDiscoveryPlugin.class));
+
+        registry.unregister("consul");
+        assertEquals(List.of(), registry.getPluginsByType(ServiceDiscoveryPlugin.class));
+    }
+
+    @Test
+    void pluginsByType_readDuringRegistration_isNotCachedStale() throws Exception {
+        AtomicBoolean done = new AtomicBoolean();
+        CountDownLatch reading = new CountDownLatch(1);
+        Thread reader = new Thread(() -> {
+            reading.countDown();
+            while (!done.get()) {
+                registry.getPluginsByType(ServiceDiscoveryPlugin.class);
+            }
+        });
+        reader.start();
+        reading.await();
+
+        for (int i = 0; i < 2_000; i++) {
+            registry.register(loaded(new Discovery("discovery-" + i)));
+        }
+        done.set(true);
+        reader.join();
+
+        assertEquals(2_000, registry.getPluginsByType(ServiceDiscoveryPlugin.class).size());
+    }
+
+    private static PluginRegistry.LoadedPlugin loaded(Plugin plugin) {
+        return new PluginRegistry.LoadedPlugin(plugin, plugin.getMetadata(), null);
+    }
+
+    private static PluginMetadata metadata(String id) {
+        return new PluginMetadata(id, id, "1.0.0", "test", "", List.of(), Map.of());
+    }
+
+    private record Discovery(String id) implements ServiceDiscoveryPlugin {
+
+        @Override
+        public Optional<String> discoverEndpoint(String executorId) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void initialize(PluginContext context) {
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void stop() {
+        }
+
+        @Override
+        public PluginMetadata getMetadata() {
+            return metadata(id);
+        }
+    }
+
+    private record Other(String id) implements Plugin {
+
+        @Override
+        public void initialize(PluginContext context) {
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void stop() {
+        }
+
+        @Override
+        public PluginMetadata getMetadata() {
+            return metadata(id);
+        }
+    }
+}
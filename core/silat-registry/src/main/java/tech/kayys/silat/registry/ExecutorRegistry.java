@@ -159,50 +159,49 @@ public class ExecutorRegistry implements ExecutorRegistryService {
 
     @Override
     public Uni<Optional<ExecutorInfo>> getExecutorById(String executorId) {
-        return Uni.createFrom().item(() -> {
-            ExecutorInfo cached = executors.get(executorId);
-            if (cached != null) {
-                return applyServiceDiscovery(cached);
-            }
-            return null;
-        })
-                .flatMap(cached -> {
-                    if (cached != null) {
-                        return Uni.createFrom().item(Optional.of(cached));
-                    }
-                    // If not in cache, try to load from persistent storage
-                    return executorRepository.findById(executorId)
-                            .invoke(executorOpt -> executorOpt
-                                    .ifPresent(executor -> executors.put(executorId, executor)))
-                            .map(opt -> opt.map(this::applyServiceDiscovery));
-                });
+        ExecutorInfo cached = executors.get(executorId);
+        if (cached != null) {
+            return applyServiceDiscovery(cached).map(Optional::of);
+        }
+        // If not in cache, try to load from persistent storage
+        return executorRepository.findById(executorId)
+                .invoke(executorOpt -> executorOpt
+                        .ifPresent(executor -> executors.put(executorId, executor)))
+                .flatMap(opt -> opt.isPresent()
+                        ? applyServiceDiscovery(opt.get()).map(Optional::of)
+                        : Uni.createFrom().item(Optional.<ExecutorInfo>empty()));
     }
 
-    private ExecutorInfo applyServiceDiscovery(ExecutorInfo executor) {
+    private Uni<ExecutorInfo> applyServiceDiscovery(ExecutorInfo executor) {
         if (pluginManager == null)
-            return executor;
-
-        Optional<ServiceDiscoveryPlugin> discoveryPlugin = pluginManager.getAllPlugins().stream()
-                .filter(p -> p instanceof ServiceDiscoveryPlugin)
-                .map(p -> (ServiceDiscoveryPlugin) p)
-                .findFirst();
-
-        if (discoveryPlugin.isPresent()) {
-            Optional<String> discoveredEndpoint = discoveryPlugin.get().discoverEndpoint(executor.executorId());
-            if (discoveredEndpoint.isPresent()) {
-                LOG.debug("Service Discovery: Overriding endpoint for {} from {} to {}",
-                        executor.executorId(), executor.endpoint(), discoveredEndpoint.get());
-
-                return new ExecutorInfo(
-                        executor.executorId(),
-                        executor.executorType(),
-                        executor.communicationType(),
-                        discoveredEndpoint.get(),
-                        executor.timeout(),
-                        executor.metadata());
-            }
+            return Uni.createFrom().item(executor);
+
+        List<ServiceDiscoveryPlugin> discoveryPlugins = pluginManager.getPluginsByType(ServiceDiscoveryPlugin.class);
+        if (discoveryPlugins.isEmpty()) {
+            return Uni.createFrom().item(executor);
         }
-        return executor;
+
+        return discoveryPlugins.get(0).resolveEndpoint(executor.executorId())
+                .map(discoveredEndpoint -> {
+                    if (discoveredEndpoint.isEmpty()) {
+                        return executor;
+                    }
+                    LOG.debug("Service Discovery: Overriding endpoint for {} from {} to {}",
+                            executor.executorId(), executor.endpoint(), discoveredEndpoint.get());
+
+                    return new ExecutorInfo(
+                            executor.executorId(),
+                            executor.executorType(),
+                            executor.communicationType(),
+                            discoveredEndpoint.get(),
+                            executor.timeout(),
+                            executor.metadata());
+                })
+                .onFailure().recoverWithItem(error -> {
+                    LOG.warn("Service discovery failed for {}, using registered endpoint",
+                            executor.executorId(), error);
+                    return executor;
+                });
     }
 
     @Override
@@ -7,6 +7,8 @@ import jakarta.annotation.Priority;
 import tech.kayys.silat.api.repository.WorkflowRunRepository;
 import tech.kayys.silat.model.*;
 
+import java.time.Instant;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -75,6 +77,17 @@ public class InMemoryWorkflowRunRepository implements WorkflowRunRepository {
                 .count());
     }
 
+    @Override
+    public Uni<List<WorkflowRunId>> findStalled(RunStatus status, Instant updatedBefore, int limit) {
+        return Uni.createFrom().item(runs.values().stream()
+                .filter(r -> r.getStatus() == status)
+                .filter(r -> r.getLastUpdatedAt().isBefore(updatedBefore))
+                .sorted(Comparator.comparing(WorkflowRun::getLastUpdatedAt))
+                .limit(limit)
+                .map(WorkflowRun::getId)
+                .toList());
+    }
+
     @Override
     public Uni<Void> storeToken(ExecutionToken token) {
         tokens.put(token.value(), token);
@@ -1,56 +1,86 @@
 package tech.kayys.silat.plugin.consul;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Optional;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import java.time.Duration;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.MultiEmitter;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.core.buffer.Buffer;
+import io.vertx.mutiny.ext.web.client.HttpRequest;
+import io.vertx.mutiny.ext.web.client.HttpResponse;
 import io.vertx.mutiny.ext.web.client.WebClient;
-import tech.kayys.silat.plugin.Plugin;
 import tech.kayys.silat.plugin.PluginContext;
 import tech.kayys.silat.plugin.PluginException;
 import tech.kayys.silat.plugin.PluginMetadata;
 import tech.kayys.silat.plugin.discovery.ServiceDiscoveryPlugin;
+import tech.kayys.silat.plugin.discovery.ServiceInstance;
 
 /**
  * Service Discovery Plugin implementation using Consul
+ *
+ * Keeps a local table of healthy instances per executor. The first lookup of
+ * an executor starts a watch on {@code /v1/health/service/{name}?passing}
+ * that re-issues Consul blocking queries ({@code ?index=}) for as long as the
+ * plugin runs, so lookups never wait on Consul once the table is populated.
+ * Multiple instances are handed out round robin.
  */
 public class ConsulServiceDiscoveryPlugin implements ServiceDiscoveryPlugin {
 
     private static final Logger LOG = LoggerFactory.getLogger(ConsulServiceDiscoveryPlugin.class);
-    
+
     // Default Consul Configuration
     private static final String DEFAULT_CONSUL_HOST = "localhost";
     private static final int DEFAULT_CONSUL_PORT = 8500;
-    
+    private static final int DEFAULT_WAIT_SECONDS = 55;
+    private static final long DEFAULT_RETRY_DELAY_MS = 1000;
+    private static final long DEFAULT_INITIAL_TIMEOUT_MS = 2000;
+
     private PluginContext context;
     private WebClient webClient;
     private Vertx vertx;
-    
+
     private String consulHost;
     private int consulPort;
+    private String datacenter;
+    private String aclToken;
+    private int waitSeconds;
+    private long retryDelayMs;
+    private Duration initialTimeout;
+
+    private final Map<String, ServiceWatch> watches = new ConcurrentHashMap<>();
+    private volatile boolean running;
 
     @Override
     public void initialize(PluginContext context) throws PluginException {
         this.context = context;
         Map<String, String> props = context.getAllProperties();
-        
+
         this.consulHost = props.getOrDefault("consul.host", DEFAULT_CONSUL_HOST);
-        String portStr = props.getOrDefault("consul.port", String.valueOf(DEFAULT_CONSUL_PORT));
-        
-        try {
-            this.consulPort = Integer.parseInt(portStr);
-        } catch (NumberFormatException e) {
-            LOG.warn("Invalid consul.port property '{}', using default {}", portStr, DEFAULT_CONSUL_PORT);
-            this.consulPort = DEFAULT_CONSUL_PORT;
-        }
-        
+        this.consulPort = intProperty(props, "consul.port", DEFAULT_CONSUL_PORT);
+        this.datacenter = props.get("consul.datacenter");
+        this.aclToken = props.get("consul.token");
+        this.waitSeconds = intProperty(props, "consul.watch.wait-seconds", DEFAULT_WAIT_SECONDS);
+        this.retryDelayMs = intProperty(props, "consul.watch.retry-delay-ms", (int) DEFAULT_RETRY_DELAY_MS);
+        this.initialTimeout = Duration.ofMillis(
+                intProperty(props, "consul.initial-timeout-ms", (int) DEFAULT_INITIAL_TIMEOUT_MS));
+
         LOG.info("Consul Service Discovery Plugin initialized (Consul: {}:{})", consulHost, consulPort);
     }
 
@@ -61,11 +91,15 @@ public class ConsulServiceDiscoveryPlugin implements ServiceDiscoveryPlugin {
         // but creating a lightweight one for the client is acceptable for now.
         this.vertx = Vertx.vertx();
         this.webClient = WebClient.create(vertx);
+        this.running = true;
         LOG.info("Consul Service Discovery Plugin started");
     }
 
     @Override
     public void stop() throws PluginException {
+        running = false;
+        watches.values().forEach(ServiceWatch::close);
+        watches.clear();
         if (webClient != null) {
             webClient.close();
         }
@@ -82,71 +116,243 @@ public class ConsulServiceDiscoveryPlugin implements ServiceDiscoveryPlugin {
             "Consul Service Discovery",
             "1.0.0",
             "Tech Kayys",
-            "Provides executor discovery via Consul Catalog API",
+            "Provides executor discovery via Consul health API",
             java.util.Collections.emptyList(),
             Map.of("consul.host", "localhost", "consul.port", "8500")
         );
     }
 
     /**
-     * Discover endpoint for an executor ID from Consul
-     * Queries: /v1/catalog/service/{executorId}
+     * Next healthy endpoint for an executor from the local table; the first
+     * call for an executor starts its watch and returns empty
      */
     @Override
     public Optional<String> discoverEndpoint(String executorId) {
-        if (webClient == null) {
+        if (!running) {
             LOG.warn("Plugin not started, cannot discover endpoint");
             return Optional.empty();
         }
+        return watch(executorId).next();
+    }
+
+    @Override
+    public Uni<Optional<String>> resolveEndpoint(String executorId) {
+        if (!running) {
+            return Uni.createFrom().item(Optional.empty());
+        }
+        ServiceWatch watch = watch(executorId);
+        return watch.ready().map(ignored -> watch.next());
+    }
 
-        try {
-            // Note: In a reactive/Uni world, this blocking awaiting is less than ideal for high throughput,
-            // but the ServiceDiscoveryPlugin interface is synchronous (Optional<String>). 
-            // Ideally, the interface should return Uni<Optional<String>>.
-            // For now, we block with a timeout.
-            
-            String serviceName = sanitizeServiceName(executorId);
-            LOG.debug("Querying Consul for service: {}", serviceName);
-
-            io.vertx.mutiny.ext.web.client.HttpResponse<io.vertx.mutiny.core.buffer.Buffer> response = 
-                webClient.get(consulPort, consulHost, "/v1/catalog/service/" + serviceName)
-                    .send()
-                    .await().atMost(Duration.ofSeconds(2));
-
-            if (response.statusCode() == 200) {
-                JsonArray services = response.bodyAsJsonArray();
-                if (services != null && !services.isEmpty()) {
-                    JsonObject service = services.getJsonObject(0);
-                    String address = service.getString("ServiceAddress");
-                    Integer port = service.getInteger("ServicePort");
-                    
-                    // Fallback to Node address if ServiceAddress is empty
-                    if (address == null || address.isEmpty()) {
-                        address = service.getString("Address"); // Node address
-                    }
+    @Override
+    public Uni<List<ServiceInstance>> discoverInstances(String executorId) {
+        if (!running) {
+            return Uni.createFrom().item(List.of());
+        }
+        ServiceWatch watch = watch(executorId);
+        return watch.ready().map(ignored -> watch.instances);
+    }
 
-                    if (address != null && port != null) {
-                         // Construct endpoint string (assuming gRPC/http host:port format)
-                         // If executor metadata has protocol, we might want to respect it, but for now returned host:port
-                         String endpoint = address + ":" + port;
-                         LOG.debug("Discovered endpoint for {}: {}", executorId, endpoint);
-                         return Optional.of(endpoint);
+    @Override
+    public Multi<List<ServiceInstance>> watchInstances(String executorId) {
+        if (!running) {
+            return Multi.createFrom().empty();
+        }
+        ServiceWatch watch = watch(executorId);
+        return Multi.createFrom().<List<ServiceInstance>>emitter(emitter -> {
+            watch.listeners.add(emitter);
+            emitter.onTermination(() -> watch.listeners.remove(emitter));
+            if (watch.loaded.isDone()) {
+                emitter.emit(watch.instances);
+            }
+        }).skip().repetitions();
+    }
+
+    private ServiceWatch watch(String executorId) {
+        String serviceName = sanitizeServiceName(executorId);
+        ServiceWatch existing = watches.get(serviceName);
+        if (existing != null) {
+            return existing;
+        }
+        ServiceWatch created = new ServiceWatch(serviceName);
+        existing = watches.putIfAbsent(serviceName, created);
+        if (existing != null) {
+            return existing;
+        }
+        LOG.debug("Watching Consul service: {}", serviceName);
+        poll(created);
+        return created;
+    }
+
+    /**
+     * Issue the next blocking query; re-arms itself until the plugin stops
+     */
+    private void poll(ServiceWatch watch) {
+        if (!running) {
+            return;
+        }
+        HttpRequest<Buffer> request = webClient
+                .get(consulPort, consulHost, "/v1/health/service/" + watch.serviceName)
+                .addQueryParam("passing", "true")
+                .addQueryParam("index", Long.toString(watch.index))
+                .addQueryParam("wait", waitSeconds + "s")
+                // Consul adds up to wait/16 jitter to the wait time
+                .timeout(Duration.ofSeconds(waitSeconds + waitSeconds / 16 + 5).toMillis());
+        if (datacenter != null) {
+            request.addQueryParam("dc", datacenter);
+        }
+        if (aclToken != null) {
+            request.putHeader("X-Consul-Token", aclToken);
+        }
+
+        request.send().subscribe().with(
+                response -> {
+                    if (response.statusCode() == 200) {
+                        update(watch, response);
+                        poll(watch);
+                    } else {
+                        LOG.warn("Consul query for {} failed with status: {}", watch.serviceName,
+                                response.statusCode());
+                        retry(watch);
+                    }
+                },
+                failure -> {
+                    if (running) {
+                        LOG.warn("Failed to query Consul for service: {}", watch.serviceName, failure);
                     }
-                }
-            } else {
-                LOG.warn("Consul query failed with status: {}", response.statusCode());
+                    retry(watch);
+                });
+    }
+
+    private void retry(ServiceWatch watch) {
+        // Let waiting lookups fall back to the registry endpoint
+        watch.loaded.complete(null);
+        if (running) {
+            vertx.setTimer(retryDelayMs, id -> poll(watch));
+        }
+    }
+
+    private void update(ServiceWatch watch, HttpResponse<Buffer> response) {
+        long index = parseIndex(response.getHeader("X-Consul-Index"));
+        // Per Consul's blocking query rules: restart from 0 when the index
+        // goes backwards, and never block on an index below 1
+        watch.index = index < watch.index ? 0 : Math.max(index, 1);
+
+        List<ServiceInstance> instances = parseInstances(response.bodyAsJsonArray());
+        if (!instances.equals(watch.instances)) {
+            LOG.debug("Consul service {} now has {} healthy instances", watch.serviceName, instances.size());
+            watch.instances = instances;
+            watch.listeners.forEach(listener -> listener.emit(instances));
+        }
+        watch.loaded.complete(null);
+    }
+
+    private List<ServiceInstance> parseInstances(JsonArray entries) {
+        List<ServiceInstance> instances = new ArrayList<>();
+        if (entries == null) {
+            return instances;
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            JsonObject entry = entries.getJsonObject(i);
+            JsonObject node = entry.getJsonObject("Node", new JsonObject());
+            JsonObject service = entry.getJsonObject("Service", new JsonObject());
+
+            String address = service.getString("Address");
+            // Fallback to Node address if ServiceAddress is empty
+            if (address == null || address.isEmpty()) {
+                address = node.getString("Address");
+            }
+            Integer port = service.getInteger("Port");
+            if (address == null || port == null) {
+                continue;
+            }
+
+            Map<String, String> metadata = new HashMap<>();
+            JsonObject meta = service.getJsonObject("Meta");
+            if (meta != null) {
+                meta.forEach(field -> metadata.put(field.getKey(), String.valueOf(field.getValue())));
             }
+            if (node.getString("Node") != null) {
+                metadata.put("node", node.getString("Node"));
+            }
+            JsonArray tags = service.getJsonArray("Tags");
+            if (tags != null && !tags.isEmpty()) {
+                metadata.put("tags", String.join(",", tags.stream().map(String::valueOf).toList()));
+            }
+            instances.add(new ServiceInstance(service.getString("ID", address + ":" + port), address, port,
+                    metadata));
+        }
+        // Stable order so unchanged results compare equal
+        instances.sort(Comparator.comparing(ServiceInstance::id));
+        return List.copyOf(instances);
+    }
 
-        } catch (Exception e) {
-            LOG.error("Failed to query Consul for executor: {}", executorId, e);
+    private static long parseIndex(String header) {
+        if (header == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(header);
+        } catch (NumberFormatException e) {
+            return 0;
         }
-        
-        return Optional.empty();
     }
-    
+
+    private static int intProperty(Map<String, String> props, String key, int defaultValue) {
+        String value = props.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            LOG.warn("Invalid {} property '{}', using default {}", key, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
     private String sanitizeServiceName(String executorId) {
-        // Consul service names should be DNS compatible. 
+        // Consul service names should be DNS compatible.
         // Silat Executor IDs might need normalization.
         return executorId.replaceAll("[^a-zA-Z0-9-]", "-");
     }
+
+    /**
+     * Local view of one Consul service
+     */
+    private final class ServiceWatch {
+
+        final String serviceName;
+        final CompletableFuture<Void> loaded = new CompletableFuture<>();
+        final Set<MultiEmitter<? super List<ServiceInstance>>> listeners = ConcurrentHashMap.newKeySet();
+        final AtomicInteger cursor = new AtomicInteger();
+        volatile List<ServiceInstance> instances = List.of();
+        volatile long index;
+
+        ServiceWatch(String serviceName) {
+            this.serviceName = serviceName;
+        }
+
+        Optional<String> next() {
+            List<ServiceInstance> current = instances;
+            if (current.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(current.get(Math.floorMod(cursor.getAndIncrement(), current.size())).endpoint());
+        }
+
+        // Completes once the first query answered, or after the initial timeout
+        Uni<Void> ready() {
+            if (loaded.isDone()) {
+                return Uni.createFrom().voidItem();
+            }
+            return Uni.createFrom().completionStage(loaded)
+                    .ifNoItem().after(initialTimeout).recoverWithItem((Void) null);
+        }
+
+        void close() {
+            listeners.forEach(MultiEmitter::complete);
+            listeners.clear();
+        }
+    }
 }
@@ -0,0 +1,177 @@
+package tech.kayys.silat.plugin.consul;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import tech.kayys.silat.plugin.PluginContext;
+import tech.kayys.silat.plugin.discovery.ServiceInstance;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConsulServiceDiscoveryPluginTest {
+
+    // Stands in for Consul: each query waits here until the test answers it
+    private final BlockingQueue<HttpServerRequest> queries = new LinkedBlockingQueue<>();
+    private Vertx vertx;
+    private HttpServer consul;
+    private ConsulServiceDiscoveryPlugin plugin;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        vertx = Vertx.vertx();
+        consul = vertx.createHttpServer().requestHandler(queries::add)
+                .listen(0).toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+        PluginContext context = mock(PluginContext.class);
+        when(context.getAllProperties()).thenReturn(Map.of(
+                "consul.host", "localhost",
+                "consul.port", String.valueOf(consul.actualPort()),
+                "consul.datacenter", "dc1",
+                "consul.token", "secret",
+                "consul.watch.wait-seconds", "2",
+                "consul.watch.retry-delay-ms", "50",
+                "consul.initial-timeout-ms", "5000"));
+        plugin = new ConsulServiceDiscoveryPlugin();
+        plugin.initialize(context);
+        plugin.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        plugin.stop();
+        vertx.close().toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void resolveEndpoint_waitsForTheFirstAnswerThenRoundRobins() throws Exception {
+        CompletableFuture<Optional<String>> resolved = plugin.resolveEndpoint("payments.v1")
+                .subscribeAsCompletionStage();
+
+        HttpServerRequest query = nextQuery();
+        assertEquals("/v1/health/service/payments-v1", query.path());
+        assertEquals("true", query.getParam("passing"));
+        assertEquals("0", query.getParam("index"));
+        assertEquals("2s", query.getParam("wait"));
+        assertEquals("dc1", query.getParam("dc"));
+        assertEquals("secret", query.getHeader("X-Consul-Token"));
+        assertFalse(resolved.isDone());
+        answer(query, 10, entry("b", "10.0.0.2", 9000), entry("a", "10.0.0.1", 9000));
+
+        String first = resolved.get(5, TimeUnit.SECONDS).orElseThrow();
+        String second = plugin.discoverEndpoint("payments.v1").orElseThrow();
+        String third = plugin.discoverEndpoint("payments.v1").orElseThrow();
+        assertNotEquals(first, second);
+        assertEquals(first, third);
+        assertEquals(java.util.Set.of("10.0.0.1:9000", "10.0.0.2:9000"), java.util.Set.of(first, second));
+
+        // The watch blocks on the index it was given
+        assertEquals("10", nextQuery().getParam("index"));
+    }
+
+    @Test
+    void discoverInstances_parsesHealthEntries() throws Exception {
+        CompletableFuture<List<ServiceInstance>> discovered = plugin.discoverInstances("payments")
+                .subscribeAsCompletionStage();
+        JsonObject withoutServiceAddress = entry("b", "", 9001);
+        withoutServiceAddress.getJsonObject("Service")
+                .put("Tags", new JsonArray().add("blue").add("eu"))
+                .put("Meta", new JsonObject().put("zone", "eu-1"));
+
+        answer(nextQuery(), 10, withoutServiceAddress, entry("a", "10.0.0.1", 9000));
+
+        List<ServiceInstance> instances = discovered.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("a", "b"), instances.stream().map(ServiceInstance::id).toList());
+        ServiceInstance fallback = instances.get(1);
+        assertEquals("node-b", fallback.address());
+        assertEquals(9001, fallback.port());
+        assertEquals(Map.of("zone", "eu-1", "node", "node-b", "tags", "blue,eu"), fallback.metadata());
+    }
+
+    @Test
+    void watchInstances_pushesOnlyChanges() throws Exception {
+        List<List<ServiceInstance>> pushed = new CopyOnWriteArrayList<>();
+        plugin.watchInstances("payments").subscribe().with(pushed::add);
+
+        answer(nextQuery(), 10, entry("a", "10.0.0.1", 9000));
+        HttpServerRequest second = nextQuery();
+        assertEquals("10", second.getParam("index"));
+        answer(second, 12, entry("a", "10.0.0.1", 9000), entry("b", "10.0.0.2", 9000));
+        HttpServerRequest third = nextQuery();
+        assertEquals("12", third.getParam("index"));
+        // Same instances at a new index, e.g. after an unrelated health check update
+        answer(third, 13, entry("b", "10.0.0.2", 9000), entry("a", "10.0.0.1", 9000));
+        assertEquals("13", nextQuery().getParam("index"));
+
+        assertEquals(2, pushed.size());
+        assertEquals(List.of("a"), pushed.get(0).stream().map(ServiceInstance::id).toList());
+        assertEquals(List.of("a", "b"), pushed.get(1).stream().map(ServiceInstance::id).toList());
+    }
+
+    @Test
+    void indexGoingBackwards_restartsTheWatchFromZero() throws Exception {
+        plugin.discoverEndpoint("payments");
+
+        answer(nextQuery(), 10, entry("a", "10.0.0.1", 9000));
+        HttpServerRequest second = nextQuery();
+        answer(second, 5, entry("a", "10.0.0.1", 9000));
+        HttpServerRequest reset = nextQuery();
+        assertEquals("0", reset.getParam("index"));
+        // No index header at all: never block on an index below 1
+        answer(reset, null, entry("a", "10.0.0.1", 9000));
+        assertEquals("1", nextQuery().getParam("index"));
+    }
+
+    @Test
+    void consulError_resolvesEmptyAndRetries() throws Exception {
+        CompletableFuture<Optional<String>> resolved = plugin.resolveEndpoint("payments")
+                .subscribeAsCompletionStage();
+
+        nextQuery().response().setStatusCode(500).end();
+
+        assertEquals(Optional.empty(), resolved.get(5, TimeUnit.SECONDS));
+        HttpServerRequest retried = nextQuery();
+        assertEquals("0", retried.getParam("index"));
+        answer(retried, 3, entry("a", "10.0.0.1", 9000));
+        // The next blocking query only goes out once the answer has been applied
+        assertEquals("3", nextQuery().getParam("index"));
+        assertEquals(Optional.of("10.0.0.1:9000"), plugin.resolveEndpoint("payments")
+                .await().atMost(Duration.ofSeconds(5)));
+    }
+
+    private HttpServerRequest nextQuery() throws InterruptedException {
+        HttpServerRequest query = queries.poll(5, TimeUnit.SECONDS);
+        assertNotNull(query, "expected a query to Consul");
+        return query;
+    }
+
+    private static void answer(HttpServerRequest query, Integer index, JsonObject... entries) {
+        if (index != null) {
+            query.response().putHeader("X-Consul-Index", index.toString());
+        }
+        query.response().putHeader("Content-Type", "application/json")
+                .end(new JsonArray(List.of((Object[]) entries)).encode());
+    }
+
+    private static JsonObject entry(String id, String address, int port) {
+        return new JsonObject()
+                .put("Node", new JsonObject().put("Node", "node-" + id).put("Address", "node-" + id))
+                .put("Service", new JsonObject().put("ID", id).put("Address", address).put("Port", port));
+    }
+}
@@ -1,8 +1,8 @@
 package tech.kayys.silat.plugin.defaultplugins;
 
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 
@@ -21,9 +21,14 @@ public class MetricsCollectorPlugin implements ExecutionInterceptorPlugin {
     private Logger logger;
     private volatile boolean started = false;
 
+    // Key of the start time kept in each task's context
+    private static final String START_NANOS = "metrics-collector.startNanos";
+
     // Metrics storage
-    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
-    private final Map<String, Long> timers = new ConcurrentHashMap<>();
+    private final LongAdder executionsStarted = new LongAdder();
+    private final LongAdder executionsCompleted = new LongAdder();
+    private final LongAdder executionErrors = new LongAdder();
+    private final LongAdder executionDurationMs = new LongAdder();
 
     @Override
     public void initialize(PluginContext context) throws PluginException {
@@ -56,9 +61,8 @@ public class MetricsCollectorPlugin implements ExecutionInterceptorPlugin {
     @Override
     public Uni<Void> beforeExecution(TaskContext task) {
         if (started) {
-            String metricKey = "node_execution_time_" + task.nodeId();
-            timers.put(metricKey + "_start_" + System.nanoTime(), System.currentTimeMillis());
-            incrementCounter("node_executions_started");
+            task.attributes().put(START_NANOS, System.nanoTime());
+            executionsStarted.increment();
         }
         return Uni.createFrom().voidItem();
     }
@@ -66,18 +70,11 @@ public class MetricsCollectorPlugin implements ExecutionInterceptorPlugin {
     @Override
     public Uni<Void> afterExecution(TaskContext task, ExecutionResult result) {
         if (started) {
-            String metricKey = "node_execution_time_" + task.nodeId();
-            // Find the start time for this execution
-            String prefix = metricKey + "_start_";
-            timers.entrySet().removeIf(entry -> {
-                if (entry.getKey().startsWith(prefix)) {
-                    long duration = System.currentTimeMillis() - entry.getValue();
-                    incrementCounter("node_execution_duration_ms", duration);
-                    return true; // Remove the start marker
-                }
-                return false;
-            });
-            incrementCounter("node_executions_completed");
+            // Absent when the task was dispatched by another engine instance
+            if (task.attributes().remove(START_NANOS) instanceof Long startNanos) {
+                executionDurationMs.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            }
+            executionsCompleted.increment();
         }
         return Uni.createFrom().voidItem();
     }
@@ -85,24 +82,17 @@ public class MetricsCollectorPlugin implements ExecutionInterceptorPlugin {
     @Override
     public Uni<Void> onError(TaskContext task, Throwable error) {
         if (started) {
-            incrementCounter("node_execution_errors");
+            task.attributes().remove(START_NANOS);
+            executionErrors.increment();
         }
         return Uni.createFrom().voidItem();
     }
 
-    private void incrementCounter(String counterName) {
-        counters.computeIfAbsent(counterName, k -> new AtomicLong(0)).incrementAndGet();
-    }
-
-    private void incrementCounter(String counterName, long value) {
-        counters.computeIfAbsent(counterName, k -> new AtomicLong(0)).addAndGet(value);
-    }
-
     public Map<String, Long> getMetrics() {
-        Map<String, Long> result = new ConcurrentHashMap<>();
-        for (Map.Entry<String, AtomicLong> entry : counters.entrySet()) {
-            result.put(entry.getKey(), entry.getValue().get());
-        }
-        return result;
+        return Map.of(
+                "node_executions_started", executionsStarted.sum(),
+                "node_executions_completed", executionsCompleted.sum(),
+                "node_execution_errors", executionErrors.sum(),
+                "node_execution_duration_ms", executionDurationMs.sum());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,129 @@
+package tech.kayys.silat.grpc;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Struct;
+import com.google.protobuf.util.JsonFormat;
+
+/**
+ * Map to and from the wire: the former JSON round trip through
+ * {@code JsonFormat}, the direct {@link StructCodec}, and the binary
+ * {@link PayloadCodec}
+ *
+ * Run with {@code mvn -Pjmh -pl protocol/silat-grpc verify}; results
+ * include allocation rates ({@code -prof gc}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GrpcMapperBenchmark {
+
+    @Param({ "10", "1000" })
+    int variables;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final StructCodec structCodec = new StructCodec(value -> objectMapper.convertValue(value, Object.class));
+    private final PayloadCodec payloadCodec = new PayloadCodec(value -> objectMapper.convertValue(value, Object.class));
+
+    private Map<String, Object> context;
+    private Struct struct;
+    private ByteString payload;
+
+    @Setup
+    public void setUp() {
+        context = new LinkedHashMap<>();
+        for (int i = 0; i < variables; i++) {
+            switch (i % 5) {
+                case 0 -> context.put("name" + i, "customer-" + i);
+                case 1 -> context.put("count" + i, i);
+                case 2 -> context.put("amount" + i, i * 1.25);
+                case 3 -> context.put("flag" + i, i % 2 == 0);
+                default -> {
+                    Map<String, Object> nested = new HashMap<>();
+                    nested.put("id", "item-" + i);
+                    nested.put("quantity", i);
+                    List<Object> tags = new ArrayList<>();
+                    for (int t = 0; t < 5; t++) {
+                        tags.add("tag-" + t);
+                    }
+                    nested.put("tags", tags);
+                    context.put("item" + i, nested);
+                }
+            }
+        }
+        struct = structCodec.toStruct(context);
+        payload = payloadCodec.encode(context);
+    }
+
+    // ==================== TO WIRE ====================
+
+    @Benchmark
+    public Struct jsonToStruct() throws Exception {
+        Struct.Builder builder = Struct.newBuilder();
+        JsonFormat.parser().merge(objectMapper.writeValueAsString(context), builder);
+        return builder.build();
+    }
+
+    @Benchmark
+    public Struct directToStruct() {
+        return structCodec.toStruct(context);
+    }
+
+    @Benchmark
+    public ByteString binaryEncode() {
+        return payloadCodec.encode(context);
+    }
+
+    // ==================== FROM WIRE ====================
+
+    @Benchmark
+    public Map<String, Object> jsonFromStruct() throws Exception {
+        return objectMapper.readValue(JsonFormat.printer().print(struct), new TypeReference<Map<String, Object>>() {
+        });
+    }
+
+    @Benchmark
+    public Map<String, Object> directFromStruct() {
+        return structCodec.toMap(struct);
+    }
+
+    @Benchmark
+    public Map<String, Object> binaryDecode() {
+        return payloadCodec.decode(payload);
+    }
+
+    // ==================== WIRE SIZE ====================
+
+    @Benchmark
+    public int structWireSize() {
+        return structCodec.toStruct(context).getSerializedSize();
+    }
+
+    @Benchmark
+    public int binaryWireSize() {
+        return payloadCodec.encode(context).size();
+    }
+}
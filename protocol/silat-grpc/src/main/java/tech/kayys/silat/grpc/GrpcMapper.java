@@ -1,11 +1,14 @@
 package tech.kayys.silat.grpc;
 
+import com.google.protobuf.ByteString;
 import com.google.protobuf.Struct;
 import com.google.protobuf.Timestamp;
 import java.time.Instant;
 import java.util.Map;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +36,23 @@ public class GrpcMapper {
     @Inject
     com.fasterxml.jackson.databind.ObjectMapper objectMapper;
 
+    /**
+     * Payloads estimated at this many bytes or more go in the binary
+     * {@code *_bin} fields instead of a {@code Struct}
+     */
+    @ConfigProperty(name = "silat.grpc.binary-payload-threshold", defaultValue = "65536")
+    int binaryPayloadThreshold;
+
+    private StructCodec structCodec;
+    private PayloadCodec payloadCodec;
+
+    @PostConstruct
+    void initCodecs() {
+        // Types without a Struct or payload counterpart go through Jackson, as before
+        structCodec = new StructCodec(value -> objectMapper.convertValue(value, Object.class));
+        payloadCodec = new PayloadCodec(value -> objectMapper.convertValue(value, Object.class));
+    }
+
     // ==================== RUN RESPONSE MAPPING ====================
 
     public RunResponse toProtoRunResponse(
@@ -62,7 +82,11 @@ public class GrpcMapper {
 
         // Add variables
         if (snapshot.variables() != null) {
-            builder.setVariables(mapToStruct(snapshot.variables()));
+            if (isLargePayload(snapshot.variables())) {
+                builder.setVariablesBin(toPayload(snapshot.variables()));
+            } else {
+                builder.setVariables(mapToStruct(snapshot.variables()));
+            }
         }
 
         // Add node executions
@@ -148,7 +172,7 @@ public class GrpcMapper {
                 NodeId.of(protoResult.getNodeId()),
                 protoResult.getAttempt(),
                 toDomainTaskStatus(protoResult.getStatus()),
-                structToMap(protoResult.getOutput()),
+                payloadOrStruct(protoResult.getOutputBin(), protoResult.getOutput()),
                 protoResult.hasError() ? toDomainErrorInfo(protoResult.getError()) : null,
                 new ExecutionToken(
                         protoResult.getExecutionToken(),
@@ -285,28 +309,39 @@ public class GrpcMapper {
 
     public Struct mapToStruct(Map<String, Object> map) {
         try {
-            String json = objectMapper.writeValueAsString(map);
-            Struct.Builder builder = Struct.newBuilder();
-            com.google.protobuf.util.JsonFormat.parser()
-                    .merge(json, builder);
-            return builder.build();
-        } catch (Exception e) {
+            return structCodec.toStruct(map);
+        } catch (RuntimeException e) {
             LOG.error("Failed to convert map to Struct", e);
             return Struct.getDefaultInstance();
         }
     }
 
     public Map<String, Object> structToMap(Struct struct) {
-        try {
-            String json = com.google.protobuf.util.JsonFormat.printer()
-                    .print(struct);
-            return objectMapper.readValue(json,
-                    new com.fasterxml.jackson.core.type.TypeReference<>() {
-                    });
-        } catch (Exception e) {
-            LOG.error("Failed to convert Struct to map", e);
-            return Map.of();
-        }
+        return structCodec.toMap(struct);
+    }
+
+    // ==================== BINARY PAYLOADS ====================
+
+    /**
+     * Whether the map is large enough to be sent as a binary payload
+     */
+    public boolean isLargePayload(Map<String, Object> map) {
+        return PayloadCodec.exceeds(map, binaryPayloadThreshold);
+    }
+
+    public ByteString toPayload(Map<String, Object> map) {
+        return payloadCodec.encode(map);
+    }
+
+    public Map<String, Object> fromPayload(ByteString payload) {
+        return payloadCodec.decode(payload);
+    }
+
+    /**
+     * The binary payload if the sender set one, the {@code Struct} otherwise
+     */
+    public Map<String, Object> payloadOrStruct(ByteString payload, Struct struct) {
+        return payload.isEmpty() ? structToMap(struct) : fromPayload(payload);
     }
 
     public tech.kayys.silat.model.ErrorInfo toDomainErrorInfo(
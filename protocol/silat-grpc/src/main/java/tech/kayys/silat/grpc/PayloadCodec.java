@@ -0,0 +1,252 @@
+package tech.kayys.silat.grpc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+
+/**
+ * Compact binary encoding of maps for the {@code *_bin} payload fields
+ *
+ * Each value is a one-byte tag followed by its body: varints for integers
+ * and lengths, fixed 8 bytes for doubles, UTF-8 for strings. Unlike a
+ * {@code Struct} it keeps integers, longs, decimals and byte arrays apart
+ * and carries no per-value message framing, so large contexts encode
+ * smaller and decode faster.
+ */
+public final class PayloadCodec {
+
+    private static final int VERSION = 1;
+
+    private static final int NULL = 0;
+    private static final int FALSE = 1;
+    private static final int TRUE = 2;
+    private static final int INT = 3;
+    private static final int LONG = 4;
+    private static final int DOUBLE = 5;
+    private static final int STRING = 6;
+    private static final int BYTES = 7;
+    private static final int LIST = 8;
+    private static final int MAP = 9;
+    private static final int DECIMAL = 10;
+    private static final int BIG_INTEGER = 11;
+
+    private static final int MAX_DEPTH = 64;
+
+    private final UnaryOperator<Object> fallback;
+
+    /**
+     * @param fallback converts values of any other type to a map, list or
+     *                 scalar
+     */
+    public PayloadCodec(UnaryOperator<Object> fallback) {
+        this.fallback = fallback;
+    }
+
+    /**
+     * Codec that writes unknown types as their {@code toString()}
+     */
+    public static PayloadCodec plain() {
+        return new PayloadCodec(String::valueOf);
+    }
+
+    // ==================== ENCODE ====================
+
+    public ByteString encode(Map<?, ?> map) {
+        ByteString.Output out = ByteString.newOutput(256);
+        CodedOutputStream coded = CodedOutputStream.newInstance(out, 4096);
+        try {
+            coded.writeUInt32NoTag(VERSION);
+            writeMap(coded, map != null ? map : Map.of(), 0);
+            coded.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteString();
+    }
+
+    private void writeMap(CodedOutputStream out, Map<?, ?> map, int depth) throws IOException {
+        out.writeUInt32NoTag(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            out.writeStringNoTag(String.valueOf(entry.getKey()));
+            write(out, entry.getValue(), depth + 1);
+        }
+    }
+
+    private void write(CodedOutputStream out, Object value, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Payload nested deeper than " + MAX_DEPTH + " levels");
+        }
+        if (value == null) {
+            out.write((byte) NULL);
+        } else if (value instanceof String string) {
+            out.write((byte) STRING);
+            out.writeStringNoTag(string);
+        } else if (value instanceof Boolean bool) {
+            out.write((byte) (bool ? TRUE : FALSE));
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            out.write((byte) INT);
+            out.writeSInt32NoTag(((Number) value).intValue());
+        } else if (value instanceof Long number) {
+            out.write((byte) LONG);
+            out.writeSInt64NoTag(number);
+        } else if (value instanceof Double || value instanceof Float) {
+            out.write((byte) DOUBLE);
+            out.writeDoubleNoTag(((Number) value).doubleValue());
+        } else if (value instanceof BigDecimal decimal) {
+            out.write((byte) DECIMAL);
+            out.writeStringNoTag(decimal.toString());
+        } else if (value instanceof BigInteger integer) {
+            out.write((byte) BIG_INTEGER);
+            out.writeStringNoTag(integer.toString());
+        } else if (value instanceof Number number) {
+            out.write((byte) DOUBLE);
+            out.writeDoubleNoTag(number.doubleValue());
+        } else if (value instanceof Map<?, ?> map) {
+            out.write((byte) MAP);
+            writeMap(out, map, depth);
+        } else if (value instanceof Collection<?> collection) {
+            out.write((byte) LIST);
+            out.writeUInt32NoTag(collection.size());
+            for (Object element : collection) {
+                write(out, element, depth + 1);
+            }
+        } else if (value instanceof byte[] bytes) {
+            out.write((byte) BYTES);
+            out.writeByteArrayNoTag(bytes);
+        } else if (value instanceof ByteString bytes) {
+            out.write((byte) BYTES);
+            out.writeBytesNoTag(bytes);
+        } else if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            out.write((byte) LIST);
+            out.writeUInt32NoTag(length);
+            for (int i = 0; i < length; i++) {
+                write(out, Array.get(value, i), depth + 1);
+            }
+        } else if (value instanceof CharSequence || value instanceof Enum<?> || value instanceof Character) {
+            out.write((byte) STRING);
+            out.writeStringNoTag(value.toString());
+        } else {
+            Object converted = fallback.apply(value);
+            if (converted == null || converted.getClass() == value.getClass()) {
+                out.write((byte) STRING);
+                out.writeStringNoTag(String.valueOf(value));
+            } else {
+                write(out, converted, depth);
+            }
+        }
+    }
+
+    // ==================== DECODE ====================
+
+    public Map<String, Object> decode(ByteString payload) {
+        if (payload == null || payload.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        CodedInputStream in = payload.newCodedInput();
+        try {
+            int version = in.readUInt32();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported payload version " + version);
+            }
+            return readMap(in, 0);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed payload", e);
+        }
+    }
+
+    private Map<String, Object> readMap(CodedInputStream in, int depth) throws IOException {
+        int size = in.readUInt32();
+        Map<String, Object> map = new LinkedHashMap<>(Math.max(16, Math.min(size, 1 << 16) * 4 / 3 + 1));
+        for (int i = 0; i < size; i++) {
+            String key = in.readStringRequireUtf8();
+            map.put(key, read(in, depth + 1));
+        }
+        return map;
+    }
+
+    private Object read(CodedInputStream in, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Payload nested deeper than " + MAX_DEPTH + " levels");
+        }
+        int tag = in.readRawByte();
+        return switch (tag) {
+            case NULL -> null;
+            case FALSE -> Boolean.FALSE;
+            case TRUE -> Boolean.TRUE;
+            case INT -> in.readSInt32();
+            case LONG -> in.readSInt64();
+            case DOUBLE -> in.readDouble();
+            case STRING -> in.readStringRequireUtf8();
+            case BYTES -> in.readByteArray();
+            case MAP -> readMap(in, depth);
+            case LIST -> {
+                int size = in.readUInt32();
+                List<Object> list = new ArrayList<>(Math.min(size, 1 << 16));
+                for (int i = 0; i < size; i++) {
+                    list.add(read(in, depth + 1));
+                }
+                yield list;
+            }
+            case DECIMAL -> new BigDecimal(in.readStringRequireUtf8());
+            case BIG_INTEGER -> new BigInteger(in.readStringRequireUtf8());
+            default -> throw new IllegalArgumentException("Unknown payload tag " + tag);
+        };
+    }
+
+    // ==================== SIZING ====================
+
+    /**
+     * Cheap check of whether the map's encoding would reach the limit;
+     * stops walking once it does, and counts strings by their length
+     */
+    public static boolean exceeds(Map<?, ?> map, int limit) {
+        return map != null && estimate(map, limit, 0) >= limit;
+    }
+
+    private static long estimate(Object value, long remaining, int depth) {
+        if (value == null || depth > MAX_DEPTH) {
+            return 1;
+        }
+        if (value instanceof CharSequence string) {
+            return 2 + string.length();
+        }
+        if (value instanceof byte[] bytes) {
+            return 2 + bytes.length;
+        }
+        if (value instanceof Map<?, ?> map) {
+            long size = 2;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                size += estimate(String.valueOf(entry.getKey()), remaining - size, depth + 1)
+                        + estimate(entry.getValue(), remaining - size, depth + 1);
+                if (size >= remaining) {
+                    return size;
+                }
+            }
+            return size;
+        }
+        if (value instanceof Collection<?> collection) {
+            long size = 2;
+            for (Object element : collection) {
+                size += estimate(element, remaining - size, depth + 1);
+                if (size >= remaining) {
+                    return size;
+                }
+            }
+            return size;
+        }
+        return 9;
+    }
+}
@@ -0,0 +1,155 @@
+package tech.kayys.silat.grpc;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+import com.google.protobuf.ListValue;
+import com.google.protobuf.NullValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+
+/**
+ * Converts between maps and protobuf {@link Struct}s directly, value by
+ * value, without going through JSON text
+ *
+ * Numbers travel as doubles, as {@code Struct} has no integer type; a
+ * whole number that a double holds exactly comes back as an
+ * {@code Integer} or {@code Long}. Types with no {@code Struct}
+ * counterpart are passed through the fallback, which turns them into
+ * maps, lists or scalars (e.g. Jackson's {@code convertValue}).
+ */
+public final class StructCodec {
+
+    private static final Value NULL = Value.newBuilder().setNullValue(NullValue.NULL_VALUE).build();
+    private static final Value TRUE = Value.newBuilder().setBoolValue(true).build();
+    private static final Value FALSE = Value.newBuilder().setBoolValue(false).build();
+    private static final double MAX_EXACT_LONG = 9_007_199_254_740_992d; // 2^53
+
+    private final UnaryOperator<Object> fallback;
+
+    /**
+     * @param fallback converts values of any other type to a map, list or
+     *                 scalar
+     */
+    public StructCodec(UnaryOperator<Object> fallback) {
+        this.fallback = fallback;
+    }
+
+    /**
+     * Codec that writes unknown types as their {@code toString()}
+     */
+    public static StructCodec plain() {
+        return new StructCodec(String::valueOf);
+    }
+
+    // ==================== TO PROTO ====================
+
+    public Struct toStruct(Map<?, ?> map) {
+        if (map == null || map.isEmpty()) {
+            return Struct.getDefaultInstance();
+        }
+        Struct.Builder builder = Struct.newBuilder();
+        map.forEach((key, value) -> builder.putFields(String.valueOf(key), toValue(value)));
+        return builder.build();
+    }
+
+    public Value toValue(Object value) {
+        if (value == null) {
+            return NULL;
+        }
+        if (value instanceof String string) {
+            return Value.newBuilder().setStringValue(string).build();
+        }
+        if (value instanceof Boolean bool) {
+            return bool ? TRUE : FALSE;
+        }
+        if (value instanceof Number number) {
+            if (value instanceof BigDecimal || value instanceof BigInteger) {
+                // Keeps the digits a double would round away
+                return Value.newBuilder().setStringValue(value.toString()).build();
+            }
+            return Value.newBuilder().setNumberValue(number.doubleValue()).build();
+        }
+        if (value instanceof Map<?, ?> map) {
+            return Value.newBuilder().setStructValue(toStruct(map)).build();
+        }
+        if (value instanceof Iterable<?> iterable) {
+            ListValue.Builder list = ListValue.newBuilder();
+            for (Object element : iterable) {
+                list.addValues(toValue(element));
+            }
+            return Value.newBuilder().setListValue(list).build();
+        }
+        if (value instanceof byte[] bytes) {
+            return Value.newBuilder().setStringValue(Base64.getEncoder().encodeToString(bytes)).build();
+        }
+        if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            ListValue.Builder list = ListValue.newBuilder();
+            for (int i = 0; i < length; i++) {
+                list.addValues(toValue(Array.get(value, i)));
+            }
+            return Value.newBuilder().setListValue(list).build();
+        }
+        if (value instanceof CharSequence || value instanceof Enum<?> || value instanceof Character) {
+            return Value.newBuilder().setStringValue(value.toString()).build();
+        }
+        if (value instanceof Value proto) {
+            return proto;
+        }
+        Object converted = fallback.apply(value);
+        if (converted == null || converted.getClass() == value.getClass()) {
+            return Value.newBuilder().setStringValue(String.valueOf(value)).build();
+        }
+        return toValue(converted);
+    }
+
+    // ==================== FROM PROTO ====================
+
+    public Map<String, Object> toMap(Struct struct) {
+        if (struct == null || struct.getFieldsCount() == 0) {
+            return new LinkedHashMap<>();
+        }
+        Map<String, Object> map = new LinkedHashMap<>(Math.max(16, struct.getFieldsCount() * 4 / 3 + 1));
+        for (Map.Entry<String, Value> field : struct.getFieldsMap().entrySet()) {
+            map.put(field.getKey(), fromValue(field.getValue()));
+        }
+        return map;
+    }
+
+    public Object fromValue(Value value) {
+        return switch (value.getKindCase()) {
+            case NULL_VALUE, KIND_NOT_SET -> null;
+            case BOOL_VALUE -> value.getBoolValue();
+            case STRING_VALUE -> value.getStringValue();
+            case NUMBER_VALUE -> fromNumber(value.getNumberValue());
+            case STRUCT_VALUE -> toMap(value.getStructValue());
+            case LIST_VALUE -> {
+                List<Value> values = value.getListValue().getValuesList();
+                List<Object> list = new ArrayList<>(values.size());
+                for (Value element : values) {
+                    list.add(fromValue(element));
+                }
+                yield list;
+            }
+        };
+    }
+
+    private static Object fromNumber(double number) {
+        if (number == Math.rint(number) && Math.abs(number) <= MAX_EXACT_LONG) {
+            long whole = (long) number;
+            if (whole == (int) whole) {
+                return (int) whole;
+            }
+            return whole;
+        }
+        return number;
+    }
+}
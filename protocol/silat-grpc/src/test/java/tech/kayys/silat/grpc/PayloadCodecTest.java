@@ -0,0 +1,166 @@
+package tech.kayys.silat.grpc;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.protobuf.ByteString;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PayloadCodecTest {
+
+    private final PayloadCodec codec = PayloadCodec.plain();
+
+    @Test
+    void numbers_keepTheirType() {
+        Map<String, Object> decoded = roundTrip(Map.of(
+                "int", 42,
+                "long", 42L,
+                "negativeLong", Long.MIN_VALUE,
+                "double", 2.5,
+                "decimal", new BigDecimal("12345678901234567890.000000001"),
+                "bigInteger", new BigInteger("123456789012345678901234567890")));
+
+        assertEquals(Integer.valueOf(42), decoded.get("int"));
+        assertEquals(Long.valueOf(42L), decoded.get("long"));
+        assertEquals(Long.MIN_VALUE, decoded.get("negativeLong"));
+        assertEquals(2.5, decoded.get("double"));
+        assertEquals(new BigDecimal("12345678901234567890.000000001"), decoded.get("decimal"));
+        assertEquals(new BigInteger("123456789012345678901234567890"), decoded.get("bigInteger"));
+    }
+
+    @Test
+    void narrowNumbers_comeBackWidened() {
+        Map<String, Object> decoded = roundTrip(Map.of("short", (short) 7, "byte", (byte) -3, "float", 1.5f));
+
+        assertEquals(Integer.valueOf(7), decoded.get("short"));
+        assertEquals(Integer.valueOf(-3), decoded.get("byte"));
+        assertEquals(1.5d, decoded.get("float"));
+    }
+
+    @Test
+    void bytes_comeBackAsByteArrays() {
+        byte[] bytes = { 0, 1, -1, 127, -128 };
+
+        Map<String, Object> decoded = roundTrip(Map.of("raw", bytes, "proto", ByteString.copyFrom(bytes)));
+
+        assertArrayEquals(bytes, (byte[]) decoded.get("raw"));
+        assertArrayEquals(bytes, (byte[]) decoded.get("proto"));
+    }
+
+    @Test
+    void nestedListsAndMaps_roundTrip() {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("order", Map.of("lines",
+                List.of(Map.of("sku", "a-1", "qty", 2), Map.of("sku", "b-2", "qty", 1))));
+        payload.put("matrix", List.of(List.of(1, 2), List.of(3L, 4.5)));
+        payload.put("array", new int[] { 1, 2, 3 });
+
+        Map<String, Object> decoded = roundTrip(payload);
+
+        assertEquals(payload.get("order"), decoded.get("order"));
+        assertEquals(payload.get("matrix"), decoded.get("matrix"));
+        assertEquals(List.of(1, 2, 3), decoded.get("array"));
+        assertEquals(List.of("order", "matrix", "array"), new ArrayList<>(decoded.keySet()));
+    }
+
+    @Test
+    void nulls_roundTrip() {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("missing", null);
+        payload.put("list", Arrays.asList("a", null));
+
+        Map<String, Object> decoded = roundTrip(payload);
+
+        assertTrue(decoded.containsKey("missing"));
+        assertNull(decoded.get("missing"));
+        assertEquals(Arrays.asList("a", null), decoded.get("list"));
+        assertEquals(Map.of(), codec.decode(codec.encode(null)));
+        assertEquals(Map.of(), codec.decode(ByteString.EMPTY));
+    }
+
+    @Test
+    void otherTypes_goThroughTheFallback() {
+        PayloadCodec converting = new PayloadCodec(value -> Map.of("converted", value.toString()));
+
+        Map<String, Object> decoded = converting.decode(converting.encode(Map.of("value", new StringBuilder("x"),
+                "custom", new Object() {
+                    @Override
+                    public String toString() {
+                        return "custom";
+                    }
+                })));
+
+        assertEquals("x", decoded.get("value"));
+        assertEquals(Map.of("converted", "custom"), decoded.get("custom"));
+    }
+
+    @Test
+    void payloadsNestedTooDeep_areRejected() {
+        Map<String, Object> shallow = nested(60);
+        assertEquals(shallow, roundTrip(shallow));
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> codec.encode(nested(100)));
+        assertTrue(error.getMessage().contains("nested deeper"));
+    }
+
+    @Test
+    void malformedPayload_isRejected() {
+        ByteString encoded = codec.encode(Map.of("name", "a long enough string value"));
+        ByteString truncated = encoded.substring(0, encoded.size() - 5);
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> codec.decode(truncated));
+        assertEquals("Malformed payload", error.getMessage());
+    }
+
+    @Test
+    void unknownTag_isRejected() {
+        // version 1, one entry "k", tag 99
+        ByteString payload = ByteString.copyFrom(new byte[] { 1, 1, 1, 'k', 99 });
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> codec.decode(payload));
+        assertEquals("Unknown payload tag 99", error.getMessage());
+    }
+
+    @Test
+    void unknownVersion_isRejected() {
+        ByteString payload = ByteString.copyFrom(new byte[] { 2, 0 });
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> codec.decode(payload));
+        assertEquals("Unsupported payload version 2", error.getMessage());
+    }
+
+    @Test
+    void exceeds_stopsAtTheLimit() {
+        Map<String, Object> small = Map.of("name", "x");
+        Map<String, Object> large = Map.of("blob", "x".repeat(10_000));
+
+        assertFalse(PayloadCodec.exceeds(small, 1024));
+        assertTrue(PayloadCodec.exceeds(large, 1024));
+        assertFalse(PayloadCodec.exceeds(null, 1));
+    }
+
+    private Map<String, Object> roundTrip(Map<String, Object> payload) {
+        return codec.decode(codec.encode(payload));
+    }
+
+    private static Map<String, Object> nested(int depth) {
+        Map<String, Object> map = Map.of("leaf", 1);
+        for (int i = 0; i < depth; i++) {
+            map = Map.of("child", map);
+        }
+        return map;
+    }
+}
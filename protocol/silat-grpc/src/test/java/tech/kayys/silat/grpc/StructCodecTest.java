@@ -0,0 +1,111 @@
+package tech.kayys.silat.grpc;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StructCodecTest {
+
+    private final StructCodec codec = StructCodec.plain();
+
+    @Test
+    void wholeNumbers_comeBackAsIntegerOrLong() {
+        Map<String, Object> decoded = roundTrip(Map.of(
+                "int", 42,
+                "long", 42L,
+                "wholeDouble", 3.0,
+                "beyondInt", 5_000_000_000L,
+                "fraction", 2.5));
+
+        assertEquals(Integer.valueOf(42), decoded.get("int"));
+        // Struct numbers carry no type, so a small long comes back as an Integer
+        assertEquals(Integer.valueOf(42), decoded.get("long"));
+        assertEquals(Integer.valueOf(3), decoded.get("wholeDouble"));
+        assertEquals(Long.valueOf(5_000_000_000L), decoded.get("beyondInt"));
+        assertEquals(2.5, decoded.get("fraction"));
+    }
+
+    @Test
+    void wholeNumbersBeyondDoublePrecision_stayDoubles() {
+        Map<String, Object> decoded = roundTrip(Map.of("huge", 1e20));
+
+        assertEquals(1e20, decoded.get("huge"));
+    }
+
+    @Test
+    void decimalsAndBigIntegers_keepTheirDigitsAsStrings() {
+        Map<String, Object> decoded = roundTrip(Map.of(
+                "decimal", new BigDecimal("0.1000000000000000055511151231257827"),
+                "bigInteger", new BigInteger("123456789012345678901234567890")));
+
+        assertEquals("0.1000000000000000055511151231257827", decoded.get("decimal"));
+        assertEquals("123456789012345678901234567890", decoded.get("bigInteger"));
+    }
+
+    @Test
+    void bytes_travelAsBase64() {
+        byte[] bytes = { 0, 1, -1, 127, -128 };
+
+        Map<String, Object> decoded = roundTrip(Map.of("raw", bytes));
+
+        assertArrayEquals(bytes, Base64.getDecoder().decode((String) decoded.get("raw")));
+    }
+
+    @Test
+    void nestedListsAndMapsAndNulls_roundTrip() {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("order", Map.of("lines", List.of(Map.of("sku", "a-1", "qty", 2))));
+        payload.put("matrix", List.of(List.of(1, 2), List.of(3, 4.5)));
+        payload.put("array", new String[] { "a", "b" });
+        payload.put("missing", null);
+        payload.put("list", Arrays.asList(true, null));
+
+        Map<String, Object> decoded = roundTrip(payload);
+
+        assertEquals(payload.get("order"), decoded.get("order"));
+        assertEquals(payload.get("matrix"), decoded.get("matrix"));
+        assertEquals(List.of("a", "b"), decoded.get("array"));
+        assertTrue(decoded.containsKey("missing"));
+        assertNull(decoded.get("missing"));
+        assertEquals(Arrays.asList(true, null), decoded.get("list"));
+        assertEquals(Map.of(), codec.toMap(codec.toStruct(null)));
+        assertNull(codec.fromValue(Value.getDefaultInstance()));
+    }
+
+    @Test
+    void otherTypes_goThroughTheFallback() {
+        StructCodec converting = new StructCodec(value -> Map.of("converted", "yes"));
+
+        Map<String, Object> decoded = converting.toMap(converting.toStruct(Map.of("custom", new Object())));
+
+        assertEquals(Map.of("converted", "yes"), decoded.get("custom"));
+    }
+
+    @Test
+    void payloadOrStruct_prefersTheBinaryPayloadWhenSet() {
+        GrpcMapper mapper = new GrpcMapper();
+        mapper.objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
+        mapper.initCodecs();
+        Struct struct = mapper.mapToStruct(Map.of("from", "struct"));
+        ByteString payload = mapper.toPayload(Map.of("from", "payload", "amount", 42L));
+
+        assertEquals(Map.of("from", "payload", "amount", 42L), mapper.payloadOrStruct(payload, struct));
+        assertEquals(Map.of("from", "struct"), mapper.payloadOrStruct(ByteString.EMPTY, struct));
+    }
+
+    private Map<String, Object> roundTrip(Map<String, Object> payload) {
+        return codec.toMap(codec.toStruct(payload));
+    }
+}
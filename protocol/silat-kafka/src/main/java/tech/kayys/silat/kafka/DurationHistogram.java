@@ -0,0 +1,123 @@
+package tech.kayys.silat.kafka;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Sparse log-linear histogram of durations in milliseconds.
+ *
+ * Values below 16 are recorded exactly; larger values fall into 16 buckets per
+ * power of two, which bounds the relative error of a percentile to about 6%.
+ * Histograms of the same window recorded on different partitions can be merged
+ * bucket by bucket.
+ */
+final class DurationHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final TreeMap<Integer, Long> counts = new TreeMap<>();
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    void record(long durationMs) {
+        long value = Math.max(0, durationMs);
+        counts.merge(bucketOf(value), 1L, Long::sum);
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    void merge(DurationHistogram other) {
+        other.counts.forEach((bucket, c) -> counts.merge(bucket, c, Long::sum));
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    long count() {
+        return count;
+    }
+
+    long sum() {
+        return sum;
+    }
+
+    Long min() {
+        return count == 0 ? null : min;
+    }
+
+    Long max() {
+        return count == 0 ? null : max;
+    }
+
+    Long mean() {
+        return count == 0 ? null : sum / count;
+    }
+
+    /**
+     * Value at the given quantile (0 &lt; q &lt;= 1), or null when empty
+     */
+    Long percentile(double quantile) {
+        if (count == 0) {
+            return null;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (Map.Entry<Integer, Long> entry : counts.entrySet()) {
+            seen += entry.getValue();
+            if (seen >= rank) {
+                return Math.min(max, Math.max(min, representative(entry.getKey())));
+            }
+        }
+        return max;
+    }
+
+    JsonObject bucketsToJson() {
+        JsonObject json = new JsonObject();
+        counts.forEach((bucket, c) -> json.put(Integer.toString(bucket), c));
+        return json;
+    }
+
+    static DurationHistogram restore(JsonObject buckets, long count, long sum, Long min, Long max) {
+        DurationHistogram histogram = new DurationHistogram();
+        if (buckets != null) {
+            buckets.forEach(entry -> histogram.counts.put(
+                    Integer.parseInt(entry.getKey()), ((Number) entry.getValue()).longValue()));
+        }
+        histogram.count = count;
+        histogram.sum = sum;
+        if (count > 0) {
+            histogram.min = min != null ? min : 0;
+            histogram.max = max != null ? max : 0;
+        }
+        return histogram;
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        long mantissa = value >>> shift;
+        return (shift + 1) * SUB_BUCKETS + (int) (mantissa - SUB_BUCKETS);
+    }
+
+    // Midpoint of the bucket's value range
+    static long representative(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long mantissa = SUB_BUCKETS + bucket % SUB_BUCKETS;
+        long lower = mantissa << shift;
+        long upper = ((mantissa + 1) << shift) - 1;
+        return lower + (upper - lower) / 2;
+    }
+}
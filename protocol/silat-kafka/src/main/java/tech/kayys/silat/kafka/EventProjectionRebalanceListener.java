@@ -0,0 +1,43 @@
+package tech.kayys.silat.kafka;
+
+import java.util.Collection;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+
+import io.smallrye.common.annotation.Identifier;
+import io.smallrye.reactive.messaging.kafka.KafkaConsumerRebalanceListener;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Positions the projection consumer on its own checkpoints instead of the
+ * consumer group's committed offsets.
+ *
+ * Referenced from
+ * {@code mp.messaging.incoming.workflow-events-projection.consumer-rebalance-listener.name}.
+ */
+@ApplicationScoped
+@Identifier(EventProjectionRebalanceListener.NAME)
+public class EventProjectionRebalanceListener implements KafkaConsumerRebalanceListener {
+
+    public static final String NAME = "silat-event-projection";
+
+    @Inject
+    EventProjectionService projectionService;
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        projectionService.onPartitionsAssigned(consumer, partitions);
+    }
+
+    @Override
+    public void onPartitionsRevoked(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        projectionService.onPartitionsRevoked(partitions);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        projectionService.onPartitionsLost(partitions);
+    }
+}
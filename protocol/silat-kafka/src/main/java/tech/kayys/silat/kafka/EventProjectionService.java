@@ -1,24 +1,570 @@
 package tech.kayys.silat.kafka;
 
-import tech.kayys.silat.api.repository.WorkflowRunRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.quarkus.scheduler.Scheduled;
 import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.SqlConnection;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import tech.kayys.silat.kafka.ProjectionPartition.RunSummary;
+import tech.kayys.silat.kafka.ProjectionPartition.WindowKey;
+import tech.kayys.silat.kafka.ProjectionPartition.WindowStats;
+import tech.kayys.silat.model.RunStatus;
+import tech.kayys.silat.model.TenantId;
+import tech.kayys.silat.model.WorkflowRunId;
 
 /**
  * Event projection service
+ *
+ * Builds read models incrementally from the workflow events topic:
+ * - active run counters per tenant ({@code tenant_active_runs})
+ * - run duration histograms per definition and time window, summarised into
+ * {@code workflow_metrics} (p50/p95/p99)
+ * - one summary row per run ({@code workflow_run_summaries})
+ *
+ * State is kept per partition and flushed in one transaction together with the
+ * partition's offset checkpoint, so after a restart or rebalance consumption
+ * resumes right after the last flushed event and no event is applied twice.
+ * Partitions without a checkpoint are replayed from the beginning; with
+ * {@code silat.projection.rebuild-on-startup} the read models are cleared first
+ * and rebuilt from offset zero.
+ *
+ * The tables are created by {@code V1_initial_schema.sql}.
  */
 @ApplicationScoped
 public class EventProjectionService {
 
+    private static final Logger LOG = LoggerFactory.getLogger(EventProjectionService.class);
+
+    static final String PROJECTION_NAME = "workflow-read-models";
+    static final String DURATION_METRIC = "RUN_DURATION";
+
+    private static final String UPSERT_RUN = """
+            INSERT INTO workflow_run_summaries (run_id, tenant_id, definition_id, status, started_at,
+                completed_at, duration_ms, nodes_completed, nodes_failed, last_event_type, last_event_at,
+                source_partition, updated_at)
+            VALUES ($1, $2, $3, $4, $5, $6, $7, $8, $9, $10, $11, $12, NOW())
+            ON CONFLICT (run_id) DO UPDATE SET
+                tenant_id = EXCLUDED.tenant_id,
+                definition_id = EXCLUDED.definition_id,
+                status = EXCLUDED.status,
+                started_at = EXCLUDED.started_at,
+                completed_at = EXCLUDED.completed_at,
+                duration_ms = EXCLUDED.duration_ms,
+                nodes_completed = EXCLUDED.nodes_completed,
+                nodes_failed = EXCLUDED.nodes_failed,
+                last_event_type = EXCLUDED.last_event_type,
+                last_event_at = EXCLUDED.last_event_at,
+                source_partition = EXCLUDED.source_partition,
+                updated_at = NOW()
+            """;
+
+    private static final String UPSERT_COUNTER = """
+            INSERT INTO tenant_active_runs (tenant_id, source_partition, active_runs, updated_at)
+            VALUES ($1, $2, $3, NOW())
+            ON CONFLICT (tenant_id, source_partition) DO UPDATE SET
+                active_runs = EXCLUDED.active_runs,
+                updated_at = NOW()
+            """;
+
+    private static final String UPSERT_HISTOGRAM = """
+            INSERT INTO workflow_duration_histograms (tenant_id, definition_id, window_start,
+                source_partition, window_end, execution_count, success_count, failure_count,
+                total_duration_ms, min_duration_ms, max_duration_ms, buckets)
+            VALUES ($1, $2, $3, $4, $5, $6, $7, $8, $9, $10, $11, $12)
+            ON CONFLICT (tenant_id, definition_id, window_start, source_partition) DO UPDATE SET
+                window_end = EXCLUDED.window_end,
+                execution_count = EXCLUDED.execution_count,
+                success_count = EXCLUDED.success_count,
+                failure_count = EXCLUDED.failure_count,
+                total_duration_ms = EXCLUDED.total_duration_ms,
+                min_duration_ms = EXCLUDED.min_duration_ms,
+                max_duration_ms = EXCLUDED.max_duration_ms,
+                buckets = EXCLUDED.buckets
+            """;
+
+    private static final String SELECT_WINDOW = """
+            SELECT source_partition, execution_count, success_count, failure_count, total_duration_ms,
+                min_duration_ms, max_duration_ms, buckets
+            FROM workflow_duration_histograms
+            WHERE tenant_id = $1 AND definition_id = $2 AND window_start = $3
+            """;
+
+    private static final String UPSERT_METRIC = """
+            INSERT INTO workflow_metrics (tenant_id, definition_id, metric_type, window_start, window_end,
+                execution_count, success_count, failure_count, avg_duration_ms, min_duration_ms,
+                max_duration_ms, p50_duration_ms, p95_duration_ms, p99_duration_ms)
+            VALUES ($1, $2, $3, $4, $5, $6, $7, $8, $9, $10, $11, $12, $13, $14)
+            ON CONFLICT (tenant_id, definition_id, metric_type, window_start) DO UPDATE SET
+                window_end = EXCLUDED.window_end,
+                execution_count = EXCLUDED.execution_count,
+                success_count = EXCLUDED.success_count,
+                failure_count = EXCLUDED.failure_count,
+                avg_duration_ms = EXCLUDED.avg_duration_ms,
+                min_duration_ms = EXCLUDED.min_duration_ms,
+                max_duration_ms = EXCLUDED.max_duration_ms,
+                p50_duration_ms = EXCLUDED.p50_duration_ms,
+                p95_duration_ms = EXCLUDED.p95_duration_ms,
+                p99_duration_ms = EXCLUDED.p99_duration_ms
+            """;
+
+    private static final String UPSERT_CHECKPOINT = """
+            INSERT INTO projection_checkpoints (projection_name, topic, partition_id, last_offset, updated_at)
+            VALUES ($1, $2, $3, $4, NOW())
+            ON CONFLICT (projection_name, topic, partition_id) DO UPDATE SET
+                last_offset = EXCLUDED.last_offset,
+                updated_at = NOW()
+            """;
+
     @Inject
-    WorkflowRunRepository repository;
+    Pool pgPool;
+
+    @ConfigProperty(name = "silat.projection.metrics-window", defaultValue = "PT1M")
+    Duration metricsWindow;
+
+    // How far behind the newest event a window stays cached after a flush
+    @ConfigProperty(name = "silat.projection.window-lateness", defaultValue = "PT10M")
+    Duration windowLateness;
+
+    @ConfigProperty(name = "silat.projection.flush-batch-size", defaultValue = "5000")
+    int flushBatchSize;
+
+    @ConfigProperty(name = "silat.projection.db-timeout", defaultValue = "PT30S")
+    Duration dbTimeout;
+
+    @ConfigProperty(name = "silat.projection.rebuild-on-startup", defaultValue = "false")
+    boolean rebuildOnStartup;
+
+    // Guarded by this
+    private final Map<TopicPartition, ProjectionPartition> partitions = new HashMap<>();
+    private boolean rebuildPending;
+
+    @PostConstruct
+    void init() {
+        this.rebuildPending = rebuildOnStartup;
+    }
+
+    /**
+     * Apply an event read from the given partition and offset. Events at or
+     * below the partition's checkpoint have already been applied and are
+     * skipped, as are events published again under an id seen just before.
+     */
+    public synchronized void project(WorkflowEventMessage event, TopicPartition topicPartition, long offset) {
+        ProjectionPartition partition = partitions.get(topicPartition);
+        if (partition == null) {
+            LOG.debug("Ignoring event {} from unassigned partition {}", event.eventId(), topicPartition);
+            return;
+        }
+        if (offset <= partition.checkpoint) {
+            return;
+        }
+
+        if (partition.firstSeen(event.eventId())) {
+            apply(partition, event);
+        } else {
+            LOG.debug("Skipping duplicate event {} at offset {} of {}", event.eventId(), offset, topicPartition);
+        }
+        partition.checkpoint = offset;
+        partition.pendingEvents++;
+
+        if (partition.pendingEvents % flushBatchSize == 0) {
+            flush(partition);
+        }
+    }
+
+    /**
+     * Number of active runs of a tenant as of the last flush
+     */
+    public Uni<Long> countActiveRuns(TenantId tenantId) {
+        return pgPool.preparedQuery(
+                "SELECT COALESCE(SUM(active_runs), 0) AS active FROM tenant_active_runs WHERE tenant_id = $1")
+                .execute(Tuple.of(tenantId.value()))
+                .map(rows -> rows.iterator().next().getLong("active"));
+    }
+
+    /**
+     * Projected summary of a run, or null when the run is unknown
+     */
+    public Uni<WorkflowRunSummary> getRunSummary(WorkflowRunId runId) {
+        return pgPool.preparedQuery("SELECT * FROM workflow_run_summaries WHERE run_id = $1")
+                .execute(Tuple.of(runId.value()))
+                .map(rows -> {
+                    if (!rows.iterator().hasNext()) {
+                        return null;
+                    }
+                    RunSummary run = toRunSummary(runId.value(), rows.iterator().next());
+                    return new WorkflowRunSummary(
+                            run.runId,
+                            run.tenantId,
+                            run.definitionId,
+                            run.status,
+                            run.startedAt,
+                            run.completedAt,
+                            run.durationMs(),
+                            run.nodesCompleted,
+                            run.nodesFailed,
+                            run.lastEventType,
+                            run.lastEventAt);
+                });
+    }
+
+    @Scheduled(every = "${silat.projection.flush-interval:1s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    synchronized void flushAll() {
+        partitions.values().forEach(this::flush);
+    }
+
+    // ==================== PARTITION LIFECYCLE ====================
+
+    /**
+     * Load the state of newly assigned partitions and position the consumer
+     * right after their checkpoint, or at the beginning when there is none.
+     */
+    synchronized void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> assigned) {
+        if (rebuildPending) {
+            clearReadModels();
+            rebuildPending = false;
+        }
+
+        for (TopicPartition topicPartition : assigned) {
+            if (partitions.containsKey(topicPartition)) {
+                continue;
+            }
+            long checkpoint = loadCheckpoint(topicPartition);
+            ProjectionPartition partition = new ProjectionPartition(topicPartition, checkpoint);
+            loadCounters(partition);
+            partitions.put(topicPartition, partition);
+
+            if (checkpoint >= 0) {
+                consumer.seek(topicPartition, checkpoint + 1);
+            } else {
+                consumer.seekToBeginning(List.of(topicPartition));
+            }
+            LOG.info("Projecting {} from offset {}", topicPartition, checkpoint + 1);
+        }
+    }
+
+    /**
+     * Flush and release partitions handed over to another consumer
+     */
+    synchronized void onPartitionsRevoked(Collection<TopicPartition> revoked) {
+        for (TopicPartition topicPartition : revoked) {
+            ProjectionPartition partition = partitions.remove(topicPartition);
+            if (partition != null) {
+                flush(partition);
+            }
+        }
+    }
+
+    /**
+     * Drop partitions that were lost without a clean revoke; the new owner
+     * resumes from the last checkpoint.
+     */
+    synchronized void onPartitionsLost(Collection<TopicPartition> lost) {
+        lost.forEach(partitions::remove);
+    }
+
+    // ==================== EVENT HANDLING ====================
+
+    private void apply(ProjectionPartition partition, WorkflowEventMessage event) {
+        Instant occurredAt = event.occurredAt() != null ? event.occurredAt() : Instant.now();
+        if (occurredAt.isAfter(partition.watermark)) {
+            partition.watermark = occurredAt;
+        }
+
+        RunSummary run = "WorkflowStarted".equals(event.eventType())
+                ? partition.runs.computeIfAbsent(event.runId(), RunSummary::new)
+                : findRun(partition, event.runId());
+
+        switch (event.eventType()) {
+            case "WorkflowStarted" -> {
+                run.tenantId = event.tenantId();
+                run.definitionId = stringValue(event.eventData(), "definitionId");
+                run.startedAt = occurredAt;
+                transition(partition, run, RunStatus.RUNNING);
+            }
+            case "WorkflowSuspended" -> transition(partition, run, RunStatus.SUSPENDED);
+            case "WorkflowResumed" -> transition(partition, run, RunStatus.RUNNING);
+            case "WorkflowCompleted" -> finish(partition, run, RunStatus.COMPLETED, occurredAt);
+            case "WorkflowFailed" -> finish(partition, run, RunStatus.FAILED, occurredAt);
+            case "WorkflowCancelled" -> finish(partition, run, RunStatus.CANCELLED, occurredAt);
+            case "CompensationStarted" -> transition(partition, run, RunStatus.COMPENSATING);
+            case "CompensationCompleted" -> transition(partition, run, RunStatus.COMPENSATED);
+            case "CompensationFailed" -> transition(partition, run, RunStatus.FAILED);
+            case "NodeCompleted" -> run.nodesCompleted++;
+            case "NodeFailed" -> run.nodesFailed++;
+            default -> {
+                // Other events only touch the summary's last event
+            }
+        }
+
+        run.lastEventType = event.eventType();
+        run.lastEventAt = occurredAt;
+        partition.dirtyRuns.add(run.runId);
+    }
+
+    private void transition(ProjectionPartition partition, RunSummary run, RunStatus status) {
+        boolean active = !status.isTerminal();
+        if (run.tenantId != null && active != run.active) {
+            partition.adjustActive(run.tenantId, active ? 1 : -1);
+        }
+        run.active = active;
+        run.status = status;
+    }
+
+    private void finish(ProjectionPartition partition, RunSummary run, RunStatus status, Instant occurredAt) {
+        run.completedAt = occurredAt;
+        transition(partition, run, status);
+
+        Long durationMs = run.durationMs();
+        if (run.tenantId == null || run.definitionId == null || durationMs == null) {
+            return;
+        }
+
+        long size = metricsWindow.toMillis();
+        Instant windowStart = Instant.ofEpochMilli(Math.floorDiv(occurredAt.toEpochMilli(), size) * size);
+        WindowKey key = new WindowKey(run.tenantId, run.definitionId, windowStart, windowStart.plus(metricsWindow));
+
+        WindowStats stats = findWindow(partition, key);
+        stats.durations.record(durationMs);
+        if (status == RunStatus.COMPLETED) {
+            stats.successCount++;
+        } else if (status == RunStatus.FAILED) {
+            stats.failureCount++;
+        }
+        partition.dirtyWindows.add(key);
+    }
+
+    // Runs and windows that are not cached were flushed earlier; reload them
+    private RunSummary findRun(ProjectionPartition partition, String runId) {
+        RunSummary run = partition.runs.get(runId);
+        if (run == null) {
+            Row row = await(pgPool.preparedQuery("SELECT * FROM workflow_run_summaries WHERE run_id = $1")
+                    .execute(Tuple.of(runId))
+                    .map(rows -> rows.iterator().hasNext() ? rows.iterator().next() : null));
+            run = row != null ? toRunSummary(runId, row) : new RunSummary(runId);
+            partition.runs.put(runId, run);
+        }
+        return run;
+    }
+
+    private WindowStats findWindow(ProjectionPartition partition, WindowKey key) {
+        WindowStats stats = partition.windows.get(key);
+        if (stats == null) {
+            Row row = await(pgPool.preparedQuery(SELECT_WINDOW + " AND source_partition = $4")
+                    .execute(Tuple.of(key.tenantId(), key.definitionId(), timestamp(key.windowStart()),
+                            partition.partition()))
+                    .map(rows -> rows.iterator().hasNext() ? rows.iterator().next() : null));
+            stats = row != null ? toWindowStats(row) : new WindowStats(new DurationHistogram());
+            partition.windows.put(key, stats);
+        }
+        return stats;
+    }
+
+    // ==================== PERSISTENCE ====================
+
+    private void flush(ProjectionPartition partition) {
+        if (!partition.isDirty()) {
+            return;
+        }
+
+        List<Tuple> runRows = new ArrayList<>();
+        for (String runId : partition.dirtyRuns) {
+            RunSummary run = partition.runs.get(runId);
+            runRows.add(Tuple.from(Arrays.asList(
+                    run.runId,
+                    run.tenantId,
+                    run.definitionId,
+                    run.status != null ? run.status.name() : null,
+                    timestamp(run.startedAt),
+                    timestamp(run.completedAt),
+                    run.durationMs(),
+                    run.nodesCompleted,
+                    run.nodesFailed,
+                    run.lastEventType,
+                    timestamp(run.lastEventAt),
+                    partition.partition())));
+        }
+
+        List<Tuple> counterRows = new ArrayList<>();
+        for (String tenantId : partition.dirtyTenants) {
+            counterRows.add(Tuple.of(tenantId, partition.partition(), partition.activeByTenant.get(tenantId)));
+        }
+
+        List<Tuple> windowRows = new ArrayList<>();
+        List<WindowKey> windowKeys = new ArrayList<>(partition.dirtyWindows);
+        for (WindowKey key : windowKeys) {
+            WindowStats stats = partition.windows.get(key);
+            DurationHistogram durations = stats.durations;
+            windowRows.add(Tuple.from(Arrays.asList(
+                    key.tenantId(),
+                    key.definitionId(),
+                    timestamp(key.windowStart()),
+                    partition.partition(),
+                    timestamp(key.windowEnd()),
+                    durations.count(),
+                    stats.successCount,
+                    stats.failureCount,
+                    durations.sum(),
+                    durations.min(),
+                    durations.max(),
+                    durations.bucketsToJson())));
+        }
+
+        Tuple checkpoint = Tuple.of(PROJECTION_NAME, partition.topicPartition.topic(), partition.partition(),
+                partition.checkpoint);
+
+        try {
+            await(pgPool.withTransaction(conn -> executeBatch(conn, UPSERT_RUN, runRows)
+                    .chain(() -> executeBatch(conn, UPSERT_COUNTER, counterRows))
+                    .chain(() -> executeBatch(conn, UPSERT_HISTOGRAM, windowRows))
+                    .chain(() -> refreshMetrics(conn, windowKeys))
+                    .chain(() -> conn.preparedQuery(UPSERT_CHECKPOINT).execute(checkpoint))
+                    .replaceWithVoid()));
+        } catch (RuntimeException e) {
+            // State stays dirty and is retried on the next flush
+            LOG.warn("Failed to flush projection of {} at offset {}", partition.topicPartition,
+                    partition.checkpoint, e);
+            return;
+        }
+
+        LOG.debug("Flushed projection of {} at offset {} ({} runs, {} windows)",
+                partition.topicPartition, partition.checkpoint, runRows.size(), windowRows.size());
+        partition.markFlushed(partition.watermark.minus(windowLateness));
+    }
+
+    // workflow_metrics holds the merge of all partitions' histograms of a window
+    private Uni<Void> refreshMetrics(SqlConnection conn, List<WindowKey> windowKeys) {
+        Uni<Void> chain = Uni.createFrom().voidItem();
+        for (WindowKey key : windowKeys) {
+            chain = chain.chain(() -> conn.preparedQuery(SELECT_WINDOW)
+                    .execute(Tuple.of(key.tenantId(), key.definitionId(), timestamp(key.windowStart())))
+                    .chain(rows -> {
+                        WindowStats merged = new WindowStats(new DurationHistogram());
+                        for (Row row : rows) {
+                            WindowStats stats = toWindowStats(row);
+                            merged.durations.merge(stats.durations);
+                            merged.successCount += stats.successCount;
+                            merged.failureCount += stats.failureCount;
+                        }
+                        DurationHistogram durations = merged.durations;
+                        return conn.preparedQuery(UPSERT_METRIC).execute(Tuple.from(Arrays.asList(
+                                key.tenantId(),
+                                key.definitionId(),
+                                DURATION_METRIC,
+                                timestamp(key.windowStart()),
+                                timestamp(key.windowEnd()),
+                                durations.count(),
+                                merged.successCount,
+                                merged.failureCount,
+                                durations.mean(),
+                                durations.min(),
+                                durations.max(),
+                                durations.percentile(0.50),
+                                durations.percentile(0.95),
+                                durations.percentile(0.99))));
+                    })
+                    .replaceWithVoid());
+        }
+        return chain;
+    }
+
+    private Uni<Void> executeBatch(SqlConnection conn, String sql, List<Tuple> rows) {
+        if (rows.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        return conn.preparedQuery(sql).executeBatch(rows).replaceWithVoid();
+    }
+
+    private void clearReadModels() {
+        LOG.info("Rebuilding workflow read models from the beginning of the event stream");
+        await(pgPool.withTransaction(conn -> conn.query(
+                "TRUNCATE workflow_run_summaries, tenant_active_runs, workflow_duration_histograms").execute()
+                .chain(() -> conn.preparedQuery("DELETE FROM workflow_metrics WHERE metric_type = $1")
+                        .execute(Tuple.of(DURATION_METRIC)))
+                .chain(() -> conn.preparedQuery("DELETE FROM projection_checkpoints WHERE projection_name = $1")
+                        .execute(Tuple.of(PROJECTION_NAME)))
+                .replaceWithVoid()));
+    }
+
+    private long loadCheckpoint(TopicPartition topicPartition) {
+        return await(pgPool.preparedQuery("""
+                SELECT last_offset FROM projection_checkpoints
+                WHERE projection_name = $1 AND topic = $2 AND partition_id = $3
+                """)
+                .execute(Tuple.of(PROJECTION_NAME, topicPartition.topic(), topicPartition.partition()))
+                .map(rows -> rows.iterator().hasNext() ? rows.iterator().next().getLong("last_offset") : -1L));
+    }
+
+    private void loadCounters(ProjectionPartition partition) {
+        await(pgPool.preparedQuery(
+                "SELECT tenant_id, active_runs FROM tenant_active_runs WHERE source_partition = $1")
+                .execute(Tuple.of(partition.partition()))
+                .invoke(rows -> rows.forEach(row -> partition.activeByTenant.put(
+                        row.getString("tenant_id"), row.getLong("active_runs")))));
+    }
+
+    private RunSummary toRunSummary(String runId, Row row) {
+        RunSummary run = new RunSummary(runId);
+        run.tenantId = row.getString("tenant_id");
+        run.definitionId = row.getString("definition_id");
+        String status = row.getString("status");
+        run.status = status != null ? RunStatus.valueOf(status) : null;
+        run.active = run.status != null && !run.status.isTerminal();
+        run.startedAt = instant(row.getOffsetDateTime("started_at"));
+        run.completedAt = instant(row.getOffsetDateTime("completed_at"));
+        run.nodesCompleted = row.getInteger("nodes_completed");
+        run.nodesFailed = row.getInteger("nodes_failed");
+        run.lastEventType = row.getString("last_event_type");
+        run.lastEventAt = instant(row.getOffsetDateTime("last_event_at"));
+        return run;
+    }
+
+    private WindowStats toWindowStats(Row row) {
+        WindowStats stats = new WindowStats(DurationHistogram.restore(
+                row.getJsonObject("buckets"),
+                row.getLong("execution_count"),
+                row.getLong("total_duration_ms"),
+                row.getLong("min_duration_ms"),
+                row.getLong("max_duration_ms")));
+        stats.successCount = row.getLong("success_count");
+        stats.failureCount = row.getLong("failure_count");
+        return stats;
+    }
+
+    private <T> T await(Uni<T> uni) {
+        return uni.await().atMost(dbTimeout);
+    }
+
+    private static String stringValue(Map<String, Object> data, String key) {
+        Object value = data != null ? data.get(key) : null;
+        return value != null ? value.toString() : null;
+    }
+
+    private static OffsetDateTime timestamp(Instant instant) {
+        return instant != null ? instant.atOffset(ZoneOffset.UTC) : null;
+    }
 
-    public Uni<Void> project(WorkflowEventMessage event) {
-        // Project event to read model
-        // Update materialized views
-        // Update analytics tables
-        return Uni.createFrom().voidItem();
+    private static Instant instant(OffsetDateTime timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
     }
 }
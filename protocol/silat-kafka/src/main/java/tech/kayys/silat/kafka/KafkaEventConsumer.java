@@ -1,15 +1,21 @@
 package tech.kayys.silat.kafka;
 
+import org.apache.kafka.common.TopicPartition;
 import org.eclipse.microprofile.reactive.messaging.Incoming;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.smallrye.reactive.messaging.annotations.Blocking;
+import io.smallrye.reactive.messaging.kafka.api.IncomingKafkaRecordMetadata;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
 /**
  * Consumes domain events to build read models
+ *
+ * Reads the events topic through its own channel and consumer group so the
+ * projection receives every event from Kafka, with partition and offset, even
+ * when the publisher runs in the same application.
  */
 @ApplicationScoped
 public class KafkaEventConsumer {
@@ -21,22 +27,20 @@ public class KafkaEventConsumer {
 
     /**
      * Consume domain events for projections
+     *
+     * A failure nacks the event so the channel stops instead of skipping it;
+     * on restart the projection resumes from its last checkpoint.
      */
-    @Incoming("workflow-events")
+    @Incoming("workflow-events-projection")
     @Blocking
-    public void consumeEvent(WorkflowEventMessage event) {
-        LOG.trace("Processing event: type={}, runId={}",
-                event.eventType(), event.runId());
-
-        try {
-            // Project event to read models
-            projectionService.project(event)
-                    .subscribe().with(
-                            v -> LOG.trace("Event projected: {}", event.eventId()),
-                            error -> LOG.error("Failed to project event", error));
-
-        } catch (Exception e) {
-            LOG.error("Failed to consume event", e);
-        }
+    public void consumeEvent(WorkflowEventMessage event,
+            IncomingKafkaRecordMetadata<String, WorkflowEventMessage> metadata) {
+        LOG.trace("Processing event: type={}, runId={}, offset={}",
+                event.eventType(), event.runId(), metadata.getOffset());
+
+        projectionService.project(
+                event,
+                new TopicPartition(metadata.getTopic(), metadata.getPartition()),
+                metadata.getOffset());
     }
 }
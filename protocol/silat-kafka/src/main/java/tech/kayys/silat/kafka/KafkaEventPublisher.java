@@ -8,13 +8,12 @@ import tech.kayys.silat.api.event.EventPublisher;
 
 import static jakarta.interceptor.Interceptor.Priority.APPLICATION;
 import tech.kayys.silat.model.event.ExecutionEvent;
-import tech.kayys.silat.model.event.NodeCompletedEvent;
-import tech.kayys.silat.model.event.NodeFailedEvent;
 import tech.kayys.silat.model.event.WorkflowStartedEvent;
 
-import java.util.HashMap;
+import io.smallrye.reactive.messaging.kafka.Record;
+
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import org.eclipse.microprofile.reactive.messaging.*;
 import org.slf4j.Logger;
@@ -49,34 +48,40 @@ public class KafkaEventPublisher implements EventPublisher {
 
     private static final Logger LOG = LoggerFactory.getLogger(KafkaEventPublisher.class);
 
+    // Room for a whole outbox batch in flight
     @Inject
     @Channel("workflow-events")
-    Emitter<WorkflowEventMessage> eventEmitter;
+    @OnOverflow(value = OnOverflow.Strategy.BUFFER, bufferSize = 4096)
+    Emitter<Record<String, WorkflowEventMessage>> eventEmitter;
 
     @Override
     public Uni<Void> publish(List<ExecutionEvent> events) {
         LOG.debug("Publishing {} events to Kafka", events.size());
 
-        return Uni.join().all(
-                events.stream()
-                        .map(this::publishEvent)
-                        .toList())
-                .andFailFast()
-                .replaceWithVoid()
+        return publishAll(events.stream()
+                .map(event -> WorkflowEventMessage.of(event, extractTenantId(event)))
+                .toList())
                 .onFailure().invoke(throwable -> LOG.error("Failed to publish events to Kafka", throwable));
     }
 
-    private Uni<Void> publishEvent(ExecutionEvent event) {
-        WorkflowEventMessage message = new WorkflowEventMessage(
-                event.eventId(),
-                event.runId().value(),
-                extractTenantId(event),
-                event.eventType(),
-                event.occurredAt(),
-                serializeEvent(event));
-
-        return Uni.createFrom().completionStage(
-                eventEmitter.send(message));
+    /**
+     * Send the messages in list order without waiting for each one; the
+     * producer batches them, and keying by run keeps a run's messages in
+     * order on its partition. Completes once all were acknowledged.
+     */
+    public Uni<Void> publishAll(List<WorkflowEventMessage> messages) {
+        if (messages.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        List<Uni<Void>> sent = new ArrayList<>(messages.size());
+        for (WorkflowEventMessage message : messages) {
+            // Key by run so a run's events stay ordered on one partition
+            sent.add(Uni.createFrom().completionStage(
+                    eventEmitter.send(Record.of(message.runId(), message))));
+        }
+        return Uni.join().all(sent)
+                .andFailFast()
+                .replaceWithVoid();
     }
 
     private String extractTenantId(ExecutionEvent event) {
@@ -86,30 +91,6 @@ public class KafkaEventPublisher implements EventPublisher {
         return "system";
     }
 
-    private Map<String, Object> serializeEvent(ExecutionEvent event) {
-        // Serialize event to map for Kafka
-        Map<String, Object> data = new HashMap<>();
-        data.put("eventType", event.eventType());
-        data.put("eventId", event.eventId());
-        data.put("runId", event.runId().value());
-        data.put("occurredAt", event.occurredAt().toString());
-
-        // Add event-specific data
-        if (event instanceof NodeCompletedEvent nce) {
-            data.put("nodeId", nce.nodeId().value());
-            data.put("attempt", nce.attempt());
-            data.put("output", nce.output());
-        } else if (event instanceof NodeFailedEvent nfe) {
-            data.put("nodeId", nfe.nodeId().value());
-            data.put("attempt", nfe.attempt());
-            data.put("error", Map.of(
-                    "code", nfe.error().code(),
-                    "message", nfe.error().message()));
-        }
-
-        return data;
-    }
-
     @Override
     public Uni<Void> publishRetry(
             tech.kayys.silat.model.WorkflowRunId runId,
@@ -1,15 +1,26 @@
 package tech.kayys.silat.kafka;
 
 import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.reactive.messaging.Acknowledgment;
 import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import io.smallrye.reactive.messaging.annotations.Blocking;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import tech.kayys.silat.execution.DefaultNodeExecutionResult;
+import tech.kayys.silat.execution.NodeExecutionResult;
+import tech.kayys.silat.execution.NodeExecutionStatus;
 import tech.kayys.silat.execution.NodeExecutionTask;
+import tech.kayys.silat.model.ErrorInfo;
 import tech.kayys.silat.model.ExecutionToken;
 import tech.kayys.silat.model.NodeId;
 import tech.kayys.silat.model.WorkflowRunId;
@@ -17,6 +28,13 @@ import tech.kayys.silat.model.WorkflowRunId;
 /**
  * Consumes tasks from Kafka (executor side)
  * This would typically be in the executor SDK
+ *
+ * Records are processed in parallel across runs while records of the same run
+ * keep their partition order. A record is acknowledged only after its result
+ * has been produced to {@code workflow-results}, so with the throttled commit
+ * strategy the committed offset never moves past an unfinished task. At most
+ * {@code silat.kafka.task-consumer.max-concurrency} tasks are admitted at once;
+ * beyond that the poll loop is back-pressured until a slot frees up.
  */
 @ApplicationScoped
 public class KafkaTaskConsumer {
@@ -26,36 +44,105 @@ public class KafkaTaskConsumer {
     @Inject
     ExecutorTaskHandler taskHandler;
 
+    @Inject
+    KafkaResultProducer resultProducer;
+
+    @ConfigProperty(name = "silat.kafka.task-consumer.max-concurrency", defaultValue = "64")
+    int maxConcurrency;
+
+    private KeyOrderedTaskProcessor processor;
+
+    @PostConstruct
+    void init() {
+        this.processor = new KeyOrderedTaskProcessor(maxConcurrency, Infrastructure.getDefaultWorkerPool());
+        LOG.info("Kafka task consumer ready (max concurrency: {})", maxConcurrency);
+    }
+
     /**
      * Consume tasks from Kafka
+     *
+     * The returned stage completes once the task is admitted, not when it
+     * finishes; acknowledgement happens when the result has been sent.
      */
     @Incoming("workflow-tasks")
-    @Blocking
-    public void consumeTask(TaskMessage task) {
-        LOG.info("Received task from Kafka: {}", task.taskId());
-
-        try {
-            // Convert to domain object
-            NodeExecutionTask executionTask = new NodeExecutionTask(
-                    WorkflowRunId.of(task.runId()),
-                    NodeId.of(task.nodeId()),
-                    task.attempt(),
-                    new ExecutionToken(
-                            task.executionToken(),
-                            WorkflowRunId.of(task.runId()),
-                            NodeId.of(task.nodeId()),
-                            task.attempt(),
-                            Instant.now().plusSeconds(3600)),
-                    task.context(), null);
-
-            // Hand off to executor
-            taskHandler.executeTask(executionTask)
-                    .subscribe().with(
-                            result -> LOG.info("Task completed: {}", task.taskId()),
-                            error -> LOG.error("Task failed: {}", task.taskId(), error));
-
-        } catch (Exception e) {
-            LOG.error("Failed to process task: {}", task.taskId(), e);
+    @Acknowledgment(Acknowledgment.Strategy.MANUAL)
+    public CompletionStage<Void> consumeTask(Message<TaskMessage> message) {
+        TaskMessage task = message.getPayload();
+        LOG.debug("Received task from Kafka: {}", task.taskId());
+
+        return processor.submit(task.runId(), () -> process(task)
+                .onItemOrFailure().transformToUni((ignored, error) -> {
+                    if (error != null) {
+                        LOG.error("Failed to produce result for task: {}", task.taskId(), error);
+                        return Uni.createFrom().completionStage(message.nack(error));
+                    }
+                    return Uni.createFrom().completionStage(message.ack());
+                })
+                .subscribeAsCompletionStage());
+    }
+
+    /**
+     * Number of tasks currently admitted by the consumer
+     */
+    public int getInFlightTasks() {
+        return processor.inFlight();
+    }
+
+    Uni<Void> process(TaskMessage task) {
+        ExecutionToken token = toExecutionToken(task);
+        NodeExecutionTask executionTask = new NodeExecutionTask(
+                token.runId(),
+                token.nodeId(),
+                task.attempt(),
+                token,
+                task.context(), null);
+
+        // Not executed, but reported so the engine does not wait out its own timeout
+        if (task.tokenExpiresAt() == null) {
+            LOG.warn("Rejecting task {} without an execution token expiry", task.taskId());
+            return resultProducer.sendResult(failedResult(executionTask, "TOKEN_EXPIRY_MISSING",
+                    "Task was sent without the expiry of its execution token"));
         }
+        if (token.isExpired()) {
+            LOG.warn("Rejecting task {} with expired execution token", task.taskId());
+            return resultProducer.sendResult(failedResult(executionTask, "TOKEN_EXPIRED",
+                    "Execution token expired at " + task.tokenExpiresAt() + " before the task started"));
+        }
+
+        // Hand off to executor; execution errors are reported to the engine as a
+        // failed result so its retry policy applies
+        return Uni.createFrom().deferred(() -> taskHandler.executeTask(executionTask))
+                .onItem().ifNull().failWith(() -> new IllegalStateException(
+                        "No executor produced a result for node: " + task.nodeId()))
+                .onFailure().recoverWithItem(error -> {
+                    LOG.warn("Task failed: {}", task.taskId(), error);
+                    return failedResult(executionTask, "EXECUTOR_ERROR", String.valueOf(error.getMessage()));
+                })
+                .flatMap(resultProducer::sendResult)
+                .invoke(() -> LOG.debug("Task completed: {}", task.taskId()));
+    }
+
+    private ExecutionToken toExecutionToken(TaskMessage task) {
+        // A missing expiry is only carried back on the rejection; the engine
+        // checks tokens against the expiry it stored
+        Instant expiresAt = task.tokenExpiresAt() != null ? task.tokenExpiresAt() : Instant.now();
+
+        return new ExecutionToken(
+                task.executionToken(),
+                WorkflowRunId.of(task.runId()),
+                NodeId.of(task.nodeId()),
+                task.attempt(),
+                expiresAt);
+    }
+
+    private NodeExecutionResult failedResult(NodeExecutionTask task, String code, String message) {
+        return new DefaultNodeExecutionResult(
+                task.runId(),
+                task.nodeId(),
+                task.attempt(),
+                NodeExecutionStatus.FAILED,
+                Map.of(),
+                new ErrorInfo(code, message, "", Map.of()),
+                task.token());
     }
 }
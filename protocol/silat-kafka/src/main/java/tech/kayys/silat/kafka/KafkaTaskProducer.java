@@ -38,6 +38,7 @@ public class KafkaTaskProducer {
                 task.nodeId().value(),
                 task.attempt(),
                 task.token().value(),
+                task.token().expiresAt(),
                 task.context(),
                 targetExecutor,
                 Instant.now());
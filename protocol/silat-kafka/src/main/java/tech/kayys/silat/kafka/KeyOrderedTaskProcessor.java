@@ -0,0 +1,136 @@
+package tech.kayys.silat.kafka;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Runs asynchronous work in parallel across keys while preserving submission
+ * order within a key.
+ *
+ * At most {@code maxConcurrency} tasks are admitted at once (running or
+ * waiting behind an earlier task with the same key). {@link #submit} returns an
+ * admission stage that completes once the task holds a slot, so callers can use
+ * it as backpressure towards their source.
+ *
+ * A task takes its place in its key's lane in the same critical section that
+ * gives it a slot, so tasks admitted by concurrent releases still run in
+ * submission order.
+ */
+public class KeyOrderedTaskProcessor {
+
+    private static final CompletableFuture<Void> ADMITTED = CompletableFuture.completedFuture(null);
+
+    private final int maxConcurrency;
+    private final Executor executor;
+
+    // Guarded by this
+    private int inFlight;
+    private final Queue<Task> capacityWaiters = new ArrayDeque<>();
+
+    // Tail of the in-flight chain per key; removed once the key goes idle
+    private final Map<String, CompletableFuture<Void>> laneTails = new ConcurrentHashMap<>();
+
+    public KeyOrderedTaskProcessor(int maxConcurrency, Executor executor) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.executor = executor;
+    }
+
+    /**
+     * Submit work for a key.
+     *
+     * @param key  ordering key; tasks with the same key run one after another
+     * @param work supplier of the asynchronous work, invoked on the executor
+     * @return a stage that completes when the task has been admitted
+     */
+    public CompletionStage<Void> submit(String key, Supplier<CompletionStage<Void>> work) {
+        Task task = new Task(key, work);
+        synchronized (this) {
+            if (inFlight >= maxConcurrency) {
+                capacityWaiters.add(task);
+                return task.admitted;
+            }
+            inFlight++;
+            link(task);
+        }
+        schedule(task);
+        return ADMITTED;
+    }
+
+    /**
+     * Number of tasks currently admitted
+     */
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Number of keys with admitted tasks
+     */
+    public int activeKeys() {
+        return laneTails.size();
+    }
+
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    // Called under the lock: the lane order is the order of admission
+    private void link(Task task) {
+        CompletableFuture<Void> previous = laneTails.put(task.key, task.done);
+        task.ready = previous != null ? previous : ADMITTED;
+    }
+
+    private void schedule(Task task) {
+        task.ready.whenCompleteAsync((ignored, previousError) -> {
+            CompletionStage<Void> stage;
+            try {
+                stage = task.work.get();
+            } catch (Throwable t) {
+                stage = CompletableFuture.failedFuture(t);
+            }
+            stage.whenComplete((v, error) -> {
+                laneTails.remove(task.key, task.done);
+                release();
+                // Never propagate failures down the lane; each task handles its own
+                task.done.complete(null);
+            });
+        }, executor);
+    }
+
+    private void release() {
+        Task next;
+        synchronized (this) {
+            next = capacityWaiters.poll();
+            if (next == null) {
+                inFlight--;
+                return;
+            }
+            // Hand the slot over directly, taking the task's place in its lane now
+            link(next);
+        }
+        schedule(next);
+        next.admitted.complete(null);
+    }
+
+    private static final class Task {
+        final String key;
+        final Supplier<CompletionStage<Void>> work;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        final CompletableFuture<Void> admitted = new CompletableFuture<>();
+        CompletableFuture<Void> ready;
+
+        Task(String key, Supplier<CompletionStage<Void>> work) {
+            this.key = key;
+            this.work = work;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package tech.kayys.silat.kafka;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.kafka.common.TopicPartition;
+
+import tech.kayys.silat.model.RunStatus;
+
+/**
+ * Read model state owned by one partition of the events topic.
+ *
+ * Events are keyed by run id, so every run lives in exactly one partition and
+ * the partition's state can be flushed together with its offset checkpoint.
+ * Counters and histograms are stored per partition and summed on read.
+ */
+final class ProjectionPartition {
+
+    final TopicPartition topicPartition;
+
+    // Offset of the last applied event, -1 when nothing has been applied
+    long checkpoint;
+    long pendingEvents;
+    Instant watermark = Instant.EPOCH;
+
+    // Runs that are active or changed since the last flush
+    final Map<String, RunSummary> runs = new HashMap<>();
+    final Set<String> dirtyRuns = new HashSet<>();
+
+    final Map<String, Long> activeByTenant = new HashMap<>();
+    final Set<String> dirtyTenants = new HashSet<>();
+
+    final Map<WindowKey, WindowStats> windows = new HashMap<>();
+    final Set<WindowKey> dirtyWindows = new HashSet<>();
+
+    // Ids of the latest events, to recognise one the outbox relay published twice
+    private final Map<String, Boolean> recentEventIds = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > RECENT_EVENT_IDS;
+        }
+    };
+
+    static final int RECENT_EVENT_IDS = 10_000;
+
+    ProjectionPartition(TopicPartition topicPartition, long checkpoint) {
+        this.topicPartition = topicPartition;
+        this.checkpoint = checkpoint;
+    }
+
+    int partition() {
+        return topicPartition.partition();
+    }
+
+    boolean isDirty() {
+        return pendingEvents > 0;
+    }
+
+    /**
+     * Whether the event was not among the latest seen on this partition. A
+     * relay that published a batch but died before recording it publishes
+     * it again right after, so the latest events are the ones repeated.
+     */
+    boolean firstSeen(String eventId) {
+        return eventId == null || recentEventIds.put(eventId, Boolean.TRUE) == null;
+    }
+
+    void adjustActive(String tenantId, long delta) {
+        activeByTenant.merge(tenantId, delta, Long::sum);
+        dirtyTenants.add(tenantId);
+    }
+
+    /**
+     * Forget what was flushed: terminal runs and windows that fell behind the
+     * watermark are reloaded from the database if a late event needs them.
+     */
+    void markFlushed(Instant evictWindowsBefore) {
+        runs.values().removeIf(run -> !run.active);
+        windows.keySet().removeIf(key -> key.windowEnd().isBefore(evictWindowsBefore));
+        dirtyRuns.clear();
+        dirtyTenants.clear();
+        dirtyWindows.clear();
+        pendingEvents = 0;
+    }
+
+    record WindowKey(String tenantId, String definitionId, Instant windowStart, Instant windowEnd) {
+    }
+
+    static final class WindowStats {
+        final DurationHistogram durations;
+        long successCount;
+        long failureCount;
+
+        WindowStats(DurationHistogram durations) {
+            this.durations = durations;
+        }
+    }
+
+    static final class RunSummary {
+        final String runId;
+        String tenantId;
+        String definitionId;
+        RunStatus status;
+        Instant startedAt;
+        Instant completedAt;
+        int nodesCompleted;
+        int nodesFailed;
+        String lastEventType;
+        Instant lastEventAt;
+        boolean active;
+
+        RunSummary(String runId) {
+            this.runId = runId;
+        }
+
+        Long durationMs() {
+            if (startedAt == null || completedAt == null) {
+                return null;
+            }
+            return Math.max(0, completedAt.toEpochMilli() - startedAt.toEpochMilli());
+        }
+    }
+}
@@ -12,6 +12,7 @@ public record TaskMessage(
         String nodeId,
         int attempt,
         String executionToken,
+        Instant tokenExpiresAt,
         Map<String, Object> context,
         String targetExecutor,
         Instant scheduledAt) {
@@ -1,16 +1,61 @@
 package tech.kayys.silat.kafka;
 
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.Map;
 
+import tech.kayys.silat.model.event.ExecutionEvent;
+import tech.kayys.silat.model.event.NodeCompletedEvent;
+import tech.kayys.silat.model.event.NodeFailedEvent;
+import tech.kayys.silat.model.event.WorkflowStartedEvent;
+
 /**
  * Event message for Kafka
  */
-record WorkflowEventMessage(
+public record WorkflowEventMessage(
         String eventId,
         String runId,
         String tenantId,
         String eventType,
         Instant occurredAt,
         Map<String, Object> eventData) {
-}
\ No newline at end of file
+
+    /**
+     * The message announcing an event of a run of the given tenant
+     */
+    public static WorkflowEventMessage of(ExecutionEvent event, String tenantId) {
+        return new WorkflowEventMessage(
+                event.eventId(),
+                event.runId().value(),
+                tenantId,
+                event.eventType(),
+                event.occurredAt(),
+                serializeEvent(event));
+    }
+
+    private static Map<String, Object> serializeEvent(ExecutionEvent event) {
+        // Serialize event to map for Kafka
+        Map<String, Object> data = new HashMap<>();
+        data.put("eventType", event.eventType());
+        data.put("eventId", event.eventId());
+        data.put("runId", event.runId().value());
+        data.put("occurredAt", event.occurredAt().toString());
+
+        // Add event-specific data
+        if (event instanceof WorkflowStartedEvent wse) {
+            data.put("definitionId", wse.definitionId().value());
+        } else if (event instanceof NodeCompletedEvent nce) {
+            data.put("nodeId", nce.nodeId().value());
+            data.put("attempt", nce.attempt());
+            data.put("output", nce.output());
+        } else if (event instanceof NodeFailedEvent nfe) {
+            data.put("nodeId", nfe.nodeId().value());
+            data.put("attempt", nfe.attempt());
+            data.put("error", Map.of(
+                    "code", nfe.error().code(),
+                    "message", nfe.error().message()));
+        }
+
+        return data;
+    }
+}
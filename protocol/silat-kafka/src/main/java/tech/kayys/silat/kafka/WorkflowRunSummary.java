@@ -0,0 +1,22 @@
+package tech.kayys.silat.kafka;
+
+import java.time.Instant;
+
+import tech.kayys.silat.model.RunStatus;
+
+/**
+ * Projected summary of a workflow run, maintained from the event stream
+ */
+public record WorkflowRunSummary(
+        String runId,
+        String tenantId,
+        String definitionId,
+        RunStatus status,
+        Instant startedAt,
+        Instant completedAt,
+        Long durationMs,
+        int nodesCompleted,
+        int nodesFailed,
+        String lastEventType,
+        Instant lastEventAt) {
+}
@@ -0,0 +1,222 @@
+package tech.kayys.silat.kafka;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.PreparedQuery;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowIterator;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.SqlConnection;
+import io.vertx.mutiny.sqlclient.Tuple;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class EventProjectionServiceTest {
+
+    private static final TopicPartition PARTITION = new TopicPartition("workflow-events", 0);
+    private static final Instant T0 = Instant.parse("2026-01-01T10:00:00Z");
+
+    private final Pool pgPool = mock(Pool.class);
+    private final SqlConnection conn = mock(SqlConnection.class);
+    private final Consumer<?, ?> consumer = mock(Consumer.class);
+    private final List<Written> written = new ArrayList<>();
+    private final EventProjectionService projection = new EventProjectionService();
+
+    // What the database holds for the partition when it is assigned
+    private long storedCheckpoint = -1;
+    private final List<Row> storedCounters = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        projection.pgPool = pgPool;
+        projection.metricsWindow = Duration.ofMinutes(1);
+        projection.windowLateness = Duration.ofMinutes(10);
+        projection.flushBatchSize = 1_000;
+        projection.dbTimeout = Duration.ofSeconds(5);
+        projection.init();
+
+        when(pgPool.preparedQuery(anyString())).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            if (sql.contains("FROM projection_checkpoints")) {
+                return returning(storedCheckpoint < 0 ? rows() : rows(row("last_offset", storedCheckpoint)));
+            }
+            if (sql.contains("FROM tenant_active_runs")) {
+                return returning(rows(storedCounters.toArray(Row[]::new)));
+            }
+            return returning(rows());
+        });
+        when(pgPool.withTransaction(any(Function.class)))
+                .thenAnswer(invocation -> invocation.<Function<SqlConnection, Uni<?>>>getArgument(0).apply(conn));
+        when(conn.preparedQuery(anyString())).thenAnswer(invocation -> recording(invocation.getArgument(0)));
+    }
+
+    @Test
+    void newPartition_isReplayedFromTheBeginning_andFlushedWithItsCheckpoint() {
+        projection.onPartitionsAssigned(consumer, List.of(PARTITION));
+        verify(consumer).seekToBeginning(List.of(PARTITION));
+
+        projection.project(started("e1", "run-1", T0), PARTITION, 0);
+        projection.project(started("e2", "run-2", T0), PARTITION, 1);
+        projection.project(event("e3", "run-1", "WorkflowCompleted", T0.plusSeconds(30)), PARTITION, 2);
+        projection.flushAll();
+
+        assertEquals(List.of(List.of("tenant-1", 0, 1L)), values("INSERT INTO tenant_active_runs"));
+        List<List<Object>> runs = values("INSERT INTO workflow_run_summaries");
+        assertEquals(2, runs.size());
+        List<Object> completed = runs.stream().filter(run -> run.get(0).equals("run-1")).findFirst().orElseThrow();
+        assertEquals("COMPLETED", completed.get(3));
+        assertEquals(30_000L, completed.get(6));
+        assertEquals(1, values("INSERT INTO workflow_duration_histograms").size());
+        assertEquals(1, values("INSERT INTO workflow_metrics").size());
+        assertEquals(List.of(List.of(EventProjectionService.PROJECTION_NAME, "workflow-events", 0, 2L)),
+                values("INSERT INTO projection_checkpoints"));
+    }
+
+    @Test
+    void eventPublishedTwice_isAppliedOnce() {
+        projection.onPartitionsAssigned(consumer, List.of(PARTITION));
+
+        projection.project(started("e1", "run-1", T0), PARTITION, 0);
+        // The outbox relay published the same event again after a crash
+        projection.project(started("e1", "run-1", T0), PARTITION, 1);
+        projection.flushAll();
+
+        assertEquals(List.of(List.of("tenant-1", 0, 1L)), values("INSERT INTO tenant_active_runs"));
+        assertEquals(1L, values("INSERT INTO projection_checkpoints").get(0).get(3));
+    }
+
+    @Test
+    void reassignedPartition_resumesAfterItsCheckpoint_withItsCounters() {
+        storedCheckpoint = 5;
+        storedCounters.add(row("tenant_id", "tenant-1", "active_runs", 3L));
+
+        projection.onPartitionsAssigned(consumer, List.of(PARTITION));
+        verify(consumer).seek(PARTITION, 6);
+
+        // Redelivered at or below the checkpoint: already counted
+        projection.project(started("e5", "run-5", T0), PARTITION, 5);
+        projection.flushAll();
+        assertTrue(written.isEmpty());
+
+        projection.project(started("e6", "run-6", T0), PARTITION, 6);
+        projection.flushAll();
+        assertEquals(List.of(List.of("tenant-1", 0, 4L)), values("INSERT INTO tenant_active_runs"));
+    }
+
+    @Test
+    void revokedPartition_isFlushedAndReleased() {
+        projection.onPartitionsAssigned(consumer, List.of(PARTITION));
+        projection.project(started("e1", "run-1", T0), PARTITION, 0);
+
+        projection.onPartitionsRevoked(List.of(PARTITION));
+        assertEquals(0L, values("INSERT INTO projection_checkpoints").get(0).get(3));
+
+        written.clear();
+        projection.project(started("e2", "run-2", T0), PARTITION, 1);
+        projection.flushAll();
+        assertTrue(written.isEmpty());
+    }
+
+    @Test
+    void lostPartition_isReleasedWithoutFlushing() {
+        projection.onPartitionsAssigned(consumer, List.of(PARTITION));
+        projection.project(started("e1", "run-1", T0), PARTITION, 0);
+
+        projection.onPartitionsLost(List.of(PARTITION));
+        projection.flushAll();
+
+        verify(pgPool, never()).withTransaction(any(Function.class));
+    }
+
+    private List<List<Object>> values(String sqlPrefix) {
+        List<List<Object>> values = new ArrayList<>();
+        for (Written write : written) {
+            if (write.sql().strip().startsWith(sqlPrefix)) {
+                List<Object> row = new ArrayList<>();
+                for (int i = 0; i < write.tuple().size(); i++) {
+                    row.add(write.tuple().getValue(i));
+                }
+                values.add(row);
+            }
+        }
+        return values;
+    }
+
+    @SuppressWarnings("unchecked")
+    private PreparedQuery<RowSet<Row>> recording(String sql) {
+        PreparedQuery<RowSet<Row>> query = mock(PreparedQuery.class);
+        when(query.execute(any(Tuple.class))).thenAnswer(invocation -> {
+            written.add(new Written(sql, invocation.getArgument(0)));
+            return Uni.createFrom().item(rows());
+        });
+        when(query.executeBatch(any())).thenAnswer(invocation -> {
+            invocation.<List<Tuple>>getArgument(0).forEach(tuple -> written.add(new Written(sql, tuple)));
+            return Uni.createFrom().item(rows());
+        });
+        return query;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PreparedQuery<RowSet<Row>> returning(RowSet<Row> rows) {
+        PreparedQuery<RowSet<Row>> query = mock(PreparedQuery.class);
+        when(query.execute(any(Tuple.class))).thenReturn(Uni.createFrom().item(rows));
+        return query;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RowSet<Row> rows(Row... rows) {
+        RowSet<Row> rowSet = mock(RowSet.class);
+        when(rowSet.iterator()).thenAnswer(invocation -> {
+            Iterator<Row> iterator = List.of(rows).iterator();
+            RowIterator<Row> rowIterator = mock(RowIterator.class);
+            when(rowIterator.hasNext()).thenAnswer(ignored -> iterator.hasNext());
+            when(rowIterator.next()).thenAnswer(ignored -> iterator.next());
+            return rowIterator;
+        });
+        doCallRealMethod().when(rowSet).forEach(any());
+        return rowSet;
+    }
+
+    private static Row row(Object... columns) {
+        Row row = mock(Row.class);
+        for (int i = 0; i < columns.length; i += 2) {
+            String column = (String) columns[i];
+            Object value = columns[i + 1];
+            if (value instanceof Long number) {
+                when(row.getLong(column)).thenReturn(number);
+            } else {
+                when(row.getString(column)).thenReturn((String) value);
+            }
+        }
+        return row;
+    }
+
+    private static WorkflowEventMessage started(String eventId, String runId, Instant at) {
+        return new WorkflowEventMessage(eventId, runId, "tenant-1", "WorkflowStarted", at,
+                Map.of("definitionId", "order-flow"));
+    }
+
+    private static WorkflowEventMessage event(String eventId, String runId, String type, Instant at) {
+        return new WorkflowEventMessage(eventId, runId, "tenant-1", type, at, Map.of());
+    }
+
+    private record Written(String sql, Tuple tuple) {
+    }
+}
@@ -0,0 +1,98 @@
+package tech.kayys.silat.kafka;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import io.smallrye.mutiny.Uni;
+import tech.kayys.silat.execution.NodeExecutionResult;
+import tech.kayys.silat.execution.NodeExecutionStatus;
+import tech.kayys.silat.execution.NodeExecutionTask;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class KafkaTaskConsumerTest {
+
+    @InjectMocks
+    KafkaTaskConsumer consumer;
+
+    @Mock
+    ExecutorTaskHandler taskHandler;
+
+    @Mock
+    KafkaResultProducer resultProducer;
+
+    @BeforeEach
+    void setUp() {
+        when(resultProducer.sendResult(any())).thenReturn(Uni.createFrom().voidItem());
+    }
+
+    @Test
+    void expiredToken_isReportedAsFailedWithoutExecuting() {
+        consumer.process(task(Instant.now().minus(Duration.ofMinutes(1)))).await().indefinitely();
+
+        verifyNoInteractions(taskHandler);
+        assertEquals("TOKEN_EXPIRED", sentResult().error().code());
+    }
+
+    @Test
+    void missingTokenExpiry_isReportedAsFailedWithoutExecuting() {
+        consumer.process(task(null)).await().indefinitely();
+
+        verifyNoInteractions(taskHandler);
+        assertEquals("TOKEN_EXPIRY_MISSING", sentResult().error().code());
+    }
+
+    @Test
+    void executorFailure_isReportedAsFailedResult() {
+        when(taskHandler.executeTask(any())).thenReturn(
+                Uni.createFrom().failure(new IllegalStateException("connection refused")));
+
+        consumer.process(task(Instant.now().plus(Duration.ofMinutes(5)))).await().indefinitely();
+
+        NodeExecutionResult result = sentResult();
+        assertEquals(NodeExecutionStatus.FAILED, result.status());
+        assertEquals("EXECUTOR_ERROR", result.error().code());
+        assertEquals("connection refused", result.error().message());
+        assertEquals(2, result.attempt());
+    }
+
+    @Test
+    void validToken_carriesItsExpiryToTheExecutor() {
+        Instant expiresAt = Instant.now().plus(Duration.ofMinutes(5));
+        when(taskHandler.executeTask(any())).thenAnswer(invocation -> {
+            assertEquals(expiresAt, invocation.<NodeExecutionTask>getArgument(0).token().expiresAt());
+            return Uni.createFrom().item(mock(NodeExecutionResult.class));
+        });
+
+        consumer.process(task(expiresAt)).await().indefinitely();
+
+        verify(taskHandler).executeTask(any());
+        verify(resultProducer).sendResult(any());
+    }
+
+    private NodeExecutionResult sentResult() {
+        ArgumentCaptor<NodeExecutionResult> result = ArgumentCaptor.forClass(NodeExecutionResult.class);
+        verify(resultProducer).sendResult(result.capture());
+        return result.getValue();
+    }
+
+    private static TaskMessage task(Instant tokenExpiresAt) {
+        return new TaskMessage("run-1:charge:2", "run-1", "charge", 2, "token-value-123", tokenExpiresAt,
+                Map.of(), "executor-1", Instant.now());
+    }
+}
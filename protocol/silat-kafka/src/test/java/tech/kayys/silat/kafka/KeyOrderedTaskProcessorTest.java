@@ -0,0 +1,177 @@
+package tech.kayys.silat.kafka;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyOrderedTaskProcessorTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void tasksOfOneKey_runInSubmissionOrder() throws Exception {
+        KeyOrderedTaskProcessor processor = new KeyOrderedTaskProcessor(64, executor);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Void>> done = new ArrayList<>();
+
+        for (int i = 0; i < 50; i++) {
+            int index = i;
+            CompletableFuture<Void> finished = new CompletableFuture<>();
+            done.add(finished);
+            processor.submit("run-1", () -> CompletableFuture.runAsync(() -> {
+                sleep(index % 3);
+                order.add(index);
+            }, executor).whenComplete((ignored, error) -> finished.complete(null)));
+        }
+
+        CompletableFuture.allOf(done.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            expected.add(i);
+        }
+        assertEquals(expected, order);
+        // The lane is dropped just after the last task's stage completes
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (processor.activeKeys() > 0 && System.nanoTime() < deadline) {
+            sleep(1);
+        }
+        assertEquals(0, processor.activeKeys());
+    }
+
+    @Test
+    void tasksOfDifferentKeys_runInParallel() throws Exception {
+        KeyOrderedTaskProcessor processor = new KeyOrderedTaskProcessor(64, executor);
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        AtomicInteger started = new AtomicInteger();
+        CompletableFuture<Void> first = new CompletableFuture<>();
+
+        processor.submit("run-1", () -> {
+            started.incrementAndGet();
+            first.complete(null);
+            return release;
+        });
+        CompletableFuture<Void> second = new CompletableFuture<>();
+        processor.submit("run-2", () -> {
+            started.incrementAndGet();
+            second.complete(null);
+            return CompletableFuture.completedFuture(null);
+        });
+
+        // run-2 does not wait for run-1, which is still running
+        second.get(5, TimeUnit.SECONDS);
+        first.get(5, TimeUnit.SECONDS);
+        assertEquals(2, started.get());
+        release.complete(null);
+    }
+
+    @Test
+    void admission_waitsForAFreeSlotBeyondMaxConcurrency() throws Exception {
+        KeyOrderedTaskProcessor processor = new KeyOrderedTaskProcessor(2, executor);
+        CompletableFuture<Void> first = new CompletableFuture<>();
+
+        CompletionStage<Void> a = processor.submit("run-1", () -> first);
+        CompletionStage<Void> b = processor.submit("run-2", CompletableFuture::new);
+        CompletionStage<Void> c = processor.submit("run-3", () -> CompletableFuture.completedFuture(null));
+
+        assertTrue(a.toCompletableFuture().isDone());
+        assertTrue(b.toCompletableFuture().isDone());
+        assertFalse(c.toCompletableFuture().isDone());
+        assertEquals(2, processor.inFlight());
+
+        first.complete(null);
+        c.toCompletableFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void tasksOfOneKey_keepTheirOrderWhenSlotsAreReleasedConcurrently() throws Exception {
+        for (int round = 0; round < 100; round++) {
+            KeyOrderedTaskProcessor processor = new KeyOrderedTaskProcessor(8, executor);
+            List<CompletableFuture<Void>> gates = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                CompletableFuture<Void> gate = new CompletableFuture<>();
+                gates.add(gate);
+                processor.submit("blocker-" + i, () -> gate);
+            }
+            List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+            List<CompletableFuture<Void>> done = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                int index = i;
+                CompletableFuture<Void> finished = new CompletableFuture<>();
+                done.add(finished);
+                processor.submit("run-1", () -> {
+                    order.add(index);
+                    finished.complete(null);
+                    return CompletableFuture.completedFuture(null);
+                });
+            }
+
+            // Every blocker finishes at once, each releasing its slot on its own thread
+            CountDownLatch start = new CountDownLatch(1);
+            for (CompletableFuture<Void> gate : gates) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    gate.complete(null);
+                });
+            }
+            start.countDown();
+
+            CompletableFuture.allOf(done.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                expected.add(i);
+            }
+            assertEquals(expected, order, "round " + round);
+        }
+    }
+
+    @Test
+    void failedTask_doesNotBlockItsKey() throws Exception {
+        KeyOrderedTaskProcessor processor = new KeyOrderedTaskProcessor(4, executor);
+        CompletableFuture<Void> next = new CompletableFuture<>();
+
+        processor.submit("run-1", () -> {
+            throw new IllegalStateException("executor crashed");
+        });
+        processor.submit("run-1", () -> CompletableFuture.failedFuture(new IllegalStateException("failed")));
+        processor.submit("run-1", () -> {
+            next.complete(null);
+            return CompletableFuture.completedFuture(null);
+        });
+
+        next.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void maxConcurrencyBelowOne_isRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new KeyOrderedTaskProcessor(0, executor));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package tech.kayys.silat.runtime.resource;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
 import io.smallrye.mutiny.Uni;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
@@ -13,10 +16,15 @@ import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
 import tech.kayys.silat.api.engine.WorkflowRunManager;
+import tech.kayys.silat.engine.impl.RunCompletionWaiters.TooManyWaitersException;
 import tech.kayys.silat.execution.ExecutionHistory;
 import tech.kayys.silat.model.CreateRunRequest;
+import tech.kayys.silat.model.CreateRunResult;
+import tech.kayys.silat.model.NodeId;
 import tech.kayys.silat.model.RunStatus;
+import tech.kayys.silat.model.Signal;
 import tech.kayys.silat.model.TenantId;
 import tech.kayys.silat.model.WorkflowDefinitionId;
 import tech.kayys.silat.model.WorkflowRun;
@@ -29,22 +37,42 @@ import tech.kayys.silat.security.TenantSecurityContext;
 @Consumes(MediaType.APPLICATION_JSON)
 public class WorkflowRunResource {
 
+    // Waiter slots free up as parked requests return, so a short back-off
+    private static final String RETRY_AFTER_SECONDS = "5";
+
     @Inject
     WorkflowRunManager runManager;
 
     @Inject
     TenantSecurityContext securityContext;
 
+    /**
+     * With {@code wait} (e.g. {@code 30s}, {@code PT30S}) the response is
+     * held until the run finishes or the wait elapses: 200 with the
+     * finished run, or 202 with the run still in progress. The run is
+     * created either way, so with every waiter slot taken it is answered
+     * with 202 at once rather than 503.
+     */
     @POST
-    public Uni<WorkflowRun> create(CreateRunRequest request) {
+    public Uni<Response> create(CreateRunRequest request, @QueryParam("wait") String wait) {
         TenantId tenantId = securityContext.getCurrentTenant();
-        return runManager.createRun(request, tenantId)
-                .flatMap(run -> {
-                    if (request.isAutoStart()) {
-                        return runManager.startRun(run.getId(), tenantId);
-                    }
-                    return Uni.createFrom().item(run);
-                });
+        // createRun already starts the run when autoStart is set
+        Uni<WorkflowRun> created = runManager.createRun(request, tenantId);
+        if (wait == null) {
+            return created.map(run -> Response.ok(run).build());
+        }
+        Duration timeout = parseDuration(wait);
+        return created
+                .chain(run -> runManager.awaitCompletion(run.getId(), tenantId, timeout)
+                        .onFailure(TooManyWaitersException.class).recoverWithItem(run))
+                .map(WorkflowRunResource::resultResponse);
+    }
+
+    @POST
+    @Path("/bulk")
+    public Uni<List<CreateRunResult>> createBulk(List<CreateRunRequest> requests) {
+        TenantId tenantId = securityContext.getCurrentTenant();
+        return runManager.createRuns(requests != null ? requests : List.of(), tenantId);
     }
 
     @GET
@@ -54,6 +82,27 @@ public class WorkflowRunResource {
         return runManager.getRun(WorkflowRunId.of(id), tenantId);
     }
 
+    /**
+     * Long-poll for the run's result: 200 once the run has finished, 202
+     * with the run still in progress when {@code timeout} elapses first,
+     * 503 with {@code Retry-After} when too many requests are already waiting.
+     * Completion is announced to other instances only with a cluster
+     * transport ({@code silat.cluster.notifications.transport}); without
+     * one the run is read again every {@code silat.runs.await.poll-interval}.
+     */
+    @GET
+    @Path("/{id}/result")
+    public Uni<Response> result(@PathParam("id") String id, @QueryParam("timeout") String timeout) {
+        TenantId tenantId = securityContext.getCurrentTenant();
+        return runManager.awaitCompletion(WorkflowRunId.of(id), tenantId,
+                timeout != null ? parseDuration(timeout) : null)
+                .map(WorkflowRunResource::resultResponse)
+                .onFailure(TooManyWaitersException.class).recoverWithItem(e -> Response
+                        .status(Response.Status.SERVICE_UNAVAILABLE)
+                        .header("Retry-After", RETRY_AFTER_SECONDS)
+                        .build());
+    }
+
     @GET
     @Path("/{id}/snapshot")
     public Uni<WorkflowRunSnapshot> getSnapshot(@PathParam("id") String id) {
@@ -99,6 +148,44 @@ public class WorkflowRunResource {
         return runManager.cancelRun(WorkflowRunId.of(id), tenantId, reason);
     }
 
+    @POST
+    @Path("/{id}/signal")
+    @SuppressWarnings("unchecked")
+    public Uni<Void> signal(@PathParam("id") String id, Map<String, Object> params) {
+        TenantId tenantId = securityContext.getCurrentTenant();
+        WorkflowRunId runId = WorkflowRunId.of(id);
+        String signalName = requiredString(params, "signalName");
+        String targetNodeId = optionalString(params, "targetNodeId");
+        Object payload = params.get("payload");
+        Signal signal = new Signal(
+                signalName,
+                targetNodeId != null ? NodeId.of(targetNodeId) : null,
+                payload instanceof Map ? (Map<String, Object>) payload : Map.of(),
+                Instant.now());
+        // Resolve the run first so a tenant can only signal its own runs
+        return runManager.getRun(runId, tenantId)
+                .chain(run -> runManager.signal(runId, signal));
+    }
+
+    /**
+     * Signal every run of the tenant waiting on {@code signalName}
+     */
+    @POST
+    @Path("/signals")
+    @SuppressWarnings("unchecked")
+    public Uni<Map<String, Object>> broadcastSignal(Map<String, Object> params) {
+        TenantId tenantId = securityContext.getCurrentTenant();
+        String signalName = requiredString(params, "signalName");
+        Object payload = params.get("payload");
+        Signal signal = new Signal(
+                signalName,
+                null,
+                payload instanceof Map ? (Map<String, Object>) payload : Map.of(),
+                Instant.now());
+        return runManager.broadcastSignal(tenantId, signal)
+                .map(delivered -> Map.of("signalName", signalName, "delivered", delivered));
+    }
+
     @GET
     public Uni<List<WorkflowRun>> query(
             @QueryParam("definitionId") String definitionId,
@@ -109,4 +196,55 @@ public class WorkflowRunResource {
         WorkflowDefinitionId wfDefId = definitionId != null ? new WorkflowDefinitionId(definitionId) : null;
         return runManager.queryRuns(tenantId, wfDefId, status, page, size);
     }
+
+    private static String requiredString(Map<String, Object> params, String name) {
+        String value = optionalString(params, name);
+        if (value == null) {
+            throw new BadRequestException(name + " is required");
+        }
+        return value;
+    }
+
+    // Absent is fine, anything but a non-blank string is not
+    private static String optionalString(Map<String, Object> params, String name) {
+        Object value = params != null ? params.get(name) : null;
+        if (value == null) {
+            return null;
+        }
+        if (!(value instanceof String string) || string.isBlank()) {
+            throw new BadRequestException(name + " must be a non-empty string");
+        }
+        return string;
+    }
+
+    private static Response resultResponse(WorkflowRun run) {
+        if (run == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        return Response.status(run.getStatus().isTerminal() ? Response.Status.OK : Response.Status.ACCEPTED)
+                .entity(run)
+                .build();
+    }
+
+    // Accepts ISO-8601 (PT30S) or a number with a ms, s or m suffix
+    private static Duration parseDuration(String value) {
+        String trimmed = value.trim().toLowerCase();
+        try {
+            if (trimmed.startsWith("pt")) {
+                return Duration.parse(trimmed);
+            }
+            if (trimmed.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(trimmed.substring(0, trimmed.length() - 2)));
+            }
+            if (trimmed.endsWith("s")) {
+                return Duration.ofSeconds(Long.parseLong(trimmed.substring(0, trimmed.length() - 1)));
+            }
+            if (trimmed.endsWith("m")) {
+                return Duration.ofMinutes(Long.parseLong(trimmed.substring(0, trimmed.length() - 1)));
+            }
+            return Duration.ofSeconds(Long.parseLong(trimmed));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid duration: " + value);
+        }
+    }
 }
@@ -90,4 +90,52 @@ class WorkflowRunResourceTest {
         .then()
             .statusCode(404);
     }
-}
\ No newline at end of file
+
+    @Test
+    @Order(7)
+    void testSignalWithoutSignalName() {
+        given()
+            .header("Content-Type", "application/json")
+            .body("{\"payload\": {}}")
+        .when()
+            .post("/api/v1/workflow-runs/1/signal")
+        .then()
+            .statusCode(400);
+    }
+
+    @Test
+    @Order(8)
+    void testSignalWithNonStringSignalName() {
+        given()
+            .header("Content-Type", "application/json")
+            .body("{\"signalName\": 42}")
+        .when()
+            .post("/api/v1/workflow-runs/1/signal")
+        .then()
+            .statusCode(400);
+    }
+
+    @Test
+    @Order(9)
+    void testSignalWithEmptyTargetNodeId() {
+        given()
+            .header("Content-Type", "application/json")
+            .body("{\"signalName\": \"approved\", \"targetNodeId\": \"\"}")
+        .when()
+            .post("/api/v1/workflow-runs/1/signal")
+        .then()
+            .statusCode(400);
+    }
+
+    @Test
+    @Order(10)
+    void testBroadcastSignalWithNonStringSignalName() {
+        given()
+            .header("Content-Type", "application/json")
+            .body("{\"signalName\": [\"approved\"]}")
+        .when()
+            .post("/api/v1/workflow-runs/signals")
+        .then()
+            .statusCode(400);
+    }
+}
@@ -11,8 +11,10 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
+import tech.kayys.silat.plugin.ClassLoaderLeak;
 import tech.kayys.silat.plugin.Plugin;
 import tech.kayys.silat.plugin.PluginService;
+import tech.kayys.silat.plugin.SubscriptionStats;
 
 @Path("/api/v1/plugins")
 @Produces(MediaType.APPLICATION_JSON)
@@ -68,6 +70,18 @@ public class PluginResource {
         return Uni.createFrom().item(statuses);
     }
 
+    @GET
+    @Path("/events/subscriptions")
+    public Uni<List<SubscriptionStats>> getEventSubscriptions() {
+        return Uni.createFrom().item(pluginService.getSubscriptionStats());
+    }
+
+    @GET
+    @Path("/classloader-leaks")
+    public Uni<List<ClassLoaderLeak>> getClassLoaderLeaks() {
+        return Uni.createFrom().item(pluginService.getLeakedClassLoaders());
+    }
+
     public record PluginStatusInfo(String id, String name, String version, String status) {
     }
 }
\ No newline at end of file
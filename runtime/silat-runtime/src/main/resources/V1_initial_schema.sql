@@ -85,6 +85,10 @@ CREATE INDEX idx_workflow_run_status ON workflow_runs(status);
 CREATE INDEX idx_workflow_run_parent ON workflow_runs(parent_run_id);
 CREATE INDEX idx_workflow_run_labels ON workflow_runs USING gin(labels);
 CREATE INDEX idx_workflow_run_metadata ON workflow_runs USING gin(metadata);
+CREATE INDEX idx_workflow_run_archivable ON workflow_runs(completed_at)
+    WHERE status IN ('COMPLETED', 'FAILED', 'CANCELLED', 'COMPENSATED');
+CREATE INDEX idx_workflow_run_open_status ON workflow_runs(tenant_id, status)
+    WHERE status NOT IN ('COMPLETED', 'FAILED', 'CANCELLED', 'COMPENSATED');
 
 -- Partitioning by tenant (optional, for very large deployments)
 -- CREATE TABLE workflow_runs_partition_template (LIKE workflow_runs INCLUDING ALL);
@@ -92,8 +96,10 @@ CREATE INDEX idx_workflow_run_metadata ON workflow_runs USING gin(metadata);
 -- ==================== EVENT STORE ====================
 
 -- Immutable event log - source of truth
+-- Range partitioned by occurred_at; partitions are created ahead of time and
+-- retired after the retention period by TimePartitionManager
 CREATE TABLE workflow_events (
-    event_id VARCHAR(64) PRIMARY KEY,
+    event_id VARCHAR(64) NOT NULL,
     run_id VARCHAR(64) NOT NULL,
     tenant_id VARCHAR(64) NOT NULL,
     event_type VARCHAR(64) NOT NULL,
@@ -110,20 +116,29 @@ CREATE TABLE workflow_events (
     correlation_id VARCHAR(64),
     causation_id VARCHAR(64),
     
+    -- Unique keys of a partitioned table must include the partition key
+    PRIMARY KEY (event_id, occurred_at),
     CONSTRAINT uk_event_run_sequence 
-        UNIQUE (run_id, sequence_number)
-);
+        UNIQUE (run_id, sequence_number, occurred_at)
+) PARTITION BY RANGE (occurred_at);
 
 -- Indexes for event sourcing queries
-CREATE INDEX idx_event_run_id ON workflow_events(run_id, sequence_number);
+-- (lookups by run use the uk_event_run_sequence index; it does not keep a
+-- run's sequence unique across partitions, workflow_event_sequences does)
 CREATE INDEX idx_event_type ON workflow_events(event_type);
 CREATE INDEX idx_event_occurred_at ON workflow_events(occurred_at DESC);
 CREATE INDEX idx_event_tenant ON workflow_events(tenant_id);
 CREATE INDEX idx_event_correlation ON workflow_events(correlation_id);
 
--- Partition by time for event archival
--- CREATE TABLE workflow_events_2025_01 PARTITION OF workflow_events
---     FOR VALUES FROM ('2025-01-01') TO ('2025-02-01');
+-- Catches rows outside the managed partitions; should stay empty
+CREATE TABLE workflow_events_default PARTITION OF workflow_events DEFAULT;
+
+-- Last sequence number appended per run; appends claim the next numbers here
+-- in the same transaction, so two writers cannot reuse one
+CREATE TABLE workflow_event_sequences (
+    run_id VARCHAR(64) PRIMARY KEY,
+    last_sequence BIGINT NOT NULL
+);
 
 -- ==================== EXECUTION TOKENS ====================
 
@@ -253,8 +268,9 @@ CREATE INDEX idx_executor_heartbeat ON executors(last_heartbeat);
 -- ==================== AUDIT LOG ====================
 
 -- Audit trail for compliance
+-- Range partitioned by performed_at, managed like workflow_events
 CREATE TABLE audit_log (
-    audit_id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    audit_id UUID NOT NULL DEFAULT uuid_generate_v4(),
     tenant_id VARCHAR(64) NOT NULL,
     entity_type VARCHAR(64) NOT NULL,
     entity_id VARCHAR(128) NOT NULL,
@@ -271,17 +287,17 @@ CREATE TABLE audit_log (
     user_agent TEXT,
     
     -- Additional context
-    metadata JSONB
-);
+    metadata JSONB,
+
+    PRIMARY KEY (audit_id, performed_at)
+) PARTITION BY RANGE (performed_at);
 
 CREATE INDEX idx_audit_tenant ON audit_log(tenant_id);
 CREATE INDEX idx_audit_entity ON audit_log(entity_type, entity_id);
 CREATE INDEX idx_audit_performed_at ON audit_log(performed_at DESC);
 CREATE INDEX idx_audit_performed_by ON audit_log(performed_by);
 
--- Partition by month for efficient archival
--- CREATE TABLE audit_log_2025_01 PARTITION OF audit_log
---     FOR VALUES FROM ('2025-01-01') TO ('2025-02-01');
+CREATE TABLE audit_log_default PARTITION OF audit_log DEFAULT;
 
 -- ==================== METRICS & MONITORING ====================
 
@@ -318,6 +334,140 @@ CREATE TABLE workflow_metrics (
 CREATE INDEX idx_metric_tenant_def ON workflow_metrics(tenant_id, definition_id);
 CREATE INDEX idx_metric_window ON workflow_metrics(window_start, window_end);
 
+-- ==================== READ MODELS ====================
+-- Maintained by EventProjectionService from the workflow-events topic
+
+-- Offset checkpoints, written in the same transaction as the read models
+CREATE TABLE projection_checkpoints (
+    projection_name VARCHAR(64) NOT NULL,
+    topic VARCHAR(255) NOT NULL,
+    partition_id INT NOT NULL,
+    last_offset BIGINT NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (projection_name, topic, partition_id)
+);
+
+-- One row per run
+CREATE TABLE workflow_run_summaries (
+    run_id VARCHAR(128) PRIMARY KEY,
+    tenant_id VARCHAR(64),
+    definition_id VARCHAR(128),
+    status VARCHAR(32),
+    started_at TIMESTAMP WITH TIME ZONE,
+    completed_at TIMESTAMP WITH TIME ZONE,
+    duration_ms BIGINT,
+    nodes_completed INT NOT NULL DEFAULT 0,
+    nodes_failed INT NOT NULL DEFAULT 0,
+    last_event_type VARCHAR(64),
+    last_event_at TIMESTAMP WITH TIME ZONE,
+    source_partition INT NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_run_summary_tenant_status ON workflow_run_summaries(tenant_id, status);
+
+-- Active runs per tenant, one row per source partition (sum on read)
+CREATE TABLE tenant_active_runs (
+    tenant_id VARCHAR(64) NOT NULL,
+    source_partition INT NOT NULL,
+    active_runs BIGINT NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (tenant_id, source_partition)
+);
+
+-- Run duration histograms per window and source partition, merged into workflow_metrics
+CREATE TABLE workflow_duration_histograms (
+    tenant_id VARCHAR(64) NOT NULL,
+    definition_id VARCHAR(128) NOT NULL,
+    window_start TIMESTAMP WITH TIME ZONE NOT NULL,
+    source_partition INT NOT NULL,
+    window_end TIMESTAMP WITH TIME ZONE NOT NULL,
+    execution_count BIGINT NOT NULL,
+    success_count BIGINT NOT NULL,
+    failure_count BIGINT NOT NULL,
+    total_duration_ms BIGINT NOT NULL,
+    min_duration_ms BIGINT,
+    max_duration_ms BIGINT,
+    buckets JSONB NOT NULL,
+    PRIMARY KEY (tenant_id, definition_id, window_start, source_partition)
+);
+
+-- ==================== COLD STORAGE ====================
+-- Terminal runs moved out of workflow_runs/workflow_events by RunArchive;
+-- archive_key is relative to silat.archive.location
+CREATE TABLE archived_runs (
+    run_id VARCHAR(64) PRIMARY KEY,
+    tenant_id VARCHAR(64) NOT NULL,
+    definition_id VARCHAR(128) NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    completed_at TIMESTAMP WITH TIME ZONE,
+    archive_key VARCHAR(512) NOT NULL,
+    event_count INT NOT NULL,
+    archived_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_archived_run_tenant_completed ON archived_runs(tenant_id, completed_at);
+-- Instances evict the hot history of newly archived runs
+CREATE INDEX idx_archived_run_archived_at ON archived_runs(archived_at);
+
+-- ==================== TIMERS ====================
+-- Durable timers (TimerService); timer_id is run:node:kind, so re-arming
+-- replaces. Rows are deleted when the timer fires or the run ends.
+CREATE TABLE workflow_timers (
+    timer_id VARCHAR(255) PRIMARY KEY,
+    shard INT NOT NULL,
+    tenant_id VARCHAR(64) NOT NULL,
+    run_id VARCHAR(64) NOT NULL,
+    node_id VARCHAR(128) NOT NULL,
+    kind VARCHAR(32) NOT NULL,
+    attempt INT NOT NULL DEFAULT 1,
+    fire_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_workflow_timer_due ON workflow_timers(shard, fire_at, timer_id);
+CREATE INDEX idx_workflow_timer_run ON workflow_timers(run_id);
+
+-- Which engine instance loads each timer shard
+CREATE TABLE workflow_timer_leases (
+    shard INT PRIMARY KEY,
+    owner VARCHAR(64) NOT NULL,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+-- Live engine instances, kept alive by heartbeat, that runs are hashed onto
+CREATE TABLE workflow_engine_members (
+    instance_id VARCHAR(64) PRIMARY KEY,
+    started_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+-- Batches of run notifications bridged between engine instances
+CREATE TABLE workflow_cluster_notifications (
+    id BIGSERIAL PRIMARY KEY,
+    batch TEXT NOT NULL,
+    claimed_by VARCHAR(64),
+    claimed_until TIMESTAMP WITH TIME ZONE
+);
+
+-- Run events waiting to be published, written in the run write's transaction
+CREATE TABLE workflow_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    event_id VARCHAR(64) NOT NULL,
+    run_id VARCHAR(64) NOT NULL,
+    tenant_id VARCHAR(64) NOT NULL,
+    event_type VARCHAR(64) NOT NULL,
+    event_data JSONB NOT NULL,
+    occurred_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+-- Which engine instance relays the outbox
+CREATE TABLE workflow_outbox_relay (
+    name VARCHAR(64) PRIMARY KEY,
+    owner VARCHAR(64) NOT NULL,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
 -- ==================== VIEWS ====================
 
 -- Active workflows view
@@ -0,0 +1,87 @@
+package tech.kayys.silat.sdk.client;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import tech.kayys.silat.model.CreateRunRequest;
+import tech.kayys.silat.model.CreateRunResult;
+
+/**
+ * Fans bulk operations out over a transport with bounded concurrency,
+ * keeping results in request order
+ */
+final class BulkRequests {
+
+    private BulkRequests() {
+    }
+
+    /**
+     * Apply an operation to each run, at most {@code maxConcurrency} at a time
+     */
+    static Uni<List<RunOperationResult>> perRun(
+            List<String> runIds, int maxConcurrency, Function<String, Uni<Void>> operation) {
+        if (runIds == null || runIds.isEmpty()) {
+            return Uni.createFrom().item(List.of());
+        }
+        return Multi.createFrom().range(0, runIds.size())
+                .onItem().transformToUni(i -> {
+                    String runId = runIds.get(i);
+                    return Uni.createFrom().deferred(() -> operation.apply(runId))
+                            .map(ignored -> new Indexed<>(i, RunOperationResult.succeeded(runId)))
+                            .onFailure().recoverWithItem(error -> new Indexed<>(i, RunOperationResult.failed(runId, error)));
+                })
+                .merge(maxConcurrency)
+                .collect().asList()
+                .map(BulkRequests::inOrder);
+    }
+
+    /**
+     * Send requests in batches of {@code batchSize}, at most
+     * {@code maxConcurrency} batches at a time, re-basing each batch's
+     * result indexes onto the full list
+     */
+    static Uni<List<CreateRunResult>> inBatches(
+            List<CreateRunRequest> requests, int batchSize, int maxConcurrency,
+            Function<List<CreateRunRequest>, Uni<List<CreateRunResult>>> sendBatch) {
+        if (requests == null || requests.isEmpty()) {
+            return Uni.createFrom().item(List.of());
+        }
+        int batches = (requests.size() + batchSize - 1) / batchSize;
+        return Multi.createFrom().items(IntStream.range(0, batches).boxed())
+                .onItem().transformToUni(batch -> {
+                    int offset = batch * batchSize;
+                    List<CreateRunRequest> slice = requests.subList(offset, Math.min(offset + batchSize, requests.size()));
+                    return sendBatch.apply(slice)
+                            .map(results -> rebase(results, offset));
+                })
+                .merge(maxConcurrency)
+                .collect().in(ArrayList<CreateRunResult>::new, List::addAll)
+                .map(results -> {
+                    results.sort(Comparator.comparingInt(CreateRunResult::index));
+                    return List.copyOf(results);
+                });
+    }
+
+    private static List<CreateRunResult> rebase(List<CreateRunResult> results, int offset) {
+        if (offset == 0) {
+            return results;
+        }
+        return results.stream()
+                .map(r -> new CreateRunResult(r.index() + offset, r.runId(), r.status(), r.error()))
+                .toList();
+    }
+
+    private static <T> List<T> inOrder(List<Indexed<T>> items) {
+        List<Indexed<T>> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparingInt(Indexed::index));
+        return sorted.stream().map(Indexed::value).toList();
+    }
+
+    private record Indexed<T>(int index, T value) {
+    }
+}
@@ -4,6 +4,7 @@ import io.smallrye.mutiny.Uni;
 import tech.kayys.silat.model.RunResponse;
 import tech.kayys.silat.model.CreateRunRequest;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -81,13 +82,25 @@ public class CreateRunBuilder {
      * Execute and return the created run
      */
     public Uni<RunResponse> execute() {
-        CreateRunRequest request = new CreateRunRequest(
+        return client.createRun(buildRequest());
+    }
+
+    private CreateRunRequest buildRequest() {
+        return new CreateRunRequest(
                 workflowDefinitionId,
                 workflowVersion,
                 inputs,
                 correlationId,
                 autoStart);
-        return client.createRun(request);
+    }
+
+    /**
+     * Execute, start the run and wait for it to finish or the timeout to
+     * elapse
+     */
+    public Uni<RunResponse> executeAndAwait(Duration timeout) {
+        this.autoStart = true;
+        return client.createAndAwait(buildRequest(), timeout);
     }
 
     /**
@@ -1,25 +1,82 @@
 package tech.kayys.silat.sdk.client;
 
+import com.google.protobuf.Struct;
+import com.google.protobuf.Timestamp;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.netty.NettyChannelBuilder;
+import io.grpc.stub.MetadataUtils;
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
+import io.vertx.core.json.jackson.DatabindCodec;
+import tech.kayys.silat.grpc.PayloadCodec;
+import tech.kayys.silat.grpc.StructCodec;
+import tech.kayys.silat.grpc.v1.CancelRunRequest;
+import tech.kayys.silat.grpc.v1.GetActiveRunsCountRequest;
+import tech.kayys.silat.grpc.v1.GetRunRequest;
+import tech.kayys.silat.grpc.v1.MutinyWorkflowServiceGrpc;
+import tech.kayys.silat.grpc.v1.QueryRunsRequest;
+import tech.kayys.silat.grpc.v1.ResumeRunRequest;
+import tech.kayys.silat.grpc.v1.SignalRequest;
+import tech.kayys.silat.grpc.v1.StartRunRequest;
+import tech.kayys.silat.grpc.v1.SuspendRunRequest;
 import tech.kayys.silat.model.RunResponse;
 import tech.kayys.silat.model.CreateRunRequest;
+import tech.kayys.silat.model.CreateRunResult;
+import tech.kayys.silat.model.RunStatus;
 import tech.kayys.silat.execution.ExecutionHistory;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * gRPC-based workflow run client
+ *
+ * Every call, including bulk fan-out and watches, is multiplexed as a
+ * stream on a single HTTP/2 channel. Concurrent lookups of the same run
+ * share one call.
  */
 class GrpcWorkflowRunClient implements WorkflowRunClient {
 
+    private static final String STATUS_PREFIX = "RUN_STATUS_";
+    // Same default as the engine's silat.grpc.binary-payload-threshold
+    private static final int BINARY_PAYLOAD_THRESHOLD = 64 * 1024;
+    private static final StructCodec STRUCTS = new StructCodec(
+            value -> DatabindCodec.mapper().convertValue(value, Object.class));
+    private static final PayloadCodec PAYLOADS = new PayloadCodec(
+            value -> DatabindCodec.mapper().convertValue(value, Object.class));
+
     private final SilatClientConfig config;
     private final AtomicBoolean closed = new AtomicBoolean(false);
-    // gRPC stub would be injected here
+    private final ManagedChannel channel;
+    private final MutinyWorkflowServiceGrpc.MutinyWorkflowServiceStub stub;
+    private final RequestCoalescer<String, RunResponse> runLookups = new RequestCoalescer<>();
+    private final RunStatusWatcher watcher;
 
     GrpcWorkflowRunClient(SilatClientConfig config) {
         this.config = config;
+
+        NettyChannelBuilder channelBuilder = NettyChannelBuilder.forTarget(config.endpoint())
+                .keepAliveTime(config.keepAlive().toMillis(), TimeUnit.MILLISECONDS)
+                .keepAliveWithoutCalls(true)
+                .usePlaintext();
+        this.channel = channelBuilder.build();
+
+        Metadata headers = new Metadata();
+        headers.put(Metadata.Key.of("x-tenant-id", Metadata.ASCII_STRING_MARSHALLER), config.tenantId());
+        if (config.apiKey() != null) {
+            headers.put(Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER),
+                    "Bearer " + config.apiKey());
+        }
+        config.headers().forEach((key, value) -> headers.put(
+                Metadata.Key.of(key.toLowerCase(), Metadata.ASCII_STRING_MARSHALLER), value));
+        this.stub = MutinyWorkflowServiceGrpc.newMutinyStub(channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers));
+        this.watcher = new RunStatusWatcher(this, config.pollInterval());
     }
 
     /**
@@ -29,48 +86,84 @@ class GrpcWorkflowRunClient implements WorkflowRunClient {
         return config;
     }
 
-    // Implement using gRPC stubs...
+    // Deadlines are absolute, so each call gets its own
+    private MutinyWorkflowServiceGrpc.MutinyWorkflowServiceStub stub() {
+        checkClosed();
+        return stub.withDeadlineAfter(config.timeout().toMillis(), TimeUnit.MILLISECONDS);
+    }
 
     @Override
     public Uni<RunResponse> createRun(CreateRunRequest request) {
-        checkClosed();
-        return null;
+        return stub().createRun(toProto(request)).map(this::toRunResponse);
     }
 
     @Override
     public Uni<RunResponse> getRun(String runId) {
-        checkClosed();
-        return null;
+        return runLookups.get(runId, () -> stub().getRun(GetRunRequest.newBuilder()
+                .setTenantId(config.tenantId())
+                .setRunId(runId)
+                .build())
+                .map(this::toRunResponse));
     }
 
     @Override
     public Uni<RunResponse> startRun(String runId) {
-        checkClosed();
-        return null;
+        return stub().startRun(StartRunRequest.newBuilder()
+                .setTenantId(config.tenantId())
+                .setRunId(runId)
+                .build())
+                .map(this::toRunResponse);
     }
 
     @Override
     public Uni<RunResponse> suspendRun(String runId, String reason, String waitingOnNodeId) {
-        checkClosed();
-        return null;
+        SuspendRunRequest.Builder request = SuspendRunRequest.newBuilder()
+                .setTenantId(config.tenantId())
+                .setRunId(runId);
+        if (reason != null) {
+            request.setReason(reason);
+        }
+        if (waitingOnNodeId != null) {
+            request.setWaitingOnNodeId(waitingOnNodeId);
+        }
+        return stub().suspendRun(request.build()).map(this::toRunResponse);
     }
 
     @Override
     public Uni<RunResponse> resumeRun(String runId, Map<String, Object> resumeData, String humanTaskId) {
-        checkClosed();
-        return null;
+        ResumeRunRequest.Builder request = ResumeRunRequest.newBuilder()
+                .setTenantId(config.tenantId())
+                .setRunId(runId)
+                .setResumeData(toStruct(resumeData));
+        if (humanTaskId != null) {
+            request.setHumanTaskId(humanTaskId);
+        }
+        return stub().resumeRun(request.build()).map(this::toRunResponse);
     }
 
     @Override
     public Uni<Void> cancelRun(String runId, String reason) {
-        checkClosed();
-        return null;
+        CancelRunRequest.Builder request = CancelRunRequest.newBuilder()
+                .setTenantId(config.tenantId())
+                .setRunId(runId);
+        if (reason != null) {
+            request.setReason(reason);
+        }
+        return stub().cancelRun(request.build()).replaceWithVoid();
     }
 
     @Override
     public Uni<Void> signal(String runId, String signalName, String targetNodeId, Map<String, Object> payload) {
-        checkClosed();
-        return null;
+        SignalRequest.Builder request = SignalRequest.newBuilder()
+                .setRunId(runId)
+                .setPayload(toStruct(payload));
+        if (signalName != null) {
+            request.setSignalName(signalName);
+        }
+        if (targetNodeId != null) {
+            request.setTargetNodeId(targetNodeId);
+        }
+        return stub().signalRun(request.build()).replaceWithVoid();
     }
 
     @Override
@@ -81,20 +174,158 @@ class GrpcWorkflowRunClient implements WorkflowRunClient {
 
     @Override
     public Uni<List<RunResponse>> queryRuns(String workflowId, String status, int page, int size) {
-        checkClosed();
-        return null;
+        QueryRunsRequest.Builder request = QueryRunsRequest.newBuilder()
+                .setTenantId(config.tenantId())
+                .setPage(page)
+                .setSize(size);
+        if (workflowId != null) {
+            request.setWorkflowDefinitionId(workflowId);
+        }
+        if (status != null) {
+            request.setStatus(status);
+        }
+        return stub().queryRuns(request.build())
+                .map(response -> response.getRunsList().stream().map(this::toRunResponse).toList());
     }
 
     @Override
     public Uni<Long> getActiveRunsCount() {
+        return stub().getActiveRunsCount(GetActiveRunsCountRequest.newBuilder()
+                .setTenantId(config.tenantId())
+                .build())
+                .map(response -> response.getCount());
+    }
+
+    // ==================== AWAIT ====================
+
+    /**
+     * There is no await RPC, so this follows the run with a watch
+     */
+    @Override
+    public Uni<RunResponse> createAndAwait(CreateRunRequest request, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        return createRun(request)
+                .chain(run -> watcher.awaitTerminal(run.getRunId(),
+                        Duration.ofNanos(Math.max(deadline - System.nanoTime(), 1))));
+    }
+
+    @Override
+    public Uni<RunResponse> awaitResult(String runId, Duration timeout) {
+        return watcher.awaitTerminal(runId, timeout);
+    }
+
+    // ==================== BULK ====================
+
+    /**
+     * Streams all requests on one call; the server inserts them in batches
+     */
+    @Override
+    public Uni<List<CreateRunResult>> createRuns(List<CreateRunRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            return Uni.createFrom().item(List.of());
+        }
         checkClosed();
-        return null;
+        return stub.createRuns(Multi.createFrom().iterable(requests).map(this::toProto))
+                .map(response -> response.getResultsList().stream()
+                        .map(result -> new CreateRunResult(
+                                result.getIndex(),
+                                result.getRunId().isEmpty() ? null : result.getRunId(),
+                                toStatus(result.getStatus()),
+                                result.getError().isEmpty() ? null : result.getError()))
+                        .toList());
+    }
+
+    @Override
+    public Uni<List<RunOperationResult>> signalMany(
+            List<String> runIds, String signalName, String targetNodeId, Map<String, Object> payload) {
+        return BulkRequests.perRun(runIds, config.maxConcurrentRequests(),
+                runId -> signal(runId, signalName, targetNodeId, payload));
+    }
+
+    @Override
+    public Uni<List<RunOperationResult>> cancelMany(List<String> runIds, String reason) {
+        return BulkRequests.perRun(runIds, config.maxConcurrentRequests(), runId -> cancelRun(runId, reason));
+    }
+
+    // ==================== WATCH ====================
+
+    @Override
+    public Multi<RunStatusUpdate> watchRun(String runId) {
+        return watcher.watch(runId);
+    }
+
+    @Override
+    public Multi<RunStatusUpdate> watchRuns(RunFilter filter) {
+        return watcher.watch(filter);
+    }
+
+    // ==================== MAPPING ====================
+
+    private tech.kayys.silat.grpc.v1.CreateRunRequest toProto(CreateRunRequest request) {
+        var builder = tech.kayys.silat.grpc.v1.CreateRunRequest.newBuilder()
+                .setTenantId(config.tenantId())
+                .setWorkflowDefinitionId(request.getWorkflowId())
+                .setAutoStart(request.isAutoStart());
+        if (PayloadCodec.exceeds(request.getInputs(), BINARY_PAYLOAD_THRESHOLD)) {
+            builder.setInputsBin(PAYLOADS.encode(request.getInputs()));
+        } else {
+            builder.setInputs(toStruct(request.getInputs()));
+        }
+        return builder.build();
+    }
+
+    private RunResponse toRunResponse(tech.kayys.silat.grpc.v1.RunResponse proto) {
+        RunStatus status = toStatus(proto.getStatus());
+        return RunResponse.builder()
+                .runId(proto.getRunId())
+                .workflowId(proto.getWorkflowDefinitionId())
+                .workflowVersion(proto.getWorkflowVersion())
+                .status(status != null ? status.name() : null)
+                .createdAt(proto.hasCreatedAt() ? toInstant(proto.getCreatedAt()) : null)
+                .startedAt(proto.hasStartedAt() ? toInstant(proto.getStartedAt()) : null)
+                .completedAt(proto.hasCompletedAt() ? toInstant(proto.getCompletedAt()) : null)
+                .durationMs(proto.getDurationMs() > 0 ? proto.getDurationMs() : null)
+                .outputs(!proto.getVariablesBin().isEmpty() ? PAYLOADS.decode(proto.getVariablesBin())
+                        : proto.hasVariables() ? toMap(proto.getVariables()) : null)
+                .build();
+    }
+
+    private static RunStatus toStatus(tech.kayys.silat.grpc.v1.RunStatus status) {
+        String name = status.name();
+        if (!name.startsWith(STATUS_PREFIX) || status == tech.kayys.silat.grpc.v1.RunStatus.RUN_STATUS_UNSPECIFIED) {
+            return null;
+        }
+        return RunStatus.valueOf(name.substring(STATUS_PREFIX.length()));
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return Instant.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos());
+    }
+
+    private static Struct toStruct(Map<String, Object> map) {
+        try {
+            return STRUCTS.toStruct(map);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cannot convert to a protobuf Struct: " + e.getMessage(), e);
+        }
+    }
+
+    private static Map<String, Object> toMap(Struct struct) {
+        return STRUCTS.toMap(struct);
     }
 
     @Override
     public void close() {
         if (closed.compareAndSet(false, true)) {
-            // Close gRPC resources if needed
+            channel.shutdown();
+            try {
+                if (!channel.awaitTermination(5, TimeUnit.SECONDS)) {
+                    channel.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                channel.shutdownNow();
+            }
         }
     }
 
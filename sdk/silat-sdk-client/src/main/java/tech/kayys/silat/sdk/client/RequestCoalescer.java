@@ -0,0 +1,26 @@
+package tech.kayys.silat.sdk.client;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Shares one in-flight request between concurrent callers asking for the
+ * same key, e.g. many watchers of the same run
+ */
+final class RequestCoalescer<K, V> {
+
+    private final Map<K, Uni<V>> inFlight = new ConcurrentHashMap<>();
+
+    Uni<V> get(K key, Supplier<Uni<V>> request) {
+        return Uni.createFrom().deferred(() -> inFlight.computeIfAbsent(key, k -> request.get()
+                .onTermination().invoke(() -> inFlight.remove(k))
+                .memoize().indefinitely()));
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+}
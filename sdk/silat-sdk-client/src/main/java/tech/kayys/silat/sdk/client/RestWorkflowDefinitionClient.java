@@ -29,10 +29,6 @@ public class RestWorkflowDefinitionClient implements WorkflowDefinitionClient {
         this.config = config;
         this.vertx = vertx;
 
-        System.out.println("RestWorkflowDefinitionClient initialized with endpoint: '" + config.endpoint() + "'");
-        System.out.println("Host: " + getHostFromEndpoint(config.endpoint()));
-        System.out.println("Port: " + getPortFromEndpoint(config.endpoint()));
-
         // Use proper configuration
         WebClientOptions options = new WebClientOptions()
                 .setDefaultHost(getHostFromEndpoint(config.endpoint()))
@@ -1,35 +1,66 @@
 package tech.kayys.silat.sdk.client;
 
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.WebClientOptions;
+import io.vertx.mutiny.core.buffer.Buffer;
+import io.vertx.mutiny.ext.web.client.HttpRequest;
+import io.vertx.mutiny.ext.web.client.HttpResponse;
+import io.vertx.mutiny.ext.web.client.WebClient;
 import tech.kayys.silat.model.RunResponse;
 import tech.kayys.silat.model.CreateRunRequest;
+import tech.kayys.silat.model.CreateRunResult;
+import tech.kayys.silat.model.RunStatus;
 import tech.kayys.silat.execution.ExecutionHistory;
+
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Map;
 import java.util.List;
 
 /**
  * REST-based workflow run client
+ *
+ * All calls share one pooled web client; with HTTP/2 enabled they are
+ * multiplexed over at most {@link SilatClientConfig#maxConnections()}
+ * connections. Concurrent lookups of the same run share one request.
  */
 public class RestWorkflowRunClient implements WorkflowRunClient {
 
+    private static final String RUNS_PATH = "/api/v1/workflow-runs";
+
     private final SilatClientConfig config;
     private final io.vertx.mutiny.core.Vertx vertx;
-    private final io.vertx.mutiny.ext.web.client.WebClient webClient;
+    private final WebClient webClient;
+    private final RequestCoalescer<String, RunResponse> runLookups = new RequestCoalescer<>();
+    private final RunStatusWatcher watcher;
 
     RestWorkflowRunClient(SilatClientConfig config, io.vertx.mutiny.core.Vertx vertx) {
         this.config = config;
         this.vertx = vertx;
 
-        System.out.println("RestWorkflowRunClient initialized with endpoint: '" + config.endpoint() + "'");
-        System.out.println("Host: " + getHostFromEndpoint(config.endpoint()));
-        System.out.println("Port: " + getPortFromEndpoint(config.endpoint()));
-
-        io.vertx.ext.web.client.WebClientOptions options = new io.vertx.ext.web.client.WebClientOptions()
+        boolean ssl = config.endpoint().toLowerCase().startsWith("https");
+        WebClientOptions options = new WebClientOptions()
                 .setDefaultHost(getHostFromEndpoint(config.endpoint()))
                 .setDefaultPort(getPortFromEndpoint(config.endpoint()))
-                .setSsl(config.endpoint().toLowerCase().startsWith("https"));
+                .setSsl(ssl)
+                .setConnectTimeout((int) config.timeout().toMillis())
+                .setKeepAlive(true)
+                .setKeepAliveTimeout((int) config.keepAlive().toSeconds())
+                .setMaxPoolSize(config.maxConnections());
+        if (config.http2()) {
+            options.setProtocolVersion(HttpVersion.HTTP_2)
+                    .setUseAlpn(ssl)
+                    .setHttp2ClearTextUpgrade(false)
+                    .setHttp2MaxPoolSize(config.maxConnections())
+                    .setHttp2KeepAliveTimeout((int) config.keepAlive().toSeconds());
+        }
 
-        this.webClient = io.vertx.mutiny.ext.web.client.WebClient.create(vertx, options);
+        this.webClient = WebClient.create(vertx, options);
+        this.watcher = new RunStatusWatcher(this, config.pollInterval());
     }
 
     private String getHostFromEndpoint(String endpoint) {
@@ -61,61 +92,23 @@ public class RestWorkflowRunClient implements WorkflowRunClient {
 
     @Override
     public Uni<RunResponse> createRun(CreateRunRequest request) {
-        return webClient.post("/api/v1/workflow-runs")
-                .putHeader("X-Tenant-ID", config.tenantId())
-                // .putHeader("Authorization", "Bearer " + config.apiKey())
+        return withHeaders(webClient.post(RUNS_PATH))
                 .sendJson(request)
-                .map(response -> {
-                    System.out.println("RestWorkflowRunClient: createRun response status: " + response.statusCode());
-                    System.out.println("RestWorkflowRunClient: createRun response body: " + response.bodyAsString());
-
-                    io.vertx.core.json.JsonObject json = response.bodyAsJsonObject();
-                    if (json == null) {
-                        System.out.println("RestWorkflowRunClient: JSON is null!");
-                        return null;
-                    }
-
-                    Object idObj = json.getValue("id");
-                    String runId = (idObj instanceof io.vertx.core.json.JsonObject)
-                            ? ((io.vertx.core.json.JsonObject) idObj).getString("value")
-                            : (String) idObj;
-
-                    Object defIdObj = json.getValue("definitionId");
-                    String workflowId = (defIdObj instanceof io.vertx.core.json.JsonObject)
-                            ? ((io.vertx.core.json.JsonObject) defIdObj).getString("value")
-                            : (json.getString("workflowId") != null ? json.getString("workflowId") : (String) defIdObj);
-
-                    RunResponse runResponse = RunResponse.builder()
-                            .runId(runId)
-                            .status(json.getString("status"))
-                            .workflowId(workflowId)
-                            .build();
-
-                    System.out.println("RestWorkflowRunClient: Mapped RunResponse: id=" + runResponse.getRunId());
-                    return runResponse;
-                });
+                .map(response -> toRunResponse(successBody(response, "create run").toJsonObject()));
     }
 
-    // Implement other methods similarly...
-
     @Override
     public Uni<RunResponse> getRun(String runId) {
-        return webClient.get("/api/v1/workflow-runs/" + runId)
-                .putHeader("X-Tenant-ID", config.tenantId())
-                .putHeader("Authorization", "Bearer " + config.apiKey())
+        return runLookups.get(runId, () -> withHeaders(webClient.get(RUNS_PATH + "/" + runId))
                 .send()
-                .map(response -> response.bodyAsJson(RunResponse.class));
+                .map(response -> toRunResponse(successBody(response, "get run " + runId).toJsonObject())));
     }
 
-    // ... (other methods)
-
     @Override
     public Uni<RunResponse> startRun(String runId) {
-        return webClient.post("/api/v1/workflow-runs/" + runId + "/start")
-                .putHeader("X-Tenant-ID", config.tenantId())
-                .putHeader("Authorization", "Bearer " + config.apiKey())
+        return withHeaders(webClient.post(RUNS_PATH + "/" + runId + "/start"))
                 .send()
-                .map(response -> response.bodyAsJson(RunResponse.class));
+                .map(response -> toRunResponse(successBody(response, "start run " + runId).toJsonObject()));
     }
 
     @Override
@@ -130,26 +123,55 @@ public class RestWorkflowRunClient implements WorkflowRunClient {
 
     @Override
     public Uni<Void> cancelRun(String runId, String reason) {
-        return null;
+        JsonObject body = new JsonObject();
+        if (reason != null) {
+            body.put("reason", reason);
+        }
+        return withHeaders(webClient.post(RUNS_PATH + "/" + runId + "/cancel"))
+                .sendJsonObject(body)
+                .invoke(response -> successBody(response, "cancel run " + runId))
+                .replaceWithVoid();
     }
 
     @Override
     public Uni<Void> signal(String runId, String signalName, String targetNodeId, Map<String, Object> payload) {
-        return null;
+        JsonObject body = new JsonObject()
+                .put("signalName", signalName)
+                .put("targetNodeId", targetNodeId)
+                .put("payload", payload != null ? payload : Map.of());
+        return withHeaders(webClient.post(RUNS_PATH + "/" + runId + "/signal"))
+                .sendJsonObject(body)
+                .invoke(response -> successBody(response, "signal run " + runId))
+                .replaceWithVoid();
     }
 
     @Override
     public Uni<ExecutionHistory> getExecutionHistory(String runId) {
-        return webClient.get("/api/v1/workflow-runs/" + runId + "/history")
-                .putHeader("X-Tenant-ID", config.tenantId())
-                .putHeader("Authorization", "Bearer " + config.apiKey())
+        return withHeaders(webClient.get(RUNS_PATH + "/" + runId + "/history"))
                 .send()
                 .map(response -> response.bodyAsJson(ExecutionHistory.class));
     }
 
     @Override
     public Uni<List<RunResponse>> queryRuns(String workflowId, String status, int page, int size) {
-        return null;
+        HttpRequest<Buffer> request = withHeaders(webClient.get(RUNS_PATH))
+                .addQueryParam("page", String.valueOf(page))
+                .addQueryParam("size", String.valueOf(size));
+        if (workflowId != null) {
+            request.addQueryParam("definitionId", workflowId);
+        }
+        if (status != null) {
+            request.addQueryParam("status", status);
+        }
+        return request.send()
+                .map(response -> {
+                    JsonArray runs = successBody(response, "query runs").toJsonArray();
+                    List<RunResponse> result = new ArrayList<>(runs.size());
+                    for (int i = 0; i < runs.size(); i++) {
+                        result.add(toRunResponse(runs.getJsonObject(i)));
+                    }
+                    return result;
+                });
     }
 
     @Override
@@ -157,6 +179,145 @@ public class RestWorkflowRunClient implements WorkflowRunClient {
         return null;
     }
 
+    // ==================== AWAIT ====================
+
+    /**
+     * The server holds the create request until the run finishes; if it
+     * answers 202 first (its wait is capped), the result is long-polled
+     * until the timeout
+     */
+    @Override
+    public Uni<RunResponse> createAndAwait(CreateRunRequest request, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        return withHeaders(webClient.post(RUNS_PATH))
+                .addQueryParam("wait", timeout.toMillis() + "ms")
+                .sendJson(request)
+                .chain(response -> {
+                    RunResponse run = toRunResponse(successBody(response, "create run").toJsonObject());
+                    return response.statusCode() == 202 ? pollResult(run, deadline) : Uni.createFrom().item(run);
+                });
+    }
+
+    @Override
+    public Uni<RunResponse> awaitResult(String runId, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        return pollResult(RunResponse.builder().runId(runId).build(), deadline);
+    }
+
+    private Uni<RunResponse> pollResult(RunResponse latest, long deadline) {
+        long remainingMillis = Duration.ofNanos(deadline - System.nanoTime()).toMillis();
+        if (remainingMillis <= 0 && latest.getStatus() != null) {
+            return Uni.createFrom().item(latest);
+        }
+        String runId = latest.getRunId();
+        return withHeaders(webClient.get(RUNS_PATH + "/" + runId + "/result"))
+                .addQueryParam("timeout", Math.max(remainingMillis, 0) + "ms")
+                .send()
+                .chain(response -> {
+                    RunResponse run = toRunResponse(successBody(response, "await run " + runId).toJsonObject());
+                    return response.statusCode() == 202 && System.nanoTime() < deadline
+                            ? pollResult(run, deadline)
+                            : Uni.createFrom().item(run);
+                });
+    }
+
+    // ==================== BULK ====================
+
+    @Override
+    public Uni<List<CreateRunResult>> createRuns(List<CreateRunRequest> requests) {
+        return BulkRequests.inBatches(requests, config.batchSize(), config.maxConcurrentRequests(),
+                batch -> withHeaders(webClient.post(RUNS_PATH + "/bulk"))
+                        .sendJson(batch)
+                        .map(response -> {
+                            JsonArray results = successBody(response, "create runs").toJsonArray();
+                            List<CreateRunResult> mapped = new ArrayList<>(results.size());
+                            for (int i = 0; i < results.size(); i++) {
+                                mapped.add(toCreateRunResult(results.getJsonObject(i)));
+                            }
+                            return mapped;
+                        }));
+    }
+
+    @Override
+    public Uni<List<RunOperationResult>> signalMany(
+            List<String> runIds, String signalName, String targetNodeId, Map<String, Object> payload) {
+        return BulkRequests.perRun(runIds, config.maxConcurrentRequests(),
+                runId -> signal(runId, signalName, targetNodeId, payload));
+    }
+
+    @Override
+    public Uni<List<RunOperationResult>> cancelMany(List<String> runIds, String reason) {
+        return BulkRequests.perRun(runIds, config.maxConcurrentRequests(), runId -> cancelRun(runId, reason));
+    }
+
+    // ==================== WATCH ====================
+
+    @Override
+    public Multi<RunStatusUpdate> watchRun(String runId) {
+        return watcher.watch(runId);
+    }
+
+    @Override
+    public Multi<RunStatusUpdate> watchRuns(RunFilter filter) {
+        return watcher.watch(filter);
+    }
+
+    // ==================== MAPPING ====================
+
+    private <T> HttpRequest<T> withHeaders(HttpRequest<T> request) {
+        request.putHeader("X-Tenant-ID", config.tenantId());
+        if (config.apiKey() != null) {
+            request.putHeader("Authorization", "Bearer " + config.apiKey());
+        }
+        config.headers().forEach(request::putHeader);
+        return request;
+    }
+
+    private static Buffer successBody(HttpResponse<Buffer> response, String operation) {
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("Failed to " + operation + ": [" + response.statusCode() + "] "
+                    + response.bodyAsString());
+        }
+        Buffer body = response.body();
+        return body != null ? body : Buffer.buffer();
+    }
+
+    // Runs come back as the engine's WorkflowRun, whose ids are value objects
+    private static RunResponse toRunResponse(JsonObject json) {
+        if (json == null) {
+            return null;
+        }
+        String workflowId = json.getString("workflowId") != null
+                ? json.getString("workflowId")
+                : idValue(json.getValue("definitionId"));
+        String runId = idValue(json.getValue("id"));
+        return RunResponse.builder()
+                .runId(runId != null ? runId : json.getString("runId"))
+                .status(json.getString("status"))
+                .workflowId(workflowId)
+                .build();
+    }
+
+    private static String idValue(Object id) {
+        if (id instanceof JsonObject object) {
+            return object.getString("value");
+        }
+        if (id instanceof Map<?, ?> map) {
+            Object value = map.get("value");
+            return value != null ? value.toString() : null;
+        }
+        return id != null ? id.toString() : null;
+    }
+
+    private static CreateRunResult toCreateRunResult(JsonObject json) {
+        String status = json.getString("status");
+        return new CreateRunResult(
+                json.getInteger("index", 0),
+                json.getString("runId"),
+                status != null ? RunStatus.valueOf(status) : null,
+                json.getString("error"));
+    }
+
     @Override
     public void close() {
         if (webClient != null) {
@@ -0,0 +1,40 @@
+package tech.kayys.silat.sdk.client;
+
+import java.util.Set;
+
+/**
+ * Selects the runs to watch
+ *
+ * With run ids the watch completes once all of them have finished;
+ * otherwise it follows the matching runs until cancelled.
+ *
+ * @param workflowId workflow definition id, or null for any
+ * @param status     current status, or null for any
+ * @param runIds     explicit run ids, or empty
+ * @param limit      runs fetched per refresh when not watching explicit ids
+ */
+public record RunFilter(String workflowId, String status, Set<String> runIds, int limit) {
+
+    public RunFilter {
+        runIds = runIds != null ? Set.copyOf(runIds) : Set.of();
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+    }
+
+    public static RunFilter runs(Set<String> runIds) {
+        return new RunFilter(null, null, runIds, 100);
+    }
+
+    public static RunFilter workflow(String workflowId) {
+        return new RunFilter(workflowId, null, Set.of(), 100);
+    }
+
+    public RunFilter withStatus(String status) {
+        return new RunFilter(workflowId, status, runIds, limit);
+    }
+
+    public RunFilter withLimit(int limit) {
+        return new RunFilter(workflowId, status, runIds, limit);
+    }
+}
@@ -0,0 +1,23 @@
+package tech.kayys.silat.sdk.client;
+
+/**
+ * Outcome of one run in a bulk signal or cancel
+ *
+ * @param runId run id
+ * @param error failure message, or null on success
+ */
+public record RunOperationResult(String runId, String error) {
+
+    public static RunOperationResult succeeded(String runId) {
+        return new RunOperationResult(runId, null);
+    }
+
+    public static RunOperationResult failed(String runId, Throwable error) {
+        String message = error.getMessage();
+        return new RunOperationResult(runId, message != null ? message : error.getClass().getSimpleName());
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
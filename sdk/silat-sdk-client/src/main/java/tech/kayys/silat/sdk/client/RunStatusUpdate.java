@@ -0,0 +1,40 @@
+package tech.kayys.silat.sdk.client;
+
+import java.time.Instant;
+
+import tech.kayys.silat.model.RunStatus;
+
+/**
+ * A status change of a watched workflow run
+ *
+ * @param runId          run id
+ * @param workflowId     workflow definition id, when known
+ * @param status         new status
+ * @param previousStatus status seen before, or null for the first update
+ * @param timestamp      when the change was observed
+ */
+public record RunStatusUpdate(
+        String runId,
+        String workflowId,
+        String status,
+        String previousStatus,
+        Instant timestamp) {
+
+    /**
+     * Whether the run has finished and no further updates will follow
+     */
+    public boolean isTerminal() {
+        return isTerminal(status);
+    }
+
+    static boolean isTerminal(String status) {
+        if (status == null) {
+            return false;
+        }
+        try {
+            return RunStatus.valueOf(status).isTerminal();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package tech.kayys.silat.sdk.client;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import tech.kayys.silat.model.RunResponse;
+
+/**
+ * Turns periodic run lookups into a stream of status changes
+ *
+ * Lookups go through the client's coalesced {@code getRun}, so any number
+ * of watchers of one run cost one request per interval.
+ */
+final class RunStatusWatcher {
+
+    private final WorkflowRunClient client;
+    private final Duration interval;
+
+    RunStatusWatcher(WorkflowRunClient client, Duration interval) {
+        this.client = client;
+        this.interval = interval;
+    }
+
+    Multi<RunStatusUpdate> watch(String runId) {
+        Objects.requireNonNull(runId, "Run ID cannot be null");
+        AtomicReference<String> last = new AtomicReference<>();
+        return Multi.createBy().repeating()
+                .uni(() -> client.getRun(runId))
+                .withDelay(interval)
+                // Emits the run that fails the check, i.e. the terminal one
+                .whilst(run -> !RunStatusUpdate.isTerminal(run.getStatus()))
+                .filter(run -> run.getStatus() != null && !run.getStatus().equals(last.get()))
+                .map(run -> new RunStatusUpdate(
+                        runId, run.getWorkflowId(), run.getStatus(), last.getAndSet(run.getStatus()), Instant.now()));
+    }
+
+    /**
+     * The run once it has finished, or as it is when the timeout elapses
+     */
+    Uni<RunResponse> awaitTerminal(String runId, Duration timeout) {
+        return watch(runId)
+                .collect().last()
+                .ifNoItem().after(timeout).recoverWithItem((RunStatusUpdate) null)
+                .chain(() -> client.getRun(runId));
+    }
+
+    Multi<RunStatusUpdate> watch(RunFilter filter) {
+        Objects.requireNonNull(filter, "Filter cannot be null");
+        if (!filter.runIds().isEmpty()) {
+            return Multi.createBy().merging()
+                    .streams(filter.runIds().stream().map(this::watch).toList());
+        }
+
+        Map<String, String> last = new ConcurrentHashMap<>();
+        return Multi.createBy().repeating()
+                .uni(() -> client.queryRuns(filter.workflowId(), filter.status(), 0, filter.limit()))
+                .withDelay(interval)
+                .indefinitely()
+                .onItem().transformToIterable(runs -> changes(runs, last));
+    }
+
+    private static List<RunStatusUpdate> changes(List<RunResponse> runs, Map<String, String> last) {
+        List<RunStatusUpdate> updates = new ArrayList<>();
+        Instant now = Instant.now();
+        for (RunResponse run : runs) {
+            if (run.getRunId() == null || run.getStatus() == null) {
+                continue;
+            }
+            String previous = last.put(run.getRunId(), run.getStatus());
+            if (!run.getStatus().equals(previous)) {
+                updates.add(new RunStatusUpdate(run.getRunId(), run.getWorkflowId(), run.getStatus(), previous, now));
+            }
+        }
+        return updates;
+    }
+}
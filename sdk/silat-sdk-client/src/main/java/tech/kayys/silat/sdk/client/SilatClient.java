@@ -4,6 +4,10 @@ import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import io.smallrye.mutiny.Uni;
+import tech.kayys.silat.model.CreateRunRequest;
+import tech.kayys.silat.model.RunResponse;
+
 /**
  * ============================================================================
  * SILAT CLIENT SDK
@@ -53,6 +57,7 @@ public class SilatClient implements AutoCloseable {
         private TransportType transport = TransportType.REST;
         private Duration timeout = Duration.ofSeconds(30);
         private Map<String, String> headers = new HashMap<>();
+        private final SilatClientConfig.Builder tuning = SilatClientConfig.builder();
 
         public Builder restEndpoint(String endpoint) {
             this.endpoint = endpoint;
@@ -86,8 +91,31 @@ public class SilatClient implements AutoCloseable {
             return this;
         }
 
+        /**
+         * REST connections per host; gRPC multiplexes on a single channel
+         */
+        public Builder maxConnections(int maxConnections) {
+            this.tuning.maxConnections(maxConnections);
+            return this;
+        }
+
+        public Builder http2(boolean http2) {
+            this.tuning.http2(http2);
+            return this;
+        }
+
+        public Builder maxConcurrentRequests(int maxConcurrentRequests) {
+            this.tuning.maxConcurrentRequests(maxConcurrentRequests);
+            return this;
+        }
+
+        public Builder pollInterval(Duration pollInterval) {
+            this.tuning.pollInterval(pollInterval);
+            return this;
+        }
+
         public SilatClient build() {
-            SilatClientConfig config = SilatClientConfig.builder()
+            SilatClientConfig config = tuning
                     .endpoint(endpoint)
                     .tenantId(tenantId)
                     .apiKey(apiKey)
@@ -118,6 +146,16 @@ public class SilatClient implements AutoCloseable {
         return new WorkflowDefinitionOperations(definitionClient);
     }
 
+    /**
+     * Create a run and wait for it to finish, returning it in its latest
+     * state when the timeout elapses first. Over REST the server holds the
+     * request open instead of being polled.
+     */
+    public Uni<RunResponse> createAndAwait(CreateRunRequest request, Duration timeout) {
+        checkClosed();
+        return runClient.createAndAwait(request, timeout);
+    }
+
     private void checkClosed() {
         if (closed.get()) {
             throw new IllegalStateException("SilatClient is closed");
@@ -17,15 +17,29 @@ public final class SilatClientConfig {
     private final TransportType transport;
     private final Duration timeout;
     private final Map<String, String> headers;
+    private final int maxConnections;
+    private final boolean http2;
+    private final int maxConcurrentRequests;
+    private final Duration keepAlive;
+    private final Duration pollInterval;
+    private final int batchSize;
 
     private SilatClientConfig(String endpoint, String tenantId, String apiKey,
-            TransportType transport, Duration timeout, Map<String, String> headers) {
+            TransportType transport, Duration timeout, Map<String, String> headers,
+            int maxConnections, boolean http2, int maxConcurrentRequests,
+            Duration keepAlive, Duration pollInterval, int batchSize) {
         this.endpoint = endpoint;
         this.tenantId = tenantId;
         this.apiKey = apiKey;
         this.transport = transport;
         this.timeout = timeout;
         this.headers = headers != null ? Collections.unmodifiableMap(headers) : Map.of();
+        this.maxConnections = maxConnections;
+        this.http2 = http2;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.keepAlive = keepAlive;
+        this.pollInterval = pollInterval;
+        this.batchSize = batchSize;
     }
 
     // Getters
@@ -53,6 +67,50 @@ public final class SilatClientConfig {
         return headers;
     }
 
+    /**
+     * Connections kept per host by the REST transport. With HTTP/2 each
+     * connection multiplexes many requests; gRPC always uses one channel.
+     */
+    public int maxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * Whether the REST transport talks HTTP/2
+     */
+    public boolean http2() {
+        return http2;
+    }
+
+    /**
+     * Upper bound on requests a bulk operation keeps in flight
+     */
+    public int maxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    /**
+     * Idle time before a keep-alive ping (gRPC) or before an idle pooled
+     * connection is closed (REST)
+     */
+    public Duration keepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * Interval at which watched runs are refreshed
+     */
+    public Duration pollInterval() {
+        return pollInterval;
+    }
+
+    /**
+     * Runs sent per request by bulk creation
+     */
+    public int batchSize() {
+        return batchSize;
+    }
+
     public static Builder builder() {
         return new Builder();
     }
@@ -73,6 +131,12 @@ public final class SilatClientConfig {
         private TransportType transport = TransportType.REST;
         private Duration timeout = Duration.ofSeconds(30);
         private Map<String, String> headers = new java.util.HashMap<>();
+        private int maxConnections = 8;
+        private boolean http2;
+        private int maxConcurrentRequests = 64;
+        private Duration keepAlive = Duration.ofSeconds(60);
+        private Duration pollInterval = Duration.ofSeconds(1);
+        private int batchSize = 500;
 
         public Builder endpoint(String endpoint) {
             this.endpoint = endpoint;
@@ -109,11 +173,43 @@ public final class SilatClientConfig {
             return this;
         }
 
+        public Builder maxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        public Builder http2(boolean http2) {
+            this.http2 = http2;
+            return this;
+        }
+
+        public Builder maxConcurrentRequests(int maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+            return this;
+        }
+
+        public Builder keepAlive(Duration keepAlive) {
+            this.keepAlive = keepAlive;
+            return this;
+        }
+
+        public Builder pollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+            return this;
+        }
+
+        public Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
         public SilatClientConfig build() {
             Objects.requireNonNull(endpoint, "Endpoint cannot be null");
             Objects.requireNonNull(tenantId, "Tenant ID cannot be null");
             Objects.requireNonNull(transport, "Transport type cannot be null");
             Objects.requireNonNull(timeout, "Timeout cannot be null");
+            Objects.requireNonNull(keepAlive, "Keep-alive cannot be null");
+            Objects.requireNonNull(pollInterval, "Poll interval cannot be null");
 
             if (endpoint.trim().isEmpty()) {
                 throw new IllegalArgumentException("Endpoint cannot be empty");
@@ -127,8 +223,24 @@ public final class SilatClientConfig {
             if (apiKey != null && apiKey.trim().isEmpty()) {
                 throw new IllegalArgumentException("API key cannot be empty when provided");
             }
+            if (maxConnections < 1) {
+                throw new IllegalArgumentException("Max connections must be at least 1");
+            }
+            if (maxConcurrentRequests < 1) {
+                throw new IllegalArgumentException("Max concurrent requests must be at least 1");
+            }
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("Batch size must be at least 1");
+            }
+            if (keepAlive.isNegative() || keepAlive.isZero()) {
+                throw new IllegalArgumentException("Keep-alive must be positive");
+            }
+            if (pollInterval.isNegative() || pollInterval.isZero()) {
+                throw new IllegalArgumentException("Poll interval must be positive");
+            }
 
-            return new SilatClientConfig(endpoint, tenantId, apiKey, transport, timeout, headers);
+            return new SilatClientConfig(endpoint, tenantId, apiKey, transport, timeout, headers,
+                    maxConnections, http2, maxConcurrentRequests, keepAlive, pollInterval, batchSize);
         }
 
         public Builder rest() {
@@ -1,10 +1,13 @@
 package tech.kayys.silat.sdk.client;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.List;
 
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import tech.kayys.silat.model.CreateRunRequest;
+import tech.kayys.silat.model.CreateRunResult;
 import tech.kayys.silat.model.RunResponse;
 import tech.kayys.silat.execution.ExecutionHistory;
 
@@ -32,6 +35,43 @@ interface WorkflowRunClient extends AutoCloseable {
 
     Uni<Long> getActiveRunsCount();
 
+    /**
+     * Create a run and wait until it finishes or the timeout elapses;
+     * returns the run in its latest state either way
+     */
+    Uni<RunResponse> createAndAwait(CreateRunRequest request, Duration timeout);
+
+    /**
+     * Wait until a run finishes or the timeout elapses
+     */
+    Uni<RunResponse> awaitResult(String runId, Duration timeout);
+
+    /**
+     * Create many runs; results are in request order
+     */
+    Uni<List<CreateRunResult>> createRuns(List<CreateRunRequest> requests);
+
+    /**
+     * Send the same signal to many runs; results are in request order
+     */
+    Uni<List<RunOperationResult>> signalMany(
+            List<String> runIds, String signalName, String targetNodeId, Map<String, Object> payload);
+
+    /**
+     * Cancel many runs; results are in request order
+     */
+    Uni<List<RunOperationResult>> cancelMany(List<String> runIds, String reason);
+
+    /**
+     * Status changes of a run, completing once it has finished
+     */
+    Multi<RunStatusUpdate> watchRun(String runId);
+
+    /**
+     * Status changes of all runs matching the filter
+     */
+    Multi<RunStatusUpdate> watchRuns(RunFilter filter);
+
     @Override
     void close();
 }
\ No newline at end of file
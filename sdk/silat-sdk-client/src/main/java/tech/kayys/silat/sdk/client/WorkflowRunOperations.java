@@ -1,6 +1,13 @@
 package tech.kayys.silat.sdk.client;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
+import tech.kayys.silat.model.CreateRunRequest;
+import tech.kayys.silat.model.CreateRunResult;
 import tech.kayys.silat.model.RunResponse;
 import tech.kayys.silat.execution.ExecutionHistory;
 
@@ -84,4 +91,49 @@ public class WorkflowRunOperations {
     public Uni<Long> getActiveCount() {
         return client.getActiveRunsCount();
     }
+
+    /**
+     * Wait for a run to finish; returns it in its latest state when the
+     * timeout elapses first
+     */
+    public Uni<RunResponse> awaitResult(String runId, Duration timeout) {
+        return client.awaitResult(runId, timeout);
+    }
+
+    /**
+     * Create many runs in as few requests as possible; one result per
+     * request, in order
+     */
+    public Uni<List<CreateRunResult>> createMany(List<CreateRunRequest> requests) {
+        return client.createRuns(requests);
+    }
+
+    /**
+     * Send the same signal to many runs
+     */
+    public Uni<List<RunOperationResult>> signalMany(
+            List<String> runIds, String signalName, String targetNodeId, Map<String, Object> payload) {
+        return client.signalMany(runIds, signalName, targetNodeId, payload);
+    }
+
+    /**
+     * Cancel many runs
+     */
+    public Uni<List<RunOperationResult>> cancelMany(List<String> runIds, String reason) {
+        return client.cancelMany(runIds, reason);
+    }
+
+    /**
+     * Follow a run's status changes until it finishes
+     */
+    public Multi<RunStatusUpdate> watch(String runId) {
+        return client.watchRun(runId);
+    }
+
+    /**
+     * Follow the status changes of the runs matching a filter
+     */
+    public Multi<RunStatusUpdate> watch(RunFilter filter) {
+        return client.watchRuns(filter);
+    }
 }
@@ -0,0 +1,164 @@
+package tech.kayys.silat.sdk.client;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tech.kayys.silat.model.CreateRunRequest;
+import tech.kayys.silat.model.CreateRunResult;
+import tech.kayys.silat.model.RunResponse;
+import tech.kayys.silat.model.RunStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RestWorkflowRunClientTest {
+
+        private WireMockServer wireMockServer;
+        private RestWorkflowRunClient client;
+
+        @BeforeEach
+        void setUp() {
+                wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+                wireMockServer.start();
+                WireMock.configureFor("localhost", wireMockServer.port());
+
+                SilatClientConfig config = SilatClientConfig.builder()
+                                .endpoint("http://localhost:" + wireMockServer.port())
+                                .tenantId("test-tenant")
+                                .apiKey("test-api-key")
+                                .batchSize(2)
+                                .pollInterval(Duration.ofMillis(20))
+                                .build();
+                client = new RestWorkflowRunClient(config, io.vertx.mutiny.core.Vertx.vertx());
+        }
+
+        @AfterEach
+        void tearDown() {
+                client.close();
+                wireMockServer.stop();
+        }
+
+        @Test
+        void createRuns_sendsBatchesAndKeepsRequestOrder() {
+                stubFor(post(urlEqualTo("/api/v1/workflow-runs/bulk"))
+                                .withHeader("X-Tenant-ID", equalTo("test-tenant"))
+                                .withRequestBody(matchingJsonPath("$[1]"))
+                                .willReturn(okJson("[{\"index\":0,\"runId\":\"run-1\",\"status\":\"RUNNING\"},"
+                                                + "{\"index\":1,\"error\":\"Workflow definition not found\"}]")));
+                stubFor(post(urlEqualTo("/api/v1/workflow-runs/bulk"))
+                                .withRequestBody(notMatching(".*\\},\\{.*"))
+                                .willReturn(okJson("[{\"index\":0,\"runId\":\"run-3\",\"status\":\"CREATED\"}]")));
+
+                List<CreateRunRequest> requests = List.of(
+                                new CreateRunRequest("orders", null, Map.of(), null, true),
+                                new CreateRunRequest("missing", null, Map.of(), null, true),
+                                new CreateRunRequest("orders", null, Map.of(), null, false));
+
+                List<CreateRunResult> results = client.createRuns(requests)
+                                .subscribe().withSubscriber(UniAssertSubscriber.create())
+                                .awaitItem()
+                                .getItem();
+
+                assertEquals(3, results.size());
+                assertEquals("run-1", results.get(0).runId());
+                assertFalse(results.get(1).isSuccess());
+                assertEquals(2, results.get(2).index());
+                assertEquals(RunStatus.CREATED, results.get(2).status());
+                verify(2, postRequestedFor(urlEqualTo("/api/v1/workflow-runs/bulk")));
+        }
+
+        @Test
+        void cancelMany_reportsEachRun() {
+                stubFor(post(urlEqualTo("/api/v1/workflow-runs/run-1/cancel"))
+                                .willReturn(aResponse().withStatus(204)));
+                stubFor(post(urlEqualTo("/api/v1/workflow-runs/run-2/cancel"))
+                                .willReturn(aResponse().withStatus(404).withBody("not found")));
+
+                List<RunOperationResult> results = client.cancelMany(List.of("run-1", "run-2"), "cleanup")
+                                .subscribe().withSubscriber(UniAssertSubscriber.create())
+                                .awaitItem()
+                                .getItem();
+
+                assertEquals(List.of("run-1", "run-2"), results.stream().map(RunOperationResult::runId).toList());
+                assertTrue(results.get(0).isSuccess());
+                assertFalse(results.get(1).isSuccess());
+                verify(postRequestedFor(urlEqualTo("/api/v1/workflow-runs/run-1/cancel"))
+                                .withRequestBody(equalToJson("{\"reason\":\"cleanup\"}")));
+        }
+
+        @Test
+        void watchRun_emitsChangesUntilTerminal() {
+                String url = "/api/v1/workflow-runs/run-1";
+                stubFor(get(urlEqualTo(url)).inScenario("run").whenScenarioStateIs(Scenario.STARTED)
+                                .willReturn(okJson(run("RUNNING"))).willSetStateTo("still-running"));
+                stubFor(get(urlEqualTo(url)).inScenario("run").whenScenarioStateIs("still-running")
+                                .willReturn(okJson(run("RUNNING"))).willSetStateTo("done"));
+                stubFor(get(urlEqualTo(url)).inScenario("run").whenScenarioStateIs("done")
+                                .willReturn(okJson(run("COMPLETED"))));
+
+                List<RunStatusUpdate> updates = client.watchRun("run-1")
+                                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE))
+                                .awaitCompletion(Duration.ofSeconds(5))
+                                .getItems();
+
+                assertEquals(List.of("RUNNING", "COMPLETED"), updates.stream().map(RunStatusUpdate::status).toList());
+                assertNull(updates.get(0).previousStatus());
+                assertEquals("RUNNING", updates.get(1).previousStatus());
+                assertEquals("orders", updates.get(1).workflowId());
+                assertTrue(updates.get(1).isTerminal());
+        }
+
+        @Test
+        void getRun_coalescesConcurrentLookups() {
+                stubFor(get(urlEqualTo("/api/v1/workflow-runs/run-1"))
+                                .willReturn(okJson(run("RUNNING")).withFixedDelay(200)));
+
+                List<RunResponse> runs = Uni.join().all(client.getRun("run-1"), client.getRun("run-1"))
+                                .andFailFast()
+                                .subscribe().withSubscriber(UniAssertSubscriber.create())
+                                .awaitItem()
+                                .getItem();
+
+                assertEquals("RUNNING", runs.get(0).getStatus());
+                assertEquals("run-1", runs.get(1).getRunId());
+                verify(1, getRequestedFor(urlEqualTo("/api/v1/workflow-runs/run-1")));
+        }
+
+        @Test
+        void createAndAwait_longPollsUntilFinished() {
+                stubFor(post(urlPathEqualTo("/api/v1/workflow-runs"))
+                                .withQueryParam("wait", equalTo("5000ms"))
+                                .willReturn(aResponse().withStatus(202)
+                                                .withHeader("Content-Type", "application/json")
+                                                .withBody(run("RUNNING"))));
+                stubFor(get(urlPathEqualTo("/api/v1/workflow-runs/run-1/result"))
+                                .withQueryParam("timeout", matching("\\d+ms"))
+                                .willReturn(okJson(run("COMPLETED"))));
+
+                RunResponse run = client.createAndAwait(
+                                new CreateRunRequest("orders", null, Map.of(), null, true), Duration.ofSeconds(5))
+                                .subscribe().withSubscriber(UniAssertSubscriber.create())
+                                .awaitItem()
+                                .getItem();
+
+                assertEquals("COMPLETED", run.getStatus());
+                verify(1, getRequestedFor(urlPathEqualTo("/api/v1/workflow-runs/run-1/result")));
+                verify(0, getRequestedFor(urlEqualTo("/api/v1/workflow-runs/run-1")));
+        }
+
+        private static String run(String status) {
+                return "{\"id\":{\"value\":\"run-1\"},\"definitionId\":{\"value\":\"orders\"},\"status\":\""
+                                + status + "\"}";
+        }
+}
@@ -3,6 +3,7 @@ package tech.kayys.silat.sdk.executor;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
@@ -249,7 +250,7 @@ public class GrpcExecutorTransport implements ExecutorTransport {
                             nodeId,
                             attempt,
                             token,
-                            mapper.structToMap(protoTask.getContext()),
+                            mapper.payloadOrStruct(protoTask.getContextBin(), protoTask.getContext()),
                             null // retryPolicy not provided in proto
                     );
                 });
@@ -264,15 +265,21 @@ public class GrpcExecutorTransport implements ExecutorTransport {
 
     @Override
     public Uni<Void> sendResult(NodeExecutionResult result) {
-        TaskResult protoResult = TaskResult.newBuilder()
+        Map<String, Object> output = result.getUpdatedContext().getVariables();
+        TaskResult.Builder builder = TaskResult.newBuilder()
                 .setTaskId(result.getNodeId())
                 .setRunId(result.runId().value())
                 .setNodeId(result.getNodeId())
                 .setAttempt(result.attempt())
                 .setExecutionToken(result.executionToken().token())
-                .setStatus(tech.kayys.silat.grpc.v1.TaskStatus.valueOf("TASK_STATUS_" + result.status().name()))
-                .setOutput(mapper.mapToStruct(result.getUpdatedContext().getVariables()))
-                .build();
+                .setStatus(tech.kayys.silat.grpc.v1.TaskStatus.valueOf("TASK_STATUS_" + result.status().name()));
+        // Large outputs go in the binary field
+        if (mapper.isLargePayload(output)) {
+            builder.setOutputBin(mapper.toPayload(output));
+        } else {
+            builder.setOutput(mapper.mapToStruct(output));
+        }
+        TaskResult protoResult = builder.build();
 
         return stub.reportResults(Multi.createFrom().item(protoResult))
                 .onItem().invoke(() -> LOG.debug("Result sent successfully for task: {}", result.getNodeId()))
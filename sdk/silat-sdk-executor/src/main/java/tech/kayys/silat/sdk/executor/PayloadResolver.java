@@ -0,0 +1,87 @@
+package tech.kayys.silat.sdk.executor;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import tech.kayys.silat.payload.FileSystemPayloadStore;
+import tech.kayys.silat.payload.PayloadOffloader;
+import tech.kayys.silat.payload.PayloadRef;
+import tech.kayys.silat.payload.PayloadStore;
+
+/**
+ * Reads the large values the engine passes by reference
+ *
+ * Task context variables above the engine's offload threshold arrive as
+ * {@link PayloadRef}s. An executor resolves the ones it needs, when it
+ * needs them, straight from the payload store the engine writes to: a
+ * {@link PayloadStore} bean if the application provides one, otherwise
+ * the shared location in {@code silat.payloads.location}.
+ *
+ * <pre>
+ * payloads.resolve(task.context().get("document"), Map.class)
+ * </pre>
+ *
+ * Large outputs can be offloaded the same way before they are returned.
+ */
+@ApplicationScoped
+public class PayloadResolver {
+
+    @ConfigProperty(name = "silat.payloads.location")
+    Optional<String> location;
+
+    @ConfigProperty(name = "silat.payloads.threshold", defaultValue = "262144")
+    int threshold;
+
+    @Inject
+    Instance<PayloadStore> stores;
+
+    @Inject
+    Instance<ObjectMapper> objectMappers;
+
+    private PayloadOffloader offloader;
+
+    @PostConstruct
+    void init() {
+        PayloadStore store = stores.isResolvable() ? stores.get()
+                : location.map(FileSystemPayloadStore::at).orElse(null);
+        if (store != null) {
+            offloader = new PayloadOffloader(store,
+                    objectMappers.isResolvable() ? objectMappers.get() : new ObjectMapper(), threshold);
+        }
+    }
+
+    /**
+     * The variable's value, fetched from the store if it is a reference
+     */
+    public Uni<Object> resolve(Object value) {
+        return resolve(value, Object.class);
+    }
+
+    public <T> Uni<T> resolve(Object value, Class<T> type) {
+        if (offloader == null) {
+            if (PayloadRef.from(value).isPresent()) {
+                return Uni.createFrom().failure(new IllegalStateException(
+                        "Received a payload reference but no payload store is configured (silat.payloads.location)"));
+            }
+            return Uni.createFrom().item(type.cast(value));
+        }
+        return offloader.resolve(value, type);
+    }
+
+    /**
+     * The outputs with large values replaced by references, for executors
+     * that share the store with the engine
+     */
+    public Uni<Map<String, Object>> offload(Map<String, Object> outputs) {
+        return offloader != null ? offloader.offload(outputs) : Uni.createFrom().item(outputs);
+    }
+}